@@ -0,0 +1,105 @@
+package com.monitoring.monitoring_service.benchmark;
+
+import com.monitoring.monitoring_service.config.AlarmConfig;
+import com.monitoring.monitoring_service.model.Metric;
+import com.monitoring.monitoring_service.rules.RuleDefinition;
+import com.monitoring.monitoring_service.rules.RuleEngine;
+import com.monitoring.monitoring_service.rules.RuleMatchHandler;
+import com.monitoring.monitoring_service.storage.SeriesRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluating one sample against the alert rules, the per-sample work of the alarm
+ * evaluation that replaced the CPU/MEMORY/REQUESTS threshold checks.
+ *
+ * Every invocation evaluates the next of {@code seriesCount} CPU, MEMORY and REQUESTS
+ * series in turn. Before measuring, each series is fed {@code historySize} samples one
+ * second apart, so windowed rules start with full windows.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuleEvaluationBenchmark {
+
+    private static final long START_MS = 1_700_000_000_000L;
+    private static final String[] METRICS = {Metric.CPU, Metric.MEMORY, Metric.REQUESTS};
+
+    @Param({"100", "10000"})
+    public int seriesCount;
+
+    @Param({"0", "600"})
+    public int historySize;
+
+    /**
+     * thresholds: the six default threshold rules; windowed: adds a 5m average and a 1m rate rule
+     */
+    @Param({"thresholds", "windowed"})
+    public String rules;
+
+    private RuleEngine ruleEngine;
+    private int[] seriesIds;
+    private double[] values;
+    private int next;
+    private long timestampMs;
+
+    @Setup
+    public void setUp() {
+        AlarmConfig alarmConfig = new AlarmConfig();
+        if (rules.equals("windowed")) {
+            alarmConfig.setRules(List.of(
+                    new RuleDefinition("cpu-critical", "CPU", "value >= 90", null, "CRITICAL", Map.of()),
+                    new RuleDefinition("cpu-sustained", "CPU", "avg(5m) > 80", "1m", "WARNING", Map.of()),
+                    new RuleDefinition("requests-surge", "REQUESTS", "rate(1m) > 100", null, "WARNING", Map.of())));
+        }
+        SeriesRegistry seriesRegistry = new SeriesRegistry();
+        ruleEngine = new RuleEngine(alarmConfig, seriesRegistry);
+        ruleEngine.load();
+
+        seriesIds = new int[seriesCount];
+        values = new double[seriesCount];
+        for (int i = 0; i < seriesCount; i++) {
+            seriesIds[i] = seriesRegistry.seriesId("service-" + i / METRICS.length, METRICS[i % METRICS.length]);
+            values[i] = i % 100;
+        }
+
+        RuleMatchHandler ignore = (rule, value) -> { };
+        timestampMs = START_MS;
+        for (int h = 0; h < historySize; h++) {
+            for (int i = 0; i < seriesCount; i++) {
+                ruleEngine.evaluate(seriesIds[i], timestampMs, values[i], ignore);
+            }
+            timestampMs += 1000;
+        }
+    }
+
+    @Benchmark
+    public void evaluateSample(Blackhole bh) {
+        int i = next;
+        ruleEngine.evaluate(seriesIds[i], timestampMs, values[i], (rule, value) -> bh.consume(rule));
+        if (++next == seriesCount) {
+            next = 0;
+            timestampMs += 1000;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.monitoring.monitoring_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monitoring.monitoring_service.ingest.JsonMetricsParser;
+import com.monitoring.monitoring_service.ingest.ParseStats;
+import com.monitoring.monitoring_service.ingest.PrometheusTextParser;
+import com.monitoring.monitoring_service.ingest.ScrapeDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding one scrape response of {@code fields} values, as JSON and as Prometheus text,
+ * against the map-based Jackson binding the collector used before.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScrapeParsingBenchmark {
+
+    @Param({"3", "100", "1000"})
+    public int fields;
+
+    private final ScrapeDecoder decoder = new ScrapeDecoder(new JsonMetricsParser(), new PrometheusTextParser());
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] json;
+    private byte[] prometheus;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder jsonBody = new StringBuilder("{");
+        StringBuilder textBody = new StringBuilder();
+        for (int i = 0; i < fields; i++) {
+            String name = i < 3 ? new String[]{"cpu", "memory", "requests"}[i] : "metric_" + i;
+            // Mix integers, longs and decimals as real endpoints do
+            String value = switch (i % 3) {
+                case 0 -> Integer.toString(random.nextInt(100));
+                case 1 -> Long.toString(5_000_000_000L + random.nextInt(1000));
+                default -> Double.toString(random.nextDouble() * 1000);
+            };
+            jsonBody.append(i == 0 ? "" : ",").append('"').append(name).append("\":").append(value);
+            textBody.append(name).append("{instance=\"a\"} ").append(value).append('\n');
+        }
+        json = jsonBody.append('}').toString().getBytes(StandardCharsets.UTF_8);
+        prometheus = textBody.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public ParseStats jsonStreaming(Blackhole bh) throws IOException {
+        return decoder.decode(json, "orders", 0L, (service, metric, timestampMs, value) -> bh.consume(value));
+    }
+
+    @Benchmark
+    public ParseStats prometheusText(Blackhole bh) throws IOException {
+        return decoder.decode(prometheus, "orders", 0L, (service, metric, timestampMs, value) -> bh.consume(value));
+    }
+
+    @Benchmark
+    public Map<?, ?> jacksonMap() throws IOException {
+        return objectMapper.readValue(json, Map.class);
+    }
+}
@@ -0,0 +1,169 @@
+package com.monitoring.monitoring_service.benchmark;
+
+import com.monitoring.monitoring_service.MonitoringServiceApplication;
+import com.monitoring.monitoring_service.model.Metric;
+import com.monitoring.monitoring_service.query.RangeQueryEngine;
+import com.monitoring.monitoring_service.repository.MetricRepository;
+import com.monitoring.monitoring_service.service.MetricIngestionService;
+import com.monitoring.monitoring_service.service.MetricService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database and storage paths of the running service against the in-memory H2 database:
+ * streaming all stored metrics as DTOs, the write-behind batch insert and a
+ * range query over the sample stores.
+ *
+ * The application context is started once per fork with {@code seriesCount} services,
+ * each with {@code historySize} stored metrics ten seconds apart ending now, and the same
+ * history of CPU, MEMORY and REQUESTS samples. Scraping itself is switched off.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageBenchmark {
+
+    private static final long INTERVAL_MS = 10_000;
+    private static final int INSERT_CHUNK = 1000;
+
+    @Param({"10", "100"})
+    public int seriesCount;
+
+    @Param({"100", "1000"})
+    public int historySize;
+
+    private ConfigurableApplicationContext context;
+    private Path chunkDir;
+    private MetricService metricService;
+    private MetricRepository metricRepository;
+    private TransactionTemplate transactionTemplate;
+    private RangeQueryEngine rangeQueryEngine;
+    private long fromMs;
+    private long toMs;
+
+    @Setup
+    public void setUp() throws IOException {
+        chunkDir = Files.createTempDirectory("benchmark-chunks");
+        // Passed as arguments so they override application.properties
+        context = new SpringApplicationBuilder(MonitoringServiceApplication.class).run(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.monitoring=WARN",
+                "--monitoring.scrape.includeSelf=false",
+                "--monitoring.metricsCollectIntervalMs=3600000",
+                "--monitoring.retention.enabled=false",
+                "--monitoring.storage.chunkDir=" + chunkDir,
+                "--alarm.notifiers=console",
+                // one rule for a series that is never written, so loading the history raises no alarms
+                "--alarm.rules[0].name=none",
+                "--alarm.rules[0].selector=NONE",
+                "--alarm.rules[0].expr=value > 0",
+                "--alarm.rules[0].severity=INFO");
+        metricService = context.getBean(MetricService.class);
+        metricRepository = context.getBean(MetricRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        rangeQueryEngine = context.getBean(RangeQueryEngine.class);
+        MetricIngestionService ingestionService = context.getBean(MetricIngestionService.class);
+
+        toMs = System.currentTimeMillis();
+        fromMs = toMs - (historySize - 1) * INTERVAL_MS;
+        List<Metric> rows = new ArrayList<>(INSERT_CHUNK);
+        for (int h = 0; h < historySize; h++) {
+            long timestampMs = fromMs + h * INTERVAL_MS;
+            for (int s = 0; s < seriesCount; s++) {
+                Metric metric = metric("service-" + s, timestampMs, h + s);
+                ingestionService.ingestSample(metric.getServiceName(), Metric.CPU, timestampMs, metric.getCpu());
+                ingestionService.ingestSample(metric.getServiceName(), Metric.MEMORY, timestampMs, metric.getMemory());
+                ingestionService.ingestSample(metric.getServiceName(), Metric.REQUESTS, timestampMs, metric.getRequests());
+                rows.add(metric);
+                if (rows.size() == INSERT_CHUNK) {
+                    save(rows);
+                    rows.clear();
+                }
+            }
+        }
+        save(rows);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        try (var files = Files.walk(chunkDir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Every stored metric as NDJSON DTOs; {@code findPage} is not measured because it is served from the query cache.
+     */
+    @Benchmark
+    public long streamAllMetrics() throws IOException {
+        return metricService.streamMetrics(null, null, null, null, OutputStream.nullOutputStream());
+    }
+
+    /**
+     * One scrape cycle's worth of rows, one per series, written as the write-behind flusher does.
+     */
+    @Benchmark
+    public List<Metric> saveAllBatch() {
+        long now = System.currentTimeMillis();
+        List<Metric> batch = new ArrayList<>(seriesCount);
+        for (int s = 0; s < seriesCount; s++) {
+            batch.add(metric("service-" + s, now, s));
+        }
+        save(batch);
+        return batch;
+    }
+
+    @Benchmark
+    public long rangeQueryMaxByService() throws IOException {
+        RangeQueryEngine.Plan plan = rangeQueryEngine.plan("max by (service) (max_over_time(CPU))", fromMs, toMs, 60_000);
+        return rangeQueryEngine.execute(plan, OutputStream.nullOutputStream());
+    }
+
+    private void save(List<Metric> rows) {
+        transactionTemplate.executeWithoutResult(status -> metricRepository.saveAll(rows));
+    }
+
+    private static Metric metric(String service, long timestampMs, int seed) {
+        Metric metric = new Metric();
+        metric.setServiceName(service);
+        metric.setCpu(seed % 100);
+        metric.setMemory((seed * 7) % 100);
+        metric.setRequests((seed * 13) % 1000);
+        metric.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMs), ZoneId.systemDefault()));
+        return metric;
+    }
+}
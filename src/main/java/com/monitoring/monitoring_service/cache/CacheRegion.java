@@ -0,0 +1,12 @@
+package com.monitoring.monitoring_service.cache;
+
+/**
+ * The tables whose reads are cached by the {@link QueryCache}. A write to a table
+ * invalidates the cached results of its region only.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+public enum CacheRegion {
+    METRICS, ALARMS
+}
@@ -0,0 +1,221 @@
+package com.monitoring.monitoring_service.cache;
+
+import com.monitoring.monitoring_service.config.QueryConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * QueryCache holds the results of read endpoints that dashboards poll with the same
+ * parameters, so only the first of many identical requests reaches the database.
+ *
+ * <ul>
+ * <li>Results are kept in an LRU map bounded to {@code cacheMaxEntries}.</li>
+ * <li>Every result remembers the time window it was read for. A write invalidates
+ *     only the results of its region whose window contains the written timestamps,
+ *     so a query over a completed historical window stays cached while queries
+ *     reaching into the present are refreshed on the next write.</li>
+ * <li>Concurrent misses for the same key are coalesced: the first request runs the
+ *     query and the others wait for its result. A result whose window was written to
+ *     while it was being read is returned to the waiting requests but not cached.</li>
+ * </ul>
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@Component
+public class QueryCache {
+
+    private static final long UNBOUNDED_FROM = Long.MIN_VALUE;
+    private static final long UNBOUNDED_TO = Long.MAX_VALUE;
+
+    private final QueryConfig config;
+    private final Map<Key, Entry> entries;
+    private final ConcurrentHashMap<Key, Load> loads = new ConcurrentHashMap<>();
+    private final Map<CacheRegion, Meters> meters = new EnumMap<>(CacheRegion.class);
+
+    public QueryCache(QueryConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() <= config.getCacheMaxEntries()) {
+                    return false;
+                }
+                meters.get(eldest.getKey().region()).evictions.increment();
+                return true;
+            }
+        };
+        for (CacheRegion region : CacheRegion.values()) {
+            meters.put(region, new Meters(meterRegistry, region));
+        }
+        meterRegistry.gauge("monitoring.query.cache.entries", this, QueryCache::size);
+    }
+
+    /**
+     * Returns the cached result of the query or runs {@code loader} once for all
+     * concurrent callers asking for the same key.
+     *
+     * @param region    table the query reads
+     * @param operation name of the query, part of the key
+     * @param from      start of the time window the query reads, or null if unbounded
+     * @param to        end of the time window the query reads, or null if unbounded
+     * @param loader    runs the query; its result must not be modified afterwards
+     * @param params    the remaining query parameters, part of the key; need equals/hashCode
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(CacheRegion region, String operation, LocalDateTime from, LocalDateTime to,
+                     Supplier<T> loader, Object... params) {
+        if (!config.isCacheEnabled()) {
+            return loader.get();
+        }
+        Meters regionMeters = meters.get(region);
+        Key key = new Key(region, operation, Arrays.asList(params), from, to);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            regionMeters.hits.increment();
+            return (T) entry.value();
+        }
+
+        Load load = new Load(toMillis(from, UNBOUNDED_FROM), toMillis(to, UNBOUNDED_TO));
+        Load running = loads.putIfAbsent(key, load);
+        if (running != null) {
+            regionMeters.coalesced.increment();
+            return (T) await(running);
+        }
+        regionMeters.misses.increment();
+        try {
+            Object value = loader.get();
+            synchronized (entries) {
+                if (!load.stale) {
+                    entries.put(key, new Entry(value, load.fromMs, load.toMs));
+                }
+            }
+            load.future.complete(value);
+            return (T) value;
+        } catch (RuntimeException | Error e) {
+            load.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    /**
+     * Drops the cached results of the region whose window overlaps {@code [from, to]},
+     * the range of timestamps just written or deleted. Null bounds are unbounded.
+     */
+    public void invalidate(CacheRegion region, LocalDateTime from, LocalDateTime to) {
+        long fromMs = toMillis(from, UNBOUNDED_FROM);
+        long toMs = toMillis(to, UNBOUNDED_TO);
+        int removed = 0;
+        synchronized (entries) {
+            // Marked under the same lock the loader stores under, so a result cannot slip in after the write
+            for (Map.Entry<Key, Load> load : loads.entrySet()) {
+                if (load.getKey().region() == region && load.getValue().overlaps(fromMs, toMs)) {
+                    load.getValue().stale = true;
+                }
+            }
+            Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Key, Entry> cached = it.next();
+                if (cached.getKey().region() == region && cached.getValue().overlaps(fromMs, toMs)) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            meters.get(region).invalidations.increment(removed);
+            log.debug("Invalidated {} cached {} queries for writes between {} and {}", removed, region, from, to);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static Object await(Load load) {
+        try {
+            return load.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static long toMillis(LocalDateTime time, long unbounded) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : unbounded;
+    }
+
+    private record Key(CacheRegion region, String operation, List<Object> params, LocalDateTime from, LocalDateTime to) {
+    }
+
+    private record Entry(Object value, long fromMs, long toMs) {
+
+        boolean overlaps(long writeFromMs, long writeToMs) {
+            return fromMs <= writeToMs && writeFromMs <= toMs;
+        }
+    }
+
+    /**
+     * A query being run; requests for the same key wait on its future.
+     */
+    private static final class Load {
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private final long fromMs;
+        private final long toMs;
+        private volatile boolean stale;
+
+        Load(long fromMs, long toMs) {
+            this.fromMs = fromMs;
+            this.toMs = toMs;
+        }
+
+        boolean overlaps(long writeFromMs, long writeToMs) {
+            return fromMs <= writeToMs && writeFromMs <= toMs;
+        }
+    }
+
+    private static final class Meters {
+        private final Counter hits;
+        private final Counter misses;
+        private final Counter coalesced;
+        private final Counter evictions;
+        private final Counter invalidations;
+
+        Meters(MeterRegistry meterRegistry, CacheRegion region) {
+            String name = region.name().toLowerCase();
+            this.hits = meterRegistry.counter("monitoring.query.cache.requests", "region", name, "outcome", "hit");
+            this.misses = meterRegistry.counter("monitoring.query.cache.requests", "region", name, "outcome", "miss");
+            this.coalesced = meterRegistry.counter("monitoring.query.cache.requests", "region", name, "outcome", "coalesced");
+            this.evictions = meterRegistry.counter("monitoring.query.cache.evictions", "region", name);
+            this.invalidations = meterRegistry.counter("monitoring.query.cache.invalidations", "region", name);
+        }
+    }
+}
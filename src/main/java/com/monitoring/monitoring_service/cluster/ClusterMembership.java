@@ -0,0 +1,149 @@
+package com.monitoring.monitoring_service.cluster;
+
+import com.monitoring.monitoring_service.config.ClusterConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ClusterMembership decides which instance of the cluster owns a scrape target.
+ *
+ * The instances are listed statically in {@code monitoring.cluster.peers} and placed on
+ * a {@link HashRing}; a target belongs to the instance the ring maps its name to. Every
+ * instance builds the same ring from the same list, so they agree on the owners without
+ * talking to each other. With health checks on, instances that stop answering are taken
+ * off the ring until they answer again, and only their targets move to the others.
+ * Samples already stored stay where they are, so for a while a moved target has series
+ * on two instances (see {@link com.monitoring.monitoring_service.query.RangeQueryEngine}).
+ *
+ * When cluster mode is off, this instance owns every target.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@Component
+public class ClusterMembership {
+
+    private final ClusterConfig config;
+    private final PeerClient peerClient;
+    private final AtomicInteger liveMembers = new AtomicInteger(1);
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    private String self;
+    private List<String> members = List.of();
+    private volatile HashRing ring;
+    private ScheduledExecutorService healthChecker;
+
+    public ClusterMembership(ClusterConfig config, PeerClient peerClient, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.peerClient = peerClient;
+        meterRegistry.gauge("monitoring.cluster.members.live", liveMembers);
+    }
+
+    @PostConstruct
+    public void start() {
+        self = config.getSelf() != null && !config.getSelf().isBlank() ? config.getSelf().trim() : "localhost:" + serverPort;
+        TreeSet<String> all = new TreeSet<>();
+        config.getPeers().stream().map(String::trim).filter(peer -> !peer.isEmpty()).forEach(all::add);
+        all.add(self);
+        members = List.copyOf(all);
+        ring = new HashRing(members, config.getVirtualNodes());
+        liveMembers.set(members.size());
+        if (!config.isEnabled()) {
+            return;
+        }
+        log.info("Cluster mode enabled self={} members={} virtualNodes={}", self, members, config.getVirtualNodes());
+
+        if (config.getHealthCheckIntervalMs() > 0 && members.size() > 1) {
+            healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "cluster-health");
+                t.setDaemon(true);
+                return t;
+            });
+            healthChecker.scheduleWithFixedDelay(this::checkPeersSafely, config.getHealthCheckIntervalMs(),
+                    config.getHealthCheckIntervalMs(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * @return whether this instance is responsible for the key (e.g. a scrape target name)
+     */
+    public boolean owns(String key) {
+        return !config.isEnabled() || self.equals(ring.owner(key));
+    }
+
+    /**
+     * @return the live instances other than this one
+     */
+    public List<String> peers() {
+        if (!config.isEnabled()) {
+            return List.of();
+        }
+        List<String> peers = new ArrayList<>(ring.getNodes());
+        peers.remove(self);
+        return peers;
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    /**
+     * Health-checks every other configured instance in parallel and rebuilds the ring
+     * when the set of live instances changed.
+     */
+    void checkPeers() {
+        List<CompletableFuture<Boolean>> checks = new ArrayList<>(members.size());
+        for (String member : members) {
+            checks.add(member.equals(self)
+                    ? CompletableFuture.completedFuture(true)
+                    : CompletableFuture.supplyAsync(() -> peerClient.isHealthy(member)));
+        }
+        List<String> live = new ArrayList<>(members.size());
+        for (int i = 0; i < members.size(); i++) {
+            if (checks.get(i).join()) {
+                live.add(members.get(i));
+            }
+        }
+        if (!live.equals(ring.getNodes())) {
+            log.warn("Cluster membership changed live={} down={}", live,
+                    members.stream().filter(member -> !live.contains(member)).toList());
+            ring = new HashRing(live, config.getVirtualNodes());
+            liveMembers.set(live.size());
+        }
+    }
+
+    private void checkPeersSafely() {
+        try {
+            checkPeers();
+        } catch (Exception e) {
+            log.error("Cluster health check failed", e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.monitoring.monitoring_service.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * HashRing assigns keys to nodes with consistent hashing.
+ *
+ * Every node is placed on a 64-bit ring at {@code virtualNodes} pseudo-random points
+ * and a key belongs to the node of the first point at or after the hash of the key.
+ * When a node joins or leaves, only the keys between its points and their
+ * predecessors move, about 1/N of all keys, and every other key keeps its owner.
+ * The ring is immutable; membership changes build a new one.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+public final class HashRing {
+
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+    private final List<String> nodes;
+
+    public HashRing(Collection<String> nodes, int virtualNodes) {
+        this.nodes = List.copyOf(nodes);
+        for (String node : this.nodes) {
+            for (int i = 0; i < Math.max(1, virtualNodes); i++) {
+                points.put(hash(node + '#' + i), node);
+            }
+        }
+    }
+
+    /**
+     * @return the node owning the key, or null if the ring is empty
+     */
+    public String owner(String key) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(key));
+        return (point != null ? point : points.firstEntry()).getValue();
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, followed by the MurmurHash3 finalizer so that
+     * similar strings (target-1, target-2) land far apart on the ring.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,151 @@
+package com.monitoring.monitoring_service.cluster;
+
+import com.monitoring.monitoring_service.config.ClusterConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PeerClient calls the other instances of the cluster over their HTTP API,
+ * authenticating with the configured Basic Auth credentials.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@Component
+public class PeerClient {
+
+    private final ClusterConfig config;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+    private final String authorization;
+    private final Counter healthFailures;
+    private final Counter queryFailures;
+
+    public PeerClient(ClusterConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "cluster-peer-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(config.getPeerTimeoutMs()))
+                .executor(executor)
+                .build();
+        this.authorization = config.getUsername() != null && !config.getUsername().isBlank()
+                ? "Basic " + Base64.getEncoder().encodeToString(
+                        (config.getUsername() + ":" + config.getPassword()).getBytes(StandardCharsets.UTF_8))
+                : null;
+        this.healthFailures = meterRegistry.counter("monitoring.cluster.peer.failures", "operation", "health");
+        this.queryFailures = meterRegistry.counter("monitoring.cluster.peer.failures", "operation", "query");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return whether the peer answered its health endpoint with 2xx in time
+     */
+    public boolean isHealthy(String node) {
+        try {
+            HttpResponse<Void> response = httpClient.send(request(node, "/health").build(),
+                    HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 == 2) {
+                return true;
+            }
+            log.debug("Peer health check failed node={} status={}", node, response.statusCode());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.debug("Peer health check failed node={}: {}", node, e.toString());
+        }
+        healthFailures.increment();
+        return false;
+    }
+
+    /**
+     * Sends the range query to every peer at once, asking for the partial result of its
+     * local series, and waits for each to start answering. Peers that fail or time out
+     * are left out of the result and logged.
+     *
+     * @return the NDJSON bodies of the peers that answered; the caller closes them
+     */
+    public List<InputStream> rangeQueryAll(List<String> nodes, String query, LocalDateTime from, LocalDateTime to,
+                                           long stepMs) {
+        String path = "/query/range?local=true"
+                + "&query=" + URLEncoder.encode(query, StandardCharsets.UTF_8)
+                + "&from=" + from
+                + "&to=" + to
+                + "&stepMs=" + stepMs;
+        List<CompletableFuture<HttpResponse<InputStream>>> responses = new ArrayList<>(nodes.size());
+        for (String node : nodes) {
+            HttpRequest request = request(node, path).timeout(Duration.ofMillis(config.getPeerQueryTimeoutMs())).build();
+            responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream()));
+        }
+
+        List<InputStream> bodies = new ArrayList<>(nodes.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getPeerQueryTimeoutMs());
+        for (int i = 0; i < nodes.size(); i++) {
+            try {
+                HttpResponse<InputStream> response = responses.get(i)
+                        .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (response.statusCode() / 100 == 2) {
+                    bodies.add(response.body());
+                    continue;
+                }
+                response.body().close();
+                log.warn("Peer range query failed node={} status={}", nodes.get(i), response.statusCode());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (TimeoutException e) {
+                responses.get(i).cancel(true);
+                log.warn("Peer range query timed out node={} after {}ms", nodes.get(i), config.getPeerQueryTimeoutMs());
+            } catch (ExecutionException | IOException e) {
+                log.warn("Peer range query failed node={}: {}", nodes.get(i), e.getCause() != null ? e.getCause() : e);
+            }
+            queryFailures.increment();
+        }
+        return bodies;
+    }
+
+    private HttpRequest.Builder request(String node, String path) {
+        String base = node.startsWith("http://") || node.startsWith("https://") ? node : "http://" + node;
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path))
+                .timeout(Duration.ofMillis(config.getPeerTimeoutMs()))
+                .GET();
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        return request;
+    }
+}
@@ -1,10 +1,14 @@
 package com.monitoring.monitoring_service.config;
 
+import com.monitoring.monitoring_service.rules.RuleDefinition;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * AlarmConfig binds alarm-related properties from application.properties.
  *
@@ -18,22 +22,32 @@ import org.springframework.context.annotation.Configuration;
 public class AlarmConfig {
 
     /**
-     * Thresholds for metrics
+     * Alert rules (alarm.rules[n].name/selector/expr/severity/labels.*)
+     */
+    private List<RuleDefinition> rules = new ArrayList<>();
+
+    /**
+     * Legacy thresholds for metrics, only used to build the default rules when no rules are configured
      */
-    private int cpuThresholdWarning;
-    private int cpuThresholdCritical;
+    private int cpuThresholdWarning = 70;
+    private int cpuThresholdCritical = 90;
 
-    private int memoryThresholdWarning;
-    private int memoryThresholdCritical;
+    private int memoryThresholdWarning = 75;
+    private int memoryThresholdCritical = 95;
 
-    private int requestsThresholdWarning;
-    private int requestsThresholdCritical;
+    private int requestsThresholdWarning = 500;
+    private int requestsThresholdCritical = 900;
 
     /**
      * Alarm cooldown in seconds (to avoid spam)
      */
     private int cooldownSeconds;
 
+    /**
+     * Rule and anomaly alarms waiting to be stored and dispatched; further ones are dropped
+     */
+    private int publishQueueCapacity = 1000;
+
     /**
      * Comma-separated list of notifiers (e.g., email,sms,console)
      */
@@ -0,0 +1,79 @@
+package com.monitoring.monitoring_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AnomalyConfig binds the streaming anomaly detection properties
+ * (prefix {@code monitoring.anomaly}) from application.properties.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Configuration
+@ConfigurationProperties(prefix = "monitoring.anomaly")
+@Getter
+@Setter
+public class AnomalyConfig {
+
+    /**
+     * Whether ingested samples are checked for anomalies
+     */
+    private boolean enabled = false;
+
+    /**
+     * Series selectors (as in alert rules, e.g. CPU{service=~"orders-.*"}); empty checks every series
+     */
+    private List<String> selectors = new ArrayList<>();
+
+    /**
+     * Weight of the newest sample in the moving mean and variance (0..1)
+     */
+    private double alpha = 0.05;
+
+    /**
+     * Samples a series must have seen before it can raise an anomaly
+     */
+    private int warmupSamples = 30;
+
+    /**
+     * Absolute z-score raising a WARNING anomaly...
+     */
+    private double warningZ = 4.0;
+
+    /**
+     * ...and a CRITICAL one
+     */
+    private double criticalZ = 6.0;
+
+    /**
+     * Lower bound of the standard deviation as a fraction of the expected value,
+     * so near-constant series do not alarm on tiny changes
+     */
+    private double minRelativeStdDev = 0.01;
+
+    /**
+     * Whether a seasonal baseline (level plus one offset per slot of the period) is learned
+     */
+    private boolean seasonalEnabled = false;
+
+    /**
+     * Length of the season, in milliseconds
+     */
+    private long seasonPeriodMs = 86400000;
+
+    /**
+     * Number of slots the season is divided into
+     */
+    private int seasonSlots = 24;
+
+    /**
+     * Weight of the newest sample in the seasonal offset of its slot (0..1)
+     */
+    private double seasonGamma = 0.1;
+}
@@ -0,0 +1,65 @@
+package com.monitoring.monitoring_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ClusterConfig binds the properties of cluster mode
+ * (prefix {@code monitoring.cluster}) from application.properties.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Configuration
+@ConfigurationProperties(prefix = "monitoring.cluster")
+@Getter
+@Setter
+public class ClusterConfig {
+
+    /**
+     * Whether scrape targets are split among the instances listed in peers
+     */
+    private boolean enabled = false;
+
+    /**
+     * host:port the other instances reach this one at; blank uses localhost and server.port
+     */
+    private String self;
+
+    /**
+     * host:port of every instance of the cluster; this instance is added if missing
+     */
+    private List<String> peers = new ArrayList<>();
+
+    /**
+     * Points per instance on the hash ring; more points spread targets more evenly
+     */
+    private int virtualNodes = 128;
+
+    /**
+     * Interval of the peer health checks in milliseconds; 0 keeps every configured peer on the ring
+     */
+    private long healthCheckIntervalMs = 5000;
+
+    /**
+     * Time a peer has to accept a connection and answer a health check, in milliseconds
+     */
+    private long peerTimeoutMs = 2000;
+
+    /**
+     * Time a peer has to start answering a fanned-out query, in milliseconds; aggregations
+     * answer only once computed, so this should exceed monitoring.query.rangeTimeoutMs
+     */
+    private long peerQueryTimeoutMs = 65000;
+
+    /**
+     * Credentials sent to peers as HTTP Basic Auth
+     */
+    private String username;
+    private String password;
+}
@@ -0,0 +1,58 @@
+package com.monitoring.monitoring_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * DispatchConfig binds the asynchronous notifier dispatch properties
+ * (prefix {@code alarm.dispatch}) from application.properties.
+ * Every value applies to each notifier channel separately.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Configuration
+@ConfigurationProperties(prefix = "alarm.dispatch")
+@Getter
+@Setter
+public class DispatchConfig {
+
+    /**
+     * What to do when a channel queue is full
+     */
+    public enum OverflowPolicy {
+        /** Reject the incoming alarm */
+        DROP_NEWEST,
+        /** Evict the oldest queued alarm to make room */
+        DROP_OLDEST
+    }
+
+    /**
+     * Alarms waiting per notifier channel
+     */
+    private int queueCapacity = 1000;
+
+    /**
+     * Worker threads per notifier channel
+     */
+    private int threadsPerNotifier = 1;
+
+    /**
+     * Retries after the first failed attempt
+     */
+    private int maxRetries = 3;
+
+    /**
+     * Delay before the first retry in milliseconds; doubled on each further retry
+     */
+    private long initialBackoffMs = 500;
+
+    /**
+     * Upper bound on the retry delay in milliseconds
+     */
+    private long maxBackoffMs = 30000;
+
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+}
@@ -0,0 +1,45 @@
+package com.monitoring.monitoring_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * IngestionConfig binds the write-behind ingestion properties
+ * (prefix {@code monitoring.ingest}) from application.properties.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Configuration
+@ConfigurationProperties(prefix = "monitoring.ingest")
+@Getter
+@Setter
+public class IngestionConfig {
+
+    /**
+     * Maximum number of metrics waiting to be written
+     */
+    private int bufferCapacity = 10000;
+
+    /**
+     * Rows written per JDBC batch; should match hibernate.jdbc.batch_size
+     */
+    private int batchSize = 500;
+
+    /**
+     * Maximum time a metric waits in the buffer before it is flushed, in milliseconds
+     */
+    private long flushIntervalMs = 1000;
+
+    /**
+     * How long a producer waits for buffer space before the metric is dropped, in milliseconds
+     */
+    private long offerTimeoutMs = 100;
+
+    /**
+     * Service of pushed samples that name none (no service/job label and no service parameter)
+     */
+    private String pushDefaultService = "push";
+}
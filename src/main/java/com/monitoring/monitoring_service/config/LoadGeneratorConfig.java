@@ -0,0 +1,108 @@
+package com.monitoring.monitoring_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * LoadGeneratorConfig binds the synthetic fleet load generator properties
+ * (prefix {@code monitoring.loadgen}) from application.properties.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Configuration
+@ConfigurationProperties(prefix = "monitoring.loadgen")
+@Getter
+@Setter
+public class LoadGeneratorConfig {
+
+    /**
+     * How the simulated samples reach the service
+     */
+    public enum Mode {
+        /** Samples are handed straight to the ingestion path */
+        PUSH,
+        /** Every simulated service is registered as a scrape target of this instance */
+        SCRAPE
+    }
+
+    /**
+     * Whether the simulated fleet is started
+     */
+    private boolean enabled = false;
+
+    private Mode mode = Mode.PUSH;
+
+    /**
+     * Number of simulated services
+     */
+    private int services = 100;
+
+    /**
+     * Series per service; the first three are cpu, memory and requests (minimum 3)
+     */
+    private int seriesPerService = 10;
+
+    /**
+     * Interval between two samples of a series in push mode, in milliseconds
+     * (in scrape mode the scrape interval applies)
+     */
+    private long sampleIntervalMs = 1000;
+
+    /**
+     * How long the generator runs before it stops and logs its final report; 0 runs until shutdown
+     */
+    private long durationMs = 0;
+
+    /**
+     * Interval between two progress reports in the log, in milliseconds
+     */
+    private long reportIntervalMs = 60000;
+
+    /**
+     * Length of one day of the traffic wave, in milliseconds (shorten it to compress a day)
+     */
+    private long diurnalPeriodMs = 86_400_000;
+
+    /**
+     * Relative amplitude of the traffic wave around each service's base load
+     */
+    private double diurnalAmplitude = 0.4;
+
+    /**
+     * Relative standard deviation of the noise on every sample
+     */
+    private double noise = 0.05;
+
+    /**
+     * Probability per service and sample interval that a short traffic spike starts
+     */
+    private double spikeProbability = 0.001;
+
+    /**
+     * Factor applied to the traffic of a service during a spike
+     */
+    private double spikeFactor = 2.5;
+
+    /**
+     * Services per zone; all services of a zone fail together during an incident
+     */
+    private int zoneSize = 10;
+
+    /**
+     * Probability per zone and sample interval that an incident starts
+     */
+    private double incidentProbability = 0.0002;
+
+    /**
+     * How long an incident lasts, in milliseconds
+     */
+    private long incidentDurationMs = 120000;
+
+    /**
+     * Seed of the simulated fleet, so runs with the same settings see the same services
+     */
+    private long seed = 42;
+}
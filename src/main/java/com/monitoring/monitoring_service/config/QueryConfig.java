@@ -0,0 +1,75 @@
+package com.monitoring.monitoring_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * QueryConfig binds the read-path properties
+ * (prefix {@code monitoring.query}) from application.properties.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Configuration
+@ConfigurationProperties(prefix = "monitoring.query")
+@Getter
+@Setter
+public class QueryConfig {
+
+    /**
+     * Metrics per /metrics/view page when no limit is given
+     */
+    private int viewDefaultLimit = 1000;
+
+    /**
+     * Upper bound for the limit of a /metrics/view page
+     */
+    private int viewMaxLimit = 10000;
+
+    /**
+     * Alarms per /alarms/cursor slice when no size is given
+     */
+    private int alarmSliceDefaultSize = 50;
+
+    /**
+     * Upper bound for the size of an /alarms/cursor slice
+     */
+    private int alarmSliceMaxSize = 1000;
+
+    /**
+     * Worker threads of the range query pool; 0 uses one per available core
+     */
+    private int rangeParallelism = 0;
+
+    /**
+     * Upper bound for the number of steps of a /query/range result
+     */
+    private int rangeMaxSteps = 11000;
+
+    /**
+     * Upper bound for the number of series a range query may select
+     */
+    private int rangeMaxSeries = 100000;
+
+    /**
+     * Time budget of one range query in milliseconds; the query is cancelled when it runs out
+     */
+    private long rangeTimeoutMs = 60000;
+
+    /**
+     * Computed series a range query may hold before the workers wait for the response writer
+     */
+    private int rangeStreamBuffer = 256;
+
+    /**
+     * Whether results of /metrics/view, /alarms/filter and /alarms/kpi are cached until a write invalidates them
+     */
+    private boolean cacheEnabled = true;
+
+    /**
+     * Upper bound for the number of cached query results; the least recently used are evicted
+     */
+    private int cacheMaxEntries = 1000;
+}
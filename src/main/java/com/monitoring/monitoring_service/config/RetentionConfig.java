@@ -0,0 +1,77 @@
+package com.monitoring.monitoring_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * RetentionConfig binds the data retention properties
+ * (prefix {@code monitoring.retention}) from application.properties.
+ *
+ * A maximum age of 0 keeps the data forever.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Configuration
+@ConfigurationProperties(prefix = "monitoring.retention")
+@Getter
+@Setter
+public class RetentionConfig {
+
+    /**
+     * Whether the retention job runs at all
+     */
+    private boolean enabled = true;
+
+    /**
+     * Delay before the first run after startup, in milliseconds
+     */
+    private long initialDelayMs = 60000;
+
+    /**
+     * Pause between the end of one run and the start of the next, in milliseconds
+     */
+    private long intervalMs = 3600000;
+
+    /**
+     * Maximum age of rows in the metric table, in milliseconds
+     */
+    private long metricsMaxAgeMs = 7L * 24 * 3600 * 1000;
+
+    /**
+     * Maximum age of rows in the alarm table, in milliseconds
+     */
+    private long alarmsMaxAgeMs = 30L * 24 * 3600 * 1000;
+
+    /**
+     * Maximum age of 1-minute rollup buckets and distribution sketches, in milliseconds
+     */
+    private long rollupMinuteMaxAgeMs = 30L * 24 * 3600 * 1000;
+
+    /**
+     * Maximum age of 1-hour rollup buckets and distribution sketches, in milliseconds
+     */
+    private long rollupHourMaxAgeMs = 365L * 24 * 3600 * 1000;
+
+    /**
+     * Maximum age of 1-day rollup buckets and distribution sketches, in milliseconds
+     */
+    private long rollupDayMaxAgeMs = 0;
+
+    /**
+     * Maximum age of chunk segment files, by their newest sample, in milliseconds
+     */
+    private long chunksMaxAgeMs = 7L * 24 * 3600 * 1000;
+
+    /**
+     * Rows deleted per transaction
+     */
+    private int deleteBatchSize = 5000;
+
+    /**
+     * Pause between two delete transactions, in milliseconds, so ingestion writes are not starved
+     */
+    private long pauseBetweenBatchesMs = 20;
+}
@@ -0,0 +1,69 @@
+package com.monitoring.monitoring_service.config;
+
+import com.monitoring.monitoring_service.model.ScrapeTarget;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ScrapeConfig binds the scrape engine and target registry properties
+ * (prefix {@code monitoring.scrape}) from application.properties.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Configuration
+@ConfigurationProperties(prefix = "monitoring.scrape")
+@Getter
+@Setter
+public class ScrapeConfig {
+
+    /**
+     * Statically configured targets (monitoring.scrape.targets[0].name=..., .url=...)
+     */
+    private List<ScrapeTarget> targets = new ArrayList<>();
+
+    /**
+     * Whether the service scrapes its own /metrics endpoint as a target
+     */
+    private boolean includeSelf = true;
+
+    /**
+     * Optional targets file, one target per line: {@code <name> <url> [<username>:<password>]}
+     */
+    private String targetsFile;
+
+    /**
+     * How often the targets file is checked for modifications, in milliseconds
+     */
+    private long targetsFileCheckIntervalMs = 10000;
+
+    /**
+     * Per-target request timeout in milliseconds
+     */
+    private long timeoutMs = 2000;
+
+    /**
+     * TCP connect timeout shared by all targets in milliseconds
+     */
+    private long connectTimeoutMs = 1000;
+
+    /**
+     * Upper bound on scrapes in flight at the same time
+     */
+    private int maxInFlight = 256;
+
+    /**
+     * Threads used by the HTTP client to complete responses
+     */
+    private int ioThreads = 4;
+
+    /**
+     * Threads decoding and ingesting scrape responses, apart from the HTTP client threads
+     */
+    private int processThreads = 4;
+}
@@ -2,6 +2,7 @@ package com.monitoring.monitoring_service.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 /**
@@ -24,6 +25,8 @@ public class SecurityConfig {
                         //.requestMatchers("/actuator/prometheus", "/actuator/health").permitAll()
                         .anyRequest().authenticated()
                 )
+                // HTTP Basic for API clients (push ingestion, scrapes of /metrics)
+                .httpBasic(Customizer.withDefaults())
                 .csrf(csrf -> csrf.disable()); // disable CSRF for simplicity
 
         return http.build();
@@ -0,0 +1,70 @@
+package com.monitoring.monitoring_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * StatsdConfig binds the embedded StatsD listener properties
+ * (prefix {@code monitoring.statsd}) from application.properties.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Configuration
+@ConfigurationProperties(prefix = "monitoring.statsd")
+@Getter
+@Setter
+public class StatsdConfig {
+
+    /**
+     * Whether the UDP/TCP listener is started
+     */
+    private boolean enabled = false;
+
+    /**
+     * Address to bind both listeners to
+     */
+    private String bindAddress = "0.0.0.0";
+
+    /**
+     * UDP port; 0 or less disables UDP
+     */
+    private int udpPort = 8125;
+
+    /**
+     * TCP port (newline-delimited lines); 0 or less disables TCP
+     */
+    private int tcpPort = 8125;
+
+    /**
+     * Interval at which aggregates are handed to the ingestion path, in milliseconds
+     */
+    private long flushIntervalMs = 10000;
+
+    /**
+     * Maximum distinct (metric, type, service) keys aggregated at once; lines for new keys beyond it are dropped
+     */
+    private int maxKeys = 10000;
+
+    /**
+     * Flush intervals without a sample after which a key is evicted and its room freed; 0 keeps keys until restart
+     */
+    private int keyIdleFlushes = 30;
+
+    /**
+     * Maximum open TCP connections; further connections are closed immediately
+     */
+    private int maxConnections = 256;
+
+    /**
+     * Size of each pooled direct receive buffer, in bytes (also the longest accepted TCP line)
+     */
+    private int bufferSize = 65536;
+
+    /**
+     * Service of metrics without a #service:<name> tag
+     */
+    private String defaultService = "statsd";
+}
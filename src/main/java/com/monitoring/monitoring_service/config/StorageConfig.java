@@ -0,0 +1,90 @@
+package com.monitoring.monitoring_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * StorageConfig binds the sample storage properties
+ * (prefix {@code monitoring.storage}) from application.properties.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Configuration
+@ConfigurationProperties(prefix = "monitoring.storage")
+@Getter
+@Setter
+public class StorageConfig {
+
+    /**
+     * Ring buffer capacity of the in-memory head store, in samples per series
+     */
+    private int headSamplesPerSeries = 720;
+
+    /**
+     * Default window served from the head store, in milliseconds
+     */
+    private long headWindowMs = 3600000;
+
+    /**
+     * Whether sealed chunks are written to disk
+     */
+    private boolean chunksEnabled = true;
+
+    /**
+     * Directory holding the chunk segment files
+     */
+    private String chunkDir = "data/chunks";
+
+    /**
+     * A chunk is sealed once it holds this many samples
+     */
+    private int samplesPerChunk = 120;
+
+    /**
+     * ...or once its first sample is this old, in milliseconds
+     */
+    private long chunkMaxAgeMs = 600000;
+
+    /**
+     * How often open chunks are checked for age, in milliseconds
+     */
+    private long chunkSealCheckIntervalMs = 30000;
+
+    /**
+     * A segment file is rolled over at this size in bytes...
+     */
+    private long segmentMaxBytes = 64L * 1024 * 1024;
+
+    /**
+     * ...or at this age, in milliseconds
+     */
+    private long segmentMaxAgeMs = 86400000;
+
+    /**
+     * How often sealed rollup buckets are written to the database, in milliseconds
+     */
+    private long rollupFlushIntervalMs = 10000;
+
+    /**
+     * Open rollup buckets are sealed once they ended this long ago without new samples, in milliseconds
+     */
+    private long rollupLatenessMs = 60000;
+
+    /**
+     * Target number of points of a rollup query when no step is given
+     */
+    private int rollupMaxPoints = 1000;
+
+    /**
+     * Relative error of the quantiles of distribution metrics (0.01 = 1%)
+     */
+    private double sketchRelativeAccuracy = 0.01;
+
+    /**
+     * Bins per sign of a distribution sketch; beyond this the smallest values are collapsed
+     */
+    private int sketchMaxBins = 2048;
+}
@@ -1,7 +1,8 @@
 package com.monitoring.monitoring_service.controller;
 
+import com.monitoring.monitoring_service.dto.AlarmCursorPageDto;
 import com.monitoring.monitoring_service.model.AlarmEntity;
-import com.monitoring.monitoring_service.repository.AlarmRepository;
+import com.monitoring.monitoring_service.service.AlarmQueryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -26,10 +27,10 @@ import org.slf4j.MDC;
 @Tag(name = "Alarms", description = "Endpoints for viewing alarm history with filters, paging, and sorting")
 public class AlarmController {
 
-    private final AlarmRepository alarmRepository;
+    private final AlarmQueryService alarmQueryService;
 
-    public AlarmController(AlarmRepository alarmRepository) {
-        this.alarmRepository = alarmRepository;
+    public AlarmController(AlarmQueryService alarmQueryService) {
+        this.alarmQueryService = alarmQueryService;
     }
 
     /**
@@ -74,17 +75,7 @@ public class AlarmController {
                 MDC.get("traceId"), severity, from, to, pageable.getPageNumber(), pageable.getPageSize());
 
         try {
-            Page<AlarmEntity> result;
-
-        if (severity != null && from != null && to != null) {
-            result = alarmRepository.findBySeverityAndTimestampBetween(severity, from, to, pageable);
-        } else if (severity != null) {
-            result = alarmRepository.findBySeverity(severity, pageable);
-        } else if (from != null && to != null) {
-            result = alarmRepository.findByTimestampBetween(from, to, pageable);
-        } else {
-            result = alarmRepository.findAll(pageable);
-        }
+            Page<AlarmEntity> result = alarmQueryService.filter(severity, from, to, pageable);
 
             log.info("traceId={} |Retrieved {} alarms from repository", MDC.get("traceId"), result.getNumberOfElements());
             return result;
@@ -94,4 +85,71 @@ public class AlarmController {
             throw e;
         }
     }
+
+    /**
+     * Retrieves alarms newest first, one slice at a time, using a keyset cursor.
+     * <p>
+     * Unlike {@code /alarms/filter}, no count query is run and deep slices cost
+     * the same as the first one. Pass {@code nextCursor} of a response as
+     * {@code cursor} to read the following slice.
+     *
+     * @param severity       Alarm severity (e.g., CRITICAL, WARNING, INFO)
+     * @param service        Service name
+     * @param metric         Metric name (CPU, MEMORY, REQUESTS)
+     * @param from           Start of the time range (ISO DateTime format)
+     * @param to             End of the time range (ISO DateTime format)
+     * @param cursor         Opaque cursor returned by the previous call
+     * @param size           Maximum number of alarms in the slice
+     * @param includeMessage Whether to return the alarm message
+     * @return A slice of alarms and the cursor of the next slice
+     */
+    @Operation(
+            summary = "Page through alarms with a cursor",
+            description = "Returns alarms newest first with optional severity, service, metric and time filters. "
+                    + "Pass nextCursor of the response as cursor to get the next slice.",
+            tags = {"Alarms"}
+    )
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved alarms")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    @GetMapping("/cursor")
+    public AlarmCursorPageDto getAlarmsByCursor(
+            @Parameter(description = "Alarm severity (CRITICAL, WARNING, INFO)", example = "CRITICAL")
+            @RequestParam(required = false) String severity,
+
+            @Parameter(description = "Service name", example = "MonitoringService")
+            @RequestParam(required = false) String service,
+
+            @Parameter(description = "Metric name", example = "CPU")
+            @RequestParam(required = false) String metric,
+
+            @Parameter(description = "Start of the time range in ISO format", example = "2025-08-23T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+
+            @Parameter(description = "End of the time range in ISO format", example = "2025-08-23T23:59:59")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+
+            @Parameter(description = "nextCursor of the previous response")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Maximum number of alarms to return", example = "50")
+            @RequestParam(required = false) Integer size,
+
+            @Parameter(description = "Include the alarm message", example = "false")
+            @RequestParam(defaultValue = "false") boolean includeMessage
+    ) {
+        log.debug("traceId={} | GET /alarms/cursor called with severity={}, service={}, metric={}, from={}, to={}, size={}",
+                MDC.get("traceId"), severity, service, metric, from, to, size);
+
+        try {
+            AlarmCursorPageDto result = alarmQueryService.findSlice(severity, service, metric, from, to,
+                    cursor, size, includeMessage);
+            log.info("traceId={} | Retrieved {} alarms, hasNext={}", MDC.get("traceId"),
+                    result.getAlarms().size(), result.getNextCursor() != null);
+            return result;
+        } catch (Exception e) {
+            log.error("traceId={} | Error retrieving alarms by cursor severity={}, service={}, metric={}: {}",
+                    MDC.get("traceId"), severity, service, metric, e.getMessage(), e);
+            throw e;
+        }
+    }
 }
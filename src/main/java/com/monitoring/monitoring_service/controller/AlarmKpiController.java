@@ -30,7 +30,7 @@ public class AlarmKpiController {
 
     @Operation(
             summary = "Get alarm KPI",
-            description = "Returns summarized statistics of alarms, including total and severity counts"
+            description = "Returns summarized statistics of alarms, including total, severity, service and metric counts"
     )
     @ApiResponse(responseCode = "200", description = "Successfully retrieved KPI")
     @GetMapping
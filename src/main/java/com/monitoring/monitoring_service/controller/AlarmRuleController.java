@@ -0,0 +1,102 @@
+package com.monitoring.monitoring_service.controller;
+
+import com.monitoring.monitoring_service.rules.RuleDefinition;
+import com.monitoring.monitoring_service.rules.RuleEngine;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * AlarmRuleController lists and changes the alert rules evaluated by the AlarmService.
+ *
+ * Changes take effect on the next evaluation and are not persisted; rules that
+ * must survive a restart belong in {@code alarm.rules}.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@RestController
+@RequestMapping("/alarms/rules")
+@Tag(name = "Alarm Rules", description = "Endpoints for managing alert rules")
+public class AlarmRuleController {
+
+    private final RuleEngine ruleEngine;
+
+    public AlarmRuleController(RuleEngine ruleEngine) {
+        this.ruleEngine = ruleEngine;
+    }
+
+    @Operation(summary = "List alert rules", description = "Returns every alert rule in evaluation order")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved rules")
+    @GetMapping
+    public List<RuleDefinition> getRules() {
+        log.debug("traceId={} | GET /alarms/rules called", MDC.get("traceId"));
+        List<RuleDefinition> rules = ruleEngine.list();
+        log.info("traceId={} | Retrieved {} alert rules", MDC.get("traceId"), rules.size());
+        return rules;
+    }
+
+    /**
+     * Adds a rule or replaces the rule with the same name.
+     *
+     * @param name rule name; overrides any name in the body
+     * @param rule selector, expression, severity and labels of the rule
+     * @return the stored rule
+     */
+    @Operation(
+            summary = "Create or replace an alert rule",
+            description = "Example body: {\"selector\": \"CPU{service=~\\\"orders-.*\\\"}\", "
+                    + "\"expr\": \"value >= 90\", \"severity\": \"CRITICAL\", \"labels\": {\"team\": \"platform\"}}"
+    )
+    @ApiResponse(responseCode = "200", description = "Rule stored")
+    @ApiResponse(responseCode = "422", description = "Selector, expression or severity is invalid")
+    @PutMapping("/{name}")
+    public RuleDefinition putRule(
+            @Parameter(description = "Rule name", example = "orders-cpu-critical")
+            @PathVariable String name,
+            @RequestBody RuleDefinition rule) {
+        log.debug("traceId={} | PUT /alarms/rules/{} called with selector={}, expr={}, severity={}",
+                MDC.get("traceId"), name, rule.getSelector(), rule.getExpr(), rule.getSeverity());
+        try {
+            rule.setName(name);
+            RuleDefinition stored = ruleEngine.put(rule);
+            log.info("traceId={} | Alert rule stored name={}", MDC.get("traceId"), name);
+            return stored;
+        } catch (Exception e) {
+            log.error("traceId={} | Error storing alert rule name={}: {}", MDC.get("traceId"), name, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Operation(summary = "Delete an alert rule")
+    @ApiResponse(responseCode = "204", description = "Rule deleted")
+    @ApiResponse(responseCode = "404", description = "No rule with that name")
+    @DeleteMapping("/{name}")
+    public ResponseEntity<Void> deleteRule(
+            @Parameter(description = "Rule name", example = "orders-cpu-critical")
+            @PathVariable String name) {
+        log.debug("traceId={} | DELETE /alarms/rules/{} called", MDC.get("traceId"), name);
+        try {
+            ruleEngine.remove(name);
+            log.info("traceId={} | Alert rule deleted name={}", MDC.get("traceId"), name);
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            log.error("traceId={} | Error deleting alert rule name={}: {}", MDC.get("traceId"), name, e.getMessage(), e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.monitoring.monitoring_service.controller;
+
+import com.monitoring.monitoring_service.dto.IngestResultDto;
+import com.monitoring.monitoring_service.service.PushIngestionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * IngestController lets clients push sample batches instead of being scraped.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@RestController
+@Tag(name = "Ingestion", description = "Endpoints for pushing metric samples")
+public class IngestController {
+
+    private final PushIngestionService pushIngestionService;
+
+    public IngestController(PushIngestionService pushIngestionService) {
+        this.pushIngestionService = pushIngestionService;
+    }
+
+    /**
+     * Ingests a batch of samples from the request body.
+     * The body is parsed while it streams in and may be gzip-compressed.
+     *
+     * @param format  "prometheus" (text exposition format) or "line" ({@code <service> <metric> <value> [<timestampMs>]})
+     * @param service service of samples that do not name one
+     * @param body    raw request body
+     * @return accepted/rejected counts
+     */
+    @Operation(
+            summary = "Push metric samples",
+            description = "Accepts a batch in Prometheus text exposition format or the compact line protocol "
+                    + "(<service> <metric> <value> [<timestampMs>] per line). Malformed lines are skipped and counted."
+    )
+    @ApiResponse(responseCode = "200", description = "Batch ingested")
+    @ApiResponse(responseCode = "400", description = "Unknown format")
+    @PostMapping(value = "/metrics/ingest", consumes = "*/*")
+    public IngestResultDto ingest(
+            @Parameter(description = "Body format: prometheus or line", example = "prometheus")
+            @RequestParam(defaultValue = PushIngestionService.FORMAT_PROMETHEUS) String format,
+
+            @Parameter(description = "Service of samples without a service/job label", example = "batch-job")
+            @RequestParam(required = false) String service,
+
+            @Parameter(hidden = true)
+            @RequestHeader(value = "Content-Encoding", required = false) String contentEncoding,
+
+            @Parameter(hidden = true) InputStream body
+    ) throws IOException {
+        log.debug("traceId={} | POST /metrics/ingest called with format={}, service={}", MDC.get("traceId"), format, service);
+
+        try {
+            InputStream in = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body, 64 * 1024) : body;
+            IngestResultDto result = pushIngestionService.ingest(in, format, service);
+            log.info("traceId={} | Ingested pushed batch format={} accepted={} rejected={}",
+                    MDC.get("traceId"), format, result.getAccepted(), result.getRejected());
+            return result;
+        } catch (Exception e) {
+            log.error("traceId={} | Error ingesting pushed batch format={}: {}", MDC.get("traceId"), format, e.getMessage(), e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.monitoring.monitoring_service.controller;
+
+import com.monitoring.monitoring_service.dto.LoadReportDto;
+import com.monitoring.monitoring_service.loadgen.LoadGenerator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * LoadGeneratorController serves the simulated fleet of the load generator:
+ * its run report and, in scrape mode, the metrics endpoint of every simulated service.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@RestController
+@RequestMapping("/loadgen")
+@Tag(name = "Load generator", description = "Endpoints of the synthetic fleet load generator")
+public class LoadGeneratorController {
+
+    private final LoadGenerator loadGenerator;
+
+    public LoadGeneratorController(LoadGenerator loadGenerator) {
+        this.loadGenerator = loadGenerator;
+    }
+
+    @Operation(
+            summary = "Get the load generator report",
+            description = "Returns the throughput, ingestion lag and alarm latency of the current or last run"
+    )
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved the report")
+    @ApiResponse(responseCode = "404", description = "The load generator is disabled")
+    @GetMapping("/report")
+    public LoadReportDto getReport() {
+        log.debug("traceId={} | GET /loadgen/report called", MDC.get("traceId"));
+        try {
+            LoadReportDto report = loadGenerator.report();
+            log.info("traceId={} | Load generator report samples={} incidents={} incidentsDetected={}",
+                    MDC.get("traceId"), report.getSamplesGenerated(), report.getIncidents(), report.getIncidentsDetected());
+            return report;
+        } catch (Exception e) {
+            log.error("traceId={} | Error building load generator report: {}", MDC.get("traceId"), e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Operation(
+            summary = "Scrape a simulated service",
+            description = "Returns the current value of every series of the simulated service; "
+                    + "these are the scrape targets of the load generator in scrape mode"
+    )
+    @ApiResponse(responseCode = "200", description = "Successfully generated the metrics")
+    @ApiResponse(responseCode = "404", description = "Unknown service or the load generator does not run in scrape mode")
+    @GetMapping("/targets/{service}/metrics")
+    public Map<String, Double> scrape(
+            @Parameter(description = "Simulated service", example = "fleet-0000")
+            @PathVariable String service
+    ) {
+        log.debug("traceId={} | GET /loadgen/targets/{}/metrics called", MDC.get("traceId"), service);
+        try {
+            return loadGenerator.scrape(service);
+        } catch (Exception e) {
+            log.error("traceId={} | Error scraping simulated service={}: {}", MDC.get("traceId"), service, e.getMessage(), e);
+            throw e;
+        }
+    }
+}
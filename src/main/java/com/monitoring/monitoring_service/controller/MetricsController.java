@@ -1,15 +1,29 @@
 package com.monitoring.monitoring_service.controller;
 
+import com.monitoring.monitoring_service.dto.DistributionSeriesDto;
 import com.monitoring.monitoring_service.dto.MetricDto;
+import com.monitoring.monitoring_service.dto.MetricPageDto;
+import com.monitoring.monitoring_service.dto.RollupSeriesDto;
+import com.monitoring.monitoring_service.dto.SeriesDto;
+import com.monitoring.monitoring_service.service.DistributionService;
 import com.monitoring.monitoring_service.service.MetricService;
+import com.monitoring.monitoring_service.service.RollupService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,9 +42,17 @@ import java.util.Map;
 @Tag(name = "Metrics", description = "Endpoints for collecting and viewing metrics")
 public class MetricsController {
 
+    private static final String NEXT_AFTER_ID_HEADER = "X-Next-After-Id";
+
     @Autowired
     MetricService metricService;
 
+    @Autowired
+    RollupService rollupService;
+
+    @Autowired
+    DistributionService distributionService;
+
 
     /**
      * Returns random sample metrics.
@@ -60,22 +82,223 @@ public class MetricsController {
 
 
     @Operation(
-            summary = "View all metrics from DB",
-            description = "Retrieves all collected metrics stored in the database as DTOs."
+            summary = "View metrics from DB",
+            description = "Returns one keyset page of collected metrics as DTOs, oldest first. "
+                    + "If more metrics match, the X-Next-After-Id header holds the afterId of the next page."
     )
     @ApiResponse(responseCode = "200", description = "Successfully retrieved stored metrics")
     @GetMapping("/metrics/view")
-    public List<MetricDto> viewMetrics() {
-        log.debug("traceId={} | GET /metrics/view called: fetching all metrics from database", MDC.get("traceId"));
+    public ResponseEntity<List<MetricDto>> viewMetrics(
+            @Parameter(description = "Return metrics with an id greater than this (from X-Next-After-Id)", example = "1000")
+            @RequestParam(required = false) Long afterId,
+
+            @Parameter(description = "Maximum number of metrics in the page (3 DTOs per metric)", example = "1000")
+            @RequestParam(required = false) Integer limit,
+
+            @Parameter(description = "Only metrics of this service", example = "MonitoringService")
+            @RequestParam(required = false) String service,
+
+            @Parameter(description = "Start of the time range in ISO format", example = "2025-08-23T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+
+            @Parameter(description = "End of the time range in ISO format", example = "2025-08-23T23:59:59")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        log.debug("traceId={} | GET /metrics/view called with afterId={}, limit={}, service={}, from={}, to={}",
+                MDC.get("traceId"), afterId, limit, service, from, to);
 
         try {
-            List<MetricDto> metricDtos = metricService.findAll();
-            log.info("traceId={} | Retrieved {} metrics from DB", MDC.get("traceId"), metricDtos.size());
-            return metricDtos;
+            MetricPageDto page = metricService.findPage(afterId, service, from, to, limit);
+            log.info("traceId={} | Retrieved {} metric DTOs from DB, nextAfterId={}",
+                    MDC.get("traceId"), page.getMetrics().size(), page.getNextAfterId());
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextAfterId() != null) {
+                response.header(NEXT_AFTER_ID_HEADER, String.valueOf(page.getNextAfterId()));
+            }
+            return response.body(page.getMetrics());
         } catch (Exception e) {
             log.error("traceId={} | Error fetching metrics from database: {}", MDC.get("traceId"), e.getMessage(), e);
             throw e;
         }
     }
 
+    @Operation(
+            summary = "Stream metrics from DB",
+            description = "Streams every matching metric as newline-delimited JSON (one DTO per line), oldest first. "
+                    + "Memory use is constant regardless of the result size."
+    )
+    @ApiResponse(responseCode = "200", description = "Streaming stored metrics")
+    @GetMapping(value = "/metrics/view/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamMetrics(
+            @Parameter(description = "Return metrics with an id greater than this", example = "0")
+            @RequestParam(required = false) Long afterId,
+
+            @Parameter(description = "Only metrics of this service", example = "MonitoringService")
+            @RequestParam(required = false) String service,
+
+            @Parameter(description = "Start of the time range in ISO format", example = "2025-08-23T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+
+            @Parameter(description = "End of the time range in ISO format", example = "2025-08-23T23:59:59")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        String traceId = MDC.get("traceId");
+        log.debug("traceId={} | GET /metrics/view/stream called with afterId={}, service={}, from={}, to={}",
+                traceId, afterId, service, from, to);
+
+        StreamingResponseBody body = out -> {
+            try {
+                long count = metricService.streamMetrics(afterId, service, from, to, out);
+                log.info("traceId={} | Streamed {} metrics from DB", traceId, count);
+            } catch (Exception e) {
+                log.error("traceId={} | Error streaming metrics from database: {}", traceId, e.getMessage(), e);
+                throw e;
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    @Operation(
+            summary = "View recent metrics",
+            description = "Returns the recent window of every series from the in-memory head store."
+    )
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved recent metrics")
+    @GetMapping("/metrics/recent")
+    public List<SeriesDto> recentMetrics(
+            @Parameter(description = "Only series of this service", example = "MonitoringService")
+            @RequestParam(required = false) String service,
+
+            @Parameter(description = "Window length in milliseconds (defaults to the head window)", example = "300000")
+            @RequestParam(required = false) Long windowMs
+    ) {
+        log.debug("traceId={} | GET /metrics/recent called with service={}, windowMs={}", MDC.get("traceId"), service, windowMs);
+
+        try {
+            List<SeriesDto> series = metricService.findRecent(service, windowMs);
+            log.info("traceId={} | Retrieved {} recent series", MDC.get("traceId"), series.size());
+            return series;
+        } catch (Exception e) {
+            log.error("traceId={} | Error reading recent metrics: {}", MDC.get("traceId"), e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Operation(
+            summary = "View one series over a time range",
+            description = "Returns the samples of one series, read from compressed chunks and the in-memory head store."
+    )
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved the series")
+    @GetMapping("/metrics/series")
+    public SeriesDto series(
+            @Parameter(description = "Service name", example = "MonitoringService")
+            @RequestParam String service,
+
+            @Parameter(description = "Metric name", example = "CPU")
+            @RequestParam String metric,
+
+            @Parameter(description = "Start of the time range in ISO format", example = "2025-08-23T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+
+            @Parameter(description = "End of the time range in ISO format", example = "2025-08-23T23:59:59")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        log.debug("traceId={} | GET /metrics/series called with service={}, metric={}, from={}, to={}",
+                MDC.get("traceId"), service, metric, from, to);
+
+        try {
+            SeriesDto series = metricService.findSeries(service, metric, toEpochMillis(from), toEpochMillis(to));
+            log.info("traceId={} | Retrieved {} samples for service={} metric={}",
+                    MDC.get("traceId"), series.getTimestamps().length, service, metric);
+            return series;
+        } catch (Exception e) {
+            log.error("traceId={} | Error reading series service={} metric={}: {}", MDC.get("traceId"), service, metric, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Operation(
+            summary = "View one series downsampled",
+            description = "Returns min/max/avg/count/last per step, read from the coarsest rollup tier "
+                    + "(1m, 1h, 1d) that fits the step; steps under one minute read raw samples."
+    )
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved the downsampled series")
+    @GetMapping("/metrics/rollup")
+    public RollupSeriesDto rollup(
+            @Parameter(description = "Service name", example = "MonitoringService")
+            @RequestParam String service,
+
+            @Parameter(description = "Metric name", example = "CPU")
+            @RequestParam String metric,
+
+            @Parameter(description = "Start of the time range in ISO format", example = "2025-08-16T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+
+            @Parameter(description = "End of the time range in ISO format", example = "2025-08-23T23:59:59")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+
+            @Parameter(description = "Output resolution in milliseconds (defaults to the range split into about 1000 points)", example = "3600000")
+            @RequestParam(required = false) Long stepMs
+    ) {
+        log.debug("traceId={} | GET /metrics/rollup called with service={}, metric={}, from={}, to={}, stepMs={}",
+                MDC.get("traceId"), service, metric, from, to, stepMs);
+
+        try {
+            RollupSeriesDto series = rollupService.query(service, metric, toEpochMillis(from), toEpochMillis(to), stepMs);
+            log.info("traceId={} | Retrieved {} points from source={} for service={} metric={}",
+                    MDC.get("traceId"), series.getTimestamps().length, series.getSource(), service, metric);
+            return series;
+        } catch (Exception e) {
+            log.error("traceId={} | Error reading rollup service={} metric={}: {}", MDC.get("traceId"), service, metric, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Operation(
+            summary = "View quantiles of a distribution metric",
+            description = "Returns count/min/max/avg and the requested quantiles per step of a distribution metric "
+                    + "(e.g. a StatsD timer), merged from per-minute/hour/day sketches; without a service, "
+                    + "the sketches of every service are merged. Quantiles are within the configured relative error."
+    )
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved the quantiles")
+    @ApiResponse(responseCode = "400", description = "A quantile is outside [0, 1]")
+    @GetMapping("/metrics/distribution")
+    public DistributionSeriesDto distribution(
+            @Parameter(description = "Distribution metric name", example = "checkout_latency")
+            @RequestParam String metric,
+
+            @Parameter(description = "Service name; omit to merge every service", example = "orders")
+            @RequestParam(required = false) String service,
+
+            @Parameter(description = "Start of the time range in ISO format", example = "2025-08-23T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+
+            @Parameter(description = "End of the time range in ISO format", example = "2025-08-23T23:59:59")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+
+            @Parameter(description = "Output resolution in milliseconds, at least one minute", example = "3600000")
+            @RequestParam(required = false) Long stepMs,
+
+            @Parameter(description = "Quantiles to compute", example = "0.5,0.9,0.99")
+            @RequestParam(defaultValue = "0.5,0.9,0.99") List<Double> quantiles
+    ) {
+        log.debug("traceId={} | GET /metrics/distribution called with metric={}, service={}, from={}, to={}, stepMs={}, quantiles={}",
+                MDC.get("traceId"), metric, service, from, to, stepMs, quantiles);
+
+        try {
+            DistributionSeriesDto series = distributionService.query(service, metric, toEpochMillis(from), toEpochMillis(to),
+                    stepMs, quantiles);
+            log.info("traceId={} | Retrieved {} distribution points from source={} for service={} metric={}",
+                    MDC.get("traceId"), series.getTimestamps().length, series.getSource(), service, metric);
+            return series;
+        } catch (Exception e) {
+            log.error("traceId={} | Error reading distribution service={} metric={}: {}", MDC.get("traceId"), service, metric, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
 }
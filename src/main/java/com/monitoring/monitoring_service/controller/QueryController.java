@@ -0,0 +1,130 @@
+package com.monitoring.monitoring_service.controller;
+
+import com.monitoring.monitoring_service.cluster.ClusterMembership;
+import com.monitoring.monitoring_service.cluster.PeerClient;
+import com.monitoring.monitoring_service.query.RangeQueryEngine;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * QueryController answers range queries over every stored series, e.g. the maximum
+ * CPU per service over the last hour at a one-minute step.
+ *
+ * In cluster mode the instance receiving the query also sends it to the live peers
+ * with {@code local=true}, which makes them return the partial result of their own
+ * series, and merges those into the response.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@RestController
+@Tag(name = "Query", description = "Endpoints for querying series across services")
+public class QueryController {
+
+    private final RangeQueryEngine rangeQueryEngine;
+    private final ClusterMembership clusterMembership;
+    private final PeerClient peerClient;
+
+    public QueryController(RangeQueryEngine rangeQueryEngine, ClusterMembership clusterMembership,
+                           PeerClient peerClient) {
+        this.rangeQueryEngine = rangeQueryEngine;
+        this.clusterMembership = clusterMembership;
+        this.peerClient = peerClient;
+    }
+
+    @Operation(
+            summary = "Run a range query",
+            description = "Evaluates a query such as max by (service) (max_over_time(CPU)) or "
+                    + "topk(5, sum by (service) (rate(http_requests_total))) at every step of the range and streams "
+                    + "the resulting series as newline-delimited JSON, one series per line. Steps are aligned to "
+                    + "multiples of stepMs and stamped with their start; steps without a value are omitted."
+    )
+    @ApiResponse(responseCode = "200", description = "Streaming the result series")
+    @ApiResponse(responseCode = "400", description = "The query is invalid or exceeds the step or series limits")
+    @GetMapping(value = "/query/range", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> range(
+            @Parameter(description = "Range query", example = "max by (service) (CPU)")
+            @RequestParam String query,
+
+            @Parameter(description = "Start of the time range in ISO format", example = "2025-08-23T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+
+            @Parameter(description = "End of the time range in ISO format", example = "2025-08-23T01:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+
+            @Parameter(description = "Step in milliseconds", example = "60000")
+            @RequestParam(defaultValue = "60000") long stepMs,
+
+            @Parameter(description = "Return the partial result of this instance's series only; used between cluster peers")
+            @RequestParam(defaultValue = "false") boolean local
+    ) {
+        String traceId = MDC.get("traceId");
+        log.debug("traceId={} | GET /query/range called with query={}, from={}, to={}, stepMs={}, local={}",
+                traceId, query, from, to, stepMs, local);
+
+        RangeQueryEngine.Plan plan;
+        try {
+            plan = rangeQueryEngine.plan(query, toEpochMillis(from), toEpochMillis(to), stepMs);
+        } catch (Exception e) {
+            log.error("traceId={} | Error planning range query={}: {}", traceId, query, e.getMessage(), e);
+            throw e;
+        }
+
+        StreamingResponseBody body = out -> {
+            try {
+                List<String> peers = local ? List.of() : clusterMembership.peers();
+                long count;
+                if (local) {
+                    count = rangeQueryEngine.executePartial(plan, out);
+                } else if (!peers.isEmpty()) {
+                    List<InputStream> peerResults = peerClient.rangeQueryAll(peers, query, from, to, stepMs);
+                    try {
+                        count = rangeQueryEngine.execute(plan, out, peerResults);
+                    } finally {
+                        closeAll(peerResults);
+                    }
+                } else {
+                    count = rangeQueryEngine.execute(plan, out);
+                }
+                log.info("traceId={} | Range query={} read {} local series, streamed {} series over {} steps, peers={}",
+                        traceId, query, plan.getSeries().size(), count, plan.getSteps(), peers.size());
+            } catch (Exception e) {
+                log.error("traceId={} | Error running range query={}: {}", traceId, query, e.getMessage(), e);
+                throw e;
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    private static void closeAll(List<InputStream> streams) {
+        for (InputStream stream : streams) {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                log.debug("Failed to close peer response: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
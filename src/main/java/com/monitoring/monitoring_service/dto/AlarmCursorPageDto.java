@@ -0,0 +1,21 @@
+package com.monitoring.monitoring_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * AlarmCursorPageDto is one slice of alarms, newest first, and the opaque cursor of the next slice.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@AllArgsConstructor
+@Getter
+@Setter
+public class AlarmCursorPageDto {
+    private List<AlarmSummaryDto> alarms;
+    private String nextCursor; // null on the last slice
+}
@@ -16,4 +16,6 @@ import java.util.Map;
 public class AlarmKpiDto {
     private long totalAlarms;
     private Map<String, Long> severityCounts; // WARNING -> count, CRITICAL -> count
+    private Map<String, Long> serviceCounts;  // serviceName -> count
+    private Map<String, Long> metricCounts;   // CPU -> count, MEMORY -> count, ...
 }
@@ -0,0 +1,37 @@
+package com.monitoring.monitoring_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * AlarmSummaryDto is a read-only projection of AlarmEntity.
+ * {@code message} is only selected (and serialized) when the caller asks for it.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@AllArgsConstructor
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AlarmSummaryDto {
+    private Long id;
+    private String serviceName;
+    private String metricName;
+    private double metricValue;
+    private String severity;
+    private LocalDateTime timestamp;
+    private String message;
+
+    /**
+     * Used by queries that do not select the message column.
+     */
+    public AlarmSummaryDto(Long id, String serviceName, String metricName, double metricValue,
+                           String severity, LocalDateTime timestamp) {
+        this(id, serviceName, metricName, metricValue, severity, timestamp, null);
+    }
+}
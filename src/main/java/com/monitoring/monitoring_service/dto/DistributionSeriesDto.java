@@ -0,0 +1,30 @@
+package com.monitoring.monitoring_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+/**
+ * DistributionSeriesDto carries the quantiles of one distribution metric per step,
+ * as parallel arrays with one entry per step-aligned bucket that holds values.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@AllArgsConstructor
+@Getter
+@Setter
+public class DistributionSeriesDto {
+    private String serviceName; // null when merged across every service
+    private String metricName;
+    private long stepMs;
+    private String source; // MINUTE, HOUR or DAY
+    private long[] timestamps; // bucket start, epoch milliseconds
+    private long[] count;
+    private double[] min;
+    private double[] max;
+    private double[] avg;
+    private Map<String, double[]> quantiles; // e.g. "0.99" -> p99 per bucket
+}
@@ -0,0 +1,20 @@
+package com.monitoring.monitoring_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * IngestResultDto reports how many samples of a pushed batch were accepted.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@AllArgsConstructor
+@Getter
+@Setter
+public class IngestResultDto {
+    private long accepted;
+    private long rejected;
+    private String firstError; // null when every line was accepted
+}
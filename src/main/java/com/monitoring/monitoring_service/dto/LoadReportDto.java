@@ -0,0 +1,38 @@
+package com.monitoring.monitoring_service.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * LoadReportDto summarizes a load generator run: how much was generated and stored,
+ * how far storage lagged behind and how quickly the simulated incidents raised alarms.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Getter
+@Setter
+public class LoadReportDto {
+    private String mode;
+    private int services;
+    private long series;
+    private long elapsedMs;
+
+    private long samplesGenerated;
+    private double samplesPerSecond;
+    private long rowsWritten; // metric rows committed by the write-behind buffer during the run
+    private double rowsPerSecond;
+    private long rowsDropped;
+
+    private double ingestLagMeanMs; // metric timestamp to committed row, over the run
+    private double ingestLagMaxMs; // over the last couple of minutes
+
+    private long incidents;
+    private long incidentsDetected; // incidents whose zone raised an alarm while it lasted
+    private double alarmLatencyMeanMs; // incident start to first alarm notification
+    private double alarmLatencyP50Ms;
+    private double alarmLatencyP99Ms;
+    private double alarmLatencyMaxMs;
+    private long alarms; // all alarms of simulated services
+    private long alarmsOutsideIncidents; // raised by spikes or traffic peaks
+}
@@ -0,0 +1,21 @@
+package com.monitoring.monitoring_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * MetricPageDto is one keyset page of stored metrics.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@AllArgsConstructor
+@Getter
+@Setter
+public class MetricPageDto {
+    private List<MetricDto> metrics;
+    private Long nextAfterId; // id to pass as afterId for the next page; null on the last page
+}
@@ -0,0 +1,28 @@
+package com.monitoring.monitoring_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * RollupSeriesDto carries one downsampled series as parallel arrays,
+ * one entry per step-aligned bucket that holds samples.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@AllArgsConstructor
+@Getter
+@Setter
+public class RollupSeriesDto {
+    private String serviceName;
+    private String metricName;
+    private long stepMs;
+    private String source; // RAW, MINUTE, HOUR or DAY
+    private long[] timestamps; // bucket start, epoch milliseconds
+    private double[] min;
+    private double[] max;
+    private double[] avg;
+    private long[] count;
+    private double[] last;
+}
@@ -0,0 +1,22 @@
+package com.monitoring.monitoring_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * SeriesDto carries the samples of one series as parallel arrays
+ * (epoch-millisecond timestamps and values).
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@AllArgsConstructor
+@Getter
+@Setter
+public class SeriesDto {
+    private String serviceName;
+    private String metricName;
+    private long[] timestamps;
+    private double[] values;
+}
@@ -0,0 +1,89 @@
+package com.monitoring.monitoring_service.ingest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * ByteLineReader splits a byte stream into lines without decoding or copying them.
+ *
+ * After {@link #next()} returns true the current line is {@code buffer()[start(), end())},
+ * without the line terminator. The range is only valid until the next call.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+public class ByteLineReader {
+
+    private final InputStream in;
+    private byte[] buf;
+    private int pos;
+    private int limit;
+    private int lineStart;
+    private int lineEnd;
+    private boolean eof;
+
+    public ByteLineReader(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buf = new byte[bufferSize];
+    }
+
+    /**
+     * Advances to the next line.
+     *
+     * @return false once the stream is exhausted
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            for (int i = pos; i < limit; i++) {
+                if (buf[i] == '\n') {
+                    lineStart = pos;
+                    lineEnd = i > pos && buf[i - 1] == '\r' ? i - 1 : i;
+                    pos = i + 1;
+                    return true;
+                }
+            }
+            if (eof) {
+                if (pos < limit) {
+                    // Last line without a terminator
+                    lineStart = pos;
+                    lineEnd = limit;
+                    pos = limit;
+                    return true;
+                }
+                return false;
+            }
+            fill();
+        }
+    }
+
+    public byte[] buffer() {
+        return buf;
+    }
+
+    public int start() {
+        return lineStart;
+    }
+
+    public int end() {
+        return lineEnd;
+    }
+
+    private void fill() throws IOException {
+        if (pos > 0) {
+            // Move the unfinished line to the front
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        } else if (limit == buf.length) {
+            // A single line longer than the buffer
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+        int read = in.read(buf, limit, buf.length - limit);
+        if (read < 0) {
+            eof = true;
+        } else {
+            limit += read;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.monitoring.monitoring_service.ingest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses numbers straight from ASCII bytes.
+ *
+ * Plain decimals with up to 15 significant digits (what exporters print in practice)
+ * are converted with one multiplication or division by an exact power of ten, which
+ * is correctly rounded. Anything else falls back to {@link Double#parseDouble}.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+final class ByteNumbers {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private ByteNumbers() {
+    }
+
+    /**
+     * @throws NumberFormatException if the range is not a number
+     */
+    static double parseDouble(byte[] b, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (b[i] == '-' || b[i] == '+')) {
+            negative = b[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenDot = false;
+        boolean any = false;
+        for (; i < to; i++) {
+            byte c = b[i];
+            if (c >= '0' && c <= '9') {
+                any = true;
+                if (mantissa == 0 && c == '0' && !seenDot) {
+                    continue; // leading zero
+                }
+                if (++digits > 15) {
+                    return slowParse(b, from, to);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (seenDot) {
+                    scale++;
+                }
+            } else if (c == '.' && !seenDot) {
+                seenDot = true;
+            } else {
+                // Exponents, NaN, +Inf, ... take the slow path
+                return slowParse(b, from, to);
+            }
+        }
+        if (!any) {
+            return slowParse(b, from, to);
+        }
+        double value = scale == 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    /**
+     * @throws NumberFormatException if the range is not a decimal integer
+     */
+    static long parseLong(byte[] b, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && b[i] == '-') {
+            negative = true;
+            i++;
+        }
+        if (i == to || to - i > 18) {
+            return Long.parseLong(new String(b, from, to - from, StandardCharsets.US_ASCII));
+        }
+        long value = 0;
+        for (; i < to; i++) {
+            byte c = b[i];
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Not an integer: " + new String(b, from, to - from, StandardCharsets.US_ASCII));
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Same as {@link #parseDouble(byte[], int, int)} for {@code buf.get(from)} .. {@code buf.get(to - 1)}.
+     */
+    static double parseDouble(ByteBuffer buf, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buf.get(i) == '-' || buf.get(i) == '+')) {
+            negative = buf.get(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenDot = false;
+        boolean any = false;
+        for (; i < to; i++) {
+            byte c = buf.get(i);
+            if (c >= '0' && c <= '9') {
+                any = true;
+                if (mantissa == 0 && c == '0' && !seenDot) {
+                    continue;
+                }
+                if (++digits > 15) {
+                    return slowParse(copy(buf, from, to), 0, to - from);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (seenDot) {
+                    scale++;
+                }
+            } else if (c == '.' && !seenDot) {
+                seenDot = true;
+            } else {
+                return slowParse(copy(buf, from, to), 0, to - from);
+            }
+        }
+        if (!any) {
+            return slowParse(copy(buf, from, to), 0, to - from);
+        }
+        double value = scale == 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    private static byte[] copy(ByteBuffer buf, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buf.get(from, bytes);
+        return bytes;
+    }
+
+    private static double slowParse(byte[] b, int from, int to) {
+        String text = new String(b, from, to - from, StandardCharsets.US_ASCII);
+        switch (text) {
+            case "+Inf":
+            case "Inf":
+                return Double.POSITIVE_INFINITY;
+            case "-Inf":
+                return Double.NEGATIVE_INFINITY;
+            default:
+                return Double.parseDouble(text);
+        }
+    }
+}
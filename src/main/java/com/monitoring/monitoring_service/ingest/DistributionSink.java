@@ -0,0 +1,15 @@
+package com.monitoring.monitoring_service.ingest;
+
+import com.monitoring.monitoring_service.storage.DDSketch;
+
+/**
+ * Receives pre-aggregated distributions, e.g. the timer values of one StatsD interval.
+ * The sketch is only valid during the call.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@FunctionalInterface
+public interface DistributionSink {
+    void accept(String serviceName, String metricName, long timestampMs, DDSketch sketch);
+}
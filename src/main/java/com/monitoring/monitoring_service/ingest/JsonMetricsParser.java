@@ -0,0 +1,101 @@
+package com.monitoring.monitoring_service.ingest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Parses a JSON object of metric values, as served by the {@code /metrics} endpoint:
+ *
+ * <pre>
+ * {"cpu": 72, "memory": 45.5, "requests": 523, "jvm": {"threads": 31}}
+ * </pre>
+ *
+ * Every numeric field becomes one sample named after the field; integers, longs and
+ * decimals are read the same way, straight from the token into a {@code double}.
+ * Fields of nested objects are named by their dotted path ({@code jvm.threads}).
+ * Non-numeric fields are counted as rejected and skipped.
+ *
+ * The tokens are read with Jackson's streaming {@link JsonParser}, so no tree, map or
+ * boxed number is built. Field names come from the factory's shared symbol table and
+ * are not allocated again once seen.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Component
+public class JsonMetricsParser implements SampleParser {
+
+    private static final int MAX_DEPTH = 8;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Override
+    public ParseStats parse(InputStream in, String defaultService, long defaultTimestampMs, SampleSink sink)
+            throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            return parse(parser, defaultService, defaultTimestampMs, sink);
+        }
+    }
+
+    /**
+     * Same as {@link #parse(InputStream, String, long, SampleSink)} for a body already in memory.
+     */
+    public ParseStats parse(byte[] body, String defaultService, long defaultTimestampMs, SampleSink sink)
+            throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            return parse(parser, defaultService, defaultTimestampMs, sink);
+        }
+    }
+
+    private ParseStats parse(JsonParser parser, String service, long timestampMs, SampleSink sink) throws IOException {
+        ParseStats stats = new ParseStats();
+        JsonToken first = parser.nextToken();
+        if (first == null) {
+            return stats;
+        }
+        if (first != JsonToken.START_OBJECT) {
+            stats.rejected(parser.currentLocation().getLineNr(), "expected a JSON object");
+            return stats;
+        }
+        try {
+            readObject(parser, null, 1, service, timestampMs, sink, stats);
+        } catch (JsonParseException e) {
+            // Samples read before the malformed token stay accepted
+            stats.rejected(parser.currentLocation().getLineNr(), e.getOriginalMessage());
+        }
+        return stats;
+    }
+
+    private void readObject(JsonParser parser, String prefix, int depth, String service, long timestampMs,
+                            SampleSink sink, ParseStats stats) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            String name = prefix == null ? field : prefix + '.' + field;
+            JsonToken value = parser.nextToken();
+            switch (value) {
+                case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> {
+                    sink.accept(service, name, timestampMs, parser.getDoubleValue());
+                    stats.accepted();
+                }
+                case START_OBJECT -> {
+                    if (depth < MAX_DEPTH) {
+                        readObject(parser, name, depth + 1, service, timestampMs, sink, stats);
+                    } else {
+                        stats.rejected(parser.currentLocation().getLineNr(), name + ": nested too deep");
+                        parser.skipChildren();
+                    }
+                }
+                default -> {
+                    stats.rejected(parser.currentLocation().getLineNr(), name + ": not a number");
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.monitoring.monitoring_service.ingest;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Parses the compact line protocol: one sample per line,
+ *
+ * <pre>
+ * &lt;service&gt; &lt;metric&gt; &lt;value&gt; [&lt;timestampMs&gt;]
+ * </pre>
+ *
+ * separated by spaces or tabs. Empty lines and lines starting with {@code #} are skipped.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Component
+public class LineProtocolParser implements SampleParser {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public ParseStats parse(InputStream in, String defaultService, long defaultTimestampMs, SampleSink sink)
+            throws IOException {
+        ParseStats stats = new ParseStats();
+        ByteLineReader reader = new ByteLineReader(in, BUFFER_SIZE);
+        TextTokens.Cache services = new TextTokens.Cache();
+        TextTokens.Cache metrics = new TextTokens.Cache();
+        long lineNo = 0;
+
+        while (reader.next()) {
+            lineNo++;
+            byte[] b = reader.buffer();
+            int end = reader.end();
+            int i = TextTokens.skipSpaces(b, reader.start(), end);
+            if (i == end || b[i] == '#') {
+                continue;
+            }
+
+            int serviceEnd = TextTokens.tokenEnd(b, i, end);
+            int metricStart = TextTokens.skipSpaces(b, serviceEnd, end);
+            int metricEnd = TextTokens.tokenEnd(b, metricStart, end);
+            int valueStart = TextTokens.skipSpaces(b, metricEnd, end);
+            int valueEnd = TextTokens.tokenEnd(b, valueStart, end);
+            if (metricStart == metricEnd || valueStart == valueEnd) {
+                stats.rejected(lineNo, "expected <service> <metric> <value> [<timestampMs>]");
+                continue;
+            }
+            int tsStart = TextTokens.skipSpaces(b, valueEnd, end);
+            int tsEnd = TextTokens.tokenEnd(b, tsStart, end);
+            if (TextTokens.skipSpaces(b, tsEnd, end) != end) {
+                stats.rejected(lineNo, "unexpected trailing text");
+                continue;
+            }
+
+            try {
+                double value = ByteNumbers.parseDouble(b, valueStart, valueEnd);
+                long timestampMs = tsStart < tsEnd ? ByteNumbers.parseLong(b, tsStart, tsEnd) : defaultTimestampMs;
+                sink.accept(services.get(b, i, serviceEnd), metrics.get(b, metricStart, metricEnd), timestampMs, value);
+                stats.accepted();
+            } catch (NumberFormatException e) {
+                stats.rejected(lineNo, "invalid number: " + e.getMessage());
+            }
+        }
+        return stats;
+    }
+}
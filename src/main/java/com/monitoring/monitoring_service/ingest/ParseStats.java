@@ -0,0 +1,27 @@
+package com.monitoring.monitoring_service.ingest;
+
+import lombok.Getter;
+
+/**
+ * Outcome of parsing one request body.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Getter
+public class ParseStats {
+
+    private long accepted;
+    private long rejected;
+    private String firstError; // line number and reason of the first rejected line
+
+    void accepted() {
+        accepted++;
+    }
+
+    void rejected(long lineNo, String reason) {
+        if (rejected++ == 0) {
+            firstError = "line " + lineNo + ": " + reason;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.monitoring.monitoring_service.ingest;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses the Prometheus text exposition format:
+ *
+ * <pre>
+ * metric_name{label="value",...} value [timestampMs]
+ * </pre>
+ *
+ * The service of a sample is taken from its {@code service} label, else its {@code job}
+ * label, else the request default. All other labels stay part of the metric name
+ * (e.g. {@code http_requests_total{method="GET"}}) so distinct label sets are distinct series.
+ * {@code # HELP} / {@code # TYPE} comments are skipped.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Component
+public class PrometheusTextParser implements SampleParser {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public ParseStats parse(InputStream in, String defaultService, long defaultTimestampMs, SampleSink sink)
+            throws IOException {
+        ParseStats stats = new ParseStats();
+        ByteLineReader reader = new ByteLineReader(in, BUFFER_SIZE);
+        LineState line = new LineState();
+        long lineNo = 0;
+
+        while (reader.next()) {
+            lineNo++;
+            byte[] b = reader.buffer();
+            int end = reader.end();
+            int i = TextTokens.skipSpaces(b, reader.start(), end);
+            if (i == end || b[i] == '#') {
+                continue;
+            }
+            try {
+                line.parse(b, i, end, defaultService, defaultTimestampMs);
+                sink.accept(line.service, line.metric.toString(), line.timestampMs, line.value);
+                stats.accepted();
+            } catch (IllegalArgumentException e) {
+                // NumberFormatException included
+                stats.rejected(lineNo, e.getMessage());
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Reusable per-request parse state, so a line allocates only its metric name.
+     */
+    private static final class LineState {
+        private final StringBuilder metric = new StringBuilder(128);
+        private final TextTokens.Cache serviceLabels = new TextTokens.Cache();
+        private String service;
+        private double value;
+        private long timestampMs;
+
+        void parse(byte[] b, int i, int end, String defaultService, long defaultTimestampMs) {
+            metric.setLength(0);
+            service = defaultService;
+            boolean serviceLabelSeen = false;
+
+            int nameStart = i;
+            while (i < end && b[i] != '{' && !TextTokens.isSpace(b[i])) {
+                i++;
+            }
+            if (i == nameStart) {
+                throw new IllegalArgumentException("missing metric name");
+            }
+            TextTokens.appendUtf8(metric, b, nameStart, i);
+
+            if (i < end && b[i] == '{') {
+                i++;
+                int labelsKept = 0;
+                while (true) {
+                    i = TextTokens.skipSpaces(b, i, end);
+                    if (i < end && b[i] == '}') {
+                        i++;
+                        break;
+                    }
+                    int keyStart = i;
+                    while (i < end && b[i] != '=' && !TextTokens.isSpace(b[i])) {
+                        i++;
+                    }
+                    int keyEnd = i;
+                    i = TextTokens.skipSpaces(b, i, end);
+                    if (keyStart == keyEnd || i + 1 >= end || b[i] != '=' || b[i + 1] != '"') {
+                        throw new IllegalArgumentException("malformed label set");
+                    }
+                    int valueStart = i + 2;
+                    i = valueStart;
+                    while (i < end && b[i] != '"') {
+                        i += b[i] == '\\' ? 2 : 1;
+                    }
+                    if (i >= end) {
+                        throw new IllegalArgumentException("unterminated label value");
+                    }
+                    int valueEnd = i++;
+
+                    boolean isService = equalsAscii(b, keyStart, keyEnd, "service");
+                    boolean isJob = equalsAscii(b, keyStart, keyEnd, "job");
+                    if (isService || (isJob && !serviceLabelSeen)) {
+                        service = unescape(b, valueStart, valueEnd);
+                        serviceLabelSeen |= isService;
+                    } else if (!isJob) {
+                        // Keep the label in the series name exactly as written
+                        metric.append(labelsKept++ == 0 ? '{' : ',');
+                        TextTokens.appendUtf8(metric, b, keyStart, keyEnd);
+                        metric.append("=\"");
+                        TextTokens.appendUtf8(metric, b, valueStart, valueEnd);
+                        metric.append('"');
+                    }
+
+                    i = TextTokens.skipSpaces(b, i, end);
+                    if (i < end && b[i] == ',') {
+                        i++;
+                    }
+                }
+                if (labelsKept > 0) {
+                    metric.append('}');
+                }
+            }
+
+            int valueStart = TextTokens.skipSpaces(b, i, end);
+            int valueEnd = TextTokens.tokenEnd(b, valueStart, end);
+            if (valueStart == valueEnd) {
+                throw new IllegalArgumentException("missing value");
+            }
+            value = ByteNumbers.parseDouble(b, valueStart, valueEnd);
+
+            int tsStart = TextTokens.skipSpaces(b, valueEnd, end);
+            int tsEnd = TextTokens.tokenEnd(b, tsStart, end);
+            timestampMs = tsStart < tsEnd ? ByteNumbers.parseLong(b, tsStart, tsEnd) : defaultTimestampMs;
+            if (TextTokens.skipSpaces(b, tsEnd, end) != end) {
+                throw new IllegalArgumentException("unexpected trailing text");
+            }
+        }
+
+        private String unescape(byte[] b, int from, int to) {
+            boolean escaped = false;
+            for (int i = from; i < to; i++) {
+                if (b[i] == '\\') {
+                    escaped = true;
+                    break;
+                }
+            }
+            if (!escaped) {
+                return serviceLabels.get(b, from, to);
+            }
+            byte[] out = new byte[to - from];
+            int n = 0;
+            for (int i = from; i < to; i++) {
+                if (b[i] == '\\' && i + 1 < to) {
+                    byte next = b[++i];
+                    out[n++] = next == 'n' ? (byte) '\n' : next;
+                } else {
+                    out[n++] = b[i];
+                }
+            }
+            return new String(out, 0, n, StandardCharsets.UTF_8);
+        }
+
+        private static boolean equalsAscii(byte[] b, int from, int to, String text) {
+            if (to - from != text.length()) {
+                return false;
+            }
+            for (int i = 0; i < text.length(); i++) {
+                if (b[from + i] != text.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.monitoring.monitoring_service.ingest;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes a text body into samples while reading it, one line at a time.
+ * Malformed lines are counted and skipped; they never abort the batch.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+public interface SampleParser {
+
+    /**
+     * @param in                 request body
+     * @param defaultService     service of samples that do not name one
+     * @param defaultTimestampMs timestamp of samples that do not carry one
+     * @param sink               receives every decoded sample
+     * @return accepted/rejected counts
+     */
+    ParseStats parse(InputStream in, String defaultService, long defaultTimestampMs, SampleSink sink)
+            throws IOException;
+}
@@ -0,0 +1,12 @@
+package com.monitoring.monitoring_service.ingest;
+
+/**
+ * Receives the samples decoded by a {@link SampleParser}.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@FunctionalInterface
+public interface SampleSink {
+    void accept(String serviceName, String metricName, long timestampMs, double value);
+}
@@ -0,0 +1,50 @@
+package com.monitoring.monitoring_service.ingest;
+
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * Decodes a scrape response into samples, picking the parser from the body itself:
+ * a body starting with {@code '{'} is a JSON object of metric values
+ * ({@link JsonMetricsParser}), anything else the Prometheus text exposition format
+ * ({@link PrometheusTextParser}).
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Component
+public class ScrapeDecoder {
+
+    private final JsonMetricsParser jsonParser;
+    private final PrometheusTextParser prometheusParser;
+
+    public ScrapeDecoder(JsonMetricsParser jsonParser, PrometheusTextParser prometheusParser) {
+        this.jsonParser = jsonParser;
+        this.prometheusParser = prometheusParser;
+    }
+
+    /**
+     * @param body        scrape response body
+     * @param service     service of samples that do not name one, normally the target name
+     * @param timestampMs timestamp of samples that do not carry one, normally the scrape time
+     * @param sink        receives every decoded sample
+     * @return accepted/rejected counts
+     */
+    public ParseStats decode(byte[] body, String service, long timestampMs, SampleSink sink) throws IOException {
+        if (isJson(body)) {
+            return jsonParser.parse(body, service, timestampMs, sink);
+        }
+        return prometheusParser.parse(new ByteArrayInputStream(body), service, timestampMs, sink);
+    }
+
+    private static boolean isJson(byte[] body) {
+        for (byte b : body) {
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                return b == '{';
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,308 @@
+package com.monitoring.monitoring_service.ingest;
+
+import com.monitoring.monitoring_service.storage.DDSketch;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * StatsdAggregator pre-aggregates StatsD counters, gauges and timers between flushes.
+ *
+ * <p>Keys are (metric name, type, service tag) byte sequences held in an open-addressing
+ * table over primitive arrays. Looking up an existing key hashes and compares bytes
+ * straight from the receive buffer, so recording a sample allocates nothing; memory is
+ * only allocated the first time a key is seen. The table is bounded by {@code maxKeys};
+ * keys that received nothing for {@code maxIdleFlushes} flushes are evicted, which frees
+ * room for new keys (an evicted gauge starts again from 0 for relative updates).
+ * Timers also fold every value into a quantile sketch of the key, reused across intervals,
+ * so percentiles survive the aggregation.
+ *
+ * <p>Not thread-safe: owned by the listener thread.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+final class StatsdAggregator {
+
+    static final byte COUNTER = 'c';
+    static final byte GAUGE = 'g';
+    static final byte TIMER = 't';
+
+    private final int maxKeys;
+    private final int maxIdleFlushes; // 0 = keys are never evicted
+    private final String defaultService;
+    private final int[] table; // slot + 1, 0 = empty
+    private final int mask;
+
+    private final int[] hashes;
+    private final int[] keyOffsets;
+    private final int[] keyLengths;
+    private final byte[] types;
+    private final double[] sums;
+    private final double[] mins;
+    private final double[] maxes;
+    private final long[] counts;
+    private final double[] gauges;
+    private final boolean[] dirty;
+    private final int[] idleFlushes;
+    private final String[] services;
+    private final String[][] metricNames; // counter/gauge: {name}; timer: {count, avg, min, max, name}
+    private final DDSketch[] sketches; // timers only
+    private final double sketchRelativeAccuracy;
+    private final int sketchMaxBins;
+    private byte[] arena = new byte[64 * 1024];
+    private int arenaSize;
+    private int size;
+
+    StatsdAggregator(int maxKeys, int maxIdleFlushes, String defaultService,
+                     double sketchRelativeAccuracy, int sketchMaxBins) {
+        this.maxKeys = maxKeys;
+        this.maxIdleFlushes = maxIdleFlushes;
+        this.defaultService = defaultService;
+        this.sketchRelativeAccuracy = sketchRelativeAccuracy;
+        this.sketchMaxBins = sketchMaxBins;
+        int capacity = Integer.highestOneBit(Math.max(4, maxKeys * 2 - 1)) << 1;
+        this.table = new int[capacity];
+        this.mask = capacity - 1;
+        this.hashes = new int[maxKeys];
+        this.keyOffsets = new int[maxKeys];
+        this.keyLengths = new int[maxKeys];
+        this.types = new byte[maxKeys];
+        this.sums = new double[maxKeys];
+        this.mins = new double[maxKeys];
+        this.maxes = new double[maxKeys];
+        this.counts = new long[maxKeys];
+        this.gauges = new double[maxKeys];
+        this.dirty = new boolean[maxKeys];
+        this.idleFlushes = new int[maxKeys];
+        this.services = new String[maxKeys];
+        this.metricNames = new String[maxKeys][];
+        this.sketches = new DDSketch[maxKeys];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Folds one sample into its key.
+     *
+     * @param relative for gauges: the value is added to the current one ("+5" / "-5")
+     * @return false if the key is new and the table is full
+     */
+    boolean record(ByteBuffer buf, int nameStart, int nameEnd, byte type, int serviceStart, int serviceEnd,
+                   double value, boolean relative) {
+        int hash = hash(buf, nameStart, nameEnd, type, serviceStart, serviceEnd);
+        int slot = find(buf, hash, nameStart, nameEnd, type, serviceStart, serviceEnd);
+        if (slot < 0) {
+            return false;
+        }
+
+        switch (type) {
+            case COUNTER -> sums[slot] += value;
+            case GAUGE -> gauges[slot] = relative ? gauges[slot] + value : value;
+            default -> {
+                sums[slot] += value;
+                mins[slot] = Math.min(mins[slot], value);
+                maxes[slot] = Math.max(maxes[slot], value);
+                counts[slot]++;
+                sketches[slot].add(value);
+            }
+        }
+        dirty[slot] = true;
+        return true;
+    }
+
+    /**
+     * Emits every key updated since the last flush and resets counters and timers.
+     * Gauges keep their value so relative updates continue from it; timers also hand
+     * their sketch, under the timer name, to the distribution sink. Keys idle for
+     * {@code maxIdleFlushes} flushes are evicted afterwards.
+     *
+     * @return the number of evicted keys
+     */
+    int flush(long timestampMs, SampleSink sink, DistributionSink distributions) {
+        boolean expired = false;
+        for (int slot = 0; slot < size; slot++) {
+            if (!dirty[slot]) {
+                if (maxIdleFlushes > 0 && ++idleFlushes[slot] >= maxIdleFlushes) {
+                    expired = true;
+                }
+                continue;
+            }
+            idleFlushes[slot] = 0;
+            String[] names = metricNames[slot];
+            switch (types[slot]) {
+                case COUNTER -> sink.accept(services[slot], names[0], timestampMs, sums[slot]);
+                case GAUGE -> sink.accept(services[slot], names[0], timestampMs, gauges[slot]);
+                default -> {
+                    sink.accept(services[slot], names[0], timestampMs, counts[slot]);
+                    sink.accept(services[slot], names[1], timestampMs, sums[slot] / counts[slot]);
+                    sink.accept(services[slot], names[2], timestampMs, mins[slot]);
+                    sink.accept(services[slot], names[3], timestampMs, maxes[slot]);
+                    distributions.accept(services[slot], names[4], timestampMs, sketches[slot]);
+                }
+            }
+            resetInterval(slot);
+            dirty[slot] = false;
+        }
+        return expired ? evictIdle() : 0;
+    }
+
+    /**
+     * Drops the expired keys, moves the others down to the lowest slots with their key bytes
+     * packed into a new arena, and rebuilds the hash table from the stored hashes.
+     */
+    private int evictIdle() {
+        byte[] packed = new byte[arena.length];
+        int packedSize = 0;
+        int live = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (idleFlushes[slot] >= maxIdleFlushes) {
+                continue;
+            }
+            System.arraycopy(arena, keyOffsets[slot], packed, packedSize, keyLengths[slot]);
+            if (live != slot) {
+                move(slot, live);
+            }
+            keyOffsets[live] = packedSize;
+            packedSize += keyLengths[live];
+            live++;
+        }
+        int evicted = size - live;
+        for (int slot = live; slot < size; slot++) {
+            services[slot] = null;
+            metricNames[slot] = null;
+            sketches[slot] = null;
+            dirty[slot] = false;
+            idleFlushes[slot] = 0;
+        }
+        arena = packed;
+        arenaSize = packedSize;
+        size = live;
+
+        Arrays.fill(table, 0);
+        for (int slot = 0; slot < size; slot++) {
+            int index = hashes[slot] & mask;
+            while (table[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            table[index] = slot + 1;
+        }
+        return evicted;
+    }
+
+    private void move(int from, int to) {
+        hashes[to] = hashes[from];
+        keyLengths[to] = keyLengths[from];
+        types[to] = types[from];
+        sums[to] = sums[from];
+        mins[to] = mins[from];
+        maxes[to] = maxes[from];
+        counts[to] = counts[from];
+        gauges[to] = gauges[from];
+        dirty[to] = dirty[from];
+        idleFlushes[to] = idleFlushes[from];
+        services[to] = services[from];
+        metricNames[to] = metricNames[from];
+        sketches[to] = sketches[from];
+    }
+
+    private int find(ByteBuffer buf, int hash, int nameStart, int nameEnd, byte type, int serviceStart, int serviceEnd) {
+        int index = hash & mask;
+        while (true) {
+            int entry = table[index];
+            if (entry == 0) {
+                if (size == maxKeys) {
+                    return -1;
+                }
+                int slot = create(buf, hash, nameStart, nameEnd, type, serviceStart, serviceEnd);
+                table[index] = slot + 1;
+                return slot;
+            }
+            int slot = entry - 1;
+            if (hashes[slot] == hash && types[slot] == type
+                    && keyEquals(slot, buf, nameStart, nameEnd, serviceStart, serviceEnd)) {
+                return slot;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private boolean keyEquals(int slot, ByteBuffer buf, int nameStart, int nameEnd, int serviceStart, int serviceEnd) {
+        int nameLength = nameEnd - nameStart;
+        int serviceLength = serviceEnd - serviceStart;
+        if (keyLengths[slot] != nameLength + 1 + serviceLength) {
+            return false;
+        }
+        int offset = keyOffsets[slot];
+        for (int i = 0; i < nameLength; i++) {
+            if (arena[offset + i] != buf.get(nameStart + i)) {
+                return false;
+            }
+        }
+        offset += nameLength + 1; // skip separator
+        for (int i = 0; i < serviceLength; i++) {
+            if (arena[offset + i] != buf.get(serviceStart + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int create(ByteBuffer buf, int hash, int nameStart, int nameEnd, byte type, int serviceStart, int serviceEnd) {
+        int nameLength = nameEnd - nameStart;
+        int serviceLength = serviceEnd - serviceStart;
+        int length = nameLength + 1 + serviceLength;
+        if (arenaSize + length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + length));
+        }
+        int offset = arenaSize;
+        buf.get(nameStart, arena, offset, nameLength);
+        arena[offset + nameLength] = '|';
+        buf.get(serviceStart, arena, offset + nameLength + 1, serviceLength);
+        arenaSize += length;
+
+        int slot = size++;
+        hashes[slot] = hash;
+        idleFlushes[slot] = 0;
+        gauges[slot] = 0;
+        keyOffsets[slot] = offset;
+        keyLengths[slot] = length;
+        types[slot] = type;
+        services[slot] = serviceLength > 0
+                ? new String(arena, offset + nameLength + 1, serviceLength, StandardCharsets.UTF_8)
+                : defaultService;
+        String name = new String(arena, offset, nameLength, StandardCharsets.UTF_8);
+        metricNames[slot] = type == TIMER
+                ? new String[]{name + ".count", name + ".avg", name + ".min", name + ".max", name}
+                : new String[]{name};
+        if (type == TIMER) {
+            sketches[slot] = new DDSketch(sketchRelativeAccuracy, sketchMaxBins);
+        }
+        resetInterval(slot);
+        return slot;
+    }
+
+    private void resetInterval(int slot) {
+        sums[slot] = 0;
+        counts[slot] = 0;
+        mins[slot] = Double.POSITIVE_INFINITY;
+        maxes[slot] = Double.NEGATIVE_INFINITY;
+        if (sketches[slot] != null) {
+            sketches[slot].clear();
+        }
+    }
+
+    private static int hash(ByteBuffer buf, int nameStart, int nameEnd, byte type, int serviceStart, int serviceEnd) {
+        int h = type;
+        for (int i = nameStart; i < nameEnd; i++) {
+            h = 31 * h + buf.get(i);
+        }
+        for (int i = serviceStart; i < serviceEnd; i++) {
+            h = 31 * h + buf.get(i);
+        }
+        return h ^ (h >>> 16);
+    }
+}
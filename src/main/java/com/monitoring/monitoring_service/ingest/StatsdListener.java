@@ -0,0 +1,411 @@
+package com.monitoring.monitoring_service.ingest;
+
+import com.monitoring.monitoring_service.config.StatsdConfig;
+import com.monitoring.monitoring_service.config.StorageConfig;
+import com.monitoring.monitoring_service.service.DistributionService;
+import com.monitoring.monitoring_service.service.MetricIngestionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * StatsdListener receives StatsD-style metrics over UDP and TCP, bypassing HTTP entirely.
+ *
+ * <p>Lines look like {@code <name>:<value>|<type>[|@<rate>][|#<tag>:<value>,...]} with type
+ * {@code c} (counter), {@code g} (gauge; a leading +/- makes it relative) or {@code ms}/{@code h}/{@code d}
+ * (timer). A {@code service} tag selects the service; other tags are ignored.
+ *
+ * <p>One thread runs a selector over the UDP channel, the TCP server and its connections.
+ * Datagrams and TCP reads land in pooled direct buffers, are parsed in place and folded into
+ * a {@link StatsdAggregator}; nothing is allocated per packet once a key has been seen. Every
+ * {@code flushIntervalMs} the aggregates are handed to {@link MetricIngestionService#ingestSample}:
+ * counters as the (rate-corrected) sum of the interval, gauges as their current value, timers
+ * as {@code .count}, {@code .avg}, {@code .min} and {@code .max}. The values of each timer are
+ * also kept in a quantile sketch and merged into the distribution of the timer name through
+ * {@link DistributionService#merge}, so its percentiles can be queried and alerted on.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@Component
+public class StatsdListener {
+
+    private final StatsdConfig config;
+    private final StorageConfig storageConfig;
+    private final MetricIngestionService ingestionService;
+    private final DistributionService distributionService;
+
+    private final Counter udpPacketsCounter;
+    private final Counter tcpReadsCounter;
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter droppedCounter;
+    private final Counter refusedCounter;
+    private final Counter evictedCounter;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger keys = new AtomicInteger();
+
+    // Counted locally on the listener thread and published at every flush
+    private long udpPackets;
+    private long tcpReads;
+    private long accepted;
+    private long rejected;
+    private long dropped;
+    private long refused;
+
+    private final ArrayDeque<ByteBuffer> bufferPool = new ArrayDeque<>();
+    private StatsdAggregator aggregator;
+    private Selector selector;
+    private DatagramChannel udpChannel;
+    private ServerSocketChannel tcpChannel;
+    private ByteBuffer udpBuffer;
+    private Thread thread;
+    private volatile boolean running;
+
+    public StatsdListener(StatsdConfig config,
+                          StorageConfig storageConfig,
+                          MetricIngestionService ingestionService,
+                          DistributionService distributionService,
+                          MeterRegistry meterRegistry) {
+        this.config = config;
+        this.storageConfig = storageConfig;
+        this.ingestionService = ingestionService;
+        this.distributionService = distributionService;
+        this.udpPacketsCounter = meterRegistry.counter("monitoring.statsd.packets", "transport", "udp");
+        this.tcpReadsCounter = meterRegistry.counter("monitoring.statsd.packets", "transport", "tcp");
+        this.acceptedCounter = meterRegistry.counter("monitoring.statsd.lines", "outcome", "accepted");
+        this.rejectedCounter = meterRegistry.counter("monitoring.statsd.lines", "outcome", "rejected");
+        this.droppedCounter = meterRegistry.counter("monitoring.statsd.lines", "outcome", "dropped");
+        this.refusedCounter = meterRegistry.counter("monitoring.statsd.connections.refused");
+        this.evictedCounter = meterRegistry.counter("monitoring.statsd.keys.evicted");
+        meterRegistry.gauge("monitoring.statsd.connections", connections);
+        meterRegistry.gauge("monitoring.statsd.keys", keys);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!config.isEnabled()) {
+            log.info("StatsD listener disabled");
+            return;
+        }
+        aggregator = new StatsdAggregator(config.getMaxKeys(), config.getKeyIdleFlushes(), config.getDefaultService(),
+                storageConfig.getSketchRelativeAccuracy(), storageConfig.getSketchMaxBins());
+        selector = Selector.open();
+
+        if (config.getUdpPort() > 0) {
+            udpChannel = DatagramChannel.open();
+            udpChannel.setOption(StandardSocketOptions.SO_RCVBUF, 4 * 1024 * 1024);
+            udpChannel.bind(new InetSocketAddress(config.getBindAddress(), config.getUdpPort()));
+            udpChannel.configureBlocking(false);
+            udpChannel.register(selector, SelectionKey.OP_READ);
+            udpBuffer = ByteBuffer.allocateDirect(config.getBufferSize());
+        }
+        if (config.getTcpPort() > 0) {
+            tcpChannel = ServerSocketChannel.open();
+            tcpChannel.bind(new InetSocketAddress(config.getBindAddress(), config.getTcpPort()));
+            tcpChannel.configureBlocking(false);
+            tcpChannel.register(selector, SelectionKey.OP_ACCEPT);
+        }
+
+        running = true;
+        thread = new Thread(this::loop, "statsd-listener");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("StatsD listener started bind={} udpPort={} tcpPort={} flushIntervalMs={}",
+                config.getBindAddress(), config.getUdpPort(), config.getTcpPort(), config.getFlushIntervalMs());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        thread.join(5000);
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void loop() {
+        long nextFlush = System.currentTimeMillis() + config.getFlushIntervalMs();
+        while (running) {
+            try {
+                long wait = nextFlush - System.currentTimeMillis();
+                if (wait > 0) {
+                    selector.select(wait);
+                }
+                Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+                while (selected.hasNext()) {
+                    SelectionKey key = selected.next();
+                    selected.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else if (key.channel() == udpChannel) {
+                        receiveDatagrams();
+                    } else {
+                        readConnection(key);
+                    }
+                }
+                if (System.currentTimeMillis() >= nextFlush) {
+                    flush();
+                    nextFlush = System.currentTimeMillis() + config.getFlushIntervalMs();
+                }
+            } catch (IOException e) {
+                log.warn("StatsD listener error: {}", e.getMessage());
+            }
+        }
+        flush();
+    }
+
+    private void receiveDatagrams() throws IOException {
+        // The JDK reuses the sender address object while the sender does not change
+        while (udpChannel.receive(udpBuffer) != null) {
+            udpPackets++;
+            parseLines(udpBuffer, 0, udpBuffer.position());
+            udpBuffer.clear();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = tcpChannel.accept()) != null) {
+            if (connections.get() >= config.getMaxConnections()) {
+                refused++;
+                channel.close();
+                continue;
+            }
+            channel.configureBlocking(false);
+            ByteBuffer buffer = bufferPool.poll();
+            channel.register(selector, SelectionKey.OP_READ,
+                    new Connection(buffer != null ? buffer : ByteBuffer.allocateDirect(config.getBufferSize())));
+            connections.incrementAndGet();
+        }
+    }
+
+    private void readConnection(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+        ByteBuffer buffer = connection.buffer;
+        int read;
+        try {
+            read = channel.read(buffer);
+        } catch (IOException e) {
+            read = -1;
+        }
+        if (read > 0) {
+            tcpReads++;
+            int start = 0;
+            int end = buffer.position();
+            if (connection.discarding) {
+                // Skip the rest of a line longer than the buffer
+                int newline = indexOf(buffer, 0, end, (byte) '\n');
+                if (newline < 0) {
+                    buffer.clear();
+                    return;
+                }
+                connection.discarding = false;
+                start = newline + 1;
+            }
+            int lastNewline = end - 1;
+            while (lastNewline >= start && buffer.get(lastNewline) != '\n') {
+                lastNewline--;
+            }
+            if (lastNewline >= start) {
+                parseLines(buffer, start, lastNewline);
+                start = lastNewline + 1;
+            } else if (start == 0 && !buffer.hasRemaining()) {
+                dropped++; // a line longer than the buffer
+                connection.discarding = true;
+                buffer.clear();
+                return;
+            }
+            // Keep the unfinished line for the next read
+            buffer.limit(end).position(start);
+            buffer.compact();
+        } else if (read < 0) {
+            key.cancel();
+            channel.close();
+            buffer.clear();
+            bufferPool.push(buffer);
+            connections.decrementAndGet();
+        }
+    }
+
+    /**
+     * Parses every newline-separated line in {@code [from, to)}.
+     */
+    private void parseLines(ByteBuffer buf, int from, int to) {
+        int lineStart = from;
+        for (int i = from; i <= to; i++) {
+            if (i == to || buf.get(i) == '\n') {
+                int lineEnd = i > lineStart && buf.get(i - 1) == '\r' ? i - 1 : i;
+                if (lineEnd > lineStart) {
+                    parseLine(buf, lineStart, lineEnd);
+                }
+                lineStart = i + 1;
+            }
+        }
+    }
+
+    private void parseLine(ByteBuffer buf, int start, int end) {
+        int colon = indexOf(buf, start, end, (byte) ':');
+        int bar = colon < 0 ? -1 : indexOf(buf, colon + 1, end, (byte) '|');
+        if (colon <= start || bar < 0) {
+            rejected++;
+            return;
+        }
+        int typeEnd = indexOf(buf, bar + 1, end, (byte) '|');
+        if (typeEnd < 0) {
+            typeEnd = end;
+        }
+
+        byte type;
+        int typeLength = typeEnd - bar - 1;
+        byte t0 = typeLength > 0 ? buf.get(bar + 1) : 0;
+        if (typeLength == 1 && t0 == 'c') {
+            type = StatsdAggregator.COUNTER;
+        } else if (typeLength == 1 && t0 == 'g') {
+            type = StatsdAggregator.GAUGE;
+        } else if ((typeLength == 2 && t0 == 'm' && buf.get(bar + 2) == 's')
+                || (typeLength == 1 && (t0 == 'h' || t0 == 'd'))) {
+            type = StatsdAggregator.TIMER;
+        } else {
+            rejected++;
+            return;
+        }
+
+        double rate = 1.0;
+        int serviceStart = 0;
+        int serviceEnd = 0;
+        int section = typeEnd;
+        while (section < end) {
+            int sectionEnd = indexOf(buf, section + 1, end, (byte) '|');
+            if (sectionEnd < 0) {
+                sectionEnd = end;
+            }
+            byte marker = section + 1 < sectionEnd ? buf.get(section + 1) : 0;
+            try {
+                if (marker == '@') {
+                    rate = ByteNumbers.parseDouble(buf, section + 2, sectionEnd);
+                } else if (marker == '#') {
+                    int tag = findTag(buf, section + 2, sectionEnd, "service:");
+                    if (tag >= 0) {
+                        serviceStart = tag;
+                        int comma = indexOf(buf, tag, sectionEnd, (byte) ',');
+                        serviceEnd = comma < 0 ? sectionEnd : comma;
+                    }
+                }
+            } catch (NumberFormatException e) {
+                rejected++;
+                return;
+            }
+            section = sectionEnd;
+        }
+
+        double value;
+        try {
+            value = ByteNumbers.parseDouble(buf, colon + 1, bar);
+        } catch (NumberFormatException e) {
+            rejected++;
+            return;
+        }
+        byte sign = buf.get(colon + 1);
+        boolean relative = type == StatsdAggregator.GAUGE && (sign == '+' || sign == '-');
+        if (type == StatsdAggregator.COUNTER && rate > 0 && rate < 1) {
+            value /= rate;
+        }
+
+        if (aggregator.record(buf, start, colon, type, serviceStart, serviceEnd, value, relative)) {
+            accepted++;
+        } else {
+            dropped++;
+        }
+    }
+
+    private void flush() {
+        long now = System.currentTimeMillis();
+        int evicted = aggregator.flush(now, ingestionService::ingestSample, distributionService::merge);
+        keys.set(aggregator.size());
+        evictedCounter.increment(evicted);
+
+        udpPacketsCounter.increment(udpPackets);
+        tcpReadsCounter.increment(tcpReads);
+        acceptedCounter.increment(accepted);
+        rejectedCounter.increment(rejected);
+        droppedCounter.increment(dropped);
+        refusedCounter.increment(refused);
+        if (rejected > 0 || dropped > 0) {
+            log.warn("StatsD interval: accepted={} rejected={} dropped={}", accepted, rejected, dropped);
+        }
+        udpPackets = tcpReads = accepted = rejected = dropped = refused = 0;
+    }
+
+    private static int indexOf(ByteBuffer buf, int from, int to, byte b) {
+        for (int i = from; i < to; i++) {
+            if (buf.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return index of the value of the tag with the given prefix in a comma-separated list, or -1
+     */
+    private static int findTag(ByteBuffer buf, int from, int to, String prefix) {
+        int tagStart = from;
+        while (tagStart < to) {
+            int tagEnd = indexOf(buf, tagStart, to, (byte) ',');
+            if (tagEnd < 0) {
+                tagEnd = to;
+            }
+            if (tagEnd - tagStart >= prefix.length()) {
+                boolean match = true;
+                for (int i = 0; i < prefix.length() && match; i++) {
+                    match = buf.get(tagStart + i) == prefix.charAt(i);
+                }
+                if (match) {
+                    return tagStart + prefix.length();
+                }
+            }
+            tagStart = tagEnd + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Read state of one TCP connection, attached to its selection key.
+     */
+    private static final class Connection {
+        private final ByteBuffer buffer;
+        // Set after an overlong line, until its terminating newline has been read
+        private boolean discarding;
+
+        private Connection(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+}
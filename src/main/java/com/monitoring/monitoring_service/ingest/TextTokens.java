@@ -0,0 +1,65 @@
+package com.monitoring.monitoring_service.ingest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Small helpers shared by the text parsers.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+final class TextTokens {
+
+    private TextTokens() {
+    }
+
+    static boolean isSpace(byte c) {
+        return c == ' ' || c == '\t';
+    }
+
+    static int skipSpaces(byte[] b, int i, int end) {
+        while (i < end && isSpace(b[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    static int tokenEnd(byte[] b, int i, int end) {
+        while (i < end && !isSpace(b[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Appends UTF-8 bytes, without decoding when they are plain ASCII.
+     */
+    static void appendUtf8(StringBuilder out, byte[] b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (b[i] < 0) {
+                out.append(new String(b, i, to - i, StandardCharsets.UTF_8));
+                return;
+            }
+            out.append((char) b[i]);
+        }
+    }
+
+    /**
+     * Remembers the last decoded token so runs of lines naming the same
+     * service or metric reuse one String instead of decoding it again.
+     */
+    static final class Cache {
+        private byte[] bytes = new byte[0];
+        private String value;
+
+        String get(byte[] b, int from, int to) {
+            if (value != null && Arrays.equals(bytes, 0, bytes.length, b, from, to)) {
+                return value;
+            }
+            bytes = Arrays.copyOfRange(b, from, to);
+            value = new String(b, from, to - from, StandardCharsets.UTF_8);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.monitoring.monitoring_service.loadgen;
+
+import com.monitoring.monitoring_service.config.LoadGeneratorConfig;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * FleetSimulator models a fleet of services whose metrics follow the patterns of real traffic.
+ *
+ * <ul>
+ * <li>Traffic follows a daily wave around each service's base load. Services of the same
+ *     zone share the phase of the wave, like services serving the same region.</li>
+ * <li>CPU, latency, threads, queue depth and connections follow the traffic; latency and
+ *     queue depth grow sharply as CPU approaches saturation.</li>
+ * <li>Short traffic spikes hit single services at random.</li>
+ * <li>Incidents hit whole zones at once: every service of the zone saturates its CPU,
+ *     uses more memory, slows down and returns errors until the incident ends.</li>
+ * </ul>
+ *
+ * Each service has {@code seriesPerService} series, the first three being cpu, memory and
+ * requests. {@link #tick} advances spikes and incidents once per sample interval;
+ * {@link #sample} computes the values of one service at any time and may be called from
+ * other threads.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+public class FleetSimulator {
+
+    private static final String[] SERIES = {
+            "cpu", "memory", "requests", "latency_ms", "error_rate",
+            "gc_pause_ms", "threads", "queue_depth", "disk_used_percent", "connections"};
+
+    private final LoadGeneratorConfig config;
+    private final int services;
+    private final int seriesPerService;
+    private final String[] serviceNames;
+    private final Map<String, Integer> serviceIndex = new HashMap<>();
+    private final Random random;
+
+    // Per-service base levels, drawn once from the seed
+    private final double[] baseRequests;
+    private final double[] cpuIdle;
+    private final double[] cpuPerLoad;
+    private final double[] memoryBase;
+    private final double[] latencyBase;
+    private final double[] diskBase;
+    private final double[] zonePhase;
+
+    // Written by the tick thread, read by sample()
+    private final AtomicLongArray spikeUntil;
+    private final AtomicLongArray incidentOnset;
+    private final AtomicLongArray incidentUntil;
+
+    public FleetSimulator(LoadGeneratorConfig config) {
+        this.config = config;
+        this.services = Math.max(1, config.getServices());
+        this.seriesPerService = Math.max(3, config.getSeriesPerService());
+        this.random = new Random(config.getSeed());
+
+        serviceNames = new String[services];
+        baseRequests = new double[services];
+        cpuIdle = new double[services];
+        cpuPerLoad = new double[services];
+        memoryBase = new double[services];
+        latencyBase = new double[services];
+        diskBase = new double[services];
+        for (int i = 0; i < services; i++) {
+            serviceNames[i] = String.format("fleet-%04d", i);
+            serviceIndex.put(serviceNames[i], i);
+            baseRequests[i] = 50 + random.nextDouble() * 350;
+            cpuIdle[i] = 5 + random.nextDouble() * 10;
+            cpuPerLoad[i] = 20 + random.nextDouble() * 25;
+            memoryBase[i] = 30 + random.nextDouble() * 30;
+            latencyBase[i] = 20 + random.nextDouble() * 100;
+            diskBase[i] = 20 + random.nextDouble() * 40;
+        }
+
+        int zones = (services + zoneSize() - 1) / zoneSize();
+        zonePhase = new double[zones];
+        for (int z = 0; z < zones; z++) {
+            zonePhase[z] = random.nextDouble() * Math.PI / 2;
+        }
+        spikeUntil = new AtomicLongArray(services);
+        incidentOnset = new AtomicLongArray(zones);
+        incidentUntil = new AtomicLongArray(zones);
+    }
+
+    public int getServices() {
+        return services;
+    }
+
+    public int getSeriesPerService() {
+        return seriesPerService;
+    }
+
+    public int getZones() {
+        return zonePhase.length;
+    }
+
+    public String serviceName(int service) {
+        return serviceNames[service];
+    }
+
+    /**
+     * @return the index of the simulated service, or -1 if the name is not one of them
+     */
+    public int serviceIndex(String name) {
+        Integer index = serviceIndex.get(name);
+        return index != null ? index : -1;
+    }
+
+    public static String seriesName(int series) {
+        return series < SERIES.length ? SERIES[series] : "custom_metric_" + series;
+    }
+
+    public int zoneOf(int service) {
+        return service / zoneSize();
+    }
+
+    /**
+     * @return start of the latest incident of the zone, or 0 if it never had one
+     */
+    public long incidentOnset(int zone) {
+        return incidentOnset.get(zone);
+    }
+
+    public long incidentEnd(int zone) {
+        return incidentUntil.get(zone);
+    }
+
+    /**
+     * Starts and ends the spikes and incidents of one sample interval. Called from one thread.
+     *
+     * @return the number of incidents started
+     */
+    public int tick(long nowMs) {
+        long intervalMs = Math.max(1, config.getSampleIntervalMs());
+        for (int i = 0; i < services; i++) {
+            if (spikeUntil.get(i) <= nowMs && random.nextDouble() < config.getSpikeProbability()) {
+                // A spike lasts a few sample intervals
+                spikeUntil.set(i, nowMs + intervalMs * (1 + random.nextInt(5)));
+            }
+        }
+        int started = 0;
+        for (int z = 0; z < zonePhase.length; z++) {
+            if (incidentUntil.get(z) <= nowMs && random.nextDouble() < config.getIncidentProbability()) {
+                incidentOnset.set(z, nowMs);
+                incidentUntil.set(z, nowMs + config.getIncidentDurationMs());
+                started++;
+            }
+        }
+        return started;
+    }
+
+    /**
+     * Computes the values of every series of the service at the given time.
+     *
+     * @param out receives one value per series; at least {@link #getSeriesPerService()} long
+     */
+    public void sample(int service, long nowMs, double[] out) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        double noise = config.getNoise();
+        int zone = zoneOf(service);
+        boolean incident = incidentUntil.get(zone) > nowMs && incidentOnset.get(zone) <= nowMs;
+        double spike = spikeUntil.get(service) > nowMs ? config.getSpikeFactor() : 1;
+
+        double period = Math.max(1, config.getDiurnalPeriodMs());
+        double wave = Math.sin(2 * Math.PI * (nowMs % (long) period) / period + zonePhase[zone]);
+        double load = Math.max(0.05, 1 + config.getDiurnalAmplitude() * wave) * spike;
+
+        double requests = baseRequests[service] * load * jitter(rnd, noise);
+        double cpu = incident
+                ? 92 + rnd.nextDouble() * 8
+                : Math.min(100, cpuIdle[service] + cpuPerLoad[service] * load * jitter(rnd, noise));
+        double memory = Math.min(100, memoryBase[service] + 8 * load * jitter(rnd, noise) + (incident ? 25 : 0));
+        double saturation = Math.pow(cpu / 100, 4);
+
+        out[0] = cpu;
+        out[1] = memory;
+        out[2] = requests;
+        for (int j = 3; j < seriesPerService; j++) {
+            out[j] = switch (j) {
+                case 3 -> latencyBase[service] * (1 + 4 * saturation) * jitter(rnd, noise) * (incident ? 5 : 1);
+                case 4 -> incident ? 5 + rnd.nextDouble() * 15 : 0.05 * load * jitter(rnd, noise);
+                case 5 -> 2 + memory / 10 * jitter(rnd, noise);
+                case 6 -> Math.round(40 + 60 * load);
+                case 7 -> Math.max(0, Math.round(requests * (cpu > 85 ? 0.3 : 0.01) * jitter(rnd, noise)));
+                // Disks fill up over a week and are cleaned up
+                case 8 -> diskBase[service] + 20 * ((nowMs % (long) (7 * period)) / (7 * period));
+                case 9 -> Math.round(requests / 10 * jitter(rnd, noise));
+                default -> 100 * load * jitter(rnd, noise);
+            };
+        }
+    }
+
+    private int zoneSize() {
+        return Math.max(1, config.getZoneSize());
+    }
+
+    private static double jitter(ThreadLocalRandom rnd, double noise) {
+        return Math.max(0, 1 + noise * rnd.nextGaussian());
+    }
+}
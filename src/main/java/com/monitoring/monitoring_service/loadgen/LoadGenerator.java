@@ -0,0 +1,326 @@
+package com.monitoring.monitoring_service.loadgen;
+
+import com.monitoring.monitoring_service.config.LoadGeneratorConfig;
+import com.monitoring.monitoring_service.config.StorageConfig;
+import com.monitoring.monitoring_service.dto.LoadReportDto;
+import com.monitoring.monitoring_service.model.Alarm;
+import com.monitoring.monitoring_service.model.Metric;
+import com.monitoring.monitoring_service.service.MetricIngestionService;
+import com.monitoring.monitoring_service.storage.DDSketch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * LoadGenerator drives a simulated fleet ({@link FleetSimulator}) through the service for
+ * capacity planning.
+ *
+ * <ul>
+ * <li>In push mode every sample interval hands one sample per series of every service
+ *     to {@link MetricIngestionService}, plus one metric row per service, as a scrape
+ *     of the fleet would.</li>
+ * <li>In scrape mode every simulated service is registered as a scrape target served
+ *     by {@code /loadgen/targets/{service}/metrics}, so samples take the full scrape path.</li>
+ * </ul>
+ *
+ * The run is summarized in a {@link LoadReportDto}: sample and row throughput, the lag
+ * from a metric's timestamp to its committed row, and the latency from the start of every
+ * simulated incident to the first notification of an alarm in its zone. The report is
+ * logged periodically and when the run ends, and served by {@code /loadgen/report}.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@Component
+public class LoadGenerator {
+
+    // Rules with a forDuration or a window may fire late; an alarm this long after an incident still belongs to it
+    private static final long DETECTION_GRACE_MS = 60_000;
+
+    private final LoadGeneratorConfig config;
+    private final MetricIngestionService ingestionService;
+    private final LoadGeneratorNotifier notifier;
+    private final StorageConfig storageConfig;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong samplesGenerated = new AtomicLong();
+    private final AtomicLong incidents = new AtomicLong();
+    private final AtomicLong incidentsDetected = new AtomicLong();
+    private final AtomicLong alarms = new AtomicLong();
+    private final AtomicLong alarmsOutsideIncidents = new AtomicLong();
+
+    private FleetSimulator simulator;
+    private String[] seriesNames;
+    private double[] values;
+    private AtomicLongArray detectedOnset; // per zone, onset of the last incident already detected
+    private DDSketch alarmLatency;
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+    private long startMs;
+    private long endMs;
+    private long lastReportMs;
+    private double rowsWrittenAtStart;
+    private double rowsDroppedAtStart;
+    private long lagCountAtStart;
+    private double lagTotalMsAtStart;
+
+    public LoadGenerator(LoadGeneratorConfig config,
+                         MetricIngestionService ingestionService,
+                         LoadGeneratorNotifier notifier,
+                         StorageConfig storageConfig,
+                         MeterRegistry meterRegistry) {
+        this.config = config;
+        this.ingestionService = ingestionService;
+        this.notifier = notifier;
+        this.storageConfig = storageConfig;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        simulator = new FleetSimulator(config);
+        seriesNames = new String[simulator.getSeriesPerService()];
+        for (int j = 0; j < seriesNames.length; j++) {
+            seriesNames[j] = switch (j) {
+                case 0 -> Metric.CPU;
+                case 1 -> Metric.MEMORY;
+                case 2 -> Metric.REQUESTS;
+                default -> FleetSimulator.seriesName(j);
+            };
+        }
+        values = new double[seriesNames.length];
+        detectedOnset = new AtomicLongArray(simulator.getZones());
+        alarmLatency = new DDSketch(storageConfig.getSketchRelativeAccuracy(), storageConfig.getSketchMaxBins());
+
+        startMs = System.currentTimeMillis();
+        lastReportMs = startMs;
+        rowsWrittenAtStart = rowsCounter("written").count();
+        rowsDroppedAtStart = rowsCounter("dropped").count();
+        Timer lag = lagTimer();
+        lagCountAtStart = lag.count();
+        lagTotalMsAtStart = lag.totalTime(TimeUnit.MILLISECONDS);
+
+        notifier.setListener(this::onAlarm);
+        running = true;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "loadgen");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleAtFixedRate(this::tickSafely, 0, Math.max(1, config.getSampleIntervalMs()),
+                TimeUnit.MILLISECONDS);
+        log.info("Load generator started mode={} services={} seriesPerService={} sampleIntervalMs={} durationMs={}",
+                config.getMode(), simulator.getServices(), simulator.getSeriesPerService(),
+                config.getSampleIntervalMs(), config.getDurationMs());
+    }
+
+    @PreDestroy
+    public void stop() {
+        finish();
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * @return the names of the simulated services to scrape; empty unless running in scrape mode
+     */
+    public List<String> scrapeServices() {
+        if (simulator == null || config.getMode() != LoadGeneratorConfig.Mode.SCRAPE) {
+            return List.of();
+        }
+        return IntStream.range(0, simulator.getServices()).mapToObj(simulator::serviceName).toList();
+    }
+
+    /**
+     * Current values of one simulated service, as its scrape endpoint returns them.
+     *
+     * @throws NoSuchElementException if the generator does not run in scrape mode or the service is unknown
+     */
+    public Map<String, Double> scrape(String service) {
+        if (!running || config.getMode() != LoadGeneratorConfig.Mode.SCRAPE) {
+            throw new NoSuchElementException("Load generator is not running in scrape mode");
+        }
+        int index = simulator.serviceIndex(service);
+        if (index < 0) {
+            throw new NoSuchElementException("Unknown simulated service: " + service);
+        }
+        double[] sample = new double[simulator.getSeriesPerService()];
+        simulator.sample(index, System.currentTimeMillis(), sample);
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        for (int j = 0; j < sample.length; j++) {
+            metrics.put(FleetSimulator.seriesName(j), sample[j]);
+        }
+        samplesGenerated.addAndGet(sample.length);
+        return metrics;
+    }
+
+    /**
+     * @throws NoSuchElementException if the generator is disabled
+     */
+    public LoadReportDto report() {
+        if (simulator == null) {
+            throw new NoSuchElementException("Load generator is disabled");
+        }
+        long elapsedMs = Math.max(1, (running ? System.currentTimeMillis() : endMs) - startMs);
+        double seconds = elapsedMs / 1000.0;
+        Timer lag = lagTimer();
+        long lagCount = lag.count() - lagCountAtStart;
+
+        LoadReportDto report = new LoadReportDto();
+        report.setMode(config.getMode().name().toLowerCase());
+        report.setServices(simulator.getServices());
+        report.setSeries((long) simulator.getServices() * simulator.getSeriesPerService());
+        report.setElapsedMs(elapsedMs);
+        report.setSamplesGenerated(samplesGenerated.get());
+        report.setSamplesPerSecond(samplesGenerated.get() / seconds);
+        report.setRowsWritten((long) (rowsCounter("written").count() - rowsWrittenAtStart));
+        report.setRowsPerSecond(report.getRowsWritten() / seconds);
+        report.setRowsDropped((long) (rowsCounter("dropped").count() - rowsDroppedAtStart));
+        report.setIngestLagMeanMs(lagCount > 0
+                ? (lag.totalTime(TimeUnit.MILLISECONDS) - lagTotalMsAtStart) / lagCount : 0);
+        report.setIngestLagMaxMs(lag.max(TimeUnit.MILLISECONDS));
+        report.setIncidents(incidents.get());
+        report.setIncidentsDetected(incidentsDetected.get());
+        synchronized (alarmLatency) {
+            if (!alarmLatency.isEmpty()) {
+                report.setAlarmLatencyMeanMs(alarmLatency.getAverage());
+                report.setAlarmLatencyP50Ms(alarmLatency.quantile(0.5));
+                report.setAlarmLatencyP99Ms(alarmLatency.quantile(0.99));
+                report.setAlarmLatencyMaxMs(alarmLatency.getMax());
+            }
+        }
+        report.setAlarms(alarms.get());
+        report.setAlarmsOutsideIncidents(alarmsOutsideIncidents.get());
+        return report;
+    }
+
+    /**
+     * Attributes a notified alarm of a simulated service to the incident of its zone, if any.
+     */
+    void onAlarm(Alarm alarm) {
+        if (!running) {
+            return;
+        }
+        int service = simulator.serviceIndex(alarm.getServiceName());
+        if (service < 0) {
+            return;
+        }
+        alarms.incrementAndGet();
+        long now = System.currentTimeMillis();
+        int zone = simulator.zoneOf(service);
+        long onset = simulator.incidentOnset(zone);
+        if (onset == 0 || now < onset || now > simulator.incidentEnd(zone) + DETECTION_GRACE_MS) {
+            alarmsOutsideIncidents.incrementAndGet();
+            return;
+        }
+        if (detectedOnset.getAndSet(zone, onset) != onset) {
+            incidentsDetected.incrementAndGet();
+            synchronized (alarmLatency) {
+                alarmLatency.add(now - onset);
+            }
+            log.info("Simulated incident detected zone={} latencyMs={} service={} metric={} rule={}",
+                    zone, now - onset, alarm.getServiceName(), alarm.getMetricName(), alarm.getRuleName());
+        }
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        int started = simulator.tick(now);
+        if (started > 0) {
+            incidents.addAndGet(started);
+            log.info("Simulated incidents started count={} durationMs={}", started, config.getIncidentDurationMs());
+        }
+        if (config.getMode() == LoadGeneratorConfig.Mode.PUSH) {
+            push(now);
+        }
+
+        if (config.getDurationMs() > 0 && now - startMs >= config.getDurationMs()) {
+            finish();
+        } else if (now - lastReportMs >= config.getReportIntervalMs()) {
+            lastReportMs = now;
+            log.info("Load generator progress {}", format(report()));
+        }
+    }
+
+    private void push(long now) {
+        LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault());
+        for (int i = 0; i < simulator.getServices(); i++) {
+            String service = simulator.serviceName(i);
+            simulator.sample(i, now, values);
+            for (int j = 0; j < values.length; j++) {
+                ingestionService.ingestSample(service, seriesNames[j], now, values[j]);
+            }
+
+            Metric metric = new Metric();
+            metric.setServiceName(service);
+            metric.setCpu((int) Math.round(values[0]));
+            metric.setMemory((int) Math.round(values[1]));
+            metric.setRequests((int) Math.round(values[2]));
+            metric.setTimestamp(timestamp);
+            ingestionService.persist(metric);
+        }
+        samplesGenerated.addAndGet((long) simulator.getServices() * values.length);
+    }
+
+    private synchronized void finish() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        endMs = System.currentTimeMillis();
+        notifier.setListener(null);
+        executor.shutdown();
+        log.info("Load generator finished {}", format(report()));
+    }
+
+    private void tickSafely() {
+        try {
+            tick();
+        } catch (Exception e) {
+            log.error("Load generator tick failed", e);
+        }
+    }
+
+    private Counter rowsCounter(String outcome) {
+        return meterRegistry.counter("monitoring.ingest.rows", "outcome", outcome);
+    }
+
+    private Timer lagTimer() {
+        return meterRegistry.get("monitoring.ingest.lag").timer();
+    }
+
+    private static String format(LoadReportDto r) {
+        return String.format("elapsedMs=%d samples=%d samplesPerSecond=%.0f rowsWritten=%d rowsPerSecond=%.0f "
+                        + "rowsDropped=%d ingestLagMeanMs=%.1f ingestLagMaxMs=%.1f incidents=%d incidentsDetected=%d "
+                        + "alarmLatencyP50Ms=%.0f alarmLatencyP99Ms=%.0f alarmLatencyMaxMs=%.0f alarms=%d "
+                        + "alarmsOutsideIncidents=%d",
+                r.getElapsedMs(), r.getSamplesGenerated(), r.getSamplesPerSecond(), r.getRowsWritten(),
+                r.getRowsPerSecond(), r.getRowsDropped(), r.getIngestLagMeanMs(), r.getIngestLagMaxMs(),
+                r.getIncidents(), r.getIncidentsDetected(), r.getAlarmLatencyP50Ms(), r.getAlarmLatencyP99Ms(),
+                r.getAlarmLatencyMaxMs(), r.getAlarms(), r.getAlarmsOutsideIncidents());
+    }
+}
@@ -0,0 +1,36 @@
+package com.monitoring.monitoring_service.loadgen;
+
+import com.monitoring.monitoring_service.model.Alarm;
+import com.monitoring.monitoring_service.notifier.Notifier;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * LoadGeneratorNotifier receives every alarm like the other notifiers and passes it to the
+ * running {@link LoadGenerator}, which measures how long the simulated incidents took to
+ * be notified. It does nothing while the generator is disabled.
+ *
+ * The generator registers itself here rather than being injected, because it depends on
+ * the ingestion path, which in turn depends on the notifiers.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Component
+public class LoadGeneratorNotifier implements Notifier {
+
+    private volatile Consumer<Alarm> listener;
+
+    void setListener(Consumer<Alarm> listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void notify(Alarm alarm) {
+        Consumer<Alarm> current = listener;
+        if (current != null) {
+            current.accept(alarm);
+        }
+    }
+}
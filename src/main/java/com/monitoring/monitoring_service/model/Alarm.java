@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 /**
  * Alarm entity represents a triggered alarm.(to send notifier)
@@ -22,4 +23,7 @@ public class Alarm {
     private String severity; // WARNING, CRITICAL
     private LocalDateTime timestamp;
     private String message;
+    private String ruleName; // rule that raised the alarm
+    private Map<String, String> labels;
+    private long sampleTimestampMs; // epoch ms of the sample that raised the alarm, 0 if unknown
 }
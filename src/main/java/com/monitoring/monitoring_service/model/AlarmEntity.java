@@ -4,6 +4,8 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -12,10 +14,21 @@ import java.time.LocalDateTime;
  * AlarmEntity represents an alarm saved in the database.
  * This allows storing and querying the history of alarms.
  *
+ * The indexes follow the filters of the alarm queries; each ends with
+ * (timestamp, id) so keyset reads in that order need no sort.
+ *
  * @since Aug, 2025
  * @author s Bostan
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_alarm_ts", columnList = "timestamp, id"),
+        @Index(name = "idx_alarm_severity_ts", columnList = "severity, timestamp, id"),
+        @Index(name = "idx_alarm_severity_service_ts", columnList = "severity, serviceName, timestamp, id"),
+        @Index(name = "idx_alarm_service_ts", columnList = "serviceName, timestamp, id"),
+        @Index(name = "idx_alarm_service_metric_ts", columnList = "serviceName, metricName, timestamp, id"),
+        @Index(name = "idx_alarm_metric_ts", columnList = "metricName, timestamp, id")
+})
 @Data
 public class AlarmEntity {
 
@@ -29,4 +42,5 @@ public class AlarmEntity {
     private String severity; // WARNING, CRITICAL
     private LocalDateTime timestamp;
     private String message;
+    private String ruleName;
 }
@@ -4,32 +4,51 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.Data;
 
 import java.time.LocalDateTime;
 
 /**
  * Metric entity represents the metrics collected from services.
- * Each metric includes CPU usage, memory usage, request count, and timestamp.
+ * Each metric includes CPU usage, memory usage, request count, and timestamp;
+ * a field the service did not report is null.
  *
  * The entity is stored in the H2 in-memory database for MVP testing.
+ * The timestamp index lets the retention job find expired rows without a scan;
+ * the (serviceName, id) index serves keyset pages of one service.
  *
  * @since Aug, 2025
  * @author s Bostan
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_metric_ts", columnList = "timestamp"),
+        @Index(name = "idx_metric_service_id", columnList = "serviceName, id")
+})
 @Data
 public class Metric {
 
+    /**
+     * Series names under which the three fields are kept in the sample stores.
+     */
+    public static final String CPU = "CPU";
+    public static final String MEMORY = "MEMORY";
+    public static final String REQUESTS = "REQUESTS";
+
     /**
      * Unique identifier for each metric record.
+     * Pooled sequence (instead of IDENTITY) so Hibernate can batch inserts.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "metric_seq")
+    @SequenceGenerator(name = "metric_seq", sequenceName = "metric_seq", allocationSize = 500)
     private Long id;
     private String serviceName;
-    private int cpu;
-    private int memory;
-    private int requests;
+    private Integer cpu;
+    private Integer memory;
+    private Integer requests;
     private LocalDateTime timestamp;
 }
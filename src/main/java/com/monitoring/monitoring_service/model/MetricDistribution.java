@@ -0,0 +1,48 @@
+package com.monitoring.monitoring_service.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * MetricDistribution is the quantile sketch of one distribution series (e.g. request
+ * latencies) over one bucket of 1 minute, 1 hour or 1 day.
+ *
+ * The sketch is stored serialized (see {@code DDSketch#toBytes}); count, sum, min and
+ * max are copied into columns so they can be read without decoding it. Sketches of
+ * several rows, series or services are merged when read.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_distribution_series_bucket", columnList = "serviceName, metricName, resolutionMs, bucketStartMs"),
+        @Index(name = "idx_distribution_metric_bucket", columnList = "metricName, resolutionMs, bucketStartMs"),
+        @Index(name = "idx_distribution_tier_bucket", columnList = "resolutionMs, bucketStartMs")
+})
+@Data
+public class MetricDistribution {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "distribution_seq")
+    @SequenceGenerator(name = "distribution_seq", sequenceName = "distribution_seq", allocationSize = 500)
+    private Long id;
+    private String serviceName;
+    private String metricName;
+    private long resolutionMs;
+    private long bucketStartMs;
+    private long sampleCount;
+    private double sumValue;
+    private double minValue;
+    private double maxValue;
+
+    @Column(length = 65536)
+    private byte[] sketch;
+}
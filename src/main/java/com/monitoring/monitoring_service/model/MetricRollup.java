@@ -0,0 +1,44 @@
+package com.monitoring.monitoring_service.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * MetricRollup is one pre-aggregated bucket of a series at a fixed resolution
+ * (1 minute, 1 hour or 1 day).
+ *
+ * A bucket that was still open when the service stopped may be continued in a
+ * second row with the same key after a restart; readers merge such rows.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_rollup_series_bucket", columnList = "serviceName, metricName, resolutionMs, bucketStartMs"),
+        @Index(name = "idx_rollup_tier_bucket", columnList = "resolutionMs, bucketStartMs")
+})
+@Data
+public class MetricRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rollup_seq")
+    @SequenceGenerator(name = "rollup_seq", sequenceName = "rollup_seq", allocationSize = 500)
+    private Long id;
+    private String serviceName;
+    private String metricName;
+    private long resolutionMs;
+    private long bucketStartMs;
+    private double minValue;
+    private double maxValue;
+    private double sumValue;
+    private long sampleCount;
+    private double lastValue;
+    private long lastTimestampMs;
+}
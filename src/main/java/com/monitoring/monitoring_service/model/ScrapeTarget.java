@@ -0,0 +1,22 @@
+package com.monitoring.monitoring_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ScrapeTarget describes one service endpoint the MetricsCollector pulls metrics from.
+ * Credentials are optional; when present they are sent as HTTP Basic Auth.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ScrapeTarget {
+    private String name;
+    private String url;
+    private String username;
+    private String password;
+}
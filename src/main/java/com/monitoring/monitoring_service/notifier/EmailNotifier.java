@@ -1,5 +1,6 @@
 package com.monitoring.monitoring_service.notifier;
 
+import com.monitoring.monitoring_service.exception.CustomMonitoringException;
 import com.monitoring.monitoring_service.model.Alarm;
 import org.slf4j.MDC;
 import org.springframework.mail.SimpleMailMessage;
@@ -42,7 +43,8 @@ public class EmailNotifier implements Notifier {
                     alarm.getSeverity(), alarm.getServiceName(), alarm.getMetricName(), alarm.getValue());
 
         } catch (Exception e) {
-            log.error("Email send failed for alarm service={} metric={}", alarm.getServiceName(), alarm.getMetricName(), e);
+            // The NotificationDispatcher logs the failure and retries with backoff
+            throw new CustomMonitoringException("Email send failed for alarm service=" + alarm.getServiceName(), e);
         }
     }
 
@@ -0,0 +1,228 @@
+package com.monitoring.monitoring_service.notifier;
+
+import com.monitoring.monitoring_service.config.DispatchConfig;
+import com.monitoring.monitoring_service.model.Alarm;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * NotificationDispatcher decouples alarm evaluation from notification delivery.
+ *
+ * <p>Every {@link Notifier} gets its own channel: a bounded queue drained by a
+ * dedicated thread pool. A slow or failing channel (e.g. a hanging SMTP server)
+ * only fills its own queue; evaluation and the other channels are unaffected.
+ *
+ * <ul>
+ *   <li>Failed deliveries are retried with exponential backoff, up to {@code maxRetries}.</li>
+ *   <li>When a queue is full the configured {@link DispatchConfig.OverflowPolicy} decides
+ *       whether the incoming or the oldest alarm is dropped. Drops are counted; while they
+ *       last, each channel logs them at most every {@code DROP_WARN_INTERVAL_NANOS}.</li>
+ *   <li>Queue depth, dispatch latency (enqueue to delivery), the duration of each send
+ *       attempt, retries and drops are exported per notifier.</li>
+ *   <li>For alarms that carry the timestamp of their sample, the end-to-end lag from the
+ *       sample to its delivery is exported per notifier as well.</li>
+ * </ul>
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher {
+
+    private static final long DROP_WARN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final DispatchConfig config;
+    private final List<Channel> channels = new ArrayList<>();
+    private final ScheduledExecutorService retryScheduler;
+
+    public NotificationDispatcher(List<Notifier> notifiers, DispatchConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("notifier-retry"));
+        for (Notifier notifier : notifiers) {
+            channels.add(new Channel(notifier, meterRegistry));
+        }
+        log.info("Notification dispatcher started with channels={}",
+                channels.stream().map(c -> c.name).toList());
+    }
+
+    /**
+     * Queues the alarm on every notifier channel and returns immediately.
+     */
+    public void dispatch(Alarm alarm) {
+        long enqueuedAt = System.nanoTime();
+        for (Channel channel : channels) {
+            log.debug("Dispatching alarm to notifier={}", channel.name);
+            channel.submit(new Delivery(alarm, enqueuedAt, 0));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        retryScheduler.shutdownNow();
+        for (Channel channel : channels) {
+            channel.executor.shutdown();
+        }
+        for (Channel channel : channels) {
+            if (!channel.executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Notifier channel={} did not drain in time; {} alarms left",
+                        channel.name, channel.queue.size());
+                channel.executor.shutdownNow();
+            }
+        }
+    }
+
+    private long backoffMillis(int attempt) {
+        long delay = config.getInitialBackoffMs() << Math.min(attempt - 1, 20);
+        return Math.min(delay, config.getMaxBackoffMs());
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * One alarm on its way to one channel.
+     */
+    private record Delivery(Alarm alarm, long enqueuedAtNanos, int attempt) {
+    }
+
+    /**
+     * Queue, workers and meters of one notifier.
+     */
+    private class Channel {
+        private final String name;
+        private final Notifier notifier;
+        private final BlockingQueue<Runnable> queue;
+        private final ThreadPoolExecutor executor;
+        private final Timer deliveredTimer;
+        private final Timer failedTimer;
+        private final Timer sendSucceededTimer;
+        private final Timer sendFailedTimer;
+        private final Timer notificationLagTimer;
+        private final Counter retryCounter;
+        private final Counter droppedCounter;
+        private final AtomicLong droppedSinceWarn = new AtomicLong();
+        private final AtomicLong nextDropWarnNanos = new AtomicLong(System.nanoTime());
+
+        Channel(Notifier notifier, MeterRegistry meterRegistry) {
+            this.notifier = notifier;
+            this.name = notifier.getClass().getSimpleName();
+            this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+            this.executor = new ThreadPoolExecutor(
+                    config.getThreadsPerNotifier(), config.getThreadsPerNotifier(),
+                    0L, TimeUnit.MILLISECONDS, queue,
+                    daemonThreads("notifier-" + name), overflowHandler());
+
+            this.deliveredTimer = dispatchTimer(meterRegistry, "delivered");
+            this.failedTimer = dispatchTimer(meterRegistry, "failed");
+            this.sendSucceededTimer = sendTimer(meterRegistry, "success");
+            this.sendFailedTimer = sendTimer(meterRegistry, "error");
+            this.notificationLagTimer = Timer.builder("monitoring.alarm.notification.lag")
+                    .description("Time from the sample that raised an alarm to the alarm's delivery")
+                    .tag("notifier", name)
+                    .publishPercentileHistogram()
+                    // windowed rules, forDuration holds and retries with backoff make lags of minutes expected
+                    .maximumExpectedValue(Duration.ofMinutes(10))
+                    .register(meterRegistry);
+            this.retryCounter = meterRegistry.counter("monitoring.notifier.retries", "notifier", name);
+            this.droppedCounter = meterRegistry.counter("monitoring.notifier.dropped", "notifier", name);
+            Gauge.builder("monitoring.notifier.queue.depth", queue, BlockingQueue::size)
+                    .tag("notifier", name)
+                    .register(meterRegistry);
+        }
+
+        private Timer dispatchTimer(MeterRegistry meterRegistry, String outcome) {
+            return Timer.builder("monitoring.notifier.dispatch")
+                    .description("Time from queuing an alarm to its final delivery attempt")
+                    .tags("notifier", name, "outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+
+        private Timer sendTimer(MeterRegistry meterRegistry, String outcome) {
+            return Timer.builder("monitoring.notifier.send")
+                    .description("Duration of a single notify call, one per attempt")
+                    .tags("notifier", name, "outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+
+        void submit(Delivery delivery) {
+            executor.execute(() -> deliver(delivery));
+        }
+
+        private void deliver(Delivery delivery) {
+            Alarm alarm = delivery.alarm();
+            long sendStart = System.nanoTime();
+            try {
+                notifier.notify(alarm);
+                long now = System.nanoTime();
+                sendSucceededTimer.record(now - sendStart, TimeUnit.NANOSECONDS);
+                deliveredTimer.record(now - delivery.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+                if (alarm.getSampleTimestampMs() > 0) {
+                    notificationLagTimer.record(
+                            Math.max(0, System.currentTimeMillis() - alarm.getSampleTimestampMs()), TimeUnit.MILLISECONDS);
+                }
+            } catch (Exception e) {
+                sendFailedTimer.record(System.nanoTime() - sendStart, TimeUnit.NANOSECONDS);
+                int nextAttempt = delivery.attempt() + 1;
+                if (nextAttempt > config.getMaxRetries()) {
+                    failedTimer.record(System.nanoTime() - delivery.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+                    log.error("Notifier={} gave up after {} attempts for alarm service={} metric={}",
+                            name, nextAttempt, alarm.getServiceName(), alarm.getMetricName(), e);
+                    return;
+                }
+                long delay = backoffMillis(nextAttempt);
+                retryCounter.increment();
+                log.warn("Notifier={} failed (attempt {}), retrying in {}ms: {}", name, nextAttempt, delay, e.getMessage());
+                retryScheduler.schedule(() -> submit(new Delivery(alarm, delivery.enqueuedAtNanos(), nextAttempt)),
+                        delay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private RejectedExecutionHandler overflowHandler() {
+            return (task, pool) -> {
+                if (pool.isShutdown()) {
+                    return;
+                }
+                droppedCounter.increment();
+                droppedSinceWarn.incrementAndGet();
+                if (config.getOverflowPolicy() == DispatchConfig.OverflowPolicy.DROP_OLDEST) {
+                    pool.getQueue().poll();
+                    pool.getQueue().offer(task);
+                }
+                long now = System.nanoTime();
+                long next = nextDropWarnNanos.get();
+                if (now - next >= 0 && nextDropWarnNanos.compareAndSet(next, now + DROP_WARN_INTERVAL_NANOS)) {
+                    log.warn("Notifier={} queue full; dropped {} alarms policy={}",
+                            name, droppedSinceWarn.getAndSet(0), config.getOverflowPolicy());
+                }
+            };
+        }
+    }
+}
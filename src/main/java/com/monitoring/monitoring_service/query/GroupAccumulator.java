@@ -0,0 +1,146 @@
+package com.monitoring.monitoring_service.query;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GroupAccumulator combines the step values of many series into one series per
+ * {@code by} group. Each worker fills its own accumulator for the series it reads
+ * and the partial accumulators are merged pairwise as the fork-join tasks complete,
+ * so memory grows with the number of groups, not with the number of series.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+final class GroupAccumulator {
+
+    private final RangeQuery.Aggregation aggregation;
+    private final int steps;
+    private final Map<List<String>, Group> groups = new LinkedHashMap<>();
+
+    GroupAccumulator(RangeQuery.Aggregation aggregation, int steps) {
+        this.aggregation = aggregation;
+        this.steps = steps;
+    }
+
+    /**
+     * Folds the step values of one series (NaN where it has none) into its group.
+     */
+    void add(List<String> groupKey, StepReducer series) {
+        Group group = groups.computeIfAbsent(groupKey, key -> new Group(steps));
+        for (int i = 0; i < steps; i++) {
+            double value = series.value(i);
+            if (!Double.isNaN(value)) {
+                group.add(aggregation, i, value, 1);
+            }
+        }
+    }
+
+    /**
+     * Folds the groups of another accumulator into this one.
+     */
+    GroupAccumulator merge(GroupAccumulator other) {
+        for (Map.Entry<List<String>, Group> entry : other.groups.entrySet()) {
+            Group theirs = entry.getValue();
+            Group group = groups.get(entry.getKey());
+            if (group == null) {
+                groups.put(entry.getKey(), theirs);
+                continue;
+            }
+            for (int i = 0; i < steps; i++) {
+                if (theirs.counts[i] > 0) {
+                    group.add(aggregation, i, theirs.values[i], theirs.counts[i]);
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Folds the state of one group exported by another instance into this accumulator.
+     *
+     * @param values step values before the final division, as passed to {@link GroupVisitor}
+     * @param counts number of series behind each step value
+     */
+    void mergeGroup(List<String> groupKey, double[] values, int[] counts) {
+        Group group = groups.computeIfAbsent(groupKey, key -> new Group(steps));
+        for (int i = 0; i < steps; i++) {
+            if (counts[i] > 0) {
+                group.add(aggregation, i, values[i], counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Visits the state of every group, e.g. to hand it to another instance for merging.
+     */
+    void forEachGroup(GroupVisitor visitor) throws IOException {
+        for (Map.Entry<List<String>, Group> entry : groups.entrySet()) {
+            visitor.visit(entry.getKey(), entry.getValue().values, entry.getValue().counts);
+        }
+    }
+
+    int size() {
+        return groups.size();
+    }
+
+    /**
+     * @return the final step values of every group (NaN where no series had a value), in first-seen order
+     */
+    Map<List<String>, double[]> results() {
+        Map<List<String>, double[]> results = new LinkedHashMap<>();
+        for (Map.Entry<List<String>, Group> entry : groups.entrySet()) {
+            Group group = entry.getValue();
+            double[] values = new double[steps];
+            for (int i = 0; i < steps; i++) {
+                int count = group.counts[i];
+                values[i] = count == 0 ? Double.NaN : switch (aggregation) {
+                    case AVG -> group.values[i] / count;
+                    case COUNT -> count;
+                    default -> group.values[i];
+                };
+            }
+            results.put(entry.getKey(), values);
+        }
+        return results;
+    }
+
+    /**
+     * Receives the raw state of one group: per step the running value (the sum for avg)
+     * and the number of series that contributed to it.
+     */
+    @FunctionalInterface
+    interface GroupVisitor {
+        void visit(List<String> groupKey, double[] values, int[] counts) throws IOException;
+    }
+
+    /**
+     * Running value and number of contributing series per step.
+     * For avg the value is the sum; it is divided by the count at the end.
+     */
+    private static final class Group {
+        private final double[] values;
+        private final int[] counts;
+
+        Group(int steps) {
+            this.values = new double[steps];
+            this.counts = new int[steps];
+        }
+
+        void add(RangeQuery.Aggregation aggregation, int i, double value, int count) {
+            if (counts[i] == 0) {
+                values[i] = value;
+            } else {
+                values[i] = switch (aggregation) {
+                    case SUM, AVG -> values[i] + value;
+                    case MIN -> Math.min(values[i], value);
+                    case MAX -> Math.max(values[i], value);
+                    case COUNT -> 0;
+                };
+            }
+            counts[i] += count;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.monitoring.monitoring_service.query;
+
+import com.monitoring.monitoring_service.rules.SeriesSelector;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * RangeQuery is a parsed range query, a small subset of PromQL:
+ *
+ * <pre>
+ * query    := ("topk" | "bottomk") "(" integer "," inner ")" | inner
+ * inner    := op [by] "(" series ")" [by] | series
+ * op       := "sum" | "avg" | "min" | "max" | "count"
+ * by       := "by" "(" label ("," label)* ")"
+ * series   := function "(" selector ")" | selector
+ * function := "last_over_time" | "avg_over_time" | "min_over_time" | "max_over_time"
+ *           | "sum_over_time" | "count_over_time" | "increase" | "rate"
+ * </pre>
+ *
+ * The selector is a {@link SeriesSelector} ({@code CPU{service=~"orders-.*"}}). Each
+ * selected series is first reduced to one value per step by the function (the last
+ * sample of the step by default), then the operator combines the series of each
+ * {@code by} group step by step, and {@code topk}/{@code bottomk} keep the k highest or
+ * lowest series of every step:
+ *
+ * <pre>
+ * max by (service) (max_over_time(CPU))
+ * topk(5, sum by (service) (rate(http_requests_total)))
+ * avg(CPU{service=~"orders-.*"})
+ * </pre>
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Getter
+public final class RangeQuery {
+
+    /**
+     * Reduces the samples of one series in one step to a value.
+     */
+    enum StepFunction {
+        LAST, AVG, MIN, MAX, SUM, COUNT, INCREASE, RATE;
+
+        /**
+         * @return whether the value depends on the sample before the step
+         */
+        boolean needsPrevious() {
+            return this == INCREASE || this == RATE;
+        }
+    }
+
+    /**
+     * Combines the step values of the series of one group.
+     */
+    enum Aggregation {
+        SUM, AVG, MIN, MAX, COUNT
+    }
+
+    private final String text;
+    private final SeriesSelector selector;
+    private final StepFunction stepFunction;
+    private final Aggregation aggregation; // null: every series on its own
+    private final List<String> groupBy;
+    private final int topK; // 0: no topk/bottomk
+    private final boolean bottom;
+
+    private RangeQuery(String text, SeriesSelector selector, StepFunction stepFunction, Aggregation aggregation,
+                       List<String> groupBy, int topK, boolean bottom) {
+        this.text = text;
+        this.selector = selector;
+        this.stepFunction = stepFunction;
+        this.aggregation = aggregation;
+        this.groupBy = groupBy;
+        this.topK = topK;
+        this.bottom = bottom;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the text is not a valid range query
+     */
+    public static RangeQuery parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("query is empty");
+        }
+        return new Parser(text.trim()).parse();
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    /**
+     * Recursive-descent parser over the query text.
+     */
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        private Parser(String text) {
+            this.text = text;
+        }
+
+        RangeQuery parse() {
+            int topK = 0;
+            boolean bottom = false;
+            String word = peekWord();
+            if (word.equals("topk") || word.equals("bottomk")) {
+                pos += word.length();
+                bottom = word.equals("bottomk");
+                expect("(");
+                topK = parseInteger();
+                if (topK <= 0) {
+                    throw error(word + " needs a positive k");
+                }
+                expect(",");
+            }
+
+            Aggregation aggregation = null;
+            List<String> groupBy = List.of();
+            word = peekWord();
+            Aggregation op = aggregation(word);
+            if (op != null && followedByParenthesisOrBy(word)) {
+                pos += word.length();
+                aggregation = op;
+                groupBy = parseBy();
+                expect("(");
+            }
+
+            StepFunction function = StepFunction.LAST;
+            word = peekWord();
+            StepFunction explicit = stepFunction(word);
+            if (explicit != null) {
+                pos += word.length();
+                expect("(");
+                function = explicit;
+            }
+            SeriesSelector selector = parseSelector();
+            if (explicit != null) {
+                expect(")");
+            }
+
+            if (aggregation != null) {
+                expect(")");
+                if (groupBy.isEmpty()) {
+                    groupBy = parseBy();
+                }
+            }
+            if (topK > 0) {
+                expect(")");
+            }
+            skipSpaces();
+            if (pos < text.length()) {
+                throw error("unexpected '" + text.charAt(pos) + "'");
+            }
+            return new RangeQuery(text, selector, function, aggregation, groupBy, topK, bottom);
+        }
+
+        private List<String> parseBy() {
+            if (!peekWord().equals("by")) {
+                return List.of();
+            }
+            pos += 2;
+            expect("(");
+            List<String> labels = new ArrayList<>();
+            do {
+                String label = peekWord();
+                if (label.isEmpty()) {
+                    throw error("expected label name");
+                }
+                pos += label.length();
+                labels.add(label);
+            } while (accept(","));
+            expect(")");
+            return List.copyOf(labels);
+        }
+
+        /**
+         * Cuts the selector out of the text (name, then an optional brace block whose
+         * quoted values may contain any character) and parses it.
+         */
+        private SeriesSelector parseSelector() {
+            skipSpaces();
+            int start = pos;
+            while (pos < text.length() && isNameChar(text.charAt(pos))) {
+                pos++;
+            }
+            skipSpaces();
+            if (pos < text.length() && text.charAt(pos) == '{') {
+                boolean quoted = false;
+                while (pos < text.length()) {
+                    char c = text.charAt(pos++);
+                    if (quoted && c == '\\') {
+                        pos++;
+                    } else if (c == '"') {
+                        quoted = !quoted;
+                    } else if (c == '}' && !quoted) {
+                        break;
+                    }
+                }
+            }
+            if (start == pos) {
+                throw error("expected series selector");
+            }
+            return SeriesSelector.parse(text.substring(start, pos));
+        }
+
+        private int parseInteger() {
+            skipSpaces();
+            int start = pos;
+            while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("expected integer");
+            }
+            return Integer.parseInt(text.substring(start, pos));
+        }
+
+        private boolean followedByParenthesisOrBy(String word) {
+            int saved = pos;
+            pos += word.length();
+            boolean result = peek('(') || peekWord().equals("by");
+            pos = saved;
+            return result;
+        }
+
+        private static Aggregation aggregation(String word) {
+            return switch (word) {
+                case "sum" -> Aggregation.SUM;
+                case "avg" -> Aggregation.AVG;
+                case "min" -> Aggregation.MIN;
+                case "max" -> Aggregation.MAX;
+                case "count" -> Aggregation.COUNT;
+                default -> null;
+            };
+        }
+
+        private static StepFunction stepFunction(String word) {
+            if (word.equals("increase") || word.equals("rate")) {
+                return StepFunction.valueOf(word.toUpperCase(Locale.ROOT));
+            }
+            if (word.endsWith("_over_time")) {
+                String name = word.substring(0, word.length() - "_over_time".length()).toUpperCase(Locale.ROOT);
+                for (StepFunction function : StepFunction.values()) {
+                    if (!function.needsPrevious() && function.name().equals(name)) {
+                        return function;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private String peekWord() {
+            skipSpaces();
+            int end = pos;
+            while (end < text.length() && (Character.isLetterOrDigit(text.charAt(end)) || text.charAt(end) == '_')) {
+                end++;
+            }
+            return text.substring(pos, end);
+        }
+
+        private boolean peek(char c) {
+            skipSpaces();
+            return pos < text.length() && text.charAt(pos) == c;
+        }
+
+        private boolean accept(String token) {
+            skipSpaces();
+            if (text.startsWith(token, pos)) {
+                pos += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!accept(token)) {
+                throw error("expected '" + token + "'");
+            }
+        }
+
+        private void skipSpaces() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private static boolean isNameChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '_' || c == ':' || c == '.' || c == '-';
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + pos + " in query \"" + text + "\"");
+        }
+    }
+}
@@ -0,0 +1,687 @@
+package com.monitoring.monitoring_service.query;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monitoring.monitoring_service.config.QueryConfig;
+import com.monitoring.monitoring_service.exception.CustomMonitoringException;
+import com.monitoring.monitoring_service.repository.SeriesRepository;
+import com.monitoring.monitoring_service.rules.SeriesLabels;
+import com.monitoring.monitoring_service.storage.SeriesKey;
+import com.monitoring.monitoring_service.storage.SeriesRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RangeQueryEngine evaluates {@link RangeQuery range queries} over the raw samples of
+ * the selected series and streams the result as newline-delimited JSON, one series
+ * per line:
+ *
+ * <pre>
+ * {"metric":"CPU","labels":{"service":"orders"},"timestamps":[...],"values":[...]}
+ * </pre>
+ *
+ * Steps are aligned to multiples of the step so the same range always yields the same
+ * buckets, and each point is stamped with the start of its step; steps without a value
+ * are left out. The selected series are split into ranges that run as fork-join tasks
+ * on a dedicated pool, each worker reading its series with one reusable
+ * {@link StepReducer}:
+ *
+ * <ul>
+ * <li>Without an aggregation, each computed series is handed to the response writer
+ *     through a bounded queue, in completion order, so at most {@code rangeStreamBuffer}
+ *     series are in memory whatever the number of selected series.</li>
+ * <li>With an aggregation or {@code topk}, each task folds its series into a
+ *     {@link GroupAccumulator} or {@link TopKAccumulator} and the partial results are
+ *     merged as the tasks join; memory grows with the number of groups or with k.</li>
+ * </ul>
+ *
+ * A query is cancelled when it runs longer than {@code rangeTimeoutMs} or when the
+ * client goes away.
+ *
+ * <p>In cluster mode every instance holds the series of its own scrape targets. The
+ * instance receiving a query asks the others for their {@link #executePartial partial
+ * results} and merges them into its own, so the client sees one result. Partial results
+ * are not merged by series: a target that moved to another instance when the ring
+ * changed has samples on both, and over such a range its series is returned once per
+ * instance and counted once per instance in {@code count} and {@code avg}.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@Component
+public class RangeQueryEngine {
+
+    /**
+     * Series read by one fork-join task before it stops splitting
+     */
+    private static final int LEAF_SERIES = 64;
+
+    /**
+     * Upper bound for k * steps, the entries a topk/bottomk result may hold
+     */
+    private static final long MAX_TOPK_ENTRIES = 1_000_000L;
+
+    private final SeriesRegistry seriesRegistry;
+    private final SeriesRepository seriesRepository;
+    private final QueryConfig config;
+    private final ObjectMapper objectMapper;
+    private final ForkJoinPool pool;
+    private final Timer queryTimer;
+    private final Counter seriesCounter;
+    private final Counter cancelledCounter;
+
+    public RangeQueryEngine(SeriesRegistry seriesRegistry,
+                            SeriesRepository seriesRepository,
+                            QueryConfig config,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry) {
+        this.seriesRegistry = seriesRegistry;
+        this.seriesRepository = seriesRepository;
+        this.config = config;
+        this.objectMapper = objectMapper;
+        int parallelism = config.getRangeParallelism() > 0
+                ? config.getRangeParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ForkJoinPool(parallelism, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("range-query-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+        this.queryTimer = Timer.builder("monitoring.query.range")
+                .description("Duration of range queries, including streaming the result")
+                .register(meterRegistry);
+        this.seriesCounter = meterRegistry.counter("monitoring.query.range.series");
+        this.cancelledCounter = meterRegistry.counter("monitoring.query.range.cancelled");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Parses and validates the query and selects its series, so every client error
+     * surfaces before the response starts streaming.
+     *
+     * @param query  range query text
+     * @param fromMs range start, epoch milliseconds (inclusive)
+     * @param toMs   range end, epoch milliseconds (inclusive)
+     * @param stepMs output resolution in milliseconds
+     * @throws IllegalArgumentException if the query is invalid or exceeds the configured limits
+     */
+    public Plan plan(String query, long fromMs, long toMs, long stepMs) {
+        RangeQuery parsed = RangeQuery.parse(query);
+        if (stepMs <= 0) {
+            throw new IllegalArgumentException("stepMs must be positive");
+        }
+        if (toMs < fromMs) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        long startMs = Math.floorDiv(fromMs, stepMs) * stepMs;
+        long steps = (toMs - startMs) / stepMs + 1;
+        if (steps > config.getRangeMaxSteps()) {
+            throw new IllegalArgumentException("query would return " + steps + " steps, more than the limit of "
+                    + config.getRangeMaxSteps() + "; use a larger step or a shorter range");
+        }
+
+        List<SeriesKey> series = new ArrayList<>();
+        List<SeriesLabels> labels = new ArrayList<>();
+        for (SeriesKey key : seriesRegistry.all()) {
+            SeriesLabels seriesLabels = SeriesLabels.of(key);
+            if (parsed.getSelector().matches(seriesLabels)) {
+                if (series.size() == config.getRangeMaxSeries()) {
+                    throw new IllegalArgumentException("selector matches more than " + config.getRangeMaxSeries()
+                            + " series; narrow it down");
+                }
+                series.add(key);
+                labels.add(seriesLabels);
+            }
+        }
+        // Not capped by the local series: series of other instances may be ranked too
+        int k = Math.min(parsed.getTopK(), config.getRangeMaxSeries());
+        if ((long) k * steps > MAX_TOPK_ENTRIES) {
+            throw new IllegalArgumentException("k is too large for " + steps + " steps");
+        }
+        return new Plan(parsed, startMs, stepMs, (int) steps, series, labels, k);
+    }
+
+    /**
+     * Runs the plan and writes the result to {@code out}.
+     *
+     * @return the number of series written
+     * @throws CustomMonitoringException if the query runs out of time
+     */
+    public long execute(Plan plan, OutputStream out) throws IOException {
+        return execute(plan, out, List.of());
+    }
+
+    /**
+     * Runs the plan over the local series, merges the {@link #executePartial partial
+     * results} other instances returned for the same plan and writes the result to
+     * {@code out}. Every series is assumed to live on one instance only; a series that
+     * moved with a ring change shows up once per instance holding its samples.
+     *
+     * @param peerResults NDJSON bodies written by {@link #executePartial} on other instances
+     * @return the number of series written
+     * @throws CustomMonitoringException if the query runs out of time
+     */
+    public long execute(Plan plan, OutputStream out, List<InputStream> peerResults) throws IOException {
+        return run(plan, out, peerResults, false);
+    }
+
+    /**
+     * Runs the plan over the local series only and writes what another instance needs
+     * to merge the result with its own: the series themselves for a plain selection,
+     * the local top k series for {@code topk}, and per group the step values and series
+     * counts before the final division for an aggregation.
+     *
+     * @return the number of lines written
+     */
+    public long executePartial(Plan plan, OutputStream out) throws IOException {
+        return run(plan, out, List.of(), true);
+    }
+
+    private long run(Plan plan, OutputStream out, List<InputStream> peerResults, boolean partial) throws IOException {
+        long startNanos = System.nanoTime();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.setRootValueSeparator(null); // lines are separated by writeSeries itself
+            RangeQuery query = plan.getQuery();
+            long written;
+            if (query.getAggregation() == null && query.getTopK() == 0) {
+                written = streamSeries(plan, json, cancelled);
+                json.flush();
+                for (InputStream peer : peerResults) {
+                    written += copyLines(peer, out);
+                }
+            } else {
+                written = writeAggregated(plan, json, cancelled, peerResults, partial);
+            }
+            log.debug("Range query={} series={} steps={} peers={} partial={} written={}",
+                    query, plan.getSeries().size(), plan.getSteps(), peerResults.size(), partial, written);
+            return written;
+        } finally {
+            cancelled.set(true);
+            queryTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private long streamSeries(Plan plan, JsonGenerator json, AtomicBoolean cancelled) throws IOException {
+        BlockingQueue<SeriesResult> results = new ArrayBlockingQueue<>(Math.max(1, config.getRangeStreamBuffer()));
+        ForkJoinTask<Void> task = pool.submit(new StreamTask(plan, 0, plan.getSeries().size(), results, cancelled));
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getRangeTimeoutMs());
+        long written = 0;
+        try {
+            while (true) {
+                SeriesResult result = results.poll(50, TimeUnit.MILLISECONDS);
+                if (result == null && task.isDone()) {
+                    result = results.poll(); // the last results may have arrived just before completion
+                    if (result == null) {
+                        break;
+                    }
+                }
+                if (result != null) {
+                    SeriesLabels labels = plan.getLabels().get(result.index());
+                    if (writeSeries(json, labels.name(), labels.labels(), plan, result.values())) {
+                        written++;
+                    }
+                }
+                if (System.nanoTime() > deadline) {
+                    throw timeout(plan);
+                }
+            }
+            task.get();
+            return written;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomMonitoringException("Range query interrupted", e);
+        } catch (ExecutionException e) {
+            throw new CustomMonitoringException("Range query failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            cancelled.set(true);
+        }
+    }
+
+    private long writeAggregated(Plan plan, JsonGenerator json, AtomicBoolean cancelled,
+                                 List<InputStream> peerResults, boolean partial) throws IOException {
+        Partial local;
+        try {
+            local = pool.submit(new AggregateTask(plan, 0, plan.getSeries().size(), cancelled))
+                    .get(config.getRangeTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancelled.set(true);
+            throw timeout(plan);
+        } catch (InterruptedException e) {
+            cancelled.set(true);
+            Thread.currentThread().interrupt();
+            throw new CustomMonitoringException("Range query interrupted", e);
+        } catch (ExecutionException e) {
+            throw new CustomMonitoringException("Range query failed: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        RangeQuery query = plan.getQuery();
+        long written = 0;
+        if (query.getAggregation() == null) {
+            // Series of other instances are ranked under references past the local ones
+            List<SeriesLabels> remoteLabels = new ArrayList<>();
+            for (InputStream peer : peerResults) {
+                for (JsonNode line : readLines(peer)) {
+                    local.topK().add(plan.getSeries().size() + remoteLabels.size(), stepValues(plan, line, "values"));
+                    remoteLabels.add(new SeriesLabels(line.path("metric").asText(null), labelsOf(line)));
+                }
+            }
+            for (Map.Entry<Integer, double[]> entry : local.topK().results().entrySet()) {
+                int ref = entry.getKey();
+                SeriesLabels labels = ref < plan.getSeries().size()
+                        ? plan.getLabels().get(ref)
+                        : remoteLabels.get(ref - plan.getSeries().size());
+                if (writeSeries(json, labels.name(), labels.labels(), plan, entry.getValue())) {
+                    written++;
+                }
+            }
+            return written;
+        }
+
+        if (partial) {
+            local.groups().forEachGroup((key, values, counts) -> writeGroupPartial(json, query, plan, key, values, counts));
+            return local.groups().size();
+        }
+        for (InputStream peer : peerResults) {
+            for (JsonNode line : readLines(peer)) {
+                List<String> key = new ArrayList<>();
+                line.path("key").forEach(value -> key.add(value.asText()));
+                local.groups().mergeGroup(key, stepValues(plan, line, "values"), stepCounts(plan, line));
+            }
+        }
+
+        List<Map.Entry<List<String>, double[]>> groups = new ArrayList<>(local.groups().results().entrySet());
+        if (query.getTopK() > 0) {
+            TopKAccumulator topK = new TopKAccumulator(Math.min(query.getTopK(), Math.max(1, groups.size())),
+                    query.isBottom(), plan.getSteps());
+            for (int i = 0; i < groups.size(); i++) {
+                topK.add(i, groups.get(i).getValue());
+            }
+            for (Map.Entry<Integer, double[]> entry : topK.results().entrySet()) {
+                if (writeSeries(json, null, groupLabels(query, groups.get(entry.getKey()).getKey()), plan, entry.getValue())) {
+                    written++;
+                }
+            }
+            return written;
+        }
+        for (Map.Entry<List<String>, double[]> group : groups) {
+            if (writeSeries(json, null, groupLabels(query, group.getKey()), plan, group.getValue())) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    private Iterable<JsonNode> readLines(InputStream in) throws IOException {
+        List<JsonNode> lines = new ArrayList<>();
+        try (MappingIterator<JsonNode> it = objectMapper.readerFor(JsonNode.class).readValues(in)) {
+            while (it.hasNext()) {
+                lines.add(it.next());
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Reads the series into the reducer; the caller has reset it.
+     */
+    private void read(Plan plan, int index, StepReducer reducer) {
+        long readFrom = plan.getQuery().getStepFunction().needsPrevious()
+                ? plan.getStartMs() - plan.getStepMs()
+                : plan.getStartMs();
+        long readTo = plan.getStartMs() + (long) plan.getSteps() * plan.getStepMs() - 1;
+        seriesRepository.forEach(plan.getSeries().get(index).getId(), readFrom, readTo, reducer);
+    }
+
+    private StepReducer newReducer(Plan plan) {
+        return new StepReducer(plan.getQuery().getStepFunction(), plan.getStartMs(), plan.getStepMs(), plan.getSteps());
+    }
+
+    private CustomMonitoringException timeout(Plan plan) {
+        cancelledCounter.increment();
+        return new CustomMonitoringException("Range query timed out after " + config.getRangeTimeoutMs()
+                + "ms over " + plan.getSeries().size() + " series; narrow the selector or the range");
+    }
+
+    private static Map<String, String> groupLabels(RangeQuery query, List<String> key) {
+        Map<String, String> labels = new LinkedHashMap<>();
+        for (int i = 0; i < key.size(); i++) {
+            if (!key.get(i).isEmpty()) {
+                labels.put(query.getGroupBy().get(i), key.get(i));
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Writes the state of one group as a line of a partial result: the steps where any
+     * series had a value, with the value before the final division and the series count.
+     */
+    private static void writeGroupPartial(JsonGenerator json, RangeQuery query, Plan plan, List<String> key,
+                                          double[] values, int[] counts) throws IOException {
+        json.writeStartObject();
+        json.writeArrayFieldStart("key");
+        for (String value : key) {
+            json.writeString(value);
+        }
+        json.writeEndArray();
+        json.writeObjectFieldStart("labels");
+        for (Map.Entry<String, String> label : groupLabels(query, key).entrySet()) {
+            json.writeStringField(label.getKey(), label.getValue());
+        }
+        json.writeEndObject();
+        json.writeArrayFieldStart("timestamps");
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                json.writeNumber(plan.getStartMs() + i * plan.getStepMs());
+            }
+        }
+        json.writeEndArray();
+        json.writeArrayFieldStart("values");
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                json.writeNumber(values[i]);
+            }
+        }
+        json.writeEndArray();
+        json.writeArrayFieldStart("counts");
+        for (int count : counts) {
+            if (count > 0) {
+                json.writeNumber(count);
+            }
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    /**
+     * @return the values of a result line spread over the steps of the plan, NaN where the line has none
+     */
+    private static double[] stepValues(Plan plan, JsonNode line, String field) {
+        double[] values = new double[plan.getSteps()];
+        Arrays.fill(values, Double.NaN);
+        JsonNode timestamps = line.path("timestamps");
+        JsonNode points = line.path(field);
+        for (int j = 0; j < timestamps.size() && j < points.size(); j++) {
+            int i = stepIndex(plan, timestamps.get(j).asLong());
+            if (i >= 0) {
+                values[i] = points.get(j).asDouble();
+            }
+        }
+        return values;
+    }
+
+    private static int[] stepCounts(Plan plan, JsonNode line) {
+        int[] counts = new int[plan.getSteps()];
+        JsonNode timestamps = line.path("timestamps");
+        JsonNode points = line.path("counts");
+        for (int j = 0; j < timestamps.size() && j < points.size(); j++) {
+            int i = stepIndex(plan, timestamps.get(j).asLong());
+            if (i >= 0) {
+                counts[i] = points.get(j).asInt();
+            }
+        }
+        return counts;
+    }
+
+    private static int stepIndex(Plan plan, long timestampMs) {
+        long offset = timestampMs - plan.getStartMs();
+        if (offset < 0 || offset % plan.getStepMs() != 0 || offset / plan.getStepMs() >= plan.getSteps()) {
+            return -1;
+        }
+        return (int) (offset / plan.getStepMs());
+    }
+
+    private static Map<String, String> labelsOf(JsonNode line) {
+        Map<String, String> labels = new LinkedHashMap<>();
+        line.path("labels").fields().forEachRemaining(label -> labels.put(label.getKey(), label.getValue().asText()));
+        return labels;
+    }
+
+    /**
+     * Copies an NDJSON body line by line so its series are passed through unchanged.
+     *
+     * @return the number of lines copied
+     */
+    private static long copyLines(InputStream in, OutputStream out) throws IOException {
+        long lines = 0;
+        byte[] buffer = new byte[8192];
+        try (in) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                for (int i = 0; i < n; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+                out.write(buffer, 0, n);
+            }
+        }
+        out.flush();
+        return lines;
+    }
+
+    /**
+     * Writes one NDJSON line with the non-NaN steps of the series.
+     *
+     * @return false if the series has no value in the range and nothing was written
+     */
+    private static boolean writeSeries(JsonGenerator json, String metricName, Map<String, String> labels,
+                                       Plan plan, double[] values) throws IOException {
+        boolean any = false;
+        for (double value : values) {
+            if (!Double.isNaN(value)) {
+                any = true;
+                break;
+            }
+        }
+        if (!any) {
+            return false;
+        }
+        json.writeStartObject();
+        if (metricName != null) {
+            json.writeStringField("metric", metricName);
+        }
+        json.writeObjectFieldStart("labels");
+        for (Map.Entry<String, String> label : labels.entrySet()) {
+            json.writeStringField(label.getKey(), label.getValue());
+        }
+        json.writeEndObject();
+        json.writeArrayFieldStart("timestamps");
+        for (int i = 0; i < values.length; i++) {
+            if (!Double.isNaN(values[i])) {
+                json.writeNumber(plan.getStartMs() + i * plan.getStepMs());
+            }
+        }
+        json.writeEndArray();
+        json.writeArrayFieldStart("values");
+        for (double value : values) {
+            if (!Double.isNaN(value)) {
+                json.writeNumber(value);
+            }
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+        json.writeRaw('\n');
+        return true;
+    }
+
+    /**
+     * A validated range query with its aligned steps and selected series.
+     */
+    @Getter
+    public static final class Plan {
+        private final RangeQuery query;
+        private final long startMs;
+        private final long stepMs;
+        private final int steps;
+        private final List<SeriesKey> series;
+        private final List<SeriesLabels> labels;
+        private final int topK;
+
+        private Plan(RangeQuery query, long startMs, long stepMs, int steps,
+                     List<SeriesKey> series, List<SeriesLabels> labels, int topK) {
+            this.query = query;
+            this.startMs = startMs;
+            this.stepMs = stepMs;
+            this.steps = steps;
+            this.series = series;
+            this.labels = labels;
+            this.topK = topK;
+        }
+    }
+
+    private record SeriesResult(int index, double[] values) {
+    }
+
+    /**
+     * Result of one aggregate task: groups when the query aggregates, otherwise the top k series.
+     */
+    private record Partial(GroupAccumulator groups, TopKAccumulator topK) {
+
+        Partial merge(Partial other) {
+            return new Partial(groups != null ? groups.merge(other.groups) : null,
+                    topK != null ? topK.merge(other.topK) : null);
+        }
+    }
+
+    /**
+     * Computes the series in {@code [from, to)} of the plan and queues them for the writer.
+     */
+    private final class StreamTask extends RecursiveAction {
+        private final Plan plan;
+        private final int from;
+        private final int to;
+        private final BlockingQueue<SeriesResult> results;
+        private final AtomicBoolean cancelled;
+
+        StreamTask(Plan plan, int from, int to, BlockingQueue<SeriesResult> results, AtomicBoolean cancelled) {
+            this.plan = plan;
+            this.from = from;
+            this.to = to;
+            this.results = results;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SERIES) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new StreamTask(plan, from, mid, results, cancelled),
+                        new StreamTask(plan, mid, to, results, cancelled));
+                return;
+            }
+            StepReducer reducer = newReducer(plan);
+            for (int i = from; i < to && !cancelled.get(); i++) {
+                reducer.reset();
+                read(plan, i, reducer);
+                seriesCounter.increment();
+                SeriesResult result = new SeriesResult(i, reducer.values());
+                try {
+                    // Wait for the writer while the buffer is full, giving up once the query is cancelled
+                    while (!results.offer(result, 100, TimeUnit.MILLISECONDS)) {
+                        if (cancelled.get()) {
+                            return;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("range query interrupted");
+                }
+            }
+        }
+    }
+
+    /**
+     * Folds the series in {@code [from, to)} of the plan into a partial result.
+     */
+    private final class AggregateTask extends RecursiveTask<Partial> {
+        private final Plan plan;
+        private final int from;
+        private final int to;
+        private final AtomicBoolean cancelled;
+
+        AggregateTask(Plan plan, int from, int to, AtomicBoolean cancelled) {
+            this.plan = plan;
+            this.from = from;
+            this.to = to;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from > LEAF_SERIES) {
+                int mid = (from + to) >>> 1;
+                AggregateTask left = new AggregateTask(plan, from, mid, cancelled);
+                left.fork();
+                Partial right = new AggregateTask(plan, mid, to, cancelled).compute();
+                return left.join().merge(right);
+            }
+            RangeQuery query = plan.getQuery();
+            Partial partial = query.getAggregation() != null
+                    ? new Partial(new GroupAccumulator(query.getAggregation(), plan.getSteps()), null)
+                    : new Partial(null, new TopKAccumulator(plan.getTopK(), query.isBottom(), plan.getSteps()));
+            StepReducer reducer = newReducer(plan);
+            for (int i = from; i < to && !cancelled.get(); i++) {
+                reducer.reset();
+                read(plan, i, reducer);
+                seriesCounter.increment();
+                if (partial.groups() != null) {
+                    partial.groups().add(groupKey(query, plan.getLabels().get(i)), reducer);
+                } else {
+                    partial.topK().add(i, reducer.values());
+                }
+            }
+            return partial;
+        }
+
+        private List<String> groupKey(RangeQuery query, SeriesLabels labels) {
+            List<String> groupBy = query.getGroupBy();
+            if (groupBy.isEmpty()) {
+                return List.of();
+            }
+            List<String> key = new ArrayList<>(groupBy.size());
+            for (String label : groupBy) {
+                key.add(labels.label(label));
+            }
+            return key;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.monitoring.monitoring_service.query;
+
+import com.monitoring.monitoring_service.storage.SampleConsumer;
+
+import java.util.Arrays;
+
+/**
+ * StepReducer folds the samples of one series into one value per step of a range
+ * query. Step {@code i} covers {@code [startMs + i * stepMs, startMs + (i + 1) * stepMs)}.
+ *
+ * <p>{@code increase} and {@code rate} treat the series as a counter: each sample
+ * contributes its difference to the previous sample, or its whole value after a
+ * counter reset, so the samples must include the one before the first step. A
+ * reducer is reused for every series a worker reads; {@link #reset()} clears it.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+final class StepReducer implements SampleConsumer {
+
+    private final RangeQuery.StepFunction function;
+    private final long startMs;
+    private final long stepMs;
+    private final double[] values;
+    private final int[] counts;
+    private double previous;
+
+    StepReducer(RangeQuery.StepFunction function, long startMs, long stepMs, int steps) {
+        this.function = function;
+        this.startMs = startMs;
+        this.stepMs = stepMs;
+        this.values = new double[steps];
+        this.counts = new int[steps];
+        reset();
+    }
+
+    void reset() {
+        Arrays.fill(values, 0);
+        Arrays.fill(counts, 0);
+        previous = Double.NaN;
+    }
+
+    @Override
+    public void accept(long timestampMs, double value) {
+        long offset = timestampMs - startMs;
+        if (offset < 0) {
+            previous = value;
+            return;
+        }
+        int i = (int) (offset / stepMs);
+        if (i >= values.length) {
+            return;
+        }
+        switch (function) {
+            case LAST -> values[i] = value;
+            case AVG, SUM -> values[i] += value;
+            case MIN -> values[i] = counts[i] == 0 ? value : Math.min(values[i], value);
+            case MAX -> values[i] = counts[i] == 0 ? value : Math.max(values[i], value);
+            case COUNT -> { }
+            case INCREASE, RATE -> {
+                if (Double.isNaN(previous)) {
+                    previous = value;
+                    return; // no baseline yet: the sample only starts the counter
+                }
+                values[i] += value >= previous ? value - previous : value;
+                previous = value;
+            }
+        }
+        counts[i]++;
+    }
+
+    /**
+     * @return the value of step {@code i}, or NaN if the step has no value
+     */
+    double value(int i) {
+        if (counts[i] == 0) {
+            return Double.NaN;
+        }
+        return switch (function) {
+            case AVG -> values[i] / counts[i];
+            case COUNT -> counts[i];
+            case RATE -> values[i] * 1000.0 / stepMs;
+            default -> values[i];
+        };
+    }
+
+    /**
+     * @return a copy of every step value
+     */
+    double[] values() {
+        double[] result = new double[values.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = value(i);
+        }
+        return result;
+    }
+
+    int steps() {
+        return values.length;
+    }
+}
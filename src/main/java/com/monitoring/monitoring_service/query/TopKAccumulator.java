@@ -0,0 +1,106 @@
+package com.monitoring.monitoring_service.query;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * TopKAccumulator keeps, for every step, the k series with the highest (or, for
+ * {@code bottomk}, lowest) value. Series are identified by an int reference chosen by
+ * the caller. Partial accumulators of different workers merge into one, so only
+ * {@code k * steps} entries are held however many series are ranked.
+ *
+ * <p>As in Prometheus, a series appears in the result with the values of the steps
+ * where it ranked and without values elsewhere.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+final class TopKAccumulator {
+
+    private final int k;
+    private final boolean bottom;
+    private final int steps;
+    private final int[] refs;
+    private final double[] values;
+    private final int[] sizes;
+
+    TopKAccumulator(int k, boolean bottom, int steps) {
+        this.k = k;
+        this.bottom = bottom;
+        this.steps = steps;
+        this.refs = new int[k * steps];
+        this.values = new double[k * steps];
+        this.sizes = new int[steps];
+    }
+
+    /**
+     * Ranks every step value of the series; NaN steps are skipped.
+     */
+    void add(int ref, double[] series) {
+        for (int i = 0; i < steps; i++) {
+            if (!Double.isNaN(series[i])) {
+                offer(i, ref, series[i]);
+            }
+        }
+    }
+
+    TopKAccumulator merge(TopKAccumulator other) {
+        for (int i = 0; i < steps; i++) {
+            for (int j = 0; j < other.sizes[i]; j++) {
+                offer(i, other.refs[i * k + j], other.values[i * k + j]);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return the ranked values of every series that made it into any step, by reference;
+     *         NaN where the series did not rank
+     */
+    Map<Integer, double[]> results() {
+        Map<Integer, double[]> results = new TreeMap<>();
+        for (int i = 0; i < steps; i++) {
+            for (int j = 0; j < sizes[i]; j++) {
+                double[] series = results.computeIfAbsent(refs[i * k + j], ref -> nanSeries(steps));
+                series[i] = values[i * k + j];
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Inserts the value into the k kept for the step, evicting the worst when full.
+     * k is small, so a linear scan for the worst beats maintaining a heap.
+     */
+    private void offer(int step, int ref, double value) {
+        int base = step * k;
+        int size = sizes[step];
+        if (size < k) {
+            refs[base + size] = ref;
+            values[base + size] = value;
+            sizes[step] = size + 1;
+            return;
+        }
+        int worst = base;
+        for (int j = base + 1; j < base + k; j++) {
+            if (better(values[worst], values[j])) {
+                worst = j;
+            }
+        }
+        if (better(value, values[worst])) {
+            refs[worst] = ref;
+            values[worst] = value;
+        }
+    }
+
+    private boolean better(double a, double b) {
+        return bottom ? a < b : a > b;
+    }
+
+    private static double[] nanSeries(int steps) {
+        double[] series = new double[steps];
+        Arrays.fill(series, Double.NaN);
+        return series;
+    }
+}
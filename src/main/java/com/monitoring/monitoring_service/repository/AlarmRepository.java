@@ -1,12 +1,17 @@
 package com.monitoring.monitoring_service.repository;
 
 import com.monitoring.monitoring_service.model.AlarmEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * AlarmRepository provides CRUD operations for AlarmEntity.
@@ -16,7 +21,7 @@ import java.time.LocalDateTime;
  * @author s Bostan
  */
 @Repository
-public interface AlarmRepository extends JpaRepository<AlarmEntity, Long> {
+public interface AlarmRepository extends JpaRepository<AlarmEntity, Long>, AlarmRepositoryCustom {
 
     Page<AlarmEntity> findBySeverity(String severity, Pageable pageable);
 
@@ -24,4 +29,45 @@ public interface AlarmRepository extends JpaRepository<AlarmEntity, Long> {
 
     Page<AlarmEntity> findBySeverityAndTimestampBetween(String severity, LocalDateTime from, LocalDateTime to, Pageable pageable);
 
+    @Query("select a.severity as name, count(a) as total from AlarmEntity a group by a.severity")
+    List<GroupCount> countBySeverity();
+
+    @Query("select a.serviceName as name, count(a) as total from AlarmEntity a group by a.serviceName")
+    List<GroupCount> countByServiceName();
+
+    @Query("select a.metricName as name, count(a) as total from AlarmEntity a group by a.metricName")
+    List<GroupCount> countByMetricName();
+
+    /**
+     * The oldest alarms raised before {@code cutoff}, read along the timestamp index.
+     */
+    @Query("select a.id as id, a.severity as severity, a.serviceName as serviceName, a.metricName as metricName"
+            + " from AlarmEntity a where a.timestamp < :cutoff order by a.timestamp asc, a.id asc")
+    List<ExpiredAlarm> findExpired(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    @Modifying
+    @Query("delete from AlarmEntity a where a.id in :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * One row of a group-by count.
+     */
+    interface GroupCount {
+        String getName();
+
+        long getTotal();
+    }
+
+    /**
+     * The columns of an expired alarm needed to keep the KPI counters in step.
+     */
+    interface ExpiredAlarm {
+        Long getId();
+
+        String getSeverity();
+
+        String getServiceName();
+
+        String getMetricName();
     }
+}
@@ -0,0 +1,30 @@
+package com.monitoring.monitoring_service.repository;
+
+import com.monitoring.monitoring_service.dto.AlarmSummaryDto;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keyset queries of {@link AlarmRepository} that are built from the filters actually given.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+public interface AlarmRepositoryCustom {
+
+    /**
+     * Reads alarms ordered by (timestamp, id) descending, strictly after the given position.
+     * Null filters are left out of the query entirely, so every combination can use its index.
+     *
+     * @param afterTimestamp timestamp of the last alarm already returned (null starts with the newest)
+     * @param afterId        id of the last alarm already returned
+     * @param size           maximum number of alarms
+     * @param includeMessage whether the message column is selected
+     * @return the slice; no count query is issued
+     */
+    Slice<AlarmSummaryDto> findSlice(String severity, String serviceName, String metricName,
+                                     LocalDateTime from, LocalDateTime to,
+                                     LocalDateTime afterTimestamp, Long afterId,
+                                     int size, boolean includeMessage);
+}
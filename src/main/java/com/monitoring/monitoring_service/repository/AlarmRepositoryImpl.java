@@ -0,0 +1,77 @@
+package com.monitoring.monitoring_service.repository;
+
+import com.monitoring.monitoring_service.dto.AlarmSummaryDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of {@link AlarmRepositoryCustom}, picked up by Spring Data through the {@code Impl} suffix.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+public class AlarmRepositoryImpl implements AlarmRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    public AlarmRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Slice<AlarmSummaryDto> findSlice(String severity, String serviceName, String metricName,
+                                            LocalDateTime from, LocalDateTime to,
+                                            LocalDateTime afterTimestamp, Long afterId,
+                                            int size, boolean includeMessage) {
+        StringBuilder jpql = new StringBuilder("select new ")
+                .append(AlarmSummaryDto.class.getName())
+                .append("(a.id, a.serviceName, a.metricName, a.metricValue, a.severity, a.timestamp")
+                .append(includeMessage ? ", a.message)" : ")")
+                .append(" from AlarmEntity a where 1 = 1");
+        Map<String, Object> params = new LinkedHashMap<>();
+
+        if (severity != null) {
+            jpql.append(" and a.severity = :severity");
+            params.put("severity", severity);
+        }
+        if (serviceName != null) {
+            jpql.append(" and a.serviceName = :serviceName");
+            params.put("serviceName", serviceName);
+        }
+        if (metricName != null) {
+            jpql.append(" and a.metricName = :metricName");
+            params.put("metricName", metricName);
+        }
+        if (from != null) {
+            jpql.append(" and a.timestamp >= :from");
+            params.put("from", from);
+        }
+        if (to != null) {
+            jpql.append(" and a.timestamp <= :to");
+            params.put("to", to);
+        }
+        if (afterTimestamp != null && afterId != null) {
+            jpql.append(" and (a.timestamp < :afterTimestamp or (a.timestamp = :afterTimestamp and a.id < :afterId))");
+            params.put("afterTimestamp", afterTimestamp);
+            params.put("afterId", afterId);
+        }
+        jpql.append(" order by a.timestamp desc, a.id desc");
+
+        TypedQuery<AlarmSummaryDto> query = entityManager.createQuery(jpql.toString(), AlarmSummaryDto.class);
+        params.forEach(query::setParameter);
+
+        // One extra row tells whether another slice follows, without a count query
+        List<AlarmSummaryDto> rows = query.setMaxResults(size + 1).getResultList();
+        boolean hasNext = rows.size() > size;
+        List<AlarmSummaryDto> content = hasNext ? rows.subList(0, size) : rows;
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+}
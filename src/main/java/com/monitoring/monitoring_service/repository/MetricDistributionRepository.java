@@ -0,0 +1,40 @@
+package com.monitoring.monitoring_service.repository;
+
+import com.monitoring.monitoring_service.model.MetricDistribution;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * MetricDistributionRepository stores the quantile sketches of every rollup tier.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+public interface MetricDistributionRepository extends JpaRepository<MetricDistribution, Long> {
+
+    List<MetricDistribution> findByServiceNameAndMetricNameAndResolutionMsAndBucketStartMsBetweenOrderByBucketStartMsAsc(
+            String serviceName, String metricName, long resolutionMs, long fromMs, long toMs);
+
+    /**
+     * Buckets of the metric across every service.
+     */
+    List<MetricDistribution> findByMetricNameAndResolutionMsAndBucketStartMsBetweenOrderByBucketStartMsAsc(
+            String metricName, long resolutionMs, long fromMs, long toMs);
+
+    /**
+     * Ids of the oldest buckets of one tier starting before {@code cutoffMs}.
+     */
+    @Query("select d.id from MetricDistribution d where d.resolutionMs = :resolutionMs and d.bucketStartMs < :cutoffMs"
+            + " order by d.bucketStartMs asc")
+    List<Long> findIdsOlderThan(@Param("resolutionMs") long resolutionMs, @Param("cutoffMs") long cutoffMs,
+                                Limit limit);
+
+    @Modifying
+    @Query("delete from MetricDistribution d where d.id in :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+}
@@ -1,7 +1,18 @@
 package com.monitoring.monitoring_service.repository;
 
 import com.monitoring.monitoring_service.model.Metric;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * MetricRepository provides CRUD operations for Metric entities.
@@ -11,4 +22,61 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * @author s Bostan
  */
 public interface MetricRepository extends JpaRepository<Metric, Long> {
+
+    /**
+     * Keyset page of metrics after {@code afterId} within {@code [from, to]}, oldest first.
+     */
+    @Query("select m from Metric m where m.id > :afterId"
+            + " and m.timestamp >= :from and m.timestamp <= :to"
+            + " order by m.id asc")
+    List<Metric> findPage(@Param("afterId") long afterId,
+                          @Param("from") LocalDateTime from,
+                          @Param("to") LocalDateTime to,
+                          Limit limit);
+
+    /**
+     * {@link #findPage} limited to one service, read along the (serviceName, id) index.
+     */
+    @Query("select m from Metric m where m.serviceName = :service and m.id > :afterId"
+            + " and m.timestamp >= :from and m.timestamp <= :to"
+            + " order by m.id asc")
+    List<Metric> findPageByService(@Param("afterId") long afterId,
+                                   @Param("service") String service,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to,
+                                   Limit limit);
+
+    /**
+     * Same filter as {@link #findPage} without a limit, fetched from the database
+     * in rounds of 500 rows. Must be consumed (and closed) inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select m from Metric m where m.id > :afterId"
+            + " and m.timestamp >= :from and m.timestamp <= :to"
+            + " order by m.id asc")
+    Stream<Metric> streamAll(@Param("afterId") long afterId,
+                             @Param("from") LocalDateTime from,
+                             @Param("to") LocalDateTime to);
+
+    /**
+     * {@link #streamAll} limited to one service.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select m from Metric m where m.serviceName = :service and m.id > :afterId"
+            + " and m.timestamp >= :from and m.timestamp <= :to"
+            + " order by m.id asc")
+    Stream<Metric> streamAllByService(@Param("afterId") long afterId,
+                                      @Param("service") String service,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to);
+
+    /**
+     * Ids of the oldest metrics written before {@code cutoff}, read along the timestamp index.
+     */
+    @Query("select m.id from Metric m where m.timestamp < :cutoff order by m.timestamp asc")
+    List<Long> findIdsOlderThan(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    @Modifying
+    @Query("delete from Metric m where m.id in :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
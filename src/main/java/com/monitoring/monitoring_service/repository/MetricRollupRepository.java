@@ -0,0 +1,34 @@
+package com.monitoring.monitoring_service.repository;
+
+import com.monitoring.monitoring_service.model.MetricRollup;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * MetricRollupRepository stores the pre-aggregated buckets of every rollup tier.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+public interface MetricRollupRepository extends JpaRepository<MetricRollup, Long> {
+
+    List<MetricRollup> findByServiceNameAndMetricNameAndResolutionMsAndBucketStartMsBetweenOrderByBucketStartMsAsc(
+            String serviceName, String metricName, long resolutionMs, long fromMs, long toMs);
+
+    /**
+     * Ids of the oldest buckets of one tier starting before {@code cutoffMs}.
+     */
+    @Query("select r.id from MetricRollup r where r.resolutionMs = :resolutionMs and r.bucketStartMs < :cutoffMs"
+            + " order by r.bucketStartMs asc")
+    List<Long> findIdsOlderThan(@Param("resolutionMs") long resolutionMs, @Param("cutoffMs") long cutoffMs,
+                                Limit limit);
+
+    @Modifying
+    @Query("delete from MetricRollup r where r.id in :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,41 @@
+package com.monitoring.monitoring_service.repository;
+
+import com.monitoring.monitoring_service.storage.ChunkStore;
+import com.monitoring.monitoring_service.storage.HeadStore;
+import com.monitoring.monitoring_service.storage.SampleConsumer;
+import org.springframework.stereotype.Repository;
+
+/**
+ * SeriesRepository reads the samples of one series across both storage tiers.
+ *
+ * Everything from the oldest sample still held by the {@link HeadStore} onward is
+ * read from memory; anything older comes from the compressed {@link ChunkStore}.
+ * The head must hold more samples per series than a chunk so the two tiers overlap.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Repository
+public class SeriesRepository {
+
+    private final HeadStore headStore;
+    private final ChunkStore chunkStore;
+
+    public SeriesRepository(HeadStore headStore, ChunkStore chunkStore) {
+        this.headStore = headStore;
+        this.chunkStore = chunkStore;
+    }
+
+    /**
+     * Visits the samples of a series within {@code [fromMs, toMs]} in time order.
+     */
+    public void forEach(int seriesId, long fromMs, long toMs, SampleConsumer consumer) {
+        long headStart = headStore.oldestTimestamp(seriesId);
+        if (fromMs < headStart) {
+            chunkStore.forEach(seriesId, fromMs, Math.min(toMs, headStart - 1), consumer);
+        }
+        if (toMs >= headStart) {
+            headStore.forEach(seriesId, Math.max(fromMs, headStart), toMs, consumer);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.monitoring.monitoring_service.rules;
+
+import com.monitoring.monitoring_service.storage.DDSketch;
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CompiledRule is a parsed {@link RuleDefinition}: a selector, a condition and a
+ * {@code for} duration ready to be tested against samples.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Getter
+public final class CompiledRule {
+
+    private static final Set<String> SEVERITIES = Set.of("INFO", "WARNING", "CRITICAL");
+
+    private final RuleDefinition definition;
+    private final SeriesSelector selector;
+    private final RuleExpression.Compiled condition;
+    private final long forMs;
+    private final String name;
+    private final String severity;
+    private final Map<String, String> labels;
+
+    private CompiledRule(RuleDefinition definition, SeriesSelector selector, RuleExpression.Compiled condition,
+                         long forMs, String severity) {
+        this.definition = definition;
+        this.selector = selector;
+        this.condition = condition;
+        this.forMs = forMs;
+        this.name = definition.getName();
+        this.severity = severity;
+        this.labels = Map.copyOf(definition.getLabels());
+    }
+
+    /**
+     * @throws IllegalArgumentException naming the rule and the part that is invalid
+     */
+    public static CompiledRule compile(RuleDefinition definition) {
+        String name = definition.getName();
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("rule name is empty");
+        }
+        String severity = definition.getSeverity() != null ? definition.getSeverity().trim().toUpperCase() : "";
+        if (!SEVERITIES.contains(severity)) {
+            throw new IllegalArgumentException("rule " + name + ": severity must be one of " + SEVERITIES);
+        }
+        String forDuration = definition.getForDuration() != null && !definition.getForDuration().isBlank()
+                ? definition.getForDuration().trim()
+                : null;
+        RuleDefinition normalized = new RuleDefinition(name, definition.getSelector(), definition.getExpr(), forDuration,
+                severity, definition.getLabels() != null ? new LinkedHashMap<>(definition.getLabels()) : new LinkedHashMap<>());
+        try {
+            return new CompiledRule(normalized, SeriesSelector.parse(definition.getSelector()),
+                    RuleExpression.compile(definition.getExpr()),
+                    forDuration != null ? RuleExpression.parseDurationMs(forDuration) : 0, severity);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("rule " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Window durations read by the condition, indexed like the windows passed to {@link #test}
+     */
+    long[] windowsMs() {
+        return condition.windowsMs();
+    }
+
+    boolean test(double value, SlidingWindow[] windows, DDSketch distribution) {
+        return condition.test(value, windows, distribution);
+    }
+
+    /**
+     * @return the number the condition compares, e.g. the p99 of {@code p99 > 500}, reported in alarms
+     */
+    double subject(double value, SlidingWindow[] windows, DDSketch distribution) {
+        return condition.subject(value, windows, distribution);
+    }
+}
@@ -0,0 +1,61 @@
+package com.monitoring.monitoring_service.rules;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * RuleDefinition is an alert rule as declared in configuration ({@code alarm.rules[n].*})
+ * or through {@code /alarms/rules}.
+ *
+ * <pre>
+ * name:        cpu-critical
+ * selector:    CPU{service=~"orders-.*"}
+ * expr:        avg(5m) >= 90
+ * forDuration: 2m
+ * severity:    CRITICAL
+ * labels:      team=platform
+ * </pre>
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleDefinition {
+
+    /**
+     * Unique rule name
+     */
+    private String name;
+
+    /**
+     * Series the rule applies to: a metric name and/or label matchers, see {@link SeriesSelector}
+     */
+    private String selector;
+
+    /**
+     * Condition on the sample {@code value}, see {@link RuleExpression}
+     */
+    private String expr;
+
+    /**
+     * How long the condition must hold on consecutive samples before the rule fires
+     * (e.g. 30s, 2m); empty fires on the first matching sample
+     */
+    private String forDuration;
+
+    /**
+     * Severity of the alarms raised (WARNING, CRITICAL, INFO)
+     */
+    private String severity;
+
+    /**
+     * Extra labels attached to the alarms raised
+     */
+    private Map<String, String> labels = new LinkedHashMap<>();
+}
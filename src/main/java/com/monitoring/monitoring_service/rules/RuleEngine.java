@@ -0,0 +1,179 @@
+package com.monitoring.monitoring_service.rules;
+
+import com.monitoring.monitoring_service.config.AlarmConfig;
+import com.monitoring.monitoring_service.exception.CustomMonitoringException;
+import com.monitoring.monitoring_service.storage.DDSketch;
+import com.monitoring.monitoring_service.storage.SeriesArray;
+import com.monitoring.monitoring_service.storage.SeriesKey;
+import com.monitoring.monitoring_service.storage.SeriesRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * RuleEngine holds the alert rules and evaluates samples against them.
+ *
+ * <p>Rules come from {@code alarm.rules[n]} in configuration; when none are configured,
+ * the six legacy CPU/MEMORY/REQUESTS thresholds of {@link AlarmConfig} are turned into
+ * rules. Rules added or removed through {@code /alarms/rules} are kept in memory only.
+ *
+ * <p>Every change compiles a new immutable {@link RuleSet}. The rules of a series are
+ * resolved against the current set on its first sample and kept, with the series'
+ * sliding windows, in a {@link SeriesEvaluator} cached by series id, so evaluating a
+ * sample is one array read plus O(1) window updates and the conditions of the rules
+ * that can apply to it. History is never re-read: windows fill from live samples.
+ * An evaluator made for an older set is rebuilt on next use, keeping its windows.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@Component
+public class RuleEngine {
+
+    private final AlarmConfig alarmConfig;
+    private final SeriesRegistry seriesRegistry;
+
+    private final SeriesArray<SeriesEvaluator> evaluators = new SeriesArray<>();
+    private final Map<String, CompiledRule> rulesByName = new LinkedHashMap<>();
+    private volatile RuleSet ruleSet = new RuleSet(List.of());
+
+    public RuleEngine(AlarmConfig alarmConfig, SeriesRegistry seriesRegistry) {
+        this.alarmConfig = alarmConfig;
+        this.seriesRegistry = seriesRegistry;
+    }
+
+    /**
+     * Compiles the configured rules; an invalid rule stops the startup.
+     */
+    @PostConstruct
+    public void load() {
+        List<RuleDefinition> definitions = alarmConfig.getRules().isEmpty()
+                ? defaultRules()
+                : alarmConfig.getRules();
+        synchronized (this) {
+            for (RuleDefinition definition : definitions) {
+                CompiledRule rule = CompiledRule.compile(definition);
+                if (rulesByName.put(rule.getName(), rule) != null) {
+                    throw new IllegalArgumentException("duplicate rule name " + rule.getName());
+                }
+            }
+            publish();
+        }
+        log.info("Alert rules loaded count={} source={}", rulesByName.size(),
+                alarmConfig.getRules().isEmpty() ? "thresholds" : "alarm.rules");
+    }
+
+    /**
+     * Evaluates a sample of the series against the rules that apply to it.
+     *
+     * @param seriesId    interned series id
+     * @param timestampMs sample time, epoch milliseconds
+     * @param value       sample value
+     * @param handler     called for every rule that fires
+     */
+    public void evaluate(int seriesId, long timestampMs, double value, RuleMatchHandler handler) {
+        SeriesEvaluator evaluator = evaluatorFor(seriesId);
+        if (evaluator != null) {
+            evaluator.evaluate(timestampMs, value, null, handler);
+        }
+    }
+
+    /**
+     * Evaluates one bucket of a distribution series: quantile terms read the sketch,
+     * {@code value} and the windows see the bucket mean.
+     *
+     * @param seriesId    interned series id
+     * @param timestampMs end of the bucket, epoch milliseconds
+     * @param sketch      the values of the bucket
+     * @param handler     called for every rule that fires
+     */
+    public void evaluate(int seriesId, long timestampMs, DDSketch sketch, RuleMatchHandler handler) {
+        SeriesEvaluator evaluator = evaluatorFor(seriesId);
+        if (evaluator != null && !sketch.isEmpty()) {
+            evaluator.evaluate(timestampMs, sketch.getAverage(), sketch, handler);
+        }
+    }
+
+    private SeriesEvaluator evaluatorFor(int seriesId) {
+        RuleSet current = ruleSet;
+        SeriesEvaluator cached = evaluators.get(seriesId);
+        if (cached != null && cached.ruleSet() == current) {
+            return cached;
+        }
+        SeriesKey key = seriesRegistry.get(seriesId);
+        if (key == null) {
+            return null;
+        }
+        SeriesEvaluator resolved = new SeriesEvaluator(current, current.resolve(SeriesLabels.of(key)), cached);
+        // A racing update may overwrite this with an evaluator for an older set; it is then resolved again
+        evaluators.set(seriesId, resolved);
+        return resolved;
+    }
+
+    public List<RuleDefinition> list() {
+        List<RuleDefinition> definitions = new ArrayList<>();
+        for (CompiledRule rule : ruleSet.rules()) {
+            definitions.add(rule.getDefinition());
+        }
+        return definitions;
+    }
+
+    /**
+     * Adds the rule, or replaces the rule of the same name.
+     *
+     * @throws CustomMonitoringException if the rule does not compile
+     */
+    public synchronized RuleDefinition put(RuleDefinition definition) {
+        CompiledRule rule;
+        try {
+            rule = CompiledRule.compile(definition);
+        } catch (IllegalArgumentException e) {
+            throw new CustomMonitoringException("Invalid alert " + e.getMessage(), e);
+        }
+        boolean replaced = rulesByName.put(rule.getName(), rule) != null;
+        publish();
+        log.info("Alert rule {} name={} selector={} expr={} for={} severity={}", replaced ? "replaced" : "added",
+                rule.getName(), rule.getSelector(), definition.getExpr(), definition.getForDuration(), rule.getSeverity());
+        return rule.getDefinition();
+    }
+
+    /**
+     * @throws NoSuchElementException if there is no rule with that name
+     */
+    public synchronized void remove(String name) {
+        if (rulesByName.remove(name) == null) {
+            throw new NoSuchElementException("No alert rule named " + name);
+        }
+        publish();
+        log.info("Alert rule removed name={}", name);
+    }
+
+    private void publish() {
+        ruleSet = new RuleSet(rulesByName.values());
+    }
+
+    private List<RuleDefinition> defaultRules() {
+        return List.of(
+                thresholdRule("cpu", "CPU", alarmConfig.getCpuThresholdWarning(), alarmConfig.getCpuThresholdCritical()),
+                thresholdRule("memory", "MEMORY", alarmConfig.getMemoryThresholdWarning(), alarmConfig.getMemoryThresholdCritical()),
+                thresholdRule("requests", "REQUESTS", alarmConfig.getRequestsThresholdWarning(), alarmConfig.getRequestsThresholdCritical()))
+                .stream().flatMap(List::stream).toList();
+    }
+
+    /**
+     * WARNING below the critical threshold only, so one sample raises at most one of the two.
+     */
+    private static List<RuleDefinition> thresholdRule(String prefix, String metric, int warning, int critical) {
+        return List.of(
+                new RuleDefinition(prefix + "-warning", metric,
+                        "value >= " + warning + " and value < " + critical, null, "WARNING", new LinkedHashMap<>()),
+                new RuleDefinition(prefix + "-critical", metric, "value >= " + critical, null, "CRITICAL", new LinkedHashMap<>()));
+    }
+}
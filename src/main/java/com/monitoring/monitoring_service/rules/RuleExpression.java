@@ -0,0 +1,529 @@
+package com.monitoring.monitoring_service.rules;
+
+import com.monitoring.monitoring_service.storage.DDSketch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RuleExpression compiles the condition of an alert rule into a {@link Condition}
+ * over the sample value, the sliding windows of its series and, for distribution
+ * series, the quantile sketch of the bucket being evaluated.
+ *
+ * <pre>
+ * expr    := or
+ * or      := and (("or" | "||") and)*
+ * and     := not (("and" | "&amp;&amp;") not)*
+ * not     := ("not" | "!") not | compare
+ * compare := sum (("&gt;" | "&gt;=" | "&lt;" | "&lt;=" | "==" | "!=") sum)?
+ * sum     := product (("+" | "-") product)*
+ * product := unary (("*" | "/" | "%") unary)*
+ * unary   := "-" unary | "value" | number | "abs(" sum ")" | window | quantile | "(" expr ")"
+ * window  := ("avg" | "min" | "max" | "sum" | "count" | "increase" | "rate") "(" duration ")"
+ * quantile:= "p" digit digit digit* | "quantile(" number ")"
+ * number  := decimal ("ms" | "s" | "m" | "h" | "d")?
+ * </pre>
+ *
+ * An expression may also start with a comparison operator, which compares
+ * {@code value}: {@code ">= 90"} is {@code "value >= 90"}. A window function
+ * aggregates the samples of the series over the trailing duration, including the
+ * current one: {@code avg(5m) > 80}, {@code rate(1m) > 100}. Durations are
+ * written {@code 500ms}, {@code 30s}, {@code 5m}, {@code 1h} or {@code 1d}.
+ *
+ * <p>On a distribution series (e.g. StatsD timers), {@code p50}, {@code p99},
+ * {@code p999} or {@code quantile(0.99)} read the quantile of the bucket's sketch and
+ * {@code value} is its mean: {@code p99 > 500ms}. A number with a duration unit is
+ * read in milliseconds, so {@code 500ms} is {@code 500} and {@code 2s} is {@code 2000}.
+ * On plain series a quantile is NaN and comparisons with it are false.
+ *
+ * <p>The text is parsed once into a chain of lambdas. Constant sub-expressions are
+ * folded while parsing and the common {@code value op constant} comparison becomes a
+ * single lambda, so testing a sample does no parsing, boxing or allocation. Each
+ * distinct window duration gets an index into the window array passed to the condition.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+final class RuleExpression {
+
+    private static final String[] WINDOW_FUNCTIONS = {"avg", "min", "max", "sum", "count", "increase", "rate"};
+    private static final String[] DURATION_UNITS = {"ms", "s", "m", "h", "d"};
+
+    private final String text;
+    private final List<Long> windowsMs = new ArrayList<>();
+    private int pos;
+
+    private RuleExpression(String text) {
+        this.text = text;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the text is not a valid boolean expression
+     */
+    static Compiled compile(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("expression is empty");
+        }
+        RuleExpression parser = new RuleExpression(text.trim());
+        if (parser.peekComparison() != null) {
+            parser = new RuleExpression("value " + text.trim());
+        }
+        Term term = parser.parseOr();
+        parser.skipSpaces();
+        if (parser.pos < parser.text.length()) {
+            throw parser.error("unexpected '" + parser.text.charAt(parser.pos) + "'");
+        }
+        if (!(term instanceof Bool bool)) {
+            throw new IllegalArgumentException("expression must be a condition, e.g. \"value > 90\"");
+        }
+        return new Compiled(bool.fn, bool.subject != null ? bool.subject : Num.VALUE.fn,
+                parser.windowsMs.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    /**
+     * Parses {@code 500ms}, {@code 30s}, {@code 5m}, {@code 1h}, {@code 1d} or plain milliseconds.
+     *
+     * @throws IllegalArgumentException if the text is not a positive duration
+     */
+    static long parseDurationMs(String text) {
+        String s = text.trim();
+        int digits = 0;
+        while (digits < s.length() && Character.isDigit(s.charAt(digits))) {
+            digits++;
+        }
+        if (digits == 0) {
+            throw new IllegalArgumentException("invalid duration '" + text + "'");
+        }
+        long amount = Long.parseLong(s.substring(0, digits));
+        long unitMs = switch (s.substring(digits)) {
+            case "", "ms" -> 1;
+            case "s" -> 1000;
+            case "m" -> 60_000;
+            case "h" -> 3_600_000;
+            case "d" -> 86_400_000;
+            default -> throw new IllegalArgumentException("invalid duration unit in '" + text + "'");
+        };
+        if (amount <= 0) {
+            throw new IllegalArgumentException("duration must be positive: '" + text + "'");
+        }
+        return Math.multiplyExact(amount, unitMs);
+    }
+
+    // ---------------- parsing ----------------
+
+    private Term parseOr() {
+        Term left = parseAnd();
+        while (acceptWord("or") || accept("||")) {
+            Condition a = bool(left, "or");
+            Condition b = bool(parseAnd(), "or");
+            left = Bool.of((v, w, d) -> a.test(v, w, d) || b.test(v, w, d));
+        }
+        return left;
+    }
+
+    private Term parseAnd() {
+        Term left = parseNot();
+        while (acceptWord("and") || accept("&&")) {
+            Condition a = bool(left, "and");
+            Condition b = bool(parseNot(), "and");
+            left = Bool.of((v, w, d) -> a.test(v, w, d) && b.test(v, w, d));
+        }
+        return left;
+    }
+
+    private Term parseNot() {
+        if (acceptWord("not") || (peek('!') && !peekAt(1, '=') && accept("!"))) {
+            Condition a = bool(parseNot(), "not");
+            return Bool.of((v, w, d) -> !a.test(v, w, d));
+        }
+        return parseComparison();
+    }
+
+    private Term parseComparison() {
+        Term left = parseSum();
+        String op = peekComparison();
+        if (op == null) {
+            return left;
+        }
+        pos += op.length();
+        Num a = num(left, op);
+        Num b = num(parseSum(), op);
+        return compare(op, a, b);
+    }
+
+    private Term parseSum() {
+        Term left = parseProduct();
+        while (true) {
+            if (accept("+")) {
+                left = arithmetic('+', num(left, "+"), num(parseProduct(), "+"));
+            } else if (peek('-')) {
+                pos++;
+                left = arithmetic('-', num(left, "-"), num(parseProduct(), "-"));
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Term parseProduct() {
+        Term left = parseUnary();
+        while (true) {
+            char op;
+            if (accept("*")) {
+                op = '*';
+            } else if (accept("/")) {
+                op = '/';
+            } else if (accept("%")) {
+                op = '%';
+            } else {
+                return left;
+            }
+            left = arithmetic(op, num(left, String.valueOf(op)), num(parseUnary(), String.valueOf(op)));
+        }
+    }
+
+    private Term parseUnary() {
+        skipSpaces();
+        if (accept("-")) {
+            Num a = num(parseUnary(), "-");
+            return a.constant ? Num.constant(-a.constantValue) : Num.of((v, w, d) -> -a.fn.apply(v, w, d));
+        }
+        if (accept("(")) {
+            Term inner = parseOr();
+            expect(")");
+            return inner;
+        }
+        if (acceptWord("value")) {
+            return Num.VALUE;
+        }
+        if (acceptWord("abs")) {
+            expect("(");
+            Num a = num(parseSum(), "abs");
+            expect(")");
+            return a.constant ? Num.constant(Math.abs(a.constantValue)) : Num.of((v, w, d) -> Math.abs(a.fn.apply(v, w, d)));
+        }
+        for (String function : WINDOW_FUNCTIONS) {
+            if (acceptWord(function)) {
+                return window(function);
+            }
+        }
+        if (acceptWord("quantile")) {
+            expect("(");
+            double q = parseNumber();
+            expect(")");
+            return quantile(q);
+        }
+        Num percentile = acceptPercentile();
+        if (percentile != null) {
+            return percentile;
+        }
+        return Num.constant(parseNumber());
+    }
+
+    private double parseNumber() {
+        skipSpaces();
+        int start = pos;
+        while (pos < text.length()) {
+            char c = text.charAt(pos);
+            boolean exponentSign = (c == '+' || c == '-') && pos > start
+                    && (text.charAt(pos - 1) == 'e' || text.charAt(pos - 1) == 'E');
+            if (Character.isDigit(c) || c == '.' || c == 'e' || c == 'E' || exponentSign) {
+                pos++;
+            } else {
+                break;
+            }
+        }
+        if (start == pos) {
+            throw error(pos < text.length() ? "unexpected '" + text.charAt(pos) + "'" : "unexpected end of expression");
+        }
+        double number;
+        try {
+            number = Double.parseDouble(text.substring(start, pos));
+        } catch (NumberFormatException e) {
+            throw error("invalid number '" + text.substring(start, pos) + "'");
+        }
+        for (String unit : DURATION_UNITS) {
+            if (acceptSuffix(unit)) {
+                return number * parseDurationMs("1" + unit);
+            }
+        }
+        return number;
+    }
+
+    /**
+     * Parses {@code pNN[N...]}: the first two digits are the percentile, further ones
+     * its decimals ({@code p50} is 0.5, {@code p999} is 0.999).
+     */
+    private Num acceptPercentile() {
+        skipSpaces();
+        int end = pos + 1;
+        while (end < text.length() && Character.isDigit(text.charAt(end))) {
+            end++;
+        }
+        if (end - pos < 3 || (text.charAt(pos) != 'p' && text.charAt(pos) != 'P')
+                || (end < text.length() && Character.isLetter(text.charAt(end)))) {
+            return null;
+        }
+        double q = Double.parseDouble("0." + text.substring(pos + 1, end));
+        pos = end;
+        return quantile(q);
+    }
+
+    // ---------------- compilation ----------------
+
+    private static Term compare(String op, Num a, Num b) {
+        if (a.constant && b.constant) {
+            boolean result = comparator(op).test(a.constantValue, b.constantValue);
+            return Bool.of((v, w, d) -> result);
+        }
+        if (a.identity && b.constant) {
+            // value op constant: the shape of almost every threshold rule
+            double c = b.constantValue;
+            return new Bool(switch (op) {
+                case ">" -> (v, w, d) -> v > c;
+                case ">=" -> (v, w, d) -> v >= c;
+                case "<" -> (v, w, d) -> v < c;
+                case "<=" -> (v, w, d) -> v <= c;
+                case "==" -> (v, w, d) -> v == c;
+                default -> (v, w, d) -> v != c;
+            }, a.fn);
+        }
+        DoubleComparator cmp = comparator(op);
+        ValueFn fa = a.fn;
+        ValueFn fb = b.fn;
+        if (b.constant) {
+            double c = b.constantValue;
+            return new Bool((v, w, d) -> cmp.test(fa.apply(v, w, d), c), fa);
+        }
+        return new Bool((v, w, d) -> cmp.test(fa.apply(v, w, d), fb.apply(v, w, d)), fa);
+    }
+
+    private static DoubleComparator comparator(String op) {
+        return switch (op) {
+            case ">" -> (x, y) -> x > y;
+            case ">=" -> (x, y) -> x >= y;
+            case "<" -> (x, y) -> x < y;
+            case "<=" -> (x, y) -> x <= y;
+            case "==" -> (x, y) -> x == y;
+            default -> (x, y) -> x != y;
+        };
+    }
+
+    private static Num arithmetic(char op, Num a, Num b) {
+        DoubleBinary f = switch (op) {
+            case '+' -> (x, y) -> x + y;
+            case '-' -> (x, y) -> x - y;
+            case '*' -> (x, y) -> x * y;
+            case '/' -> (x, y) -> x / y;
+            default -> (x, y) -> x % y;
+        };
+        if (a.constant && b.constant) {
+            return Num.constant(f.apply(a.constantValue, b.constantValue));
+        }
+        ValueFn fa = a.fn;
+        ValueFn fb = b.fn;
+        if (b.constant) {
+            double c = b.constantValue;
+            return Num.of((v, w, d) -> f.apply(fa.apply(v, w, d), c));
+        }
+        return Num.of((v, w, d) -> f.apply(fa.apply(v, w, d), fb.apply(v, w, d)));
+    }
+
+    /**
+     * Parses {@code "(" duration ")"} of a window function and binds it to the
+     * window slot of that duration.
+     */
+    private Num window(String function) {
+        expect("(");
+        skipSpaces();
+        int start = pos;
+        while (pos < text.length() && Character.isLetterOrDigit(text.charAt(pos))) {
+            pos++;
+        }
+        long durationMs;
+        try {
+            durationMs = parseDurationMs(text.substring(start, pos));
+        } catch (IllegalArgumentException e) {
+            throw error(e.getMessage());
+        }
+        expect(")");
+
+        int index = windowsMs.indexOf(durationMs);
+        if (index < 0) {
+            index = windowsMs.size();
+            windowsMs.add(durationMs);
+        }
+        int i = index;
+        return Num.of(switch (function) {
+            case "avg" -> (v, w, d) -> w[i].avg();
+            case "min" -> (v, w, d) -> w[i].min();
+            case "max" -> (v, w, d) -> w[i].max();
+            case "sum" -> (v, w, d) -> w[i].sum();
+            case "count" -> (v, w, d) -> w[i].count();
+            case "increase" -> (v, w, d) -> w[i].increase();
+            default -> (v, w, d) -> w[i].rate();
+        });
+    }
+
+    private Num quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw error("quantile must be between 0 and 1");
+        }
+        return Num.of((v, w, d) -> d != null ? d.quantile(q) : Double.NaN);
+    }
+
+    private Condition bool(Term term, String operator) {
+        if (term instanceof Bool bool) {
+            return bool.fn;
+        }
+        throw error("'" + operator + "' needs a condition, not a number");
+    }
+
+    private Num num(Term term, String operator) {
+        if (term instanceof Num n) {
+            return n;
+        }
+        throw error("'" + operator + "' needs a number, not a condition");
+    }
+
+    // ---------------- tokens ----------------
+
+    private String peekComparison() {
+        skipSpaces();
+        for (String op : new String[]{">=", "<=", "==", "!=", ">", "<"}) {
+            if (text.startsWith(op, pos)) {
+                return op;
+            }
+        }
+        return null;
+    }
+
+    private boolean accept(String token) {
+        skipSpaces();
+        if (text.startsWith(token, pos)) {
+            pos += token.length();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Accepts a unit written right after a number, as in {@code 500ms}.
+     */
+    private boolean acceptSuffix(String unit) {
+        int end = pos + unit.length();
+        if (text.startsWith(unit, pos) && (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)))) {
+            pos = end;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean acceptWord(String word) {
+        skipSpaces();
+        int end = pos + word.length();
+        if (text.regionMatches(true, pos, word, 0, word.length())
+                && (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)))) {
+            pos = end;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String token) {
+        if (!accept(token)) {
+            throw error("expected '" + token + "'");
+        }
+    }
+
+    private boolean peek(char c) {
+        skipSpaces();
+        return pos < text.length() && text.charAt(pos) == c;
+    }
+
+    private boolean peekAt(int offset, char c) {
+        return pos + offset < text.length() && text.charAt(pos + offset) == c;
+    }
+
+    private void skipSpaces() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos + " in expression \"" + text + "\"");
+    }
+
+    // ---------------- terms ----------------
+
+    /**
+     * A compiled condition, the number it tests (the left side of a top-level
+     * comparison, else the sample value) and the window durations it reads, by window index.
+     */
+    record Compiled(Condition condition, ValueFn subject, long[] windowsMs) {
+
+        boolean test(double value, SlidingWindow[] windows, DDSketch distribution) {
+            return condition.test(value, windows, distribution);
+        }
+
+        double subject(double value, SlidingWindow[] windows, DDSketch distribution) {
+            return subject.apply(value, windows, distribution);
+        }
+    }
+
+    /**
+     * Condition on the current sample value, the windows of the expression, by index,
+     * and the sketch of a distribution bucket (null for plain samples).
+     */
+    @FunctionalInterface
+    interface Condition {
+        boolean test(double value, SlidingWindow[] windows, DDSketch distribution);
+    }
+
+    @FunctionalInterface
+    interface ValueFn {
+        double apply(double value, SlidingWindow[] windows, DDSketch distribution);
+    }
+
+    private sealed interface Term permits Num, Bool {
+    }
+
+    /**
+     * A numeric term. {@code identity} marks the bare sample value, {@code constant}
+     * a folded constant, so comparisons can be specialised.
+     */
+    private record Num(ValueFn fn, boolean identity, boolean constant, double constantValue)
+            implements Term {
+
+        static final Num VALUE = new Num((v, w, d) -> v, true, false, 0);
+
+        static Num of(ValueFn fn) {
+            return new Num(fn, false, false, 0);
+        }
+
+        static Num constant(double c) {
+            return new Num((v, w, d) -> c, false, true, c);
+        }
+    }
+
+    /**
+     * A condition term; {@code subject} is the compared number when the term is a comparison.
+     */
+    private record Bool(Condition fn, ValueFn subject) implements Term {
+
+        static Bool of(Condition fn) {
+            return new Bool(fn, null);
+        }
+    }
+
+    @FunctionalInterface
+    private interface DoubleComparator {
+        boolean test(double x, double y);
+    }
+
+    @FunctionalInterface
+    private interface DoubleBinary {
+        double apply(double x, double y);
+    }
+}
@@ -0,0 +1,16 @@
+package com.monitoring.monitoring_service.rules;
+
+/**
+ * Receives the rules that fire for a sample.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@FunctionalInterface
+public interface RuleMatchHandler {
+
+    /**
+     * @param value the number the rule compared, e.g. the sample value or its p99
+     */
+    void matched(CompiledRule rule, double value);
+}
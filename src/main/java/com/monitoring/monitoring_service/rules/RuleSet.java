@@ -0,0 +1,57 @@
+package com.monitoring.monitoring_service.rules;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RuleSet is an immutable set of compiled rules indexed by metric name.
+ *
+ * Resolving the rules of a series only tests the selectors of rules naming that
+ * metric plus the (usually few) rules without a metric name, so the cost does not
+ * grow with the total number of rules.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+final class RuleSet {
+
+    static final CompiledRule[] NONE = new CompiledRule[0];
+
+    private final List<CompiledRule> rules;
+    private final Map<String, List<CompiledRule>> byMetric = new HashMap<>();
+    private final List<CompiledRule> anyMetric = new ArrayList<>();
+
+    RuleSet(Collection<CompiledRule> rules) {
+        this.rules = List.copyOf(rules);
+        for (CompiledRule rule : this.rules) {
+            String metric = rule.getSelector().getMetricName();
+            if (metric != null) {
+                byMetric.computeIfAbsent(metric, k -> new ArrayList<>()).add(rule);
+            } else {
+                anyMetric.add(rule);
+            }
+        }
+    }
+
+    List<CompiledRule> rules() {
+        return rules;
+    }
+
+    CompiledRule[] resolve(SeriesLabels series) {
+        List<CompiledRule> matched = new ArrayList<>();
+        for (CompiledRule rule : byMetric.getOrDefault(series.name(), List.of())) {
+            if (rule.getSelector().matches(series)) {
+                matched.add(rule);
+            }
+        }
+        for (CompiledRule rule : anyMetric) {
+            if (rule.getSelector().matches(series)) {
+                matched.add(rule);
+            }
+        }
+        return matched.isEmpty() ? NONE : matched.toArray(CompiledRule[]::new);
+    }
+}
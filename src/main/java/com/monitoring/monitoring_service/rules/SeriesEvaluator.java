@@ -0,0 +1,120 @@
+package com.monitoring.monitoring_service.rules;
+
+import com.monitoring.monitoring_service.storage.DDSketch;
+
+import java.util.Arrays;
+
+/**
+ * SeriesEvaluator evaluates the rules that apply to one series, sample by sample.
+ *
+ * <p>It owns one {@link SlidingWindow} per distinct window duration used by those
+ * rules (rules reading {@code avg(5m)} and {@code max(5m)} share one window) and, per
+ * rule, the time from which its condition has held, for {@code for} durations.
+ * Replacing the rule set keeps the windows of durations still in use and the pending
+ * state of unchanged rules, so a rule change does not reset them.
+ *
+ * <p>The windows are mutable and handed from evaluator to evaluator, while a thread
+ * that fetched the older one may still be evaluating with it. All evaluators of a
+ * series therefore share one lock object, carried over with the windows, and the
+ * handover itself runs under it.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+final class SeriesEvaluator {
+
+    private static final long NOT_PENDING = Long.MIN_VALUE;
+
+    private final Object lock;
+    private final RuleSet ruleSet;
+    private final CompiledRule[] rules;
+    private final SlidingWindow[] windows;
+    private final SlidingWindow[][] ruleWindows;
+    private final long[] pendingSince;
+
+    SeriesEvaluator(RuleSet ruleSet, CompiledRule[] rules, SeriesEvaluator previous) {
+        this.lock = previous != null ? previous.lock : new Object();
+        this.ruleSet = ruleSet;
+        this.rules = rules;
+        this.ruleWindows = new SlidingWindow[rules.length][];
+        this.pendingSince = new long[rules.length];
+
+        SlidingWindow[] shared = new SlidingWindow[0];
+        synchronized (lock) {
+            for (int r = 0; r < rules.length; r++) {
+                long[] windowsMs = rules[r].windowsMs();
+                ruleWindows[r] = new SlidingWindow[windowsMs.length];
+                for (int w = 0; w < windowsMs.length; w++) {
+                    SlidingWindow window = find(shared, windowsMs[w]);
+                    if (window == null) {
+                        window = previous != null ? find(previous.windows, windowsMs[w]) : null;
+                        if (window == null) {
+                            window = new SlidingWindow(windowsMs[w]);
+                        }
+                        shared = append(shared, window);
+                    }
+                    ruleWindows[r][w] = window;
+                }
+                pendingSince[r] = previous != null ? previous.pendingSince(rules[r]) : NOT_PENDING;
+            }
+        }
+        this.windows = shared;
+    }
+
+    RuleSet ruleSet() {
+        return ruleSet;
+    }
+
+    /**
+     * Adds the sample to the windows, then tests every rule and reports those that fire.
+     *
+     * @param distribution sketch of the distribution bucket the value summarizes, or null
+     */
+    void evaluate(long timestampMs, double value, DDSketch distribution, RuleMatchHandler handler) {
+        synchronized (lock) {
+            for (SlidingWindow window : windows) {
+                window.add(timestampMs, value);
+            }
+            for (int r = 0; r < rules.length; r++) {
+                CompiledRule rule = rules[r];
+                if (!rule.test(value, ruleWindows[r], distribution)) {
+                    pendingSince[r] = NOT_PENDING;
+                    continue;
+                }
+                if (pendingSince[r] == NOT_PENDING) {
+                    pendingSince[r] = timestampMs;
+                }
+                if (timestampMs - pendingSince[r] >= rule.getForMs()) {
+                    handler.matched(rule, rule.subject(value, ruleWindows[r], distribution));
+                }
+            }
+        }
+    }
+
+    /**
+     * Called with {@link #lock} held.
+     */
+    private long pendingSince(CompiledRule rule) {
+        for (int r = 0; r < rules.length; r++) {
+            if (rules[r] == rule) {
+                return pendingSince[r];
+            }
+        }
+        return NOT_PENDING;
+    }
+
+    private static SlidingWindow find(SlidingWindow[] windows, long windowMs) {
+        for (SlidingWindow window : windows) {
+            if (window.windowMs() == windowMs) {
+                return window;
+            }
+        }
+        return null;
+    }
+
+    private static SlidingWindow[] append(SlidingWindow[] windows, SlidingWindow window) {
+        SlidingWindow[] result = Arrays.copyOf(windows, windows.length + 1);
+        result[windows.length] = window;
+        return result;
+    }
+}
@@ -0,0 +1,69 @@
+package com.monitoring.monitoring_service.rules;
+
+import com.monitoring.monitoring_service.storage.SeriesKey;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The name and labels of a series as seen by rule and query selectors.
+ *
+ * Pushed Prometheus series keep their label set in the metric name
+ * ({@code http_requests_total{method="GET"}}); it is split into the base name
+ * and labels here. The service is always available as label {@code service}.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+public record SeriesLabels(String name, Map<String, String> labels) {
+
+    public static SeriesLabels of(SeriesKey key) {
+        return of(key.getServiceName(), key.getMetricName());
+    }
+
+    public static SeriesLabels of(String serviceName, String metricName) {
+        Map<String, String> labels = new HashMap<>();
+        String name = metricName;
+        int brace = metricName.indexOf('{');
+        if (brace > 0 && metricName.endsWith("}")) {
+            name = metricName.substring(0, brace);
+            parseLabels(metricName, brace + 1, metricName.length() - 1, labels);
+        }
+        labels.put("service", serviceName);
+        return new SeriesLabels(name, labels);
+    }
+
+    /**
+     * @return the label value, or the empty string if the series does not have the label
+     */
+    public String label(String label) {
+        return labels.getOrDefault(label, "");
+    }
+
+    private static void parseLabels(String text, int i, int end, Map<String, String> labels) {
+        while (i < end) {
+            int eq = text.indexOf('=', i);
+            if (eq < 0 || eq + 1 >= end || text.charAt(eq + 1) != '"') {
+                return;
+            }
+            String key = text.substring(i, eq).trim();
+            StringBuilder value = new StringBuilder();
+            int j = eq + 2;
+            while (j < end && text.charAt(j) != '"') {
+                char c = text.charAt(j);
+                if (c == '\\' && j + 1 < end) {
+                    char next = text.charAt(++j);
+                    value.append(next == 'n' ? '\n' : next);
+                } else {
+                    value.append(c);
+                }
+                j++;
+            }
+            labels.put(key, value.toString());
+            i = j + 1;
+            if (i < end && text.charAt(i) == ',') {
+                i++;
+            }
+        }
+    }
+}
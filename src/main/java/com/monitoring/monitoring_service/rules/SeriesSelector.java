@@ -0,0 +1,205 @@
+package com.monitoring.monitoring_service.rules;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * SeriesSelector picks the series an alert rule applies to, in the style of a
+ * Prometheus instant vector selector:
+ *
+ * <pre>
+ * CPU
+ * CPU{service="orders"}
+ * http_requests_total{service=~"orders-.*", method!="OPTIONS"}
+ * {service="orders"}
+ * </pre>
+ *
+ * Matchers are {@code =}, {@code !=}, {@code =~} and {@code !~}; regular expressions
+ * must match the whole value. A missing label compares as the empty string.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Getter
+public final class SeriesSelector {
+
+    /**
+     * Required base metric name, or null for any metric
+     */
+    private final String metricName;
+    private final List<LabelMatcher> matchers;
+
+    private SeriesSelector(String metricName, List<LabelMatcher> matchers) {
+        this.metricName = metricName;
+        this.matchers = matchers;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the text is not a valid selector
+     */
+    public static SeriesSelector parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("selector is empty");
+        }
+        String s = text.trim();
+        int i = 0;
+        while (i < s.length() && isNameChar(s.charAt(i))) {
+            i++;
+        }
+        String metricName = i > 0 ? s.substring(0, i) : null;
+        List<LabelMatcher> matchers = new ArrayList<>();
+
+        i = skipSpaces(s, i);
+        if (i < s.length()) {
+            if (s.charAt(i) != '{') {
+                throw new IllegalArgumentException("unexpected '" + s.charAt(i) + "' at " + i + " in selector");
+            }
+            i = parseMatchers(s, i + 1, matchers);
+            if (skipSpaces(s, i) != s.length()) {
+                throw new IllegalArgumentException("unexpected text after '}' in selector");
+            }
+        }
+        if (metricName == null && matchers.isEmpty()) {
+            throw new IllegalArgumentException("selector needs a metric name or at least one label matcher");
+        }
+        return new SeriesSelector(metricName, List.copyOf(matchers));
+    }
+
+    /**
+     * @return whether the series of that service and metric name is selected
+     */
+    public boolean matches(String serviceName, String metricName) {
+        return matches(SeriesLabels.of(serviceName, metricName));
+    }
+
+    public boolean matches(SeriesLabels series) {
+        if (metricName != null && !metricName.equals(series.name())) {
+            return false;
+        }
+        for (LabelMatcher matcher : matchers) {
+            if (!matcher.matches(series.label(matcher.label()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int parseMatchers(String s, int i, List<LabelMatcher> matchers) {
+        while (true) {
+            i = skipSpaces(s, i);
+            if (i < s.length() && s.charAt(i) == '}') {
+                return i + 1;
+            }
+            int labelStart = i;
+            while (i < s.length() && isNameChar(s.charAt(i))) {
+                i++;
+            }
+            if (i == labelStart) {
+                throw new IllegalArgumentException("expected label name at " + i + " in selector");
+            }
+            String label = s.substring(labelStart, i);
+
+            i = skipSpaces(s, i);
+            MatchOp op;
+            if (s.startsWith("=~", i)) {
+                op = MatchOp.REGEX;
+            } else if (s.startsWith("!~", i)) {
+                op = MatchOp.NOT_REGEX;
+            } else if (s.startsWith("!=", i)) {
+                op = MatchOp.NOT_EQUAL;
+            } else if (s.startsWith("=", i)) {
+                op = MatchOp.EQUAL;
+            } else {
+                throw new IllegalArgumentException("expected =, !=, =~ or !~ after label " + label);
+            }
+            i = skipSpaces(s, i + op.symbol.length());
+
+            if (i >= s.length() || s.charAt(i) != '"') {
+                throw new IllegalArgumentException("expected quoted value for label " + label);
+            }
+            StringBuilder value = new StringBuilder();
+            i++;
+            while (i < s.length() && s.charAt(i) != '"') {
+                char c = s.charAt(i);
+                if (c == '\\' && i + 1 < s.length()) {
+                    c = s.charAt(++i);
+                }
+                value.append(c);
+                i++;
+            }
+            if (i >= s.length()) {
+                throw new IllegalArgumentException("unterminated value for label " + label);
+            }
+            matchers.add(LabelMatcher.of(label, op, value.toString()));
+
+            i = skipSpaces(s, i + 1);
+            if (i < s.length() && s.charAt(i) == ',') {
+                i++;
+            } else if (i >= s.length() || s.charAt(i) != '}') {
+                throw new IllegalArgumentException("expected ',' or '}' at " + i + " in selector");
+            }
+        }
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == ':' || c == '.' || c == '-';
+    }
+
+    private static int skipSpaces(String s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    @Override
+    public String toString() {
+        return (metricName != null ? metricName : "") + (matchers.isEmpty() ? "" : matchers.toString());
+    }
+
+    enum MatchOp {
+        EQUAL("="), NOT_EQUAL("!="), REGEX("=~"), NOT_REGEX("!~");
+
+        private final String symbol;
+
+        MatchOp(String symbol) {
+            this.symbol = symbol;
+        }
+    }
+
+    /**
+     * One {@code label op "value"} condition; regexes are compiled once.
+     */
+    record LabelMatcher(String label, MatchOp op, String value, Pattern pattern) {
+
+        static LabelMatcher of(String label, MatchOp op, String value) {
+            Pattern pattern = null;
+            if (op == MatchOp.REGEX || op == MatchOp.NOT_REGEX) {
+                try {
+                    pattern = Pattern.compile(value);
+                } catch (PatternSyntaxException e) {
+                    throw new IllegalArgumentException("invalid regex for label " + label + ": " + e.getDescription());
+                }
+            }
+            return new LabelMatcher(label, op, value, pattern);
+        }
+
+        boolean matches(String actual) {
+            return switch (op) {
+                case EQUAL -> value.equals(actual);
+                case NOT_EQUAL -> !value.equals(actual);
+                case REGEX -> pattern.matcher(actual).matches();
+                case NOT_REGEX -> !pattern.matcher(actual).matches();
+            };
+        }
+
+        @Override
+        public String toString() {
+            return label + op.symbol + '"' + value + '"';
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.monitoring.monitoring_service.rules;
+
+/**
+ * SlidingWindow keeps the samples of one series over the last {@code windowMs} and
+ * answers avg, sum, count, min, max, increase and rate in O(1).
+ *
+ * <p>Samples live in a growable ring indexed by a running sequence number. Sum and
+ * counter increase are running totals adjusted on insert and eviction; min and max
+ * come from monotonic deques of sequence numbers, so every sample is pushed and
+ * popped at most once per deque and an insert is O(1) amortized. The running totals
+ * are recomputed from the ring once per full turn of the window to cancel
+ * floating-point drift, which keeps that O(1) amortized too.
+ *
+ * <p>Not thread-safe: guarded by the per-series lock of the {@link SeriesEvaluator}s sharing it.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+final class SlidingWindow {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final long windowMs;
+
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private double[] values = new double[INITIAL_CAPACITY];
+    private double[] increases = new double[INITIAL_CAPACITY]; // counter increase from the previous sample
+    private int mask = INITIAL_CAPACITY - 1;
+    private long first; // sequence of the oldest live sample
+    private long next;  // sequence of the next sample
+
+    // Deques of sample sequences; positions are running counters masked into the ring
+    private long[] minDeque = new long[INITIAL_CAPACITY];
+    private long[] maxDeque = new long[INITIAL_CAPACITY];
+    private long minHead, minTail, maxHead, maxTail;
+
+    private double sum;
+    private double increase;
+    private long evictionsSinceResum;
+
+    SlidingWindow(long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    long windowMs() {
+        return windowMs;
+    }
+
+    /**
+     * Adds the sample and evicts samples older than the window, measured from it.
+     * Samples older than the newest one are ignored.
+     */
+    void add(long timestampMs, double value) {
+        if (next > first) {
+            if (timestampMs < timestamps[slot(next - 1)]) {
+                return;
+            }
+        }
+        if (next - first == timestamps.length) {
+            grow();
+        }
+
+        int i = slot(next);
+        double previous = next > first ? values[slot(next - 1)] : Double.NaN;
+        timestamps[i] = timestampMs;
+        values[i] = value;
+        // A drop is a counter reset: the counter restarted from zero
+        increases[i] = Double.isNaN(previous) ? 0 : value >= previous ? value - previous : value;
+        sum += value;
+        increase += increases[i];
+
+        while (maxTail > maxHead && values[slot(maxDeque[slot(maxTail - 1)])] <= value) {
+            maxTail--;
+        }
+        maxDeque[slot(maxTail++)] = next;
+        while (minTail > minHead && values[slot(minDeque[slot(minTail - 1)])] >= value) {
+            minTail--;
+        }
+        minDeque[slot(minTail++)] = next;
+        next++;
+
+        long cutoff = timestampMs - windowMs;
+        while (first < next - 1 && timestamps[slot(first)] <= cutoff) {
+            evictFirst();
+        }
+    }
+
+    int count() {
+        return (int) (next - first);
+    }
+
+    double sum() {
+        return sum;
+    }
+
+    double avg() {
+        return next > first ? sum / (next - first) : Double.NaN;
+    }
+
+    double min() {
+        return minTail > minHead ? values[slot(minDeque[slot(minHead)])] : Double.NaN;
+    }
+
+    double max() {
+        return maxTail > maxHead ? values[slot(maxDeque[slot(maxHead)])] : Double.NaN;
+    }
+
+    /**
+     * @return counter increase between the oldest and newest sample in the window, resets included
+     */
+    double increase() {
+        // The oldest sample's own increase came from a sample that is no longer in the window
+        return next - first > 1 ? increase - increases[slot(first)] : Double.NaN;
+    }
+
+    /**
+     * @return per-second counter increase over the time covered by the window's samples
+     */
+    double rate() {
+        if (next - first < 2) {
+            return Double.NaN;
+        }
+        long elapsedMs = timestamps[slot(next - 1)] - timestamps[slot(first)];
+        return elapsedMs > 0 ? increase() * 1000.0 / elapsedMs : Double.NaN;
+    }
+
+    private void evictFirst() {
+        int i = slot(first);
+        sum -= values[i];
+        increase -= increases[i];
+        if (minDeque[slot(minHead)] == first) {
+            minHead++;
+        }
+        if (maxDeque[slot(maxHead)] == first) {
+            maxHead++;
+        }
+        first++;
+        if (++evictionsSinceResum >= timestamps.length) {
+            resum();
+        }
+    }
+
+    private void resum() {
+        double s = 0;
+        double inc = 0;
+        for (long seq = first; seq < next; seq++) {
+            s += values[slot(seq)];
+            inc += increases[slot(seq)];
+        }
+        sum = s;
+        increase = inc;
+        evictionsSinceResum = 0;
+    }
+
+    private void grow() {
+        int capacity = timestamps.length * 2;
+        int newMask = capacity - 1;
+        long[] newTimestamps = new long[capacity];
+        double[] newValues = new double[capacity];
+        double[] newIncreases = new double[capacity];
+        for (long seq = first; seq < next; seq++) {
+            newTimestamps[(int) (seq & newMask)] = timestamps[slot(seq)];
+            newValues[(int) (seq & newMask)] = values[slot(seq)];
+            newIncreases[(int) (seq & newMask)] = increases[slot(seq)];
+        }
+        long[] newMin = new long[capacity];
+        for (long p = minHead; p < minTail; p++) {
+            newMin[(int) (p & newMask)] = minDeque[slot(p)];
+        }
+        long[] newMax = new long[capacity];
+        for (long p = maxHead; p < maxTail; p++) {
+            newMax[(int) (p & newMask)] = maxDeque[slot(p)];
+        }
+        timestamps = newTimestamps;
+        values = newValues;
+        increases = newIncreases;
+        minDeque = newMin;
+        maxDeque = newMax;
+        mask = newMask;
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence & mask);
+    }
+}
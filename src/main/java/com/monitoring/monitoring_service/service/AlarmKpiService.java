@@ -3,16 +3,31 @@ package com.monitoring.monitoring_service.service;
 import com.monitoring.monitoring_service.dto.AlarmKpiDto;
 import com.monitoring.monitoring_service.model.AlarmEntity;
 import com.monitoring.monitoring_service.repository.AlarmRepository;
-import org.slf4j.MDC;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
+
+import jakarta.annotation.PostConstruct;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * AlarmKpiService calculates summarized statistics for alarms.
  *
+ * Counters per severity, service and metric are kept in memory. They are rebuilt
+ * once at startup with group-by queries and then incremented by {@link AlarmService}
+ * for every persisted alarm, so reading the KPI never touches the alarm table.
+ * Alarms removed by the retention job are subtracted again, and a severity, service
+ * or metric whose count drops to zero is removed, so the maps only hold what the
+ * alarm table still holds. The total is counted on its own, including alarms
+ * without a severity.
+ * KPI query and rebuild times and the alarm total are exported as meters.
+ *
  * @since Aug, 2025
  */
 @Slf4j
@@ -20,34 +35,107 @@ import java.util.stream.Collectors;
 public class AlarmKpiService {
 
     private final AlarmRepository alarmRepository;
+    private final Timer queryTimer;
+    private final Timer rebuildTimer;
+
+    private final LongAdder total = new LongAdder();
+    private final Map<String, Long> severityCounts = new ConcurrentHashMap<>();
+    private final Map<String, Long> serviceCounts = new ConcurrentHashMap<>();
+    private final Map<String, Long> metricCounts = new ConcurrentHashMap<>();
 
-    public AlarmKpiService(AlarmRepository alarmRepository) {
+    public AlarmKpiService(AlarmRepository alarmRepository, MeterRegistry meterRegistry) {
         this.alarmRepository = alarmRepository;
+        this.queryTimer = Timer.builder("monitoring.alarm.kpi.query")
+                .description("Time to snapshot the alarm KPI counters")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rebuildTimer = meterRegistry.timer("monitoring.alarm.kpi.rebuild");
+        meterRegistry.gauge("monitoring.alarm.kpi.alarms", total, LongAdder::sum);
     }
 
-    public AlarmKpiDto calculateKpi() {
-        log.debug("Starting KPI calculation for alarms...");
-
-        try {
-            // Fetch all alarms from repository
-            List<AlarmEntity> alarms = alarmRepository.findAll();
-            log.info("Fetched {} alarms from repository.", alarms.size());
+    /**
+     * Loads the counters from the alarm history. Runs before the alarm publisher of
+     * {@link AlarmService} starts, so no alarm can be persisted concurrently.
+     */
+    @PostConstruct
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        load(severityCounts, alarmRepository.countBySeverity());
+        load(serviceCounts, alarmRepository.countByServiceName());
+        load(metricCounts, alarmRepository.countByMetricName());
 
-            // Group alarms by severity and count
-            Map<String, Long> counts = alarms.stream()
-                    .collect(Collectors.groupingBy(AlarmEntity::getSeverity, Collectors.counting()));
+        total.reset();
+        total.add(alarmRepository.count());
+        long elapsedMs = System.currentTimeMillis() - start;
+        rebuildTimer.record(elapsedMs, TimeUnit.MILLISECONDS);
+        log.info("Alarm KPI counters rebuilt totalAlarms={} in {}ms", total.sum(), elapsedMs);
+    }
 
-            AlarmKpiDto kpiDto = new AlarmKpiDto(alarms.size(), counts);
+    /**
+     * Counts an alarm that has just been persisted.
+     */
+    public void record(AlarmEntity alarm) {
+        total.increment();
+        increment(severityCounts, alarm.getSeverity());
+        increment(serviceCounts, alarm.getServiceName());
+        increment(metricCounts, alarm.getMetricName());
+    }
 
-            log.info("KPI calculation successful: totalAlarms={}, counts={}" ,kpiDto.getTotalAlarms(), kpiDto.getSeverityCounts());
-            log.debug("KPI details: {}", kpiDto);
+    /**
+     * Uncounts an alarm that has been deleted by retention.
+     */
+    public void forget(String severity, String serviceName, String metricName) {
+        total.decrement();
+        decrement(severityCounts, severity);
+        decrement(serviceCounts, serviceName);
+        decrement(metricCounts, metricName);
+    }
 
+    /**
+     * Returns a snapshot of the counters. Reading them costs a few map copies, so the
+     * result is not cached.
+     */
+    public AlarmKpiDto calculateKpi() {
+        long start = System.nanoTime();
+        try {
+            AlarmKpiDto kpiDto = new AlarmKpiDto(
+                    total.sum(),
+                    snapshot(severityCounts),
+                    snapshot(serviceCounts),
+                    snapshot(metricCounts));
+            log.debug("KPI calculation successful: totalAlarms={}, counts={}", kpiDto.getTotalAlarms(), kpiDto.getSeverityCounts());
             return kpiDto;
-        } catch (Exception e) {
-            log.error("Error occurred while calculating alarm KPI: {}", e.getMessage(), e);
-            throw e;
+        } finally {
+            queryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static void load(Map<String, Long> counts, List<AlarmRepository.GroupCount> rows) {
+        counts.clear();
+        for (AlarmRepository.GroupCount row : rows) {
+            if (row.getName() != null && row.getTotal() > 0) {
+                counts.merge(row.getName(), row.getTotal(), Long::sum);
+            }
+        }
+    }
+
+    private static void increment(Map<String, Long> counts, String key) {
+        if (key != null) {
+            counts.merge(key, 1L, Long::sum);
         }
     }
 
+    /**
+     * Decrements atomically with the removal of a zeroed key, so a concurrent
+     * {@link #increment} never lands on a removed entry.
+     */
+    private static void decrement(Map<String, Long> counts, String key) {
+        if (key != null) {
+            counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
 
+    private static Map<String, Long> snapshot(Map<String, Long> counts) {
+        return new TreeMap<>(counts);
+    }
 }
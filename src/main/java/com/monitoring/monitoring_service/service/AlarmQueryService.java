@@ -0,0 +1,117 @@
+package com.monitoring.monitoring_service.service;
+
+import com.monitoring.monitoring_service.cache.CacheRegion;
+import com.monitoring.monitoring_service.cache.QueryCache;
+import com.monitoring.monitoring_service.config.QueryConfig;
+import com.monitoring.monitoring_service.dto.AlarmCursorPageDto;
+import com.monitoring.monitoring_service.dto.AlarmSummaryDto;
+import com.monitoring.monitoring_service.model.AlarmEntity;
+import com.monitoring.monitoring_service.repository.AlarmRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * AlarmQueryService pages through the alarm history with keyset cursors.
+ *
+ * It also serves the offset pages of {@code /alarms/filter}, which are cached in the
+ * {@link QueryCache} until an alarm is written into their time window.
+ *
+ * A cursor is the (timestamp, id) of the last alarm of the previous slice,
+ * base64url-encoded so clients treat it as opaque. Every slice costs the same
+ * however deep the client has paged, and no count query is issued.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@Service
+public class AlarmQueryService {
+
+    private static final char SEPARATOR = '|';
+
+    private final AlarmRepository alarmRepository;
+    private final QueryConfig queryConfig;
+    private final QueryCache queryCache;
+
+    public AlarmQueryService(AlarmRepository alarmRepository, QueryConfig queryConfig, QueryCache queryCache) {
+        this.alarmRepository = alarmRepository;
+        this.queryConfig = queryConfig;
+        this.queryCache = queryCache;
+    }
+
+    /**
+     * Filters alarms by severity and/or time range; the time range applies only when both bounds are given.
+     */
+    public Page<AlarmEntity> filter(String severity, LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        boolean timeRange = from != null && to != null;
+        return queryCache.get(CacheRegion.ALARMS, "filter", timeRange ? from : null, timeRange ? to : null, () -> {
+            if (severity != null && timeRange) {
+                return alarmRepository.findBySeverityAndTimestampBetween(severity, from, to, pageable);
+            } else if (severity != null) {
+                return alarmRepository.findBySeverity(severity, pageable);
+            } else if (timeRange) {
+                return alarmRepository.findByTimestampBetween(from, to, pageable);
+            }
+            return alarmRepository.findAll(pageable);
+        }, severity, pageable);
+    }
+
+    /**
+     * @param cursor         nextCursor of the previous slice, or null for the newest alarms
+     * @param size           maximum alarms in the slice; null uses the configured default
+     * @param includeMessage whether to read and return the alarm message
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public AlarmCursorPageDto findSlice(String severity, String serviceName, String metricName,
+                                        LocalDateTime from, LocalDateTime to,
+                                        String cursor, Integer size, boolean includeMessage) {
+        int sliceSize = Math.min(size != null && size > 0 ? size : queryConfig.getAlarmSliceDefaultSize(),
+                queryConfig.getAlarmSliceMaxSize());
+
+        LocalDateTime afterTimestamp = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String decoded = decode(cursor);
+            int split = decoded.indexOf(SEPARATOR);
+            try {
+                afterTimestamp = LocalDateTime.parse(decoded.substring(0, split));
+                afterId = Long.parseLong(decoded.substring(split + 1));
+            } catch (DateTimeParseException | IndexOutOfBoundsException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+
+        Slice<AlarmSummaryDto> slice = alarmRepository.findSlice(severity, serviceName, metricName, from, to,
+                afterTimestamp, afterId, sliceSize, includeMessage);
+
+        List<AlarmSummaryDto> alarms = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            AlarmSummaryDto last = alarms.get(alarms.size() - 1);
+            nextCursor = encode(last.getTimestamp() + String.valueOf(SEPARATOR) + last.getId());
+        }
+        log.debug("Read slice of {} alarms, hasNext={}", alarms.size(), slice.hasNext());
+        return new AlarmCursorPageDto(alarms, nextCursor);
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -1,22 +1,45 @@
 package com.monitoring.monitoring_service.service;
 
+import com.monitoring.monitoring_service.cache.CacheRegion;
+import com.monitoring.monitoring_service.cache.QueryCache;
 import com.monitoring.monitoring_service.config.AlarmConfig;
 import com.monitoring.monitoring_service.model.Alarm;
 import com.monitoring.monitoring_service.model.AlarmEntity;
-import com.monitoring.monitoring_service.model.Metric;
-import com.monitoring.monitoring_service.notifier.Notifier;
+import com.monitoring.monitoring_service.notifier.NotificationDispatcher;
 import com.monitoring.monitoring_service.repository.AlarmRepository;
-import com.monitoring.monitoring_service.repository.MetricRepository;
-import org.slf4j.MDC;
-import org.springframework.scheduling.annotation.Scheduled;
+import com.monitoring.monitoring_service.rules.CompiledRule;
+import com.monitoring.monitoring_service.rules.RuleEngine;
+import com.monitoring.monitoring_service.storage.DDSketch;
+import com.monitoring.monitoring_service.storage.SeriesRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * AlarmService checks collected metrics against configured thresholds,
- * triggers alarms to Notifiers, and stores them in the database.
+ * AlarmService checks every ingested sample against the alert rules of the RuleEngine,
+ * hands alarms to the NotificationDispatcher, and stores them in the database.
+ *
+ * <p>{@link MetricIngestionService#ingestSample} calls {@link #evaluateSample} for every
+ * sample, whether scraped, pushed or aggregated from StatsD, so rules see exactly the
+ * series the sample stores hold. Evaluation runs on the ingesting thread; alarms it raises,
+ * like those of the {@link AnomalyDetector}, are {@link #submit submitted} to a bounded queue
+ * and stored and dispatched by one publisher thread, so ingestion never waits for the database.
+ *
+ * <p>Evaluated samples, raised or suppressed alarms (by severity), queue depth, dropped
+ * alarms and publish time are exported as meters.
  *
  * @since Aug, 2025
  * @author s Bostan
@@ -25,82 +48,173 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class AlarmService {
 
-    private final MetricRepository metricRepository;
+    private static final long DROP_WARN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
     private final AlarmConfig alarmConfig;
-    private final List<Notifier> notifiers;
+    private final NotificationDispatcher notificationDispatcher;
     private final AlarmRepository alarmRepository;
+    private final AlarmKpiService alarmKpiService;
+
+    // To prevent alarm spamming: cooldown per (service, metric, severity)
+    private final SeriesRegistry seriesRegistry;
+    private final AlarmStateTable alarmStateTable;
+    private final RuleEngine ruleEngine;
+    private final QueryCache queryCache;
+    private final BlockingQueue<Alarm> alarms;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter evaluatedCounter;
+    private final Counter droppedCounter;
+    private final Timer publishTimer;
+    // Keyed by severity and outcome; severities come from the rule files, so the set stays small
+    private final Map<String, Counter> alarmCounters = new ConcurrentHashMap<>();
+    private final AtomicLong droppedSinceWarn = new AtomicLong();
+    private final AtomicLong nextDropWarnNanos = new AtomicLong(System.nanoTime());
 
-    // To prevent alarm spamming (cooldown between alarms)
-    private LocalDateTime lastAlarmTime = LocalDateTime.MIN;
+    private Thread publisher;
+    private volatile boolean running;
 
-    public AlarmService(MetricRepository metricRepository,
-                        AlarmConfig alarmConfig,
-                        List<Notifier> notifiers,
-                        AlarmRepository alarmRepository) {
-        this.metricRepository = metricRepository;
+    public AlarmService(AlarmConfig alarmConfig,
+                        NotificationDispatcher notificationDispatcher,
+                        AlarmRepository alarmRepository,
+                        AlarmKpiService alarmKpiService,
+                        SeriesRegistry seriesRegistry,
+                        AlarmStateTable alarmStateTable,
+                        RuleEngine ruleEngine,
+                        QueryCache queryCache,
+                        MeterRegistry meterRegistry) {
         this.alarmConfig = alarmConfig;
-        this.notifiers = notifiers;
+        this.notificationDispatcher = notificationDispatcher;
         this.alarmRepository = alarmRepository;
+        this.alarmKpiService = alarmKpiService;
+        this.seriesRegistry = seriesRegistry;
+        this.alarmStateTable = alarmStateTable;
+        this.ruleEngine = ruleEngine;
+        this.queryCache = queryCache;
+        this.alarms = new ArrayBlockingQueue<>(alarmConfig.getPublishQueueCapacity());
+        this.meterRegistry = meterRegistry;
+        this.evaluatedCounter = meterRegistry.counter("monitoring.alarm.evaluated.samples");
+        this.droppedCounter = meterRegistry.counter("monitoring.alarm.dropped");
+        this.publishTimer = Timer.builder("monitoring.alarm.publish")
+                .description("Time to queue an alarm for the notifiers and store it")
+                .register(meterRegistry);
+        meterRegistry.gauge("monitoring.alarm.queue.depth", alarms, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        publisher = new Thread(this::publishLoop, "alarm-publisher");
+        publisher.setDaemon(true);
+        publisher.start();
     }
 
     /**
-     * Periodically fetches the latest metrics and evaluates them against thresholds.
-     * If a threshold is exceeded, an Alarm is created, sent to Notifiers,
-     * and stored in the database.
+     * Lets the publisher store whatever is still queued before it exits. It is not
+     * interrupted: it notices the flag within one poll and keeps going until the
+     * queue is empty, for at most the join timeout.
      */
-    @Scheduled(fixedRate = 10000) // every 10 seconds
-    public void checkMetricsForAlarms() {
-        List<Metric> metrics = metricRepository.findAll();
-        if (metrics.isEmpty()) {
-            log.debug("No metrics found to evaluate.");
-            return;
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (publisher != null) {
+            publisher.join(5000);
+            if (publisher.isAlive()) {
+                log.warn("Alarm publisher still busy after 5s; {} alarms not stored", alarms.size());
+            }
         }
+    }
 
-        Metric latest = metrics.get(metrics.size() - 1); // latest metric entry
-        log.debug("Evaluating latest metrics for service={} at {}" , latest.getServiceName(), latest.getTimestamp());
+    /**
+     * Tests the sample against the rules indexed for its series only; windowed
+     * conditions read the series' in-memory sliding windows. Alarms of matching
+     * rules are submitted for publishing, subject to the cooldown.
+     *
+     * @param seriesId interned series id of (serviceName, metricName)
+     */
+    public void evaluateSample(int seriesId, String serviceName, String metricName, long timestampMs, double value) {
+        evaluatedCounter.increment();
+        ruleEngine.evaluate(seriesId, timestampMs, value,
+                (rule, v) -> fire(seriesId, serviceName, metricName, timestampMs, v, rule));
+    }
 
-        checkThreshold(latest.getServiceName(), "CPU", latest.getCpu(),
-                alarmConfig.getCpuThresholdWarning(), alarmConfig.getCpuThresholdCritical());
+    /**
+     * Tests one sealed bucket of a distribution series against its rules; quantile
+     * terms such as {@code p99} read the bucket's sketch.
+     *
+     * @param timestampMs end of the bucket, epoch milliseconds
+     */
+    public void evaluateDistribution(String serviceName, String metricName, long timestampMs, DDSketch sketch) {
+        int seriesId = seriesRegistry.seriesId(serviceName, metricName);
+        ruleEngine.evaluate(seriesId, timestampMs, sketch,
+                (rule, v) -> fire(seriesId, serviceName, metricName, timestampMs, v, rule));
+    }
+
+    private void fire(int seriesId, String serviceName, String metricName, long timestampMs,
+                      double value, CompiledRule rule) {
+        String severity = rule.getSeverity();
+
+        // Respect cooldown to avoid spamming
+        if (!alarmStateTable.tryFire(seriesId, severity, TimeUnit.SECONDS.toNanos(alarmConfig.getCooldownSeconds()))) {
+            alarmCounter(severity, "suppressed").increment();
+            log.debug("Cooldown active; skip alarm for service={} metric={} severity={} rule={}",
+                    serviceName, metricName, severity, rule.getName());
+            return;
+        }
 
-        checkThreshold(latest.getServiceName(), "MEMORY", latest.getMemory(),
-                alarmConfig.getMemoryThresholdWarning(), alarmConfig.getMemoryThresholdCritical());
+        // Create runtime Alarm for Notifiers
+        Alarm alarm = new Alarm(
+                serviceName,
+                metricName,
+                value,
+                severity,
+                LocalDateTime.now(),
+                String.format("%s level reached for %s: %.2f", severity, metricName, value),
+                rule.getName(),
+                rule.getLabels(),
+                timestampMs
+        );
 
-        checkThreshold(latest.getServiceName(), "REQUESTS", latest.getRequests(),
-                alarmConfig.getRequestsThresholdWarning(), alarmConfig.getRequestsThresholdCritical());
+        alarmCounter(severity, "raised").increment();
+        submit(alarm);
     }
 
-    private void checkThreshold(String serviceName, String metricName, double value,
-                                int warningThreshold, int criticalThreshold) {
-        String severity = null;
+    private Counter alarmCounter(String severity, String outcome) {
+        return alarmCounters.computeIfAbsent(severity + "/" + outcome, key ->
+                meterRegistry.counter("monitoring.alarm.rules", "severity", severity, "outcome", outcome));
+    }
 
-        if (value >= criticalThreshold) {
-            severity = "CRITICAL";
-        } else if (value >= warningThreshold) {
-            severity = "WARNING";
+    /**
+     * Queues the alarm for {@link #publish} on the publisher thread and returns immediately.
+     * Callers apply their own cooldown. Drops are counted and, while they last, logged
+     * at most every {@code DROP_WARN_INTERVAL_NANOS}.
+     *
+     * @return false if the queue is full and the alarm was dropped
+     */
+    public boolean submit(Alarm alarm) {
+        if (alarms.offer(alarm)) {
+            return true;
         }
+        droppedCounter.increment();
+        droppedSinceWarn.incrementAndGet();
+        long now = System.nanoTime();
+        long next = nextDropWarnNanos.get();
+        if (now - next >= 0 && nextDropWarnNanos.compareAndSet(next, now + DROP_WARN_INTERVAL_NANOS)) {
+            log.warn("Alarm queue full; dropped {} alarms, latest service={} metric={} rule={}",
+                    droppedSinceWarn.getAndSet(0), alarm.getServiceName(), alarm.getMetricName(), alarm.getRuleName());
+        }
+        return false;
+    }
 
-        if (severity != null) {
-            // Respect cooldown to avoid spamming
-            if (lastAlarmTime.plusSeconds(alarmConfig.getCooldownSeconds()).isAfter(LocalDateTime.now())) {
-                log.debug("Cooldown active; skip alarm for service={} metric={}", serviceName, metricName);
-                return;
-            }
-
-            // Create runtime Alarm for Notifiers
-            Alarm alarm = new Alarm(
-                    serviceName,
-                    metricName,
-                    value,
-                    severity,
-                    LocalDateTime.now(),
-                    String.format("%s level reached for %s: %.2f", severity, metricName, value)
-            );
-
-            // Send to all Notifiers
-            for (Notifier notifier : notifiers) {
-                log.info("Dispatching alarm to notifier={}", notifier.getClass().getSimpleName());
-                notifier.notify(alarm);
-            }
+    /**
+     * Sends the alarm to every notifier and stores it in the alarm history.
+     * Callers apply their own cooldown.
+     */
+    public void publish(Alarm alarm) {
+        long start = System.nanoTime();
+        try {
+            // Queue for all Notifiers; delivery happens on each notifier's own threads
+            notificationDispatcher.dispatch(alarm);
 
             // Save to database as AlarmEntity
             AlarmEntity entity = new AlarmEntity();
@@ -110,12 +224,43 @@ public class AlarmService {
             entity.setSeverity(alarm.getSeverity());
             entity.setTimestamp(alarm.getTimestamp());
             entity.setMessage(alarm.getMessage());
+            entity.setRuleName(alarm.getRuleName());
 
             AlarmEntity saved = alarmRepository.save(entity);
-            log.info("Alarm persisted id={} severity={} metric={} value={}",
-                    saved.getId(), saved.getSeverity(), saved.getMetricName(), saved.getMetricValue());
+            alarmKpiService.record(saved);
+            queryCache.invalidate(CacheRegion.ALARMS, saved.getTimestamp(), saved.getTimestamp());
+            log.info("Alarm persisted id={} severity={} metric={} value={} rule={}",
+                    saved.getId(), saved.getSeverity(), saved.getMetricName(), saved.getMetricValue(), saved.getRuleName());
+        } finally {
+            publishTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void publishLoop() {
+        while (running || !alarms.isEmpty()) {
+            try {
+                Alarm alarm = alarms.poll(1, TimeUnit.SECONDS);
+                if (alarm != null) {
+                    publish(alarm);
+                }
+            } catch (InterruptedException e) {
+                // Interrupted from outside: store the rest without waiting any more
+                List<Alarm> rest = new ArrayList<>();
+                alarms.drainTo(rest);
+                rest.forEach(this::publishQuietly);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Failed to publish alarm", e);
+            }
+        }
+    }
 
-            lastAlarmTime = LocalDateTime.now();
+    private void publishQuietly(Alarm alarm) {
+        try {
+            publish(alarm);
+        } catch (Exception e) {
+            log.error("Failed to publish alarm", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+package com.monitoring.monitoring_service.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * AlarmStateTable tracks, per (series, severity), when an alarm last fired.
+ *
+ * <p>State lives in pages of {@link AtomicLongArray} indexed by the interned series id
+ * from {@code SeriesRegistry}, so a lookup is two array reads and nothing is allocated
+ * per check. A cooldown check is a subtraction and a comparison on monotonic
+ * {@link System#nanoTime()} values, and claiming the slot is a single CAS, so any number
+ * of threads can evaluate different (or the same) series concurrently without locks.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Component
+public class AlarmStateTable {
+
+    private static final int SEVERITY_SLOTS = 4;
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int MAX_PAGES = 1 << 16;
+
+    /**
+     * 0 means "never fired"; stored values are offsets from {@code origin}, always > 0.
+     */
+    private static final long NEVER = 0L;
+
+    private final AtomicReferenceArray<AtomicLongArray> pages = new AtomicReferenceArray<>(MAX_PAGES);
+    private final long origin = System.nanoTime() - 1;
+
+    /**
+     * Claims the right to fire an alarm for the series and severity if its cooldown has passed.
+     *
+     * @param seriesId      interned series id
+     * @param severity      alarm severity (WARNING, CRITICAL, ...)
+     * @param cooldownNanos minimum time between two alarms of the same series and severity
+     * @return true if the caller should fire the alarm; false while cooling down or if another thread won
+     */
+    public boolean tryFire(int seriesId, String severity, long cooldownNanos) {
+        int slot = seriesId * SEVERITY_SLOTS + severitySlot(severity);
+        AtomicLongArray page = page(slot >>> PAGE_BITS);
+        int index = slot & PAGE_MASK;
+
+        long now = System.nanoTime() - origin;
+        long last = page.get(index);
+        if (last != NEVER && now - last < cooldownNanos) {
+            return false;
+        }
+        return page.compareAndSet(index, last, now);
+    }
+
+    /**
+     * Forgets the last firing time so the next alarm is not held back by a cooldown.
+     */
+    public void reset(int seriesId, String severity) {
+        int slot = seriesId * SEVERITY_SLOTS + severitySlot(severity);
+        AtomicLongArray page = pages.get(slot >>> PAGE_BITS);
+        if (page != null) {
+            page.set(slot & PAGE_MASK, NEVER);
+        }
+    }
+
+    private AtomicLongArray page(int pageIndex) {
+        if (pageIndex >= MAX_PAGES) {
+            throw new IllegalStateException("Alarm state table full at page " + pageIndex);
+        }
+        AtomicLongArray page = pages.get(pageIndex);
+        if (page == null) {
+            pages.compareAndSet(pageIndex, null, new AtomicLongArray(PAGE_SIZE));
+            page = pages.get(pageIndex);
+        }
+        return page;
+    }
+
+    private static int severitySlot(String severity) {
+        return switch (severity) {
+            case "WARNING" -> 0;
+            case "CRITICAL" -> 1;
+            case "INFO" -> 2;
+            default -> 3;
+        };
+    }
+}
@@ -0,0 +1,248 @@
+package com.monitoring.monitoring_service.service;
+
+import com.monitoring.monitoring_service.config.AlarmConfig;
+import com.monitoring.monitoring_service.config.AnomalyConfig;
+import com.monitoring.monitoring_service.model.Alarm;
+import com.monitoring.monitoring_service.rules.SeriesSelector;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * AnomalyDetector checks every ingested sample against a baseline learned online
+ * for its series and raises an alarm when the sample deviates by more than the
+ * configured z-score.
+ *
+ * <p>The baseline is an exponentially weighted moving mean and variance. With the
+ * seasonal mode on, it is an additive Holt-Winters style model instead: a smoothed
+ * level plus one smoothed offset per slot of the season (e.g. per hour of the day),
+ * and the moving mean and variance track the residual against it. Every update is a
+ * handful of arithmetic operations on a fixed number of doubles per series, held in
+ * pages of primitive arrays indexed by series id, so 100k series cost a few MB and
+ * detection runs inline with ingestion. Series of different services are
+ * independent, so each gets its own baseline.
+ *
+ * <p>Alarms are {@link AlarmService#submit submitted} to the bounded alarm queue and
+ * stored and dispatched on its publisher thread, so an anomaly never makes
+ * ingestion wait for the database.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@Component
+public class AnomalyDetector {
+
+    /**
+     * Cooldown slot of anomaly alarms in the {@link AlarmStateTable}, apart from rule severities
+     */
+    static final String COOLDOWN_KEY = "ANOMALY";
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int MAX_PAGES = 1 << 14;
+    private static final int LOCK_STRIPES = 64;
+
+    // Per-series slots
+    private static final int MEAN = 0, VARIANCE = 1, COUNT = 2, LEVEL = 3, SEASON = 4;
+
+    // Per-series selection state
+    private static final byte UNKNOWN = 0, SELECTED = 1, IGNORED = 2;
+
+    private final AnomalyConfig config;
+    private final AlarmConfig alarmConfig;
+    private final AlarmStateTable alarmStateTable;
+    private final AlarmService alarmService;
+    private final List<SeriesSelector> selectors;
+    private final int stride;
+
+    private final AtomicReferenceArray<Page> pages = new AtomicReferenceArray<>(MAX_PAGES);
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final AtomicLong trackedSeries = new AtomicLong();
+    private final Counter warningCounter;
+    private final Counter criticalCounter;
+
+    private volatile boolean running;
+
+    public AnomalyDetector(AnomalyConfig config,
+                           AlarmConfig alarmConfig,
+                           AlarmStateTable alarmStateTable,
+                           AlarmService alarmService,
+                           MeterRegistry meterRegistry) {
+        this.config = config;
+        this.alarmConfig = alarmConfig;
+        this.alarmStateTable = alarmStateTable;
+        this.alarmService = alarmService;
+        this.selectors = config.getSelectors().stream().filter(s -> !s.isBlank()).map(SeriesSelector::parse).toList();
+        this.stride = config.isSeasonalEnabled() ? SEASON + config.getSeasonSlots() : LEVEL;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        this.warningCounter = meterRegistry.counter("monitoring.anomaly.detected", "severity", "WARNING");
+        this.criticalCounter = meterRegistry.counter("monitoring.anomaly.detected", "severity", "CRITICAL");
+        meterRegistry.gauge("monitoring.anomaly.series", trackedSeries);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        running = true;
+        log.info("Anomaly detection enabled selectors={} alpha={} warningZ={} criticalZ={} seasonal={}",
+                config.getSelectors(), config.getAlpha(), config.getWarningZ(), config.getCriticalZ(),
+                config.isSeasonalEnabled() ? config.getSeasonSlots() + " slots/" + config.getSeasonPeriodMs() + "ms" : "off");
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Updates the baseline of the series with the sample and raises an alarm if the
+     * sample is anomalous. Returns immediately when detection is off or the series is
+     * not selected.
+     */
+    public void observe(int seriesId, String serviceName, String metricName, long timestampMs, double value) {
+        if (!running || Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        Page page = page(seriesId >>> PAGE_BITS);
+        int index = seriesId & PAGE_MASK;
+        byte selection = page.selection[index];
+        if (selection == UNKNOWN) {
+            selection = select(serviceName, metricName);
+            page.selection[index] = selection;
+            if (selection == SELECTED) {
+                trackedSeries.incrementAndGet();
+            }
+        }
+        if (selection != SELECTED) {
+            return;
+        }
+
+        double z;
+        double expected;
+        double[] s = page.state;
+        int base = index * stride;
+        synchronized (locks[seriesId & (LOCK_STRIPES - 1)]) {
+            double count = s[base + COUNT];
+            double residual = value;
+            double seasonalBaseline = 0;
+            int slot = 0;
+            if (config.isSeasonalEnabled()) {
+                slot = (int) (Math.floorMod(timestampMs, config.getSeasonPeriodMs())
+                        * config.getSeasonSlots() / config.getSeasonPeriodMs());
+                if (count == 0) {
+                    s[base + LEVEL] = value;
+                }
+                seasonalBaseline = s[base + LEVEL] + s[base + SEASON + slot];
+                residual = value - seasonalBaseline;
+            }
+
+            double mean = s[base + MEAN];
+            double variance = s[base + VARIANCE];
+            expected = seasonalBaseline + mean;
+            z = Double.NaN;
+            if (count >= config.getWarmupSamples()) {
+                double stdDev = Math.max(Math.sqrt(variance), config.getMinRelativeStdDev() * Math.abs(expected));
+                z = stdDev > 0 ? (residual - mean) / stdDev : 0;
+            }
+
+            // Exponentially weighted mean and variance (West / Finch incremental form)
+            double alpha = config.getAlpha();
+            if (count == 0) {
+                s[base + MEAN] = residual;
+                s[base + VARIANCE] = 0;
+            } else {
+                double diff = residual - mean;
+                double increment = alpha * diff;
+                s[base + MEAN] = mean + increment;
+                s[base + VARIANCE] = (1 - alpha) * (variance + diff * increment);
+            }
+            if (config.isSeasonalEnabled()) {
+                double level = s[base + LEVEL];
+                double season = s[base + SEASON + slot];
+                level += alpha * (value - season - level);
+                s[base + LEVEL] = level;
+                s[base + SEASON + slot] = season + config.getSeasonGamma() * (value - level - season);
+            }
+            s[base + COUNT] = count + 1;
+        }
+
+        if (Math.abs(z) >= config.getWarningZ()) {
+            raise(seriesId, serviceName, metricName, timestampMs, value, expected, z);
+        }
+    }
+
+    private void raise(int seriesId, String serviceName, String metricName, long timestampMs,
+                       double value, double expected, double z) {
+        String severity = Math.abs(z) >= config.getCriticalZ() ? "CRITICAL" : "WARNING";
+        ("CRITICAL".equals(severity) ? criticalCounter : warningCounter).increment();
+        if (!alarmStateTable.tryFire(seriesId, COOLDOWN_KEY, TimeUnit.SECONDS.toNanos(alarmConfig.getCooldownSeconds()))) {
+            return;
+        }
+        Alarm alarm = new Alarm(
+                serviceName,
+                metricName,
+                value,
+                severity,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMs), ZoneId.systemDefault()),
+                String.format("Anomaly on %s: %.2f is %.1f sigma %s baseline %.2f",
+                        metricName, value, Math.abs(z), z > 0 ? "above" : "below", expected),
+                "anomaly",
+                Map.of("zscore", String.format("%.2f", z), "baseline", String.format("%.2f", expected)),
+                timestampMs);
+        alarmService.submit(alarm);
+    }
+
+    private byte select(String serviceName, String metricName) {
+        if (selectors.isEmpty()) {
+            return SELECTED;
+        }
+        for (SeriesSelector selector : selectors) {
+            if (selector.matches(serviceName, metricName)) {
+                return SELECTED;
+            }
+        }
+        return IGNORED;
+    }
+
+    private Page page(int pageIndex) {
+        if (pageIndex >= MAX_PAGES) {
+            throw new IllegalStateException("Anomaly state full at page " + pageIndex);
+        }
+        Page page = pages.get(pageIndex);
+        if (page == null) {
+            pages.compareAndSet(pageIndex, null, new Page(stride));
+            page = pages.get(pageIndex);
+        }
+        return page;
+    }
+
+    /**
+     * Baseline state of {@code PAGE_SIZE} consecutive series ids.
+     */
+    private static final class Page {
+        private final double[] state;
+        private final byte[] selection = new byte[PAGE_SIZE];
+
+        Page(int stride) {
+            this.state = new double[PAGE_SIZE * stride];
+        }
+    }
+}
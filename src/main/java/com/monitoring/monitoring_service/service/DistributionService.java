@@ -0,0 +1,260 @@
+package com.monitoring.monitoring_service.service;
+
+import com.monitoring.monitoring_service.config.StorageConfig;
+import com.monitoring.monitoring_service.dto.DistributionSeriesDto;
+import com.monitoring.monitoring_service.model.MetricDistribution;
+import com.monitoring.monitoring_service.repository.MetricDistributionRepository;
+import com.monitoring.monitoring_service.storage.DDSketch;
+import com.monitoring.monitoring_service.storage.DistributionBucket;
+import com.monitoring.monitoring_service.storage.DistributionStore;
+import com.monitoring.monitoring_service.storage.RollupTier;
+import com.monitoring.monitoring_service.storage.SeriesKey;
+import com.monitoring.monitoring_service.storage.SeriesRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * DistributionService records distribution metrics (latencies, sizes, ...) as quantile
+ * sketches per series and 1-minute, 1-hour and 1-day bucket, persists the sealed
+ * buckets and answers quantile queries.
+ *
+ * Every sealed 1-minute bucket is also evaluated against the alert rules of its series,
+ * so a rule like {@code p99 > 500ms} sees the p99 of each minute. A query merges the
+ * sketches of the coarsest fitting tier per step and, when no service is given, across
+ * every service reporting the metric; quantiles are exact to the sketch accuracy
+ * whatever the range, without reading a single raw value.
+ *
+ * As in the {@link RollupService}, sealed buckets stay pending until their rows are
+ * committed, under a lock that queries share, so a query sees every bucket exactly once.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@Service
+public class DistributionService {
+
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final DistributionStore distributionStore;
+    private final MetricDistributionRepository distributionRepository;
+    private final SeriesRegistry seriesRegistry;
+    private final AlarmService alarmService;
+    private final StorageConfig config;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    // Read by queries, written while a flushed batch moves from pending to the database
+    private final ReadWriteLock pendingLock = new ReentrantReadWriteLock();
+
+    public DistributionService(DistributionStore distributionStore,
+                               MetricDistributionRepository distributionRepository,
+                               SeriesRegistry seriesRegistry,
+                               AlarmService alarmService,
+                               StorageConfig config,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry) {
+        this.distributionStore = distributionStore;
+        this.distributionRepository = distributionRepository;
+        this.seriesRegistry = seriesRegistry;
+        this.alarmService = alarmService;
+        this.config = config;
+        this.transactionTemplate = transactionTemplate;
+        this.writtenCounter = meterRegistry.counter("monitoring.distribution.rows", "outcome", "written");
+        this.failedCounter = meterRegistry.counter("monitoring.distribution.rows", "outcome", "failed");
+    }
+
+    /**
+     * Merges pre-aggregated values, e.g. the timer values of one StatsD interval, into the series.
+     * The sketch is copied and may be reused by the caller.
+     */
+    public void merge(String serviceName, String metricName, long timestampMs, DDSketch sketch) {
+        distributionStore.merge(seriesRegistry.seriesId(serviceName, metricName), timestampMs, sketch);
+    }
+
+    /**
+     * Seals buckets of quiet series, evaluates the sealed minutes against the alert rules
+     * and writes every sealed bucket to the database.
+     */
+    @Scheduled(fixedDelayString = "#{@storageConfig.rollupFlushIntervalMs}")
+    public void flush() {
+        distributionStore.sealIdle(System.currentTimeMillis() - config.getRollupLatenessMs());
+
+        List<DistributionBucket> batch;
+        while (!(batch = distributionStore.peekSealed(FLUSH_BATCH_SIZE)).isEmpty()) {
+            List<MetricDistribution> rows = new ArrayList<>(batch.size());
+            for (DistributionBucket bucket : batch) {
+                SeriesKey key = seriesRegistry.get(bucket.getSeriesId());
+                if (key == null) {
+                    continue;
+                }
+                if (bucket.getTier() == RollupTier.MINUTE) {
+                    evaluate(key, bucket);
+                }
+                rows.add(toEntity(key, bucket));
+            }
+            pendingLock.writeLock().lock();
+            try {
+                transactionTemplate.executeWithoutResult(status -> distributionRepository.saveAll(rows));
+                writtenCounter.increment(rows.size());
+                log.debug("Persisted {} distribution buckets", rows.size());
+            } catch (Exception e) {
+                failedCounter.increment(rows.size());
+                log.error("Failed to persist {} distribution buckets", rows.size(), e);
+            } finally {
+                // A failed batch is dropped, as it would fail again
+                distributionStore.removeSealed(batch);
+                pendingLock.writeLock().unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        distributionStore.sealAll();
+        flush();
+    }
+
+    /**
+     * Returns the quantiles of the metric per {@code stepMs}, read from the coarsest fitting tier.
+     *
+     * @param serviceName service reporting the metric, or null to merge every service
+     * @param metricName  distribution metric name (e.g. a StatsD timer)
+     * @param fromMs      range start, epoch milliseconds (inclusive)
+     * @param toMs        range end, epoch milliseconds (inclusive)
+     * @param stepMs      output resolution, at least one minute; null picks one giving about {@code rollupMaxPoints} points
+     * @param quantiles   quantiles to compute, each in [0, 1]
+     */
+    public DistributionSeriesDto query(String serviceName, String metricName, long fromMs, long toMs,
+                                       Long stepMs, List<Double> quantiles) {
+        for (double q : quantiles) {
+            if (!(q >= 0 && q <= 1)) {
+                throw new IllegalArgumentException("quantile must be between 0 and 1: " + q);
+            }
+        }
+        long step = stepMs != null && stepMs > 0
+                ? stepMs
+                : Math.max(1, (toMs - fromMs) / Math.max(1, config.getRollupMaxPoints()));
+        // Distributions are not kept raw: one minute is the finest step
+        RollupTier tier = RollupTier.coarsestFitting(Math.max(step, RollupTier.MINUTE.getResolutionMs()));
+        step = Math.max(step, tier.getResolutionMs()) / tier.getResolutionMs() * tier.getResolutionMs();
+
+        TreeMap<Long, DDSketch> buckets = new TreeMap<>();
+        long outputStep = step;
+        long firstBucket = tier.bucketStart(fromMs);
+        pendingLock.readLock().lock();
+        try {
+            List<MetricDistribution> rows = serviceName != null
+                    ? distributionRepository.findByServiceNameAndMetricNameAndResolutionMsAndBucketStartMsBetweenOrderByBucketStartMsAsc(
+                            serviceName, metricName, tier.getResolutionMs(), firstBucket, toMs)
+                    : distributionRepository.findByMetricNameAndResolutionMsAndBucketStartMsBetweenOrderByBucketStartMsAsc(
+                            metricName, tier.getResolutionMs(), firstBucket, toMs);
+            for (MetricDistribution row : rows) {
+                merge(buckets, outputStep, row.getBucketStartMs(), DDSketch.fromBytes(row.getSketch()));
+            }
+
+            // Buckets not yet in the database: sealed ones waiting for the next flush and the open one
+            for (SeriesKey key : seriesOf(serviceName, metricName)) {
+                distributionStore.forEachPending(key.getId(), tier, bucket -> mergeInRange(buckets, outputStep, bucket, fromMs, toMs));
+                mergeInRange(buckets, outputStep, distributionStore.openBucket(key.getId(), tier), fromMs, toMs);
+            }
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+
+        log.debug("Distribution query service={} metric={} step={}ms source={} points={}",
+                serviceName, metricName, step, tier, buckets.size());
+        return toDto(serviceName, metricName, step, tier, buckets, quantiles);
+    }
+
+    private void evaluate(SeriesKey key, DistributionBucket bucket) {
+        try {
+            alarmService.evaluateDistribution(key.getServiceName(), key.getMetricName(),
+                    bucket.getBucketEndMs(), bucket.getSketch());
+        } catch (Exception e) {
+            log.error("Failed to evaluate rules for distribution service={} metric={}",
+                    key.getServiceName(), key.getMetricName(), e);
+        }
+    }
+
+    private List<SeriesKey> seriesOf(String serviceName, String metricName) {
+        if (serviceName != null) {
+            SeriesKey key = seriesRegistry.find(serviceName, metricName);
+            return key != null ? List.of(key) : List.of();
+        }
+        return seriesRegistry.all().stream().filter(key -> key.getMetricName().equals(metricName)).toList();
+    }
+
+    private static void mergeInRange(TreeMap<Long, DDSketch> buckets, long stepMs, DistributionBucket bucket,
+                                     long fromMs, long toMs) {
+        if (bucket != null && bucket.getBucketEndMs() > fromMs && bucket.getBucketStartMs() <= toMs) {
+            merge(buckets, stepMs, bucket.getBucketStartMs(), bucket.getSketch());
+        }
+    }
+
+    private static void merge(TreeMap<Long, DDSketch> buckets, long stepMs, long startMs, DDSketch sketch) {
+        long bucketStart = Math.floorDiv(startMs, stepMs) * stepMs;
+        DDSketch target = buckets.get(bucketStart);
+        if (target == null) {
+            buckets.put(bucketStart, sketch.copy());
+        } else {
+            target.merge(sketch);
+        }
+    }
+
+    private static DistributionSeriesDto toDto(String serviceName, String metricName, long stepMs, RollupTier tier,
+                                               TreeMap<Long, DDSketch> buckets, List<Double> quantiles) {
+        int n = buckets.size();
+        long[] timestamps = new long[n];
+        long[] count = new long[n];
+        double[] min = new double[n];
+        double[] max = new double[n];
+        double[] avg = new double[n];
+        Map<String, double[]> values = new LinkedHashMap<>();
+        for (double q : quantiles) {
+            values.put(String.valueOf(q), new double[n]);
+        }
+        int i = 0;
+        for (Map.Entry<Long, DDSketch> entry : buckets.entrySet()) {
+            DDSketch sketch = entry.getValue();
+            timestamps[i] = entry.getKey();
+            count[i] = sketch.getCount();
+            min[i] = sketch.getMin();
+            max[i] = sketch.getMax();
+            avg[i] = sketch.getAverage();
+            for (double q : quantiles) {
+                values.get(String.valueOf(q))[i] = sketch.quantile(q);
+            }
+            i++;
+        }
+        return new DistributionSeriesDto(serviceName, metricName, stepMs, tier.name(), timestamps, count, min, max, avg, values);
+    }
+
+    private static MetricDistribution toEntity(SeriesKey key, DistributionBucket bucket) {
+        DDSketch sketch = bucket.getSketch();
+        MetricDistribution row = new MetricDistribution();
+        row.setServiceName(key.getServiceName());
+        row.setMetricName(key.getMetricName());
+        row.setResolutionMs(bucket.getTier().getResolutionMs());
+        row.setBucketStartMs(bucket.getBucketStartMs());
+        row.setSampleCount(sketch.getCount());
+        row.setSumValue(sketch.getSum());
+        row.setMinValue(sketch.getMin());
+        row.setMaxValue(sketch.getMax());
+        row.setSketch(sketch.toBytes());
+        return row;
+    }
+}
@@ -0,0 +1,257 @@
+package com.monitoring.monitoring_service.service;
+
+import com.monitoring.monitoring_service.cache.CacheRegion;
+import com.monitoring.monitoring_service.cache.QueryCache;
+import com.monitoring.monitoring_service.config.IngestionConfig;
+import com.monitoring.monitoring_service.model.Metric;
+import com.monitoring.monitoring_service.repository.MetricRepository;
+import com.monitoring.monitoring_service.storage.ChunkStore;
+import com.monitoring.monitoring_service.storage.HeadStore;
+import com.monitoring.monitoring_service.storage.RollupStore;
+import com.monitoring.monitoring_service.storage.SeriesRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MetricIngestionService is the single entry point for collected metrics.
+ *
+ * Every sample, scraped, pushed or aggregated from StatsD, goes through {@link #ingestSample}:
+ * it is appended to the in-memory {@link HeadStore}, which serves recent-window reads,
+ * to the open chunk of its series in the compressed {@link ChunkStore}, and to the
+ * open 1m/1h/1d buckets of the {@link RollupStore}. Each sample is then checked against
+ * the alert rules by {@link AlarmService} and updates the online baseline of the
+ * {@link AnomalyDetector}, so both see every series the stores hold.
+ * {@link Metric} rows are accepted by {@link #persist} into a bounded in-memory buffer and written behind
+ * by one flusher thread. A flush happens when a full batch is available or
+ * when the oldest buffered metric has waited {@code flushIntervalMs}. Each
+ * flush is one transaction whose inserts Hibernate sends as a single JDBC
+ * batch (see {@code hibernate.jdbc.batch_size} and the pooled sequence on {@link Metric}).
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@Service
+public class MetricIngestionService {
+
+    private static final long DROP_WARN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final MetricRepository repository;
+    private final SeriesRegistry seriesRegistry;
+    private final HeadStore headStore;
+    private final ChunkStore chunkStore;
+    private final RollupStore rollupStore;
+    private final AlarmService alarmService;
+    private final AnomalyDetector anomalyDetector;
+    private final QueryCache queryCache;
+    private final IngestionConfig config;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Metric> buffer;
+
+    private final Timer flushTimer;
+    private final Timer lagTimer;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final AtomicLong droppedSinceWarn = new AtomicLong();
+    private final AtomicLong nextDropWarnNanos = new AtomicLong(System.nanoTime());
+
+    private Thread flusher;
+    private volatile boolean running;
+
+    public MetricIngestionService(MetricRepository repository,
+                                  SeriesRegistry seriesRegistry,
+                                  HeadStore headStore,
+                                  ChunkStore chunkStore,
+                                  RollupStore rollupStore,
+                                  AlarmService alarmService,
+                                  AnomalyDetector anomalyDetector,
+                                  QueryCache queryCache,
+                                  IngestionConfig config,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.seriesRegistry = seriesRegistry;
+        this.headStore = headStore;
+        this.chunkStore = chunkStore;
+        this.rollupStore = rollupStore;
+        this.alarmService = alarmService;
+        this.anomalyDetector = anomalyDetector;
+        this.queryCache = queryCache;
+        this.config = config;
+        this.transactionTemplate = transactionTemplate;
+        this.buffer = new ArrayBlockingQueue<>(config.getBufferCapacity());
+
+        this.flushTimer = Timer.builder("monitoring.ingest.flush")
+                .description("Time to write one batch of buffered metrics")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("monitoring.ingest.lag")
+                .description("Time from a metric's timestamp until its row is committed")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.writtenCounter = meterRegistry.counter("monitoring.ingest.rows", "outcome", "written");
+        this.droppedCounter = meterRegistry.counter("monitoring.ingest.rows", "outcome", "dropped");
+        this.failedCounter = meterRegistry.counter("monitoring.ingest.rows", "outcome", "failed");
+        meterRegistry.gauge("monitoring.ingest.buffer.size", buffer, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        flusher = new Thread(this::flushLoop, "metric-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Accepts the metric for asynchronous persistence, for callers that already passed
+     * its samples to {@link #ingestSample}. Waits at most {@code offerTimeoutMs} for buffer
+     * space, then drops the metric. Drops are counted; while they last, a warning is
+     * logged at most every {@code DROP_WARN_INTERVAL_NANOS} with the number dropped since.
+     *
+     * @return true if the metric was buffered, false if it was dropped
+     */
+    public boolean persist(Metric metric) {
+        try {
+            if (buffer.offer(metric, config.getOfferTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        droppedCounter.increment();
+        droppedSinceWarn.incrementAndGet();
+        long now = System.nanoTime();
+        long next = nextDropWarnNanos.get();
+        if (now - next >= 0 && nextDropWarnNanos.compareAndSet(next, now + DROP_WARN_INTERVAL_NANOS)) {
+            log.warn("Ingestion buffer full; dropped {} metrics, latest service={}",
+                    droppedSinceWarn.getAndSet(0), metric.getServiceName());
+        } else {
+            log.debug("Ingestion buffer full; dropped metric service={}", metric.getServiceName());
+        }
+        return false;
+    }
+
+    /**
+     * Appends one sample to the head store, the chunk store and the rollup tiers,
+     * evaluates the alert rules of its series and checks it against its anomaly baseline.
+     */
+    public void ingestSample(String serviceName, String metricName, long timestampMs, double value) {
+        int seriesId = seriesRegistry.seriesId(serviceName, metricName);
+        headStore.append(seriesId, timestampMs, value);
+        chunkStore.append(seriesId, timestampMs, value);
+        rollupStore.append(seriesId, timestampMs, value);
+        alarmService.evaluateSample(seriesId, serviceName, metricName, timestampMs, value);
+        anomalyDetector.observe(seriesId, serviceName, metricName, timestampMs, value);
+    }
+
+    private void flushLoop() {
+        List<Metric> batch = new ArrayList<>(config.getBatchSize());
+        while (running || !buffer.isEmpty()) {
+            try {
+                Metric first = buffer.poll(config.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Collect until the batch is full or the first metric has waited long enough
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getFlushIntervalMs());
+                while (batch.size() < config.getBatchSize()) {
+                    buffer.drainTo(batch, config.getBatchSize() - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= config.getBatchSize() || remaining <= 0 || !running) {
+                        break;
+                    }
+                    Metric next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                flush(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Metric> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.saveAll(batch));
+            writtenCounter.increment(batch.size());
+            recordLag(batch);
+            invalidateCachedQueries(batch);
+            log.debug("Flushed {} metrics", batch.size());
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            log.error("Failed to flush {} metrics", batch.size(), e);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void recordLag(List<Metric> batch) {
+        long committedMs = System.currentTimeMillis();
+        for (Metric metric : batch) {
+            if (metric.getTimestamp() != null) {
+                long timestampMs = metric.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                lagTimer.record(Math.max(0, committedMs - timestampMs), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void invalidateCachedQueries(List<Metric> batch) {
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (Metric metric : batch) {
+            LocalDateTime timestamp = metric.getTimestamp();
+            if (timestamp == null) {
+                continue;
+            }
+            if (from == null || timestamp.isBefore(from)) {
+                from = timestamp;
+            }
+            if (to == null || timestamp.isAfter(to)) {
+                to = timestamp;
+            }
+        }
+        if (from != null) {
+            queryCache.invalidate(CacheRegion.METRICS, from, to);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // The flusher drains whatever is still buffered before it exits
+        running = false;
+        if (flusher != null) {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.monitoring.monitoring_service.service;
+
+import com.monitoring.monitoring_service.ingest.SampleSink;
+import com.monitoring.monitoring_service.model.Metric;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * MetricRowSink passes every decoded sample on to {@link MetricIngestionService#ingestSample}
+ * and gathers the cpu, memory and requests values among them into one {@link Metric} row
+ * per service and timestamp. cpu, memory and requests are stored under the
+ * {@link Metric#CPU} series names whatever their case in the input; fields without a
+ * sample stay null.
+ *
+ * One instance collects one scrape response or pushed batch, on the thread decoding it,
+ * and {@link #persist} then hands its rows to the write-behind buffer.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+final class MetricRowSink implements SampleSink {
+
+    private final MetricIngestionService ingestionService;
+    private final Map<RowKey, Metric> rows = new LinkedHashMap<>();
+
+    MetricRowSink(MetricIngestionService ingestionService) {
+        this.ingestionService = ingestionService;
+    }
+
+    @Override
+    public void accept(String serviceName, String metricName, long timestampMs, double value) {
+        String series = metricName;
+        if (metricName.equalsIgnoreCase(Metric.CPU)) {
+            series = Metric.CPU;
+            row(serviceName, timestampMs).setCpu(toInt(value));
+        } else if (metricName.equalsIgnoreCase(Metric.MEMORY)) {
+            series = Metric.MEMORY;
+            row(serviceName, timestampMs).setMemory(toInt(value));
+        } else if (metricName.equalsIgnoreCase(Metric.REQUESTS)) {
+            series = Metric.REQUESTS;
+            row(serviceName, timestampMs).setRequests(toInt(value));
+        }
+        ingestionService.ingestSample(serviceName, series, timestampMs, value);
+    }
+
+    /**
+     * Hands every gathered row to {@link MetricIngestionService#persist}.
+     *
+     * @return number of rows
+     */
+    int persist() {
+        for (Metric metric : rows.values()) {
+            ingestionService.persist(metric);
+        }
+        return rows.size();
+    }
+
+    private Metric row(String serviceName, long timestampMs) {
+        return rows.computeIfAbsent(new RowKey(serviceName, timestampMs), key -> {
+            Metric metric = new Metric();
+            metric.setServiceName(serviceName);
+            metric.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMs), ZoneId.systemDefault()));
+            return metric;
+        });
+    }
+
+    private static int toInt(double value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, Math.round(value)));
+    }
+
+    private record RowKey(String serviceName, long timestampMs) {
+    }
+}
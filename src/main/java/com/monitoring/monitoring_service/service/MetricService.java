@@ -1,13 +1,35 @@
 package com.monitoring.monitoring_service.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monitoring.monitoring_service.cache.CacheRegion;
+import com.monitoring.monitoring_service.cache.QueryCache;
+import com.monitoring.monitoring_service.config.QueryConfig;
+import com.monitoring.monitoring_service.config.StorageConfig;
 import com.monitoring.monitoring_service.dto.MetricDto;
+import com.monitoring.monitoring_service.dto.MetricPageDto;
+import com.monitoring.monitoring_service.dto.SeriesDto;
 import com.monitoring.monitoring_service.model.Metric;
 import com.monitoring.monitoring_service.repository.MetricRepository;
+import com.monitoring.monitoring_service.repository.SeriesRepository;
+import com.monitoring.monitoring_service.storage.HeadStore;
+import com.monitoring.monitoring_service.storage.SampleBuffer;
+import com.monitoring.monitoring_service.storage.SeriesKey;
+import com.monitoring.monitoring_service.storage.SeriesRegistry;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Created on Aug, 2025
@@ -17,56 +39,180 @@ import java.util.stream.Collectors;
 @Slf4j
 @Service
 public class MetricService {
+
+    // Open-ended time filters; keep the range predicates sargable instead of "is null or".
+    // The service filter picks a separate query for the same reason.
+    private static final LocalDateTime MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 23, 59);
+
     private final MetricRepository metricRepository;
+    private final SeriesRegistry seriesRegistry;
+    private final HeadStore headStore;
+    private final SeriesRepository seriesRepository;
+    private final StorageConfig storageConfig;
+    private final QueryConfig queryConfig;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final QueryCache queryCache;
 
-    public MetricService(MetricRepository metricRepository) {
+    public MetricService(MetricRepository metricRepository,
+                         SeriesRegistry seriesRegistry,
+                         HeadStore headStore,
+                         SeriesRepository seriesRepository,
+                         StorageConfig storageConfig,
+                         QueryConfig queryConfig,
+                         EntityManager entityManager,
+                         ObjectMapper objectMapper,
+                         QueryCache queryCache) {
         this.metricRepository = metricRepository;
+        this.seriesRegistry = seriesRegistry;
+        this.headStore = headStore;
+        this.seriesRepository = seriesRepository;
+        this.storageConfig = storageConfig;
+        this.queryConfig = queryConfig;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.queryCache = queryCache;
+    }
+
+    /**
+     * Get one keyset page of stored metrics mapped to DTOs (one per reported field, up to three per metric).
+     * Cost is proportional to the page size, however large the table is. Pages are
+     * served from the {@link QueryCache} until a metric is written into their time window.
+     *
+     * @param afterId     return metrics with an id greater than this (null starts from the beginning)
+     * @param serviceName optional service filter
+     * @param from        optional lower bound of the metric timestamp (inclusive)
+     * @param to          optional upper bound of the metric timestamp (inclusive)
+     * @param limit       maximum number of metrics; null uses the configured default
+     * @return the page and the afterId of the next page
+     */
+    public MetricPageDto findPage(Long afterId, String serviceName, LocalDateTime from, LocalDateTime to, Integer limit) {
+        int pageSize = Math.min(limit != null && limit > 0 ? limit : queryConfig.getViewDefaultLimit(),
+                queryConfig.getViewMaxLimit());
+        return queryCache.get(CacheRegion.METRICS, "page", from, to,
+                () -> readPage(afterId, serviceName, from, to, pageSize), afterId, serviceName, pageSize);
+    }
+
+    private MetricPageDto readPage(Long afterId, String serviceName, LocalDateTime from, LocalDateTime to, int pageSize) {
+        long after = afterId != null ? afterId : 0L;
+        LocalDateTime fromTime = from != null ? from : MIN_TIME;
+        LocalDateTime toTime = to != null ? to : MAX_TIME;
+        List<Metric> metrics = serviceName != null
+                ? metricRepository.findPageByService(after, serviceName, fromTime, toTime, Limit.of(pageSize))
+                : metricRepository.findPage(after, fromTime, toTime, Limit.of(pageSize));
+
+        List<MetricDto> result = new ArrayList<>(metrics.size() * 3);
+        for (Metric metric : metrics) {
+            addField(result, metric, "_CPU", metric.getCpu());
+            addField(result, metric, "_MEMORY", metric.getMemory());
+            addField(result, metric, "_REQUESTS", metric.getRequests());
+        }
+
+        Long nextAfterId = metrics.size() == pageSize ? metrics.get(metrics.size() - 1).getId() : null;
+        log.debug("Read page of {} metrics after id={}, nextAfterId={}", metrics.size(), afterId, nextAfterId);
+        return new MetricPageDto(result, nextAfterId);
+    }
+
+    private static void addField(List<MetricDto> result, Metric metric, String suffix, Integer value) {
+        if (value != null) {
+            result.add(new MetricDto(metric.getId(), metric.getServiceName() + suffix, (double) value));
+        }
     }
 
     /**
-     * Print all metrics as DTOs in the console.
+     * Write all matching metrics as newline-delimited JSON (one MetricDto per line).
+     * Rows are streamed from the database with a bounded fetch size and detached once
+     * written, so memory use does not depend on the size of the result.
+     *
+     * @return number of metrics written
      */
-    public void printMetrics() {
-        List<MetricDto> metricDtos = findAll();
-        for (MetricDto dto : metricDtos) {
-            log.info("MetricDto id={} name={} value={}" , dto.getId(), dto.getName(), dto.getValue());
+    @Transactional(readOnly = true)
+    public long streamMetrics(Long afterId, String serviceName, LocalDateTime from, LocalDateTime to,
+                              OutputStream out) throws IOException {
+        long count = 0;
+        long after = afterId != null ? afterId : 0L;
+        LocalDateTime fromTime = from != null ? from : MIN_TIME;
+        LocalDateTime toTime = to != null ? to : MAX_TIME;
+        try (Stream<Metric> metrics = serviceName != null
+                ? metricRepository.streamAllByService(after, serviceName, fromTime, toTime)
+                : metricRepository.streamAll(after, fromTime, toTime);
+             JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.setRootValueSeparator(null); // lines are separated by writeLine itself
+            Iterator<Metric> it = metrics.iterator();
+            while (it.hasNext()) {
+                Metric metric = it.next();
+                writeLine(json, metric.getId(), metric.getServiceName(), "_CPU", metric.getCpu());
+                writeLine(json, metric.getId(), metric.getServiceName(), "_MEMORY", metric.getMemory());
+                writeLine(json, metric.getId(), metric.getServiceName(), "_REQUESTS", metric.getRequests());
+                entityManager.detach(metric);
+                count++;
+            }
+        }
+        log.debug("Streamed {} metrics after id={}", count, afterId);
+        return count;
+    }
+
+    private static void writeLine(JsonGenerator json, long id, String serviceName, String suffix, Integer value)
+            throws IOException {
+        if (value == null) {
+            return;
         }
+        json.writeStartObject();
+        json.writeNumberField("id", id);
+        json.writeStringField("name", serviceName + suffix);
+        json.writeNumberField("value", (double) value);
+        json.writeEndObject();
+        json.writeRaw('\n');
     }
 
     /**
-     * Get all metrics mapped to DTOs.
+     * Get the recent window of every series from the in-memory head store.
+     * Cost is proportional to the window, not to the stored history.
      *
-     * @return list of MetricDto
+     * @param serviceName optional service filter (null for all services)
+     * @param windowMs    window length in milliseconds; null uses the configured head window
+     * @return one SeriesDto per series with samples in the window
      */
-    public List<MetricDto> findAll() {
-        log.debug("Attempting to fetch all metrics from repository...");
-
-        List<MetricDto> result;
-        try {
-
-            // Fetch all metrics from repository
-            List<Metric> metrics = metricRepository.findAll();
-            log.info("Fetched {} metrics from repository.", metrics.size());
-
-            // Transform each Metric into multiple MetricDto objects
-            result = metrics.stream()
-                    .flatMap(metric -> {
-                        log.debug("Processing metric id={} service={}", metric.getId(), metric.getServiceName());
-                        return List.of(
-                                new MetricDto(metric.getId(), metric.getServiceName() + "_CPU", (double) metric.getCpu()),
-                                new MetricDto(metric.getId(), metric.getServiceName() + "_MEMORY", (double) metric.getMemory()),
-                                new MetricDto(metric.getId(), metric.getServiceName() + "_REQUESTS", (double) metric.getRequests())
-                        ).stream();
-                    })
-                    .collect(Collectors.toList());
-
-            log.info("Successfully transformed {} metrics into DTOs.", result.size());
-
-        } catch (Exception e) {
-            log.error("Error occurred while fetching metrics: {}", e.getMessage(), e);
-            throw e; //Rethrow the exception so it can be handled at a higher level
+    public List<SeriesDto> findRecent(String serviceName, Long windowMs) {
+        long window = windowMs != null ? windowMs : storageConfig.getHeadWindowMs();
+        long to = System.currentTimeMillis();
+        long from = to - window;
+
+        List<SeriesDto> result = new ArrayList<>();
+        SampleBuffer samples = new SampleBuffer();
+        for (SeriesKey key : seriesRegistry.all()) {
+            if (serviceName != null && !serviceName.equals(key.getServiceName())) {
+                continue;
+            }
+            samples.clear();
+            headStore.forEach(key.getId(), from, to, samples);
+            if (samples.size() > 0) {
+                result.add(new SeriesDto(key.getServiceName(), key.getMetricName(),
+                        samples.timestamps(), samples.values()));
+            }
         }
+        log.debug("Read {} series from head store for window={}ms", result.size(), window);
+        return result;
+    }
 
-        return result; // Return the result list of DTOs
+    /**
+     * Get the samples of one series over an arbitrary time range,
+     * reading compressed chunks for older data and the head store for recent data.
+     *
+     * @param serviceName service reporting the series
+     * @param metricName  metric name (e.g. CPU, MEMORY, REQUESTS)
+     * @param fromMs      range start, epoch milliseconds (inclusive)
+     * @param toMs        range end, epoch milliseconds (inclusive)
+     * @return the series, empty if it is unknown
+     */
+    public SeriesDto findSeries(String serviceName, String metricName, long fromMs, long toMs) {
+        SampleBuffer samples = new SampleBuffer(256);
+        SeriesKey key = seriesRegistry.find(serviceName, metricName);
+        if (key != null) {
+            seriesRepository.forEach(key.getId(), fromMs, toMs, samples);
+        }
+        log.debug("Read {} samples for service={} metric={}", samples.size(), serviceName, metricName);
+        return new SeriesDto(serviceName, metricName, samples.timestamps(), samples.values());
     }
 }
@@ -1,31 +1,38 @@
 package com.monitoring.monitoring_service.service;
 
 import com.monitoring.monitoring_service.config.MonitoringConfig;
+import com.monitoring.monitoring_service.ingest.ParseStats;
+import com.monitoring.monitoring_service.ingest.ScrapeDecoder;
 import com.monitoring.monitoring_service.model.Metric;
-import com.monitoring.monitoring_service.repository.MetricRepository;
+import com.monitoring.monitoring_service.model.ScrapeTarget;
 
-import org.slf4j.MDC;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import lombok.extern.slf4j.Slf4j;
-import java.time.LocalDateTime;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.Map;
-import org.springframework.beans.factory.annotation.Value;
+import java.util.concurrent.TimeUnit;
 
 /**
  * MetricsCollector is responsible for periodically collecting metrics
- * from the internal /metrics endpoint and saving them to the database.
+ * from every registered scrape target and handing them to the write-behind
+ * {@link MetricIngestionService}.
  *
- * Uses Spring's @Scheduled annotation to run every 5 seconds.
+ * Uses Spring's @Scheduled annotation to start one scrape cycle per interval.
+ * The cycle itself is fanned out by {@link ScrapeEngine}, so the number of
+ * targets does not block the scheduler thread for longer than one interval.
+ * Each response is decoded by the streaming {@link ScrapeDecoder} (JSON object or
+ * Prometheus text) and every numeric value is ingested as a sample of its own series.
+ * When a response carries any of cpu, memory and requests, they are also stored as a
+ * {@link Metric} row for the metric views by the {@link MetricRowSink}, as pushed batches are.
+ * Cycle duration, target outcomes and samples per response are exported as meters.
  * Data is stored in H2 in-memory database for MVP testing.
  *
  * @since Aug, 2025
@@ -35,34 +42,45 @@ import org.springframework.beans.factory.annotation.Value;
 @Service
 public class MetricsCollector {
 
-    private final MetricRepository repository;
-    private final RestTemplate restTemplate;
+    private final MetricIngestionService ingestionService;
     private final MonitoringConfig config;
-
-
-
+    private final ScrapeTargetRegistry targetRegistry;
+    private final ScrapeEngine scrapeEngine;
+    private final ScrapeDecoder scrapeDecoder;
+    private final Timer cycleTimer;
+    private final Counter succeededCounter;
+    private final Counter failedCounter;
+    private final Counter skippedCounter;
+    private final DistributionSummary samplesSummary;
 
     /**
-     * Constructor injection for MetricRepository.
-     * Initializes RestTemplate for HTTP requests.
+     * Constructor injection for the ingestion path, scrape registry and engine.
      *
-     * @param repository MetricRepository instance
+     * @param ingestionService write-behind ingestion for collected metrics
      */
-    public MetricsCollector(MetricRepository repository, MonitoringConfig config) {
-        this.repository = repository;
-        this.restTemplate = new RestTemplate();
+    public MetricsCollector(MetricIngestionService ingestionService,
+                            MonitoringConfig config,
+                            ScrapeTargetRegistry targetRegistry,
+                            ScrapeEngine scrapeEngine,
+                            ScrapeDecoder scrapeDecoder,
+                            MeterRegistry meterRegistry) {
+        this.ingestionService = ingestionService;
         this.config = config;
+        this.targetRegistry = targetRegistry;
+        this.scrapeEngine = scrapeEngine;
+        this.scrapeDecoder = scrapeDecoder;
+        this.cycleTimer = Timer.builder("monitoring.scrape.cycle")
+                .description("Time to scrape and ingest all assigned targets once")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.succeededCounter = meterRegistry.counter("monitoring.scrape.targets", "outcome", "succeeded");
+        this.failedCounter = meterRegistry.counter("monitoring.scrape.targets", "outcome", "failed");
+        this.skippedCounter = meterRegistry.counter("monitoring.scrape.targets", "outcome", "skipped");
+        this.samplesSummary = DistributionSummary.builder("monitoring.scrape.samples")
+                .description("Numeric values ingested per scrape response")
+                .register(meterRegistry);
     }
 
-
-    @Value("${spring.security.user.name}")
-    private String username;
-
-    @Value("${spring.security.user.password}")
-    private String password;
-
-
-
     @EventListener(ApplicationReadyEvent.class)
     public void collectMetricsAfterStartup() {
         log.info("Application fully started, executing initial metrics collection...");
@@ -70,46 +88,52 @@ public class MetricsCollector {
     }
 
     /**
-     * Collects metrics from internal /metrics endpoint every 5 seconds.
-     * Saves collected data into H2 database.
-     * If endpoint is unavailable, logs the error without crashing.
+     * Collects metrics from all scrape targets every interval.
+     * Collected data is buffered and written to the database in batches.
+     * If a target is unavailable, logs the error without affecting the other targets.
      */
     @Scheduled(fixedRateString = "#{@monitoringConfig.metricsCollectIntervalMs}")
     public void collectMetrics() {
-        try {
-            String url = "http://localhost:8080/metrics";
-
-            //  (Basic Auth)
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBasicAuth(username, password);
-
-            HttpEntity<Void> requestEntity = new HttpEntity<>(headers);
-
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    requestEntity,
-                    Map.class
-            );
-
-            Map<String, Object> metrics = response.getBody();
-            if (metrics != null) {
-                Metric metric = new Metric();
-                metric.setServiceName(config.getServiceName());
-                metric.setCpu((Integer) metrics.get("cpu"));
-                metric.setMemory((Integer) metrics.get("memory"));
-                metric.setRequests((Integer) metrics.get("requests"));
-                metric.setTimestamp(LocalDateTime.now());
+        List<ScrapeTarget> targets = targetRegistry.getAssignedTargets();
+        if (targets.isEmpty()) {
+            log.debug("No scrape targets registered.");
+            return;
+        }
 
-                repository.save(metric);
-                log.info("Collected metrics service={} cpu={} memory={} requests={}",
-                        metric.getServiceName(), metric.getCpu(), metric.getMemory(), metric.getRequests());
-            }else {
-                log.warn("Metrics endpoint returned null payload.");
-            }
+        long start = System.nanoTime();
+        try {
+            ScrapeEngine.ScrapeCycleResult result = scrapeEngine.scrapeAll(
+                    targets, config.getMetricsCollectIntervalMs(), this::handleResponse);
+            cycleTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            succeededCounter.increment(result.getSucceeded());
+            failedCounter.increment(result.getFailed());
+            skippedCounter.increment(result.getSkipped());
+            log.info("Scrape cycle finished targets={} succeeded={} failed={} skipped={}",
+                    result.getTargets(), result.getSucceeded(), result.getFailed(), result.getSkipped());
         } catch (Exception e) {
-            log.error("Failed to collect metrics from /metrics " , e);
+            log.error("Failed to run scrape cycle", e);
         }
     }
 
-}
\ No newline at end of file
+    private void handleResponse(ScrapeTarget target, byte[] body) {
+        long timestampMs = System.currentTimeMillis();
+        MetricRowSink samples = new MetricRowSink(ingestionService);
+        ParseStats stats;
+        try {
+            stats = scrapeDecoder.decode(body, target.getName(), timestampMs, samples);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (stats.getRejected() > 0) {
+            log.debug("Skipped {} values of target={}, first: {}", stats.getRejected(), target.getName(),
+                    stats.getFirstError());
+        }
+        samplesSummary.record(stats.getAccepted());
+        if (stats.getAccepted() == 0) {
+            log.warn("Metrics endpoint returned no numeric values target={}", target.getName());
+            return;
+        }
+        int rows = samples.persist();
+        log.debug("Collected {} samples target={} rows={}", stats.getAccepted(), target.getName(), rows);
+    }
+}
@@ -0,0 +1,86 @@
+package com.monitoring.monitoring_service.service;
+
+import com.monitoring.monitoring_service.config.IngestionConfig;
+import com.monitoring.monitoring_service.dto.IngestResultDto;
+import com.monitoring.monitoring_service.ingest.LineProtocolParser;
+import com.monitoring.monitoring_service.ingest.ParseStats;
+import com.monitoring.monitoring_service.ingest.PrometheusTextParser;
+import com.monitoring.monitoring_service.ingest.SampleParser;
+import com.monitoring.monitoring_service.model.Metric;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * PushIngestionService accepts sample batches pushed by clients that cannot be scraped.
+ *
+ * The body is decoded line by line while it is read into a {@link MetricRowSink}, as a
+ * scrape response is: every sample goes straight to {@link MetricIngestionService#ingestSample},
+ * which stores it and evaluates the alert rules and anomaly baseline of its series, and
+ * the cpu, memory and requests samples are persisted as {@link Metric} rows once the
+ * batch is read.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@Service
+public class PushIngestionService {
+
+    public static final String FORMAT_PROMETHEUS = "prometheus";
+    public static final String FORMAT_LINE = "line";
+
+    private final MetricIngestionService ingestionService;
+    private final PrometheusTextParser prometheusParser;
+    private final LineProtocolParser lineParser;
+    private final IngestionConfig config;
+    private final MeterRegistry meterRegistry;
+
+    public PushIngestionService(MetricIngestionService ingestionService,
+                                PrometheusTextParser prometheusParser,
+                                LineProtocolParser lineParser,
+                                IngestionConfig config,
+                                MeterRegistry meterRegistry) {
+        this.ingestionService = ingestionService;
+        this.prometheusParser = prometheusParser;
+        this.lineParser = lineParser;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param body        request body
+     * @param format      {@value #FORMAT_PROMETHEUS} or {@value #FORMAT_LINE}
+     * @param serviceName service of samples that do not name one; null uses the configured default
+     * @throws IllegalArgumentException for an unknown format
+     */
+    public IngestResultDto ingest(InputStream body, String format, String serviceName) throws IOException {
+        SampleParser parser = switch (format) {
+            case FORMAT_PROMETHEUS -> prometheusParser;
+            case FORMAT_LINE -> lineParser;
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+
+        long start = System.nanoTime();
+        MetricRowSink samples = new MetricRowSink(ingestionService);
+        ParseStats stats = parser.parse(body,
+                serviceName != null ? serviceName : config.getPushDefaultService(),
+                System.currentTimeMillis(),
+                samples);
+        int rows = samples.persist();
+
+        meterRegistry.counter("monitoring.ingest.push.samples", "format", format, "outcome", "accepted")
+                .increment(stats.getAccepted());
+        meterRegistry.counter("monitoring.ingest.push.samples", "format", format, "outcome", "rejected")
+                .increment(stats.getRejected());
+        log.debug("Pushed batch format={} accepted={} rejected={} rows={} in {}ms", format, stats.getAccepted(),
+                stats.getRejected(), rows, (System.nanoTime() - start) / 1_000_000);
+        if (stats.getRejected() > 0) {
+            log.warn("Rejected {} pushed lines, first: {}", stats.getRejected(), stats.getFirstError());
+        }
+        return new IngestResultDto(stats.getAccepted(), stats.getRejected(), stats.getFirstError());
+    }
+}
@@ -0,0 +1,265 @@
+package com.monitoring.monitoring_service.service;
+
+import com.monitoring.monitoring_service.cache.CacheRegion;
+import com.monitoring.monitoring_service.cache.QueryCache;
+import com.monitoring.monitoring_service.config.RetentionConfig;
+import com.monitoring.monitoring_service.repository.AlarmRepository;
+import com.monitoring.monitoring_service.repository.MetricRepository;
+import com.monitoring.monitoring_service.repository.MetricDistributionRepository;
+import com.monitoring.monitoring_service.repository.MetricRollupRepository;
+import com.monitoring.monitoring_service.storage.ChunkStore;
+import com.monitoring.monitoring_service.storage.RollupTier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * RetentionService removes data older than the configured maximum age of each table.
+ *
+ * <p>Rows are deleted oldest first in batches of {@code deleteBatchSize}, each batch in
+ * its own short transaction followed by a short pause, so row locks are held only for
+ * one batch and ingestion writes interleave with a large backlog of deletes. Expired
+ * rows are found along the timestamp indexes. Chunk segment files are time partitions
+ * already and are dropped whole. Distribution sketches follow the ages of the rollup tier
+ * of the same resolution.
+ *
+ * <p>The job runs on its own thread rather than the shared scheduler, as one run
+ * may take minutes after retention is first enabled on a large history.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@Service
+public class RetentionService {
+
+    private final RetentionConfig config;
+    private final MetricRepository metricRepository;
+    private final AlarmRepository alarmRepository;
+    private final MetricRollupRepository rollupRepository;
+    private final MetricDistributionRepository distributionRepository;
+    private final ChunkStore chunkStore;
+    private final AlarmKpiService alarmKpiService;
+    private final QueryCache queryCache;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Timer runTimer;
+    private final Counter segmentsCounter;
+
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public RetentionService(RetentionConfig config,
+                            MetricRepository metricRepository,
+                            AlarmRepository alarmRepository,
+                            MetricRollupRepository rollupRepository,
+                            MetricDistributionRepository distributionRepository,
+                            ChunkStore chunkStore,
+                            AlarmKpiService alarmKpiService,
+                            QueryCache queryCache,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry) {
+        this.config = config;
+        this.metricRepository = metricRepository;
+        this.alarmRepository = alarmRepository;
+        this.rollupRepository = rollupRepository;
+        this.distributionRepository = distributionRepository;
+        this.chunkStore = chunkStore;
+        this.alarmKpiService = alarmKpiService;
+        this.queryCache = queryCache;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.runTimer = Timer.builder("monitoring.retention.run")
+                .description("Duration of one retention run over all tables")
+                .register(meterRegistry);
+        this.segmentsCounter = meterRegistry.counter("monitoring.retention.segments.dropped");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!config.isEnabled()) {
+            log.info("Retention disabled");
+            return;
+        }
+        running = true;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "retention");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::runSafely,
+                config.getInitialDelayMs(), config.getIntervalMs(), TimeUnit.MILLISECONDS);
+        log.info("Retention scheduled every {}ms metricsMaxAgeMs={} alarmsMaxAgeMs={} chunksMaxAgeMs={}",
+                config.getIntervalMs(), config.getMetricsMaxAgeMs(), config.getAlarmsMaxAgeMs(),
+                config.getChunksMaxAgeMs());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (executor != null) {
+            executor.shutdown();
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Applies the retention of every table once.
+     */
+    public void run() {
+        long now = System.currentTimeMillis();
+        runTimer.record(() -> {
+            purgeMetrics(now);
+            purgeAlarms(now);
+            for (RollupTier tier : RollupTier.values()) {
+                purgeRollups(tier, now);
+            }
+            purgeChunks(now);
+        });
+    }
+
+    private void runSafely() {
+        try {
+            run();
+        } catch (Exception e) {
+            log.error("Retention run failed", e);
+        }
+    }
+
+    private void purgeMetrics(long now) {
+        if (config.getMetricsMaxAgeMs() <= 0) {
+            return;
+        }
+        LocalDateTime cutoff = toLocalDateTime(now - config.getMetricsMaxAgeMs());
+        long purged = purge("metric", () -> {
+            List<Long> ids = metricRepository.findIdsOlderThan(cutoff, batchLimit());
+            return ids.isEmpty() ? 0 : metricRepository.deleteByIdIn(ids);
+        });
+        if (purged > 0) {
+            queryCache.invalidate(CacheRegion.METRICS, null, cutoff);
+        }
+    }
+
+    private void purgeAlarms(long now) {
+        if (config.getAlarmsMaxAgeMs() <= 0) {
+            return;
+        }
+        LocalDateTime cutoff = toLocalDateTime(now - config.getAlarmsMaxAgeMs());
+        long purged = purge("alarm", () -> {
+            List<AlarmRepository.ExpiredAlarm> expired = alarmRepository.findExpired(cutoff, batchLimit());
+            if (expired.isEmpty()) {
+                return 0;
+            }
+            int deleted = alarmRepository.deleteByIdIn(expired.stream().map(AlarmRepository.ExpiredAlarm::getId).toList());
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    expired.forEach(a -> alarmKpiService.forget(a.getSeverity(), a.getServiceName(), a.getMetricName()));
+                }
+            });
+            return deleted;
+        });
+        if (purged > 0) {
+            queryCache.invalidate(CacheRegion.ALARMS, null, cutoff);
+        }
+    }
+
+    private void purgeRollups(RollupTier tier, long now) {
+        long maxAge = switch (tier) {
+            case MINUTE -> config.getRollupMinuteMaxAgeMs();
+            case HOUR -> config.getRollupHourMaxAgeMs();
+            case DAY -> config.getRollupDayMaxAgeMs();
+        };
+        if (maxAge <= 0) {
+            return;
+        }
+        long cutoffMs = now - maxAge;
+        purge("rollup_" + tier.name().toLowerCase(), () -> {
+            List<Long> ids = rollupRepository.findIdsOlderThan(tier.getResolutionMs(), cutoffMs, batchLimit());
+            return ids.isEmpty() ? 0 : rollupRepository.deleteByIdIn(ids);
+        });
+        purge("distribution_" + tier.name().toLowerCase(), () -> {
+            List<Long> ids = distributionRepository.findIdsOlderThan(tier.getResolutionMs(), cutoffMs, batchLimit());
+            return ids.isEmpty() ? 0 : distributionRepository.deleteByIdIn(ids);
+        });
+    }
+
+    private void purgeChunks(long now) {
+        if (config.getChunksMaxAgeMs() <= 0) {
+            return;
+        }
+        int dropped = chunkStore.dropSegmentsBefore(now - config.getChunksMaxAgeMs());
+        segmentsCounter.increment(dropped);
+    }
+
+    /**
+     * Deletes batch after batch until one comes back short.
+     *
+     * @param table       table tag of the meters
+     * @param deleteBatch deletes at most one batch and returns the number of rows deleted
+     * @return the number of rows deleted
+     */
+    private long purge(String table, LongSupplier deleteBatch) {
+        Counter reclaimed = meterRegistry.counter("monitoring.retention.rows", "table", table);
+        Timer timer = meterRegistry.timer("monitoring.retention.table", "table", table);
+        long start = System.nanoTime();
+        long total = 0;
+        int batches = 0;
+        try {
+            while (running) {
+                Long deleted = transactionTemplate.execute(status -> deleteBatch.getAsLong());
+                long rows = deleted != null ? deleted : 0;
+                total += rows;
+                reclaimed.increment(rows);
+                batches++;
+                if (rows < config.getDeleteBatchSize()) {
+                    break;
+                }
+                pause();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+            if (total > 0) {
+                log.info("Retention table={} deletedRows={} batches={} in {}ms",
+                        table, total, batches, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+        }
+        return total;
+    }
+
+    private void pause() throws InterruptedException {
+        if (config.getPauseBetweenBatchesMs() > 0) {
+            Thread.sleep(config.getPauseBetweenBatchesMs());
+        }
+    }
+
+    private Limit batchLimit() {
+        return Limit.of(config.getDeleteBatchSize());
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault());
+    }
+}
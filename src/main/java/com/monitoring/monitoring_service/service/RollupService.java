@@ -0,0 +1,244 @@
+package com.monitoring.monitoring_service.service;
+
+import com.monitoring.monitoring_service.config.StorageConfig;
+import com.monitoring.monitoring_service.dto.RollupSeriesDto;
+import com.monitoring.monitoring_service.model.MetricRollup;
+import com.monitoring.monitoring_service.repository.MetricRollupRepository;
+import com.monitoring.monitoring_service.repository.SeriesRepository;
+import com.monitoring.monitoring_service.storage.RollupBucket;
+import com.monitoring.monitoring_service.storage.RollupStore;
+import com.monitoring.monitoring_service.storage.RollupTier;
+import com.monitoring.monitoring_service.storage.SeriesKey;
+import com.monitoring.monitoring_service.storage.SeriesRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * RollupService persists the 1-minute, 1-hour and 1-day buckets maintained by the
+ * {@link RollupStore} and answers downsampled range queries.
+ *
+ * A query reads the coarsest tier whose resolution fits the requested step, so a
+ * week at a 1-hour step reads ~170 rows per series instead of ~120k raw samples.
+ * Steps finer than one minute fall back to the raw sample stores.
+ *
+ * Sealed buckets leave the pending queue of the {@link RollupStore} only once their
+ * rows are committed, and a lock keeps queries from reading between the commit and the
+ * removal, so a query sees every bucket exactly once: in the database or still pending.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@Service
+public class RollupService {
+
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final RollupStore rollupStore;
+    private final MetricRollupRepository rollupRepository;
+    private final SeriesRepository seriesRepository;
+    private final SeriesRegistry seriesRegistry;
+    private final StorageConfig config;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    // Read by queries, written while a flushed batch moves from pending to the database
+    private final ReadWriteLock pendingLock = new ReentrantReadWriteLock();
+
+    public RollupService(RollupStore rollupStore,
+                         MetricRollupRepository rollupRepository,
+                         SeriesRepository seriesRepository,
+                         SeriesRegistry seriesRegistry,
+                         StorageConfig config,
+                         TransactionTemplate transactionTemplate,
+                         MeterRegistry meterRegistry) {
+        this.rollupStore = rollupStore;
+        this.rollupRepository = rollupRepository;
+        this.seriesRepository = seriesRepository;
+        this.seriesRegistry = seriesRegistry;
+        this.config = config;
+        this.transactionTemplate = transactionTemplate;
+        this.writtenCounter = meterRegistry.counter("monitoring.rollup.rows", "outcome", "written");
+        this.failedCounter = meterRegistry.counter("monitoring.rollup.rows", "outcome", "failed");
+    }
+
+    /**
+     * Seals buckets of quiet series and writes every sealed bucket to the database.
+     */
+    @Scheduled(fixedDelayString = "#{@storageConfig.rollupFlushIntervalMs}")
+    public void flush() {
+        rollupStore.sealIdle(System.currentTimeMillis() - config.getRollupLatenessMs());
+
+        List<RollupBucket> batch;
+        while (!(batch = rollupStore.peekSealed(FLUSH_BATCH_SIZE)).isEmpty()) {
+            List<MetricRollup> rows = new ArrayList<>(batch.size());
+            for (RollupBucket bucket : batch) {
+                MetricRollup row = toEntity(bucket);
+                if (row != null) {
+                    rows.add(row);
+                }
+            }
+            pendingLock.writeLock().lock();
+            try {
+                transactionTemplate.executeWithoutResult(status -> rollupRepository.saveAll(rows));
+                writtenCounter.increment(rows.size());
+                log.debug("Persisted {} rollup buckets", rows.size());
+            } catch (Exception e) {
+                failedCounter.increment(rows.size());
+                log.error("Failed to persist {} rollup buckets", rows.size(), e);
+            } finally {
+                // A failed batch is dropped, as it would fail again
+                rollupStore.removeSealed(batch);
+                pendingLock.writeLock().unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        rollupStore.sealAll();
+        flush();
+    }
+
+    /**
+     * Returns the series downsampled to {@code stepMs}, read from the coarsest fitting tier.
+     *
+     * @param serviceName service reporting the series
+     * @param metricName  metric name (e.g. CPU, MEMORY, REQUESTS)
+     * @param fromMs      range start, epoch milliseconds (inclusive)
+     * @param toMs        range end, epoch milliseconds (inclusive)
+     * @param stepMs      output resolution; null picks one giving about {@code rollupMaxPoints} points
+     */
+    public RollupSeriesDto query(String serviceName, String metricName, long fromMs, long toMs, Long stepMs) {
+        long step = stepMs != null && stepMs > 0
+                ? stepMs
+                : Math.max(1, (toMs - fromMs) / Math.max(1, config.getRollupMaxPoints()));
+        RollupTier tier = RollupTier.coarsestFitting(step);
+        if (tier != null) {
+            // Output buckets must be whole multiples of the tier buckets
+            step = step / tier.getResolutionMs() * tier.getResolutionMs();
+        }
+
+        StepAggregator aggregator = new StepAggregator(step);
+        SeriesKey key = seriesRegistry.find(serviceName, metricName);
+        if (tier == null) {
+            if (key != null) {
+                seriesRepository.forEach(key.getId(), fromMs, toMs, aggregator::add);
+            }
+        } else {
+            pendingLock.readLock().lock();
+            try {
+                for (MetricRollup row : rollupRepository
+                        .findByServiceNameAndMetricNameAndResolutionMsAndBucketStartMsBetweenOrderByBucketStartMsAsc(
+                                serviceName, metricName, tier.getResolutionMs(), tier.bucketStart(fromMs), toMs)) {
+                    aggregator.merge(row.getBucketStartMs(), row.getMinValue(), row.getMaxValue(), row.getSumValue(),
+                            row.getSampleCount(), row.getLastValue(), row.getLastTimestampMs());
+                }
+                if (key != null) {
+                    // Buckets not yet in the database: sealed ones waiting for the next flush and the open one
+                    rollupStore.forEachPending(key.getId(), tier, bucket -> mergeInRange(aggregator, bucket, fromMs, toMs));
+                    mergeInRange(aggregator, rollupStore.openBucket(key.getId(), tier), fromMs, toMs);
+                }
+            } finally {
+                pendingLock.readLock().unlock();
+            }
+        }
+
+        log.debug("Rollup query service={} metric={} step={}ms source={} points={}",
+                serviceName, metricName, step, tier != null ? tier : "RAW", aggregator.buckets.size());
+        return aggregator.toDto(serviceName, metricName, tier != null ? tier.name() : "RAW");
+    }
+
+    private static void mergeInRange(StepAggregator aggregator, RollupBucket bucket, long fromMs, long toMs) {
+        if (bucket != null && bucket.getBucketEndMs() > fromMs && bucket.getBucketStartMs() <= toMs) {
+            aggregator.merge(bucket.getBucketStartMs(), bucket.getMin(), bucket.getMax(), bucket.getSum(),
+                    bucket.getCount(), bucket.getLast(), bucket.getLastTimestampMs());
+        }
+    }
+
+    private MetricRollup toEntity(RollupBucket bucket) {
+        SeriesKey key = seriesRegistry.get(bucket.getSeriesId());
+        if (key == null) {
+            return null;
+        }
+        MetricRollup row = new MetricRollup();
+        row.setServiceName(key.getServiceName());
+        row.setMetricName(key.getMetricName());
+        row.setResolutionMs(bucket.getTier().getResolutionMs());
+        row.setBucketStartMs(bucket.getBucketStartMs());
+        row.setMinValue(bucket.getMin());
+        row.setMaxValue(bucket.getMax());
+        row.setSumValue(bucket.getSum());
+        row.setSampleCount(bucket.getCount());
+        row.setLastValue(bucket.getLast());
+        row.setLastTimestampMs(bucket.getLastTimestampMs());
+        return row;
+    }
+
+    /**
+     * Folds samples or tier buckets into step-aligned output buckets.
+     */
+    private static class StepAggregator {
+        private final long stepMs;
+        private final TreeMap<Long, double[]> buckets = new TreeMap<>();
+
+        // Slots of the per-bucket array
+        private static final int MIN = 0, MAX = 1, SUM = 2, COUNT = 3, LAST = 4, LAST_TS = 5;
+
+        StepAggregator(long stepMs) {
+            this.stepMs = stepMs;
+        }
+
+        void add(long timestampMs, double value) {
+            merge(timestampMs, value, value, value, 1, value, timestampMs);
+        }
+
+        void merge(long startMs, double min, double max, double sum, long count, double last, long lastTimestampMs) {
+            long bucketStart = Math.floorDiv(startMs, stepMs) * stepMs;
+            double[] b = buckets.computeIfAbsent(bucketStart, k -> new double[]{
+                    Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0, 0, Double.NaN, Long.MIN_VALUE});
+            b[MIN] = Math.min(b[MIN], min);
+            b[MAX] = Math.max(b[MAX], max);
+            b[SUM] += sum;
+            b[COUNT] += count;
+            if (lastTimestampMs >= b[LAST_TS]) {
+                b[LAST] = last;
+                b[LAST_TS] = lastTimestampMs;
+            }
+        }
+
+        RollupSeriesDto toDto(String serviceName, String metricName, String source) {
+            int n = buckets.size();
+            long[] timestamps = new long[n];
+            double[] min = new double[n];
+            double[] max = new double[n];
+            double[] avg = new double[n];
+            long[] count = new long[n];
+            double[] last = new double[n];
+            int i = 0;
+            for (Map.Entry<Long, double[]> entry : buckets.entrySet()) {
+                double[] b = entry.getValue();
+                timestamps[i] = entry.getKey();
+                min[i] = b[MIN];
+                max[i] = b[MAX];
+                count[i] = (long) b[COUNT];
+                avg[i] = b[SUM] / b[COUNT];
+                last[i] = b[LAST];
+                i++;
+            }
+            return new RollupSeriesDto(serviceName, metricName, stepMs, source, timestamps, min, max, avg, count, last);
+        }
+    }
+}
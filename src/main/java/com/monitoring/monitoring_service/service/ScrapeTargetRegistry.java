@@ -0,0 +1,202 @@
+package com.monitoring.monitoring_service.service;
+
+import com.monitoring.monitoring_service.cluster.ClusterMembership;
+import com.monitoring.monitoring_service.config.MonitoringConfig;
+import com.monitoring.monitoring_service.config.ScrapeConfig;
+import com.monitoring.monitoring_service.loadgen.LoadGenerator;
+import com.monitoring.monitoring_service.model.ScrapeTarget;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ScrapeTargetRegistry holds the current set of scrape targets.
+ *
+ * Targets come from four sources, merged by name (later sources win):
+ * the service itself, the simulated services of the {@link LoadGenerator}
+ * in scrape mode, the static list in application.properties and
+ * the optional targets file. The file is re-read whenever its modification
+ * time changes, so targets can be added or removed without a restart.
+ *
+ * In cluster mode every instance loads the same targets but scrapes only the
+ * ones the {@link ClusterMembership} assigns to it, plus itself.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@Service
+public class ScrapeTargetRegistry {
+
+    private final ScrapeConfig scrapeConfig;
+    private final MonitoringConfig monitoringConfig;
+    private final ClusterMembership clusterMembership;
+    private final LoadGenerator loadGenerator;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${spring.security.user.name}")
+    private String username;
+
+    @Value("${spring.security.user.password}")
+    private String password;
+
+    // Immutable snapshot, replaced as a whole on every reload
+    private volatile List<ScrapeTarget> targets = List.of();
+    private volatile ScrapeTarget selfTarget;
+
+    private long targetsFileLastModified = -1;
+
+    public ScrapeTargetRegistry(ScrapeConfig scrapeConfig, MonitoringConfig monitoringConfig,
+                                ClusterMembership clusterMembership, LoadGenerator loadGenerator) {
+        this.scrapeConfig = scrapeConfig;
+        this.monitoringConfig = monitoringConfig;
+        this.clusterMembership = clusterMembership;
+        this.loadGenerator = loadGenerator;
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * @return the current immutable list of targets
+     */
+    public List<ScrapeTarget> getTargets() {
+        return targets;
+    }
+
+    /**
+     * @return the targets this instance scrapes: all of them outside cluster mode, otherwise
+     *         the ones it owns on the hash ring and its own endpoint
+     */
+    public List<ScrapeTarget> getAssignedTargets() {
+        List<ScrapeTarget> current = targets;
+        if (!clusterMembership.isEnabled()) {
+            return current;
+        }
+        ScrapeTarget self = selfTarget;
+        return current.stream()
+                .filter(target -> target == self || clusterMembership.owns(target.getName()))
+                .toList();
+    }
+
+    /**
+     * Checks the targets file for modifications and reloads the registry if it changed.
+     */
+    @Scheduled(fixedDelayString = "#{@scrapeConfig.targetsFileCheckIntervalMs}")
+    public void watchTargetsFile() {
+        Path file = targetsFilePath();
+        if (file == null) {
+            return;
+        }
+        long lastModified = lastModified(file);
+        if (lastModified != targetsFileLastModified) {
+            log.info("Targets file changed path={} , reloading scrape targets", file);
+            reload();
+        }
+    }
+
+    /**
+     * Rebuilds the target list from all sources.
+     */
+    public synchronized void reload() {
+        Map<String, ScrapeTarget> merged = new LinkedHashMap<>();
+
+        ScrapeTarget self = null;
+        if (scrapeConfig.isIncludeSelf()) {
+            self = new ScrapeTarget(
+                    monitoringConfig.getServiceName(),
+                    "http://localhost:" + serverPort + "/metrics",
+                    username,
+                    password);
+            merged.put(self.getName(), self);
+        }
+
+        for (String service : loadGenerator.scrapeServices()) {
+            merged.put(service, new ScrapeTarget(
+                    service,
+                    "http://localhost:" + serverPort + "/loadgen/targets/" + service + "/metrics",
+                    username,
+                    password));
+        }
+
+        for (ScrapeTarget target : scrapeConfig.getTargets()) {
+            merged.put(target.getName(), target);
+        }
+
+        Path file = targetsFilePath();
+        if (file != null) {
+            targetsFileLastModified = lastModified(file);
+            for (ScrapeTarget target : readTargetsFile(file)) {
+                merged.put(target.getName(), target);
+            }
+        }
+
+        targets = Collections.unmodifiableList(new ArrayList<>(merged.values()));
+        selfTarget = merged.get(monitoringConfig.getServiceName()) == self ? self : null;
+        log.info("Scrape target registry loaded {} targets", targets.size());
+    }
+
+    private List<ScrapeTarget> readTargetsFile(Path file) {
+        List<ScrapeTarget> result = new ArrayList<>();
+        if (!Files.isReadable(file)) {
+            log.warn("Targets file not readable path={}", file);
+            return result;
+        }
+        try {
+            int lineNo = 0;
+            for (String line : Files.readAllLines(file)) {
+                lineNo++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = trimmed.split("\\s+");
+                if (parts.length < 2) {
+                    log.warn("Skipping malformed target line {} in {}: {}", lineNo, file, line);
+                    continue;
+                }
+                String user = null;
+                String pass = null;
+                if (parts.length > 2) {
+                    int colon = parts[2].indexOf(':');
+                    if (colon > 0) {
+                        user = parts[2].substring(0, colon);
+                        pass = parts[2].substring(colon + 1);
+                    }
+                }
+                result.add(new ScrapeTarget(parts[0], parts[1], user, pass));
+            }
+        } catch (IOException e) {
+            log.error("Failed to read targets file path={}", file, e);
+        }
+        return result;
+    }
+
+    private Path targetsFilePath() {
+        String location = scrapeConfig.getTargetsFile();
+        return (location == null || location.isBlank()) ? null : Path.of(location);
+    }
+
+    private long lastModified(Path file) {
+        try {
+            return Files.exists(file) ? Files.getLastModifiedTime(file).toMillis() : -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.monitoring.monitoring_service.storage;
+
+import java.nio.ByteBuffer;
+
+/**
+ * BitReader reads bit fields written by {@link BitWriter} from a region of a
+ * {@link ByteBuffer} using absolute gets, so it works directly on memory-mapped files.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+public class BitReader {
+
+    private final ByteBuffer buffer;
+    private final int offset;
+    private long bitPosition;
+
+    public BitReader(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+    }
+
+    public boolean readBit() {
+        int b = buffer.get(offset + (int) (bitPosition >>> 3));
+        boolean bit = ((b >>> (7 - (bitPosition & 7))) & 1) != 0;
+        bitPosition++;
+        return bit;
+    }
+
+    public long readBits(int count) {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value = (value << 1) | (readBit() ? 1 : 0);
+        }
+        return value;
+    }
+
+    public long readVarLong() {
+        long value = 0;
+        int shift = 0;
+        long b;
+        do {
+            b = readBits(8);
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,63 @@
+package com.monitoring.monitoring_service.storage;
+
+import java.util.Arrays;
+
+/**
+ * BitWriter appends bit fields, most significant bit first, to a growable byte array.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+public class BitWriter {
+
+    private byte[] bytes;
+    private long bitPosition;
+
+    public BitWriter(int initialBytes) {
+        this.bytes = new byte[Math.max(8, initialBytes)];
+    }
+
+    public void writeBit(boolean bit) {
+        writeBits(bit ? 1 : 0, 1);
+    }
+
+    /**
+     * Writes the lowest {@code count} bits of {@code value} (count in 0..64).
+     */
+    public void writeBits(long value, int count) {
+        ensureCapacity(count);
+        for (int i = count - 1; i >= 0; i--) {
+            if (((value >>> i) & 1L) != 0) {
+                int index = (int) (bitPosition >>> 3);
+                bytes[index] |= (byte) (0x80 >>> (bitPosition & 7));
+            }
+            bitPosition++;
+        }
+    }
+
+    /**
+     * Writes an unsigned LEB128 varint, byte aligned to the current bit position.
+     */
+    public void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            writeBits((value & 0x7F) | 0x80, 8);
+            value >>>= 7;
+        }
+        writeBits(value, 8);
+    }
+
+    public int sizeInBytes() {
+        return (int) ((bitPosition + 7) >>> 3);
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, sizeInBytes());
+    }
+
+    private void ensureCapacity(int extraBits) {
+        long needed = (bitPosition + extraBits + 7) >>> 3;
+        if (needed > bytes.length) {
+            bytes = Arrays.copyOf(bytes, (int) Math.max(needed, bytes.length * 2L));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.monitoring.monitoring_service.storage;
+
+import java.nio.ByteBuffer;
+
+/**
+ * ChunkDecoder reads back a chunk written by {@link ChunkEncoder}.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+public final class ChunkDecoder {
+
+    private ChunkDecoder() {
+    }
+
+    /**
+     * Decodes {@code count} samples starting at {@code offset} and passes those with
+     * {@code fromMs <= timestamp <= toMs} to the consumer, stopping after {@code toMs}.
+     */
+    public static void decode(ByteBuffer buffer, int offset, int count,
+                              long fromMs, long toMs, SampleConsumer consumer) {
+        if (count == 0) {
+            return;
+        }
+        BitReader in = new BitReader(buffer, offset);
+        long timestamp = in.readVarLong();
+        long valueBits = in.readBits(64);
+        long delta = 0;
+        int leading = 0;
+        int trailing = 0;
+
+        for (int i = 0; ; ) {
+            if (timestamp > toMs) {
+                return;
+            }
+            if (timestamp >= fromMs) {
+                consumer.accept(timestamp, Double.longBitsToDouble(valueBits));
+            }
+            if (++i == count) {
+                return;
+            }
+
+            delta += readDeltaOfDelta(in);
+            timestamp += delta;
+
+            if (in.readBit()) {
+                if (in.readBit()) {
+                    leading = (int) in.readBits(5);
+                    int significant = (int) in.readBits(6) + 1;
+                    trailing = 64 - leading - significant;
+                }
+                int significant = 64 - leading - trailing;
+                valueBits ^= in.readBits(significant) << trailing;
+            }
+        }
+    }
+
+    private static long readDeltaOfDelta(BitReader in) {
+        if (!in.readBit()) {
+            return 0;
+        }
+        if (!in.readBit()) {
+            return signExtend(in.readBits(7), 7);
+        }
+        if (!in.readBit()) {
+            return signExtend(in.readBits(9), 9);
+        }
+        if (!in.readBit()) {
+            return signExtend(in.readBits(12), 12);
+        }
+        if (!in.readBit()) {
+            return (int) in.readBits(32);
+        }
+        return in.readBits(64);
+    }
+
+    /**
+     * Buckets hold [-(2^(n-1) - 1), 2^(n-1)], so values above 2^(n-1) are negative.
+     */
+    private static long signExtend(long bits, int width) {
+        return bits > (1L << (width - 1)) ? bits - (1L << width) : bits;
+    }
+}
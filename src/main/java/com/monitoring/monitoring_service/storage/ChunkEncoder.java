@@ -0,0 +1,112 @@
+package com.monitoring.monitoring_service.storage;
+
+/**
+ * ChunkEncoder compresses the samples of one series into a chunk, Gorilla style.
+ *
+ * <ul>
+ *   <li>The first timestamp is a varint and the first value is stored raw (64 bits).</li>
+ *   <li>Following timestamps store the delta-of-delta in a variable-width bucket;
+ *       a steady scrape interval costs one bit per sample.</li>
+ *   <li>Following values store the XOR with the previous value; an unchanged value
+ *       costs one bit, otherwise only the meaningful XOR bits are written.</li>
+ * </ul>
+ *
+ * Samples must be appended in non-decreasing timestamp order. Not thread-safe.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+public class ChunkEncoder {
+
+    private final BitWriter out = new BitWriter(64);
+
+    private int count;
+    private long firstTimestamp;
+    private long lastTimestamp;
+    private long lastDelta;
+    private long lastValueBits;
+    private int lastLeadingZeros = -1;
+    private int lastTrailingZeros;
+
+    public void append(long timestampMs, double value) {
+        long valueBits = Double.doubleToRawLongBits(value);
+        if (count == 0) {
+            out.writeVarLong(timestampMs);
+            out.writeBits(valueBits, 64);
+            firstTimestamp = timestampMs;
+        } else {
+            long delta = timestampMs - lastTimestamp;
+            writeDeltaOfDelta(delta - lastDelta);
+            writeXor(valueBits ^ lastValueBits);
+            lastDelta = delta;
+        }
+        lastTimestamp = timestampMs;
+        lastValueBits = valueBits;
+        count++;
+    }
+
+    private void writeDeltaOfDelta(long dod) {
+        if (dod == 0) {
+            out.writeBit(false);
+        } else if (dod >= -63 && dod <= 64) {
+            out.writeBits(0b10, 2);
+            out.writeBits(dod, 7);
+        } else if (dod >= -255 && dod <= 256) {
+            out.writeBits(0b110, 3);
+            out.writeBits(dod, 9);
+        } else if (dod >= -2047 && dod <= 2048) {
+            out.writeBits(0b1110, 4);
+            out.writeBits(dod, 12);
+        } else if (dod >= Integer.MIN_VALUE && dod <= Integer.MAX_VALUE) {
+            out.writeBits(0b11110, 5);
+            out.writeBits(dod, 32);
+        } else {
+            out.writeBits(0b11111, 5);
+            out.writeBits(dod, 64);
+        }
+    }
+
+    private void writeXor(long xor) {
+        if (xor == 0) {
+            out.writeBit(false);
+            return;
+        }
+        out.writeBit(true);
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailing = Long.numberOfTrailingZeros(xor);
+
+        if (lastLeadingZeros >= 0 && leading >= lastLeadingZeros && trailing >= lastTrailingZeros) {
+            // Meaningful bits fit in the previous window
+            out.writeBit(false);
+            out.writeBits(xor >>> lastTrailingZeros, 64 - lastLeadingZeros - lastTrailingZeros);
+        } else {
+            int significant = 64 - leading - trailing;
+            out.writeBit(true);
+            out.writeBits(leading, 5);
+            out.writeBits(significant - 1, 6);
+            out.writeBits(xor >>> trailing, significant);
+            lastLeadingZeros = leading;
+            lastTrailingZeros = trailing;
+        }
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public long firstTimestamp() {
+        return firstTimestamp;
+    }
+
+    public long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public int sizeInBytes() {
+        return out.sizeInBytes();
+    }
+
+    public byte[] toByteArray() {
+        return out.toByteArray();
+    }
+}
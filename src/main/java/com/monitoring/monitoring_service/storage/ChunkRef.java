@@ -0,0 +1,21 @@
+package com.monitoring.monitoring_service.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * ChunkRef locates one sealed chunk inside a segment file.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Getter
+@AllArgsConstructor
+public class ChunkRef {
+    private final ChunkSegment segment;
+    private final int dataOffset;
+    private final int dataLength;
+    private final long minTimestamp;
+    private final long maxTimestamp;
+    private final int count;
+}
@@ -0,0 +1,71 @@
+package com.monitoring.monitoring_service.storage;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * ChunkSegment is one append-only segment file of the chunk store.
+ *
+ * Reads go through a read-only memory mapping of the file. The mapping is
+ * refreshed when a read reaches past its end, which only happens for the
+ * segment that is still being appended to.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Getter
+public class ChunkSegment {
+
+    private final long sequence;
+    private final Path path;
+    private final long createdAtMs;
+
+    private volatile long size;
+    private volatile long maxTimestamp = Long.MIN_VALUE;
+    private volatile MappedByteBuffer mapped;
+
+    public ChunkSegment(long sequence, Path path, long createdAtMs, long size) {
+        this.sequence = sequence;
+        this.path = path;
+        this.createdAtMs = createdAtMs;
+        this.size = size;
+    }
+
+    /**
+     * @return a buffer covering at least {@code [offset, offset + length)} of the file
+     */
+    public ByteBuffer view(long offset, int length) {
+        MappedByteBuffer current = mapped;
+        if (current == null || offset + length > current.capacity()) {
+            current = remap();
+        }
+        return current;
+    }
+
+    private synchronized MappedByteBuffer remap() {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return mapped;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map chunk segment " + path, e);
+        }
+    }
+
+    void appended(long bytes, long chunkMaxTimestamp) {
+        size += bytes;
+        if (chunkMaxTimestamp > maxTimestamp) {
+            maxTimestamp = chunkMaxTimestamp;
+        }
+    }
+
+    void releaseMapping() {
+        mapped = null;
+    }
+}
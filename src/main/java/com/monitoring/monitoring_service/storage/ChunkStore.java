@@ -0,0 +1,447 @@
+package com.monitoring.monitoring_service.storage;
+
+import com.monitoring.monitoring_service.config.StorageConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * ChunkStore is the compressed, append-only on-disk tier for sealed time ranges of each series.
+ *
+ * <p>Every series has one open {@link ChunkEncoder} in memory. When it reaches
+ * {@code samplesPerChunk} samples or {@code chunkMaxAgeMs} of age it is sealed and
+ * appended as one record to the active segment file:
+ *
+ * <pre>
+ * int magic | short len + service | short len + metric | long minTs | long maxTs | int count | int len + data
+ * </pre>
+ *
+ * <p>Segments roll over by size or age, which also makes them the unit for
+ * time-based retention. Reads are served from memory-mapped segments; the
+ * per-series chunk index is rebuilt by scanning the segments at startup.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Slf4j
+@Component
+public class ChunkStore {
+
+    private static final int RECORD_MAGIC = 0x43484B31; // "CHK1"
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".chk";
+
+    private final SeriesRegistry seriesRegistry;
+    private final StorageConfig config;
+
+    private final SeriesArray<OpenChunk> openChunks = new SeriesArray<>();
+    private final SeriesArray<ChunkIndex> indexes = new SeriesArray<>();
+    private final List<ChunkSegment> segments = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final AtomicLong storedSamples = new AtomicLong();
+    private final Counter sealedCounter;
+    private final Counter outOfOrderCounter;
+
+    private Path directory;
+    private ChunkSegment activeSegment;
+    private FileChannel activeChannel;
+    private long nextSequence;
+
+    public ChunkStore(SeriesRegistry seriesRegistry, StorageConfig config, MeterRegistry meterRegistry) {
+        this.seriesRegistry = seriesRegistry;
+        this.config = config;
+        this.sealedCounter = meterRegistry.counter("monitoring.storage.chunks.sealed");
+        this.outOfOrderCounter = meterRegistry.counter("monitoring.storage.samples.out_of_order");
+        meterRegistry.gauge("monitoring.storage.chunk.bytes", storedBytes);
+        meterRegistry.gauge("monitoring.storage.chunk.samples", storedSamples);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!config.isChunksEnabled()) {
+            log.info("Chunk store disabled");
+            return;
+        }
+        directory = Path.of(config.getChunkDir());
+        Files.createDirectories(directory);
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted(Comparator.comparingLong(ChunkStore::sequenceOf))
+                    .toList();
+        }
+        for (Path file : files) {
+            loadSegment(file);
+        }
+        log.info("Chunk store opened dir={} segments={} chunkBytes={} samples={}",
+                directory, segments.size(), storedBytes.get(), storedSamples.get());
+    }
+
+    /**
+     * Adds a sample to the open chunk of its series, sealing the chunk when it is full.
+     * Samples older than the open chunk, or not newer than the last sealed chunk (also
+     * after a restart), are counted as out of order and dropped, so the chunks of a
+     * series never overlap in time.
+     */
+    public void append(int seriesId, long timestampMs, double value) {
+        if (!config.isChunksEnabled()) {
+            return;
+        }
+        OpenChunk chunk = openChunks.computeIfAbsent(seriesId, id -> new OpenChunk());
+        synchronized (chunk) {
+            boolean outOfOrder = chunk.encoder.count() > 0
+                    ? timestampMs < chunk.encoder.lastTimestamp()
+                    : timestampMs <= lastSealedTimestamp(seriesId);
+            if (outOfOrder) {
+                outOfOrderCounter.increment();
+                return;
+            }
+            chunk.encoder.append(timestampMs, value);
+            if (chunk.encoder.count() >= config.getSamplesPerChunk()) {
+                seal(seriesId, chunk);
+            }
+        }
+    }
+
+    /**
+     * Visits the sealed samples of a series within {@code [fromMs, toMs]} in time order.
+     */
+    public void forEach(int seriesId, long fromMs, long toMs, SampleConsumer consumer) {
+        ChunkIndex index = indexes.get(seriesId);
+        if (index == null) {
+            return;
+        }
+        for (ChunkRef ref : index.overlapping(fromMs, toMs)) {
+            ByteBuffer buffer = ref.getSegment().view(ref.getDataOffset(), ref.getDataLength());
+            ChunkDecoder.decode(buffer, ref.getDataOffset(), ref.getCount(), fromMs, toMs, consumer);
+        }
+    }
+
+    /**
+     * @return timestamp of the newest sealed sample of the series, or Long.MIN_VALUE
+     */
+    public long lastSealedTimestamp(int seriesId) {
+        ChunkIndex index = indexes.get(seriesId);
+        return index != null ? index.maxTimestamp() : Long.MIN_VALUE;
+    }
+
+    /**
+     * Drops every closed segment whose newest sample is older than {@code cutoffMs}:
+     * its chunks are removed from the series indexes and the file is deleted.
+     * The segment being appended to is never dropped.
+     *
+     * @return number of segment files deleted
+     */
+    public int dropSegmentsBefore(long cutoffMs) {
+        if (!config.isChunksEnabled()) {
+            return 0;
+        }
+        int dropped = 0;
+        for (ChunkSegment segment : segments) {
+            synchronized (this) {
+                if (segment == activeSegment || segment.getMaxTimestamp() >= cutoffMs) {
+                    continue;
+                }
+                segments.remove(segment);
+            }
+            long samples = 0;
+            for (int seriesId = 0; seriesId < indexes.capacity(); seriesId++) {
+                ChunkIndex index = indexes.get(seriesId);
+                if (index != null) {
+                    samples += index.removeSegment(segment);
+                }
+            }
+            storedSamples.addAndGet(-samples);
+            storedBytes.addAndGet(-segment.getSize());
+            try {
+                // A reader still holding the mapping keeps it valid until it is collected
+                Files.deleteIfExists(segment.getPath());
+                dropped++;
+                log.info("Dropped chunk segment {} maxTimestamp={} samples={}",
+                        segment.getPath(), segment.getMaxTimestamp(), samples);
+            } catch (IOException e) {
+                log.error("Failed to delete chunk segment {}", segment.getPath(), e);
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Seals open chunks older than {@code chunkMaxAgeMs} and syncs the active segment.
+     */
+    @Scheduled(fixedDelayString = "#{@storageConfig.chunkSealCheckIntervalMs}")
+    public void sealExpired() {
+        if (!config.isChunksEnabled()) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - config.getChunkMaxAgeMs();
+        int sealed = 0;
+        for (int seriesId = 0; seriesId < openChunks.capacity(); seriesId++) {
+            OpenChunk chunk = openChunks.get(seriesId);
+            if (chunk == null) {
+                continue;
+            }
+            synchronized (chunk) {
+                if (chunk.encoder.count() > 0 && chunk.encoder.firstTimestamp() <= cutoff) {
+                    seal(seriesId, chunk);
+                    sealed++;
+                }
+            }
+        }
+        sync();
+        if (sealed > 0) {
+            log.debug("Sealed {} expired chunks", sealed);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!config.isChunksEnabled()) {
+            return;
+        }
+        for (int seriesId = 0; seriesId < openChunks.capacity(); seriesId++) {
+            OpenChunk chunk = openChunks.get(seriesId);
+            if (chunk != null) {
+                synchronized (chunk) {
+                    if (chunk.encoder.count() > 0) {
+                        seal(seriesId, chunk);
+                    }
+                }
+            }
+        }
+        synchronized (this) {
+            sync();
+            closeActive();
+        }
+    }
+
+    private void seal(int seriesId, OpenChunk chunk) {
+        SeriesKey key = seriesRegistry.get(seriesId);
+        ChunkEncoder encoder = chunk.encoder;
+        byte[] data = encoder.toByteArray();
+        try {
+            ChunkRef ref = writeRecord(key.getServiceName(), key.getMetricName(),
+                    encoder.firstTimestamp(), encoder.lastTimestamp(), encoder.count(), data);
+            indexes.computeIfAbsent(seriesId, id -> new ChunkIndex()).add(ref);
+            storedSamples.addAndGet(encoder.count());
+            sealedCounter.increment();
+            log.debug("Sealed chunk series={} samples={} bytes={}", key, encoder.count(), data.length);
+        } catch (IOException e) {
+            log.error("Failed to write chunk series={} samples={}", key, encoder.count(), e);
+        } finally {
+            chunk.encoder = new ChunkEncoder();
+        }
+    }
+
+    private synchronized ChunkRef writeRecord(String serviceName, String metricName,
+                                              long minTs, long maxTs, int count, byte[] data) throws IOException {
+        rollSegmentIfNeeded();
+
+        byte[] service = serviceName.getBytes(StandardCharsets.UTF_8);
+        byte[] metric = metricName.getBytes(StandardCharsets.UTF_8);
+        int headerLength = 4 + 2 + service.length + 2 + metric.length + 8 + 8 + 4 + 4;
+        ByteBuffer record = ByteBuffer.allocate(headerLength + data.length);
+        record.putInt(RECORD_MAGIC)
+                .putShort((short) service.length).put(service)
+                .putShort((short) metric.length).put(metric)
+                .putLong(minTs).putLong(maxTs)
+                .putInt(count).putInt(data.length)
+                .put(data)
+                .flip();
+
+        long position = activeSegment.getSize();
+        while (record.hasRemaining()) {
+            activeChannel.write(record, position + record.position());
+        }
+        activeSegment.appended(record.capacity(), maxTs);
+        storedBytes.addAndGet(record.capacity());
+        return new ChunkRef(activeSegment, (int) (position + headerLength), data.length, minTs, maxTs, count);
+    }
+
+    private void rollSegmentIfNeeded() throws IOException {
+        long now = System.currentTimeMillis();
+        if (activeSegment != null
+                && activeSegment.getSize() < config.getSegmentMaxBytes()
+                && now - activeSegment.getCreatedAtMs() < config.getSegmentMaxAgeMs()) {
+            return;
+        }
+        sync();
+        closeActive();
+
+        long sequence = nextSequence++;
+        Path path = directory.resolve(SEGMENT_PREFIX + sequence + "-" + now + SEGMENT_SUFFIX);
+        activeChannel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        activeSegment = new ChunkSegment(sequence, path, now, 0);
+        segments.add(activeSegment);
+        log.info("Opened chunk segment {}", path);
+    }
+
+    private void loadSegment(Path file) throws IOException {
+        long sequence = sequenceOf(file);
+        nextSequence = Math.max(nextSequence, sequence + 1);
+        // The size grows record by record, so a torn tail cut off below is never counted
+        ChunkSegment segment = new ChunkSegment(sequence, file, createdAtOf(file), 0);
+        ByteBuffer buffer = segment.view(0, 0);
+
+        int position = 0;
+        while (position + 4 <= buffer.limit()) {
+            try {
+                buffer.position(position);
+                if (buffer.getInt() != RECORD_MAGIC) {
+                    break;
+                }
+                String service = readString(buffer);
+                String metric = readString(buffer);
+                long minTs = buffer.getLong();
+                long maxTs = buffer.getLong();
+                int count = buffer.getInt();
+                int length = buffer.getInt();
+                if (buffer.position() + length > buffer.limit()) {
+                    break;
+                }
+                int dataOffset = buffer.position();
+                int seriesId = seriesRegistry.seriesId(service, metric);
+                indexes.computeIfAbsent(seriesId, id -> new ChunkIndex())
+                        .add(new ChunkRef(segment, dataOffset, length, minTs, maxTs, count));
+                segment.appended(dataOffset + length - position, maxTs);
+                storedSamples.addAndGet(count);
+                position = dataOffset + length;
+            } catch (RuntimeException e) {
+                break;
+            }
+        }
+
+        if (position < buffer.limit()) {
+            // Torn write from a crash: drop the incomplete tail record
+            log.warn("Truncating chunk segment {} from {} to {} bytes", file, buffer.limit(), position);
+            segment.releaseMapping();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(position);
+            }
+        }
+        storedBytes.addAndGet(position);
+        segments.add(segment);
+    }
+
+    private void sync() {
+        synchronized (this) {
+            if (activeChannel != null) {
+                try {
+                    activeChannel.force(false);
+                } catch (IOException e) {
+                    log.error("Failed to sync chunk segment {}", activeSegment.getPath(), e);
+                }
+            }
+        }
+    }
+
+    private void closeActive() {
+        if (activeChannel != null) {
+            try {
+                activeChannel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            activeChannel = null;
+            activeSegment = null;
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long sequenceOf(Path file) {
+        return Long.parseLong(segmentNameParts(file)[0]);
+    }
+
+    private static long createdAtOf(Path file) {
+        return Long.parseLong(segmentNameParts(file)[1]);
+    }
+
+    private static String[] segmentNameParts(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()).split("-");
+    }
+
+    /**
+     * The open chunk of one series; guarded by its own monitor.
+     */
+    private static class OpenChunk {
+        private ChunkEncoder encoder = new ChunkEncoder();
+    }
+
+    /**
+     * Sealed chunks of one series, in append (and therefore time) order.
+     */
+    private static class ChunkIndex {
+        private final List<ChunkRef> chunks = new ArrayList<>();
+
+        synchronized void add(ChunkRef ref) {
+            chunks.add(ref);
+        }
+
+        synchronized List<ChunkRef> overlapping(long fromMs, long toMs) {
+            // append() keeps the chunks of a series from overlapping in time, so binary search
+            // the first one ending at or after fromMs
+            int low = 0;
+            int high = chunks.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (chunks.get(mid).getMaxTimestamp() < fromMs) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            List<ChunkRef> result = new ArrayList<>();
+            for (int i = low; i < chunks.size() && chunks.get(i).getMinTimestamp() <= toMs; i++) {
+                result.add(chunks.get(i));
+            }
+            return result;
+        }
+
+        /**
+         * @return number of samples in the removed chunks
+         */
+        synchronized long removeSegment(ChunkSegment segment) {
+            long samples = 0;
+            for (ChunkRef ref : chunks) {
+                if (ref.getSegment() == segment) {
+                    samples += ref.getCount();
+                }
+            }
+            if (samples > 0) {
+                chunks.removeIf(ref -> ref.getSegment() == segment);
+            }
+            return samples;
+        }
+
+        synchronized long maxTimestamp() {
+            return chunks.isEmpty() ? Long.MIN_VALUE : chunks.get(chunks.size() - 1).getMaxTimestamp();
+        }
+    }
+}
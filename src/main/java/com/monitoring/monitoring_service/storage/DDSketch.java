@@ -0,0 +1,477 @@
+package com.monitoring.monitoring_service.storage;
+
+import java.util.Arrays;
+
+/**
+ * DDSketch is a mergeable quantile sketch with a relative error guarantee
+ * (Masson, Rim and Lee, VLDB 2019).
+ *
+ * <p>A value {@code x > 0} is counted in bin {@code ceil(log_gamma(x))} with
+ * {@code gamma = (1 + a) / (1 - a)}, so every value in a bin is within a relative
+ * error {@code a} of the bin's representative: with {@code a = 0.01} a p99 reported as
+ * 500ms is between 495ms and 505ms, whatever the distribution. Negative values are
+ * counted by magnitude in a second set of bins, values near zero in a zero bin.
+ * Bins are dense counts over the index range in use; 1ms to 1h at 1% takes ~760 bins.
+ * When the range of one sign exceeds {@code maxBins}, its lowest bins are collapsed,
+ * which keeps the upper quantiles exact to the guarantee.
+ *
+ * <p>Merging adds bin counts, so the sketch of an hour is exactly the merge of its
+ * minutes and the sketch of all services the merge of theirs. Count, sum, min and
+ * max are kept exactly. {@link #toBytes()} writes the bins as varints for storage.
+ *
+ * <p>Not thread-safe.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+public final class DDSketch {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final double MIN_INDEXABLE = 1e-9;
+    private static final int INITIAL_BINS = 64;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final int maxBins;
+    private final Bins positive;
+    private final Bins negative;
+
+    private long zeroCount;
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * @param relativeAccuracy relative error of the quantiles, in (0, 1)
+     * @param maxBins          bins per sign before the lowest ones are collapsed
+     */
+    public DDSketch(double relativeAccuracy, int maxBins) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("relative accuracy must be in (0, 1): " + relativeAccuracy);
+        }
+        if (maxBins < 16) {
+            throw new IllegalArgumentException("a sketch needs at least 16 bins: " + maxBins);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.maxBins = maxBins;
+        this.positive = new Bins(maxBins);
+        this.negative = new Bins(maxBins);
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * @return the smallest value added, or NaN if the sketch is empty
+     */
+    public double getMin() {
+        return count > 0 ? min : Double.NaN;
+    }
+
+    /**
+     * @return the largest value added, or NaN if the sketch is empty
+     */
+    public double getMax() {
+        return count > 0 ? max : Double.NaN;
+    }
+
+    /**
+     * @return the mean of the values added, or NaN if the sketch is empty
+     */
+    public double getAverage() {
+        return count > 0 ? sum / count : Double.NaN;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Adds one value; NaN and infinite values are ignored.
+     */
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    /**
+     * Adds {@code n} occurrences of the value; NaN and infinite values are ignored.
+     */
+    public void add(double value, long n) {
+        if (n <= 0 || Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        if (value > MIN_INDEXABLE) {
+            positive.add(index(value), n);
+        } else if (value < -MIN_INDEXABLE) {
+            negative.add(index(-value), n);
+        } else {
+            zeroCount += n;
+        }
+        count += n;
+        sum += value * n;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds the values of the other sketch to this one. Sketches of the same accuracy
+     * merge bin by bin without loss; otherwise each bin of the other sketch is
+     * re-added by its representative value, which adds the other sketch's error.
+     */
+    public void merge(DDSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (other.gamma == gamma) {
+            positive.addAll(other.positive);
+            negative.addAll(other.negative);
+        } else {
+            other.positive.forEach((index, n) -> positive.add(index(other.value(index)), n));
+            other.negative.forEach((index, n) -> negative.add(index(other.value(index)), n));
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @param q quantile in [0, 1], e.g. 0.99
+     * @return the estimated value at the quantile, or NaN if the sketch is empty
+     */
+    public double quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("quantile must be in [0, 1]: " + q);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+
+        double rank = q * (count - 1);
+        long seen = 0;
+        // Most negative first: negative bins by decreasing magnitude
+        for (int i = negative.maxIndex; i >= negative.minIndex && negative.total > 0; i--) {
+            seen += negative.counts[i - negative.offset];
+            if (seen > rank) {
+                return clamp(-value(i));
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return clamp(0);
+        }
+        for (int i = positive.minIndex; i <= positive.maxIndex && positive.total > 0; i++) {
+            seen += positive.counts[i - positive.offset];
+            if (seen > rank) {
+                return clamp(value(i));
+            }
+        }
+        return max;
+    }
+
+    public DDSketch copy() {
+        DDSketch copy = new DDSketch(relativeAccuracy, maxBins);
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Empties the sketch, keeping its bin arrays for reuse.
+     */
+    public void clear() {
+        positive.clear();
+        negative.clear();
+        zeroCount = 0;
+        count = 0;
+        sum = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Serializes the sketch: a small header, then each set of bins as its first index
+     * and one varint count per bin.
+     */
+    public byte[] toBytes() {
+        ByteWriter out = new ByteWriter(64 + 2 * (positive.span() + negative.span()));
+        out.writeByte(FORMAT_VERSION);
+        out.writeDouble(relativeAccuracy);
+        out.writeVarLong(maxBins);
+        out.writeVarLong(count);
+        out.writeDouble(sum);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeVarLong(zeroCount);
+        positive.write(out);
+        negative.write(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not a serialized sketch
+     */
+    public static DDSketch fromBytes(byte[] bytes) {
+        ByteReader in = new ByteReader(bytes);
+        try {
+            if (in.readByte() != FORMAT_VERSION) {
+                throw new IllegalArgumentException("unknown sketch format " + bytes[0]);
+            }
+            DDSketch sketch = new DDSketch(in.readDouble(), (int) in.readVarLong());
+            sketch.count = in.readVarLong();
+            sketch.sum = in.readDouble();
+            sketch.min = in.readDouble();
+            sketch.max = in.readDouble();
+            sketch.zeroCount = in.readVarLong();
+            sketch.positive.read(in);
+            sketch.negative.read(in);
+            return sketch;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("truncated sketch", e);
+        }
+    }
+
+    private int index(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / logGamma);
+    }
+
+    /**
+     * Representative of the bin: within {@code relativeAccuracy} of every value in
+     * {@code (gamma^(index-1), gamma^index]}.
+     */
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (1 + gamma);
+    }
+
+    private double clamp(double value) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    @FunctionalInterface
+    private interface BinConsumer {
+        void accept(int index, long count);
+    }
+
+    /**
+     * Dense counts of the bin indexes {@code minIndex..maxIndex}, stored from {@code offset}.
+     */
+    private static final class Bins {
+        private final int maxBins;
+        private long[] counts = new long[0];
+        private int offset;
+        private int minIndex;
+        private int maxIndex = -1;
+        private long total;
+
+        Bins(int maxBins) {
+            this.maxBins = maxBins;
+        }
+
+        int span() {
+            return total > 0 ? maxIndex - minIndex + 1 : 0;
+        }
+
+        void add(int index, long n) {
+            if (total == 0) {
+                if (index < offset || index >= offset + counts.length) {
+                    counts = new long[Math.max(counts.length, Math.min(INITIAL_BINS, maxBins))];
+                    offset = index - counts.length / 2;
+                }
+                minIndex = index;
+                maxIndex = index;
+            } else if (index < minIndex || index > maxIndex) {
+                extend(Math.min(index, minIndex), Math.max(index, maxIndex));
+            }
+            // Indexes below a collapsed range are counted in its lowest bin
+            counts[Math.max(index, minIndex) - offset] += n;
+            total += n;
+        }
+
+        void addAll(Bins other) {
+            if (other.total == 0) {
+                return;
+            }
+            if (total > 0) {
+                extend(Math.min(other.minIndex, minIndex), Math.max(other.maxIndex, maxIndex));
+            }
+            other.forEach(this::add);
+        }
+
+        void forEach(BinConsumer consumer) {
+            if (total == 0) {
+                return;
+            }
+            for (int i = minIndex; i <= maxIndex; i++) {
+                long n = counts[i - offset];
+                if (n > 0) {
+                    consumer.accept(i, n);
+                }
+            }
+        }
+
+        void clear() {
+            if (total > 0) {
+                Arrays.fill(counts, minIndex - offset, maxIndex - offset + 1, 0);
+            }
+            total = 0;
+            maxIndex = minIndex - 1;
+        }
+
+        /**
+         * Widens the range to {@code [low, high]}, collapsing the lowest bins into one
+         * when it would exceed {@code maxBins}.
+         */
+        private void extend(int low, int high) {
+            long collapsed = 0;
+            if (high - low + 1 > maxBins) {
+                low = high - maxBins + 1;
+                for (int i = minIndex; i <= Math.min(maxIndex, low - 1); i++) {
+                    collapsed += counts[i - offset];
+                    counts[i - offset] = 0;
+                }
+            }
+            if (low < offset || high >= offset + counts.length) {
+                int span = high - low + 1;
+                int length = Math.max(span, Math.min(maxBins, counts.length * 2));
+                long[] grown = new long[length];
+                int grownOffset = low - (length - span) / 2;
+                int from = Math.max(minIndex, low);
+                int to = Math.min(maxIndex, high);
+                if (from <= to) {
+                    System.arraycopy(counts, from - offset, grown, from - grownOffset, to - from + 1);
+                }
+                counts = grown;
+                offset = grownOffset;
+            }
+            minIndex = low;
+            maxIndex = high;
+            counts[low - offset] += collapsed;
+        }
+
+        void write(ByteWriter out) {
+            int span = span();
+            out.writeVarLong(span);
+            if (span == 0) {
+                return;
+            }
+            out.writeVarLong(zigZag(minIndex));
+            for (int i = minIndex; i <= maxIndex; i++) {
+                out.writeVarLong(counts[i - offset]);
+            }
+        }
+
+        void read(ByteReader in) {
+            int span = (int) in.readVarLong();
+            if (span == 0) {
+                return;
+            }
+            if (span > maxBins) {
+                throw new IllegalArgumentException("sketch has " + span + " bins, more than " + maxBins);
+            }
+            int low = unZigZag(in.readVarLong());
+            counts = new long[span];
+            offset = low;
+            minIndex = low;
+            maxIndex = low + span - 1;
+            for (int i = 0; i < span; i++) {
+                counts[i] = in.readVarLong();
+                total += counts[i];
+            }
+        }
+
+        private static long zigZag(int value) {
+            return ((long) value << 1) ^ (value >> 31);
+        }
+
+        private static int unZigZag(long value) {
+            return (int) (value >>> 1) ^ -(int) (value & 1);
+        }
+    }
+
+    private static final class ByteWriter {
+        private byte[] bytes;
+        private int size;
+
+        ByteWriter(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        void writeByte(int b) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[size++] = (byte) b;
+        }
+
+        void writeDouble(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                writeByte((int) (bits >>> shift));
+            }
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+
+    private static final class ByteReader {
+        private final byte[] bytes;
+        private int pos;
+
+        ByteReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        byte readByte() {
+            return bytes[pos++];
+        }
+
+        double readDouble() {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | (bytes[pos++] & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = bytes[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("malformed varint in sketch");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.monitoring.monitoring_service.storage;
+
+import lombok.Getter;
+
+/**
+ * Quantile sketch of the values of one distribution series that fall into one time bucket.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Getter
+public class DistributionBucket {
+
+    private final int seriesId;
+    private final RollupTier tier;
+    private final long bucketStartMs;
+    private final DDSketch sketch;
+
+    public DistributionBucket(int seriesId, RollupTier tier, long bucketStartMs, DDSketch sketch) {
+        this.seriesId = seriesId;
+        this.tier = tier;
+        this.bucketStartMs = bucketStartMs;
+        this.sketch = sketch;
+    }
+
+    public long getBucketEndMs() {
+        return bucketStartMs + tier.getResolutionMs();
+    }
+
+    public DistributionBucket copy() {
+        return new DistributionBucket(seriesId, tier, bucketStartMs, sketch.copy());
+    }
+}
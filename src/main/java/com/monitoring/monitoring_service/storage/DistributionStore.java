@@ -0,0 +1,149 @@
+package com.monitoring.monitoring_service.storage;
+
+import com.monitoring.monitoring_service.config.StorageConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * DistributionStore maintains, for every distribution series and every {@link RollupTier},
+ * the quantile sketch of the bucket currently being filled.
+ *
+ * <p>It mirrors {@link RollupStore}: values or pre-aggregated sketches are merged into one
+ * open bucket per tier, a bucket is sealed and queued for persistence when a later one
+ * starts or when its series goes quiet, and values older than the open bucket of a tier
+ * are not folded into that tier. Merging a sketch only adds bin counts, so the hour and
+ * day buckets are exactly the merge of the minutes they cover.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Component
+public class DistributionStore {
+
+    private static final RollupTier[] TIERS = RollupTier.values();
+
+    private final StorageConfig config;
+    private final SeriesArray<DistributionBucket[]> open = new SeriesArray<>();
+    private final ConcurrentLinkedQueue<DistributionBucket> sealed = new ConcurrentLinkedQueue<>();
+    private final Counter lateCounter;
+
+    public DistributionStore(StorageConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.lateCounter = meterRegistry.counter("monitoring.distribution.late.samples");
+    }
+
+    /**
+     * @return an empty sketch with the configured accuracy
+     */
+    public DDSketch newSketch() {
+        return new DDSketch(config.getSketchRelativeAccuracy(), config.getSketchMaxBins());
+    }
+
+    /**
+     * Merges the values of the sketch, all observed at {@code timestampMs}, into the series.
+     */
+    public void merge(int seriesId, long timestampMs, DDSketch sketch) {
+        if (sketch.isEmpty()) {
+            return;
+        }
+        DistributionBucket[] buckets = open.computeIfAbsent(seriesId, id -> new DistributionBucket[TIERS.length]);
+        synchronized (buckets) {
+            for (int t = 0; t < TIERS.length; t++) {
+                DistributionBucket bucket = buckets[t];
+                long start = TIERS[t].bucketStart(timestampMs);
+                if (bucket == null || start > bucket.getBucketStartMs()) {
+                    if (bucket != null) {
+                        sealed.add(bucket);
+                    }
+                    bucket = new DistributionBucket(seriesId, TIERS[t], start, newSketch());
+                    buckets[t] = bucket;
+                } else if (start < bucket.getBucketStartMs()) {
+                    lateCounter.increment(sketch.getCount());
+                    continue;
+                }
+                bucket.getSketch().merge(sketch);
+            }
+        }
+    }
+
+    /**
+     * Seals open buckets that ended before the given time, so quiet series get persisted too.
+     */
+    public void sealIdle(long endedBeforeMs) {
+        for (int seriesId = 0; seriesId < open.capacity(); seriesId++) {
+            DistributionBucket[] buckets = open.get(seriesId);
+            if (buckets == null) {
+                continue;
+            }
+            synchronized (buckets) {
+                for (int t = 0; t < TIERS.length; t++) {
+                    if (buckets[t] != null && buckets[t].getBucketEndMs() <= endedBeforeMs) {
+                        sealed.add(buckets[t]);
+                        buckets[t] = null;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Seals every open bucket, complete or not. Used on shutdown.
+     */
+    public void sealAll() {
+        sealIdle(Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns up to {@code max} of the oldest sealed buckets awaiting persistence. They
+     * stay pending, and visible to {@link #forEachPending}, until {@link #removeSealed}.
+     */
+    public List<DistributionBucket> peekSealed(int max) {
+        List<DistributionBucket> batch = new ArrayList<>(Math.min(max, 1024));
+        Iterator<DistributionBucket> it = sealed.iterator();
+        while (batch.size() < max && it.hasNext()) {
+            batch.add(it.next());
+        }
+        return batch;
+    }
+
+    /**
+     * Removes buckets returned by {@link #peekSealed} once they are persisted.
+     */
+    public void removeSealed(List<DistributionBucket> batch) {
+        for (DistributionBucket bucket : batch) {
+            sealed.remove(bucket); // found at the head of the queue
+        }
+    }
+
+    /**
+     * Visits the sealed buckets of the series in the tier that are not persisted yet.
+     */
+    public void forEachPending(int seriesId, RollupTier tier, Consumer<DistributionBucket> consumer) {
+        for (DistributionBucket bucket : sealed) {
+            if (bucket.getSeriesId() == seriesId && bucket.getTier() == tier) {
+                consumer.accept(bucket);
+            }
+        }
+    }
+
+    /**
+     * @return a copy of the open bucket of the series in the tier, or null if there is none
+     */
+    public DistributionBucket openBucket(int seriesId, RollupTier tier) {
+        DistributionBucket[] buckets = open.get(seriesId);
+        if (buckets == null) {
+            return null;
+        }
+        synchronized (buckets) {
+            DistributionBucket bucket = buckets[tier.ordinal()];
+            return bucket != null ? bucket.copy() : null;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.monitoring.monitoring_service.storage;
+
+import com.monitoring.monitoring_service.config.StorageConfig;
+import org.springframework.stereotype.Component;
+
+/**
+ * HeadStore is the in-memory tier for the recent window of every series.
+ *
+ * Each series owns a fixed-size {@link SeriesRingBuffer} of primitive timestamps
+ * and values, so memory is bounded by series count times window size, not by
+ * total history. The JPA tables remain the durable tier.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Component
+public class HeadStore {
+
+    private final int samplesPerSeries;
+    private final SeriesArray<SeriesRingBuffer> buffers = new SeriesArray<>();
+
+    public HeadStore(StorageConfig config) {
+        this.samplesPerSeries = config.getHeadSamplesPerSeries();
+    }
+
+    public void append(int seriesId, long timestampMs, double value) {
+        buffers.computeIfAbsent(seriesId, id -> new SeriesRingBuffer(samplesPerSeries))
+                .append(timestampMs, value);
+    }
+
+    /**
+     * Visits the samples of one series within {@code [fromMs, toMs]} in time order.
+     */
+    public void forEach(int seriesId, long fromMs, long toMs, SampleConsumer consumer) {
+        SeriesRingBuffer buffer = buffers.get(seriesId);
+        if (buffer != null) {
+            buffer.forEach(fromMs, toMs, consumer);
+        }
+    }
+
+    /**
+     * Passes the newest sample of the series to the consumer.
+     *
+     * @return false if the series has no samples in the head
+     */
+    public boolean latest(int seriesId, SampleConsumer consumer) {
+        SeriesRingBuffer buffer = buffers.get(seriesId);
+        return buffer != null && buffer.latest(consumer);
+    }
+
+    /**
+     * @return timestamp of the oldest sample still held for the series, or Long.MAX_VALUE
+     */
+    public long oldestTimestamp(int seriesId) {
+        SeriesRingBuffer buffer = buffers.get(seriesId);
+        return buffer != null ? buffer.oldestTimestamp() : Long.MAX_VALUE;
+    }
+}
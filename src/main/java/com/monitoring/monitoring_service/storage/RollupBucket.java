@@ -0,0 +1,59 @@
+package com.monitoring.monitoring_service.storage;
+
+import lombok.Getter;
+
+/**
+ * Running min/max/sum/count/last of the samples of one series that fall into one time bucket.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Getter
+public class RollupBucket {
+
+    private final int seriesId;
+    private final RollupTier tier;
+    private final long bucketStartMs;
+
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double sum;
+    private long count;
+    private double last = Double.NaN;
+    private long lastTimestampMs = Long.MIN_VALUE;
+
+    public RollupBucket(int seriesId, RollupTier tier, long bucketStartMs) {
+        this.seriesId = seriesId;
+        this.tier = tier;
+        this.bucketStartMs = bucketStartMs;
+    }
+
+    public long getBucketEndMs() {
+        return bucketStartMs + tier.getResolutionMs();
+    }
+
+    public void add(long timestampMs, double value) {
+        merge(value, value, value, 1, value, timestampMs);
+    }
+
+    /**
+     * Folds an already aggregated range into this bucket.
+     */
+    public void merge(double otherMin, double otherMax, double otherSum, long otherCount,
+                      double otherLast, long otherLastTimestampMs) {
+        min = Math.min(min, otherMin);
+        max = Math.max(max, otherMax);
+        sum += otherSum;
+        count += otherCount;
+        if (otherLastTimestampMs >= lastTimestampMs) {
+            last = otherLast;
+            lastTimestampMs = otherLastTimestampMs;
+        }
+    }
+
+    public RollupBucket copy() {
+        RollupBucket copy = new RollupBucket(seriesId, tier, bucketStartMs);
+        copy.merge(min, max, sum, count, last, lastTimestampMs);
+        return copy;
+    }
+}
@@ -0,0 +1,134 @@
+package com.monitoring.monitoring_service.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * RollupStore maintains, for every series and every {@link RollupTier}, the aggregate
+ * of the bucket currently being filled.
+ *
+ * <p>Each appended sample updates one open bucket per tier in O(1). When a sample
+ * lands in a later bucket, the open one is sealed and queued for persistence;
+ * buckets of series that stopped reporting are sealed by {@link #sealIdle(long)}.
+ * Samples older than the open bucket of a tier are not folded into that tier
+ * (they are still kept in the raw stores).
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Component
+public class RollupStore {
+
+    private static final RollupTier[] TIERS = RollupTier.values();
+
+    private final SeriesArray<RollupBucket[]> open = new SeriesArray<>();
+    private final ConcurrentLinkedQueue<RollupBucket> sealed = new ConcurrentLinkedQueue<>();
+    private final Counter lateCounter;
+
+    public RollupStore(MeterRegistry meterRegistry) {
+        this.lateCounter = meterRegistry.counter("monitoring.rollup.late.samples");
+    }
+
+    public void append(int seriesId, long timestampMs, double value) {
+        RollupBucket[] buckets = open.computeIfAbsent(seriesId, id -> new RollupBucket[TIERS.length]);
+        synchronized (buckets) {
+            for (int t = 0; t < TIERS.length; t++) {
+                RollupBucket bucket = buckets[t];
+                long start = TIERS[t].bucketStart(timestampMs);
+                if (bucket == null || start > bucket.getBucketStartMs()) {
+                    if (bucket != null) {
+                        sealed.add(bucket);
+                    }
+                    bucket = new RollupBucket(seriesId, TIERS[t], start);
+                    buckets[t] = bucket;
+                } else if (start < bucket.getBucketStartMs()) {
+                    lateCounter.increment();
+                    continue;
+                }
+                bucket.add(timestampMs, value);
+            }
+        }
+    }
+
+    /**
+     * Seals open buckets that ended before the given time, so quiet series get persisted too.
+     */
+    public void sealIdle(long endedBeforeMs) {
+        for (int seriesId = 0; seriesId < open.capacity(); seriesId++) {
+            RollupBucket[] buckets = open.get(seriesId);
+            if (buckets == null) {
+                continue;
+            }
+            synchronized (buckets) {
+                for (int t = 0; t < TIERS.length; t++) {
+                    if (buckets[t] != null && buckets[t].getBucketEndMs() <= endedBeforeMs) {
+                        sealed.add(buckets[t]);
+                        buckets[t] = null;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Seals every open bucket, complete or not. Used on shutdown; a partial bucket
+     * continued after a restart is merged with its other part when read.
+     */
+    public void sealAll() {
+        sealIdle(Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns up to {@code max} of the oldest sealed buckets awaiting persistence. They
+     * stay pending, and visible to {@link #forEachPending}, until {@link #removeSealed}.
+     */
+    public List<RollupBucket> peekSealed(int max) {
+        List<RollupBucket> batch = new ArrayList<>(Math.min(max, 1024));
+        Iterator<RollupBucket> it = sealed.iterator();
+        while (batch.size() < max && it.hasNext()) {
+            batch.add(it.next());
+        }
+        return batch;
+    }
+
+    /**
+     * Removes buckets returned by {@link #peekSealed} once they are persisted.
+     */
+    public void removeSealed(List<RollupBucket> batch) {
+        for (RollupBucket bucket : batch) {
+            sealed.remove(bucket); // found at the head of the queue
+        }
+    }
+
+    /**
+     * Visits the sealed buckets of the series in the tier that are not persisted yet.
+     */
+    public void forEachPending(int seriesId, RollupTier tier, Consumer<RollupBucket> consumer) {
+        for (RollupBucket bucket : sealed) {
+            if (bucket.getSeriesId() == seriesId && bucket.getTier() == tier) {
+                consumer.accept(bucket);
+            }
+        }
+    }
+
+    /**
+     * @return a copy of the open bucket of the series in the tier, or null if there is none
+     */
+    public RollupBucket openBucket(int seriesId, RollupTier tier) {
+        RollupBucket[] buckets = open.get(seriesId);
+        if (buckets == null) {
+            return null;
+        }
+        synchronized (buckets) {
+            RollupBucket bucket = buckets[tier.ordinal()];
+            return bucket != null ? bucket.copy() : null;
+        }
+    }
+}
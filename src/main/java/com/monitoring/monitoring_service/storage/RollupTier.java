@@ -0,0 +1,57 @@
+package com.monitoring.monitoring_service.storage;
+
+/**
+ * Resolutions at which samples are pre-aggregated, finest first.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+public enum RollupTier {
+
+    MINUTE(60_000L),
+    HOUR(3_600_000L),
+    DAY(86_400_000L);
+
+    private static final RollupTier[] TIERS = values();
+
+    private final long resolutionMs;
+
+    RollupTier(long resolutionMs) {
+        this.resolutionMs = resolutionMs;
+    }
+
+    public long getResolutionMs() {
+        return resolutionMs;
+    }
+
+    /**
+     * @return start of the bucket of this tier containing the timestamp
+     */
+    public long bucketStart(long timestampMs) {
+        return Math.floorDiv(timestampMs, resolutionMs) * resolutionMs;
+    }
+
+    /**
+     * Picks the coarsest tier whose buckets are not wider than the requested step.
+     *
+     * @param stepMs requested output resolution
+     * @return the tier, or null when the step is finer than every tier and raw samples must be read
+     */
+    public static RollupTier coarsestFitting(long stepMs) {
+        for (int i = TIERS.length - 1; i >= 0; i--) {
+            if (TIERS[i].resolutionMs <= stepMs) {
+                return TIERS[i];
+            }
+        }
+        return null;
+    }
+
+    public static RollupTier of(long resolutionMs) {
+        for (RollupTier tier : TIERS) {
+            if (tier.resolutionMs == resolutionMs) {
+                return tier;
+            }
+        }
+        throw new IllegalArgumentException("No rollup tier with resolution " + resolutionMs + "ms");
+    }
+}
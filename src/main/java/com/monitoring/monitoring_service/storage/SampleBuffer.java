@@ -0,0 +1,60 @@
+package com.monitoring.monitoring_service.storage;
+
+import java.util.Arrays;
+
+/**
+ * SampleBuffer collects samples into growable primitive arrays.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+public class SampleBuffer implements SampleConsumer {
+
+    private long[] timestamps;
+    private double[] values;
+    private int size;
+
+    public SampleBuffer() {
+        this(16);
+    }
+
+    public SampleBuffer(int initialCapacity) {
+        this.timestamps = new long[Math.max(1, initialCapacity)];
+        this.values = new double[Math.max(1, initialCapacity)];
+    }
+
+    @Override
+    public void accept(long timestampMs, double value) {
+        if (size == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        timestamps[size] = timestampMs;
+        values[size] = value;
+        size++;
+    }
+
+    public long timestampAt(int index) {
+        return timestamps[index];
+    }
+
+    public double valueAt(int index) {
+        return values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public long[] timestamps() {
+        return Arrays.copyOf(timestamps, size);
+    }
+
+    public double[] values() {
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,12 @@
+package com.monitoring.monitoring_service.storage;
+
+/**
+ * Receives samples as primitives so range reads do not box values.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@FunctionalInterface
+public interface SampleConsumer {
+    void accept(long timestampMs, double value);
+}
@@ -0,0 +1,63 @@
+package com.monitoring.monitoring_service.storage;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * SeriesArray is a growable array of per-series state indexed by the dense
+ * series id from {@link SeriesRegistry}. Lookups are a volatile read plus an
+ * array index; only creating a slot takes a lock.
+ *
+ * @param <T> per-series state type
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+public class SeriesArray<T> {
+
+    private volatile Object[] slots = new Object[64];
+
+    @SuppressWarnings("unchecked")
+    public T get(int seriesId) {
+        Object[] current = slots;
+        return seriesId < current.length ? (T) current[seriesId] : null;
+    }
+
+    public T computeIfAbsent(int seriesId, IntFunction<T> factory) {
+        T existing = get(seriesId);
+        return existing != null ? existing : create(seriesId, factory);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized T create(int seriesId, IntFunction<T> factory) {
+        Object[] current = slots;
+        if (seriesId < current.length && current[seriesId] != null) {
+            return (T) current[seriesId];
+        }
+        if (seriesId >= current.length) {
+            current = Arrays.copyOf(current, Math.max(seriesId + 1, current.length * 2));
+        }
+        T created = factory.apply(seriesId);
+        current[seriesId] = created;
+        slots = current; // volatile write publishes the new slot
+        return created;
+    }
+
+    /**
+     * Replaces the state of a series, growing the array if needed.
+     */
+    public synchronized void set(int seriesId, T value) {
+        Object[] current = slots;
+        if (seriesId >= current.length) {
+            current = Arrays.copyOf(current, Math.max(seriesId + 1, current.length * 2));
+        }
+        current[seriesId] = value;
+        slots = current;
+    }
+
+    /**
+     * @return one past the highest series id that may hold state
+     */
+    public int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,24 @@
+package com.monitoring.monitoring_service.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * SeriesKey identifies one time series: a metric reported by a service.
+ * Instances are interned by {@link SeriesRegistry}, which assigns each a dense int id.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Getter
+@AllArgsConstructor
+public class SeriesKey {
+    private final int id;
+    private final String serviceName;
+    private final String metricName;
+
+    @Override
+    public String toString() {
+        return serviceName + "_" + metricName;
+    }
+}
@@ -0,0 +1,78 @@
+package com.monitoring.monitoring_service.storage;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SeriesRegistry interns (service, metric) pairs and assigns each a dense int id.
+ * The id is what the storage and evaluation layers index their per-series state by.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+@Component
+public class SeriesRegistry {
+
+    // service -> metric -> key; two levels so lookups never build a combined key string
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, SeriesKey>> byName = new ConcurrentHashMap<>();
+    private final SeriesArray<SeriesKey> byId = new SeriesArray<>();
+    private volatile int nextId;
+
+    /**
+     * @return the id of the series, registering it on first use
+     */
+    public int seriesId(String serviceName, String metricName) {
+        return intern(serviceName, metricName).getId();
+    }
+
+    public SeriesKey intern(String serviceName, String metricName) {
+        SeriesKey key = find(serviceName, metricName);
+        return key != null ? key : register(serviceName, metricName);
+    }
+
+    /**
+     * @return the series key, or null if the series has never been registered
+     */
+    public SeriesKey find(String serviceName, String metricName) {
+        ConcurrentHashMap<String, SeriesKey> metrics = byName.get(serviceName);
+        return metrics != null ? metrics.get(metricName) : null;
+    }
+
+    public SeriesKey get(int seriesId) {
+        return byId.get(seriesId);
+    }
+
+    public int size() {
+        return nextId;
+    }
+
+    /**
+     * @return all registered series in id order
+     */
+    public List<SeriesKey> all() {
+        int count = size();
+        List<SeriesKey> result = new ArrayList<>(count);
+        for (int id = 0; id < byId.capacity(); id++) {
+            SeriesKey key = byId.get(id);
+            if (key != null) {
+                result.add(key);
+            }
+        }
+        return result;
+    }
+
+    private synchronized SeriesKey register(String serviceName, String metricName) {
+        SeriesKey existing = find(serviceName, metricName);
+        if (existing != null) {
+            return existing;
+        }
+        SeriesKey key = new SeriesKey(nextId, serviceName, metricName);
+        byId.computeIfAbsent(key.getId(), id -> key);
+        byName.computeIfAbsent(serviceName, name -> new ConcurrentHashMap<>()).put(metricName, key);
+        nextId++;
+        return key;
+    }
+}
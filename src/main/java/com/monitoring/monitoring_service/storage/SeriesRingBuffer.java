@@ -0,0 +1,76 @@
+package com.monitoring.monitoring_service.storage;
+
+/**
+ * SeriesRingBuffer keeps the most recent samples of one series in two
+ * parallel primitive arrays. Once full, each append overwrites the oldest sample.
+ * Samples are expected in non-decreasing timestamp order.
+ *
+ * @since Oct, 2026
+ * @author s Bostan
+ */
+public class SeriesRingBuffer {
+
+    private final long[] timestamps;
+    private final double[] values;
+    private int next;   // slot the next append writes to
+    private int size;
+
+    public SeriesRingBuffer(int capacity) {
+        this.timestamps = new long[capacity];
+        this.values = new double[capacity];
+    }
+
+    public synchronized void append(long timestampMs, double value) {
+        timestamps[next] = timestampMs;
+        values[next] = value;
+        next = (next + 1) % timestamps.length;
+        if (size < timestamps.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Visits samples with {@code fromMs <= timestamp <= toMs} in time order.
+     */
+    public synchronized void forEach(long fromMs, long toMs, SampleConsumer consumer) {
+        int start = (next - size + timestamps.length) % timestamps.length;
+        for (int i = 0; i < size; i++) {
+            int slot = (start + i) % timestamps.length;
+            long ts = timestamps[slot];
+            if (ts > toMs) {
+                break;
+            }
+            if (ts >= fromMs) {
+                consumer.accept(ts, values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Passes the newest sample to the consumer.
+     *
+     * @return false if the buffer is empty
+     */
+    public synchronized boolean latest(SampleConsumer consumer) {
+        if (size == 0) {
+            return false;
+        }
+        int slot = (next - 1 + timestamps.length) % timestamps.length;
+        consumer.accept(timestamps[slot], values[slot]);
+        return true;
+    }
+
+    /**
+     * @return timestamp of the oldest retained sample, or Long.MAX_VALUE if empty
+     */
+    public synchronized long oldestTimestamp() {
+        if (size == 0) {
+            return Long.MAX_VALUE;
+        }
+        return timestamps[(next - size + timestamps.length) % timestamps.length];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
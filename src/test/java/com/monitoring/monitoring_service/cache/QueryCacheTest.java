@@ -0,0 +1,76 @@
+package com.monitoring.monitoring_service.cache;
+
+import com.monitoring.monitoring_service.config.QueryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryCacheTest {
+
+	private static final LocalDateTime NOON = LocalDateTime.of(2026, 10, 1, 12, 0);
+
+	@Test
+	void concurrentIdenticalQueriesRunOnce() throws Exception {
+		SimpleMeterRegistry meters = new SimpleMeterRegistry();
+		QueryCache cache = new QueryCache(new QueryConfig(), meters);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(pool.submit(() -> cache.get(CacheRegion.ALARMS, "kpi", null, null, () -> {
+					loads.incrementAndGet();
+					await(release);
+					return 42;
+				})));
+			}
+			// Let every request arrive before the single load completes
+			while (meters.counter("monitoring.query.cache.requests", "region", "alarms", "outcome", "coalesced").count() < 7) {
+				Thread.sleep(5);
+			}
+			release.countDown();
+			for (Future<Integer> result : results) {
+				assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void writesInvalidateOnlyOverlappingWindows() {
+		QueryCache cache = new QueryCache(new QueryConfig(), new SimpleMeterRegistry());
+		AtomicInteger loads = new AtomicInteger();
+		LocalDateTime yesterday = NOON.minusDays(1);
+
+		cache.get(CacheRegion.METRICS, "page", yesterday, yesterday.plusHours(1), loads::incrementAndGet);
+		cache.get(CacheRegion.METRICS, "page", yesterday, null, loads::incrementAndGet);
+		cache.invalidate(CacheRegion.METRICS, NOON, NOON);
+		cache.invalidate(CacheRegion.ALARMS, yesterday, NOON);
+
+		assertThat(cache.get(CacheRegion.METRICS, "page", yesterday, yesterday.plusHours(1), loads::incrementAndGet)).isEqualTo(1);
+		assertThat(cache.get(CacheRegion.METRICS, "page", yesterday, null, loads::incrementAndGet)).isEqualTo(3);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
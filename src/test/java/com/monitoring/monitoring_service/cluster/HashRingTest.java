@@ -0,0 +1,46 @@
+package com.monitoring.monitoring_service.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashRingTest {
+
+	private static final int KEYS = 10_000;
+
+	@Test
+	void spreadsKeysEvenlyOverNodes() {
+		HashRing ring = new HashRing(List.of("a:8080", "b:8080", "c:8080", "d:8080"), 128);
+
+		Map<String, Integer> counts = new HashMap<>();
+		for (int i = 0; i < KEYS; i++) {
+			counts.merge(ring.owner("target-" + i), 1, Integer::sum);
+		}
+
+		assertThat(counts).hasSize(4);
+		assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(KEYS / 4 * 8 / 10, KEYS / 4 * 12 / 10));
+	}
+
+	@Test
+	void addingANodeMovesOnlyItsShare() {
+		HashRing before = new HashRing(List.of("a:8080", "b:8080", "c:8080"), 128);
+		HashRing after = new HashRing(List.of("a:8080", "b:8080", "c:8080", "d:8080"), 128);
+
+		int moved = 0;
+		for (int i = 0; i < KEYS; i++) {
+			String key = "target-" + i;
+			String owner = after.owner(key);
+			if (!owner.equals(before.owner(key))) {
+				// Keys only ever move to the new node
+				assertThat(owner).isEqualTo("d:8080");
+				moved++;
+			}
+		}
+
+		assertThat(moved).isBetween(KEYS / 4 * 8 / 10, KEYS / 4 * 12 / 10);
+	}
+}
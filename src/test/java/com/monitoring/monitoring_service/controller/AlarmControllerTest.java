@@ -0,0 +1,121 @@
+package com.monitoring.monitoring_service.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monitoring.monitoring_service.model.AlarmEntity;
+import com.monitoring.monitoring_service.repository.AlarmRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"monitoring.scrape.includeSelf=false",
+		"monitoring.storage.chunkDir=target/alarm-controller-chunks"
+})
+@AutoConfigureMockMvc
+class AlarmControllerTest {
+
+	private static final String AUTHORIZATION = "Basic "
+			+ Base64.getEncoder().encodeToString("admin:secret".getBytes(StandardCharsets.UTF_8));
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private AlarmRepository alarmRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void cursorPagesThroughEveryAlarmNewestFirst() throws Exception {
+		LocalDateTime base = LocalDateTime.of(2026, 10, 1, 12, 0);
+		List<Long> expected = new ArrayList<>();
+		// two alarms share each timestamp, so the cursor must break ties by id
+		for (int i = 0; i < 5; i++) {
+			expected.add(save("cursor-paging", base.plusSeconds(i / 2)));
+		}
+		expected.sort((a, b) -> Long.compare(b, a));
+
+		List<Long> read = new ArrayList<>();
+		List<Integer> sliceSizes = new ArrayList<>();
+		String cursor = null;
+		do {
+			JsonNode slice = slice("cursor-paging", 2, cursor);
+			slice.path("alarms").forEach(alarm -> read.add(alarm.path("id").asLong()));
+			sliceSizes.add(slice.path("alarms").size());
+			cursor = slice.path("nextCursor").isNull() ? null : slice.path("nextCursor").asText();
+		} while (cursor != null);
+
+		assertThat(sliceSizes).containsExactly(2, 2, 1);
+		assertThat(read).isEqualTo(expected);
+	}
+
+	@Test
+	void aSliceHoldingTheLastAlarmsHasNoNextCursor() throws Exception {
+		LocalDateTime base = LocalDateTime.of(2026, 10, 1, 12, 0);
+		for (int i = 0; i < 3; i++) {
+			save("cursor-exact", base.plusSeconds(i));
+		}
+
+		JsonNode slice = slice("cursor-exact", 3, null);
+		assertThat(slice.path("alarms").size()).isEqualTo(3);
+		assertThat(slice.path("nextCursor").isNull()).isTrue();
+
+		JsonNode first = slice("cursor-exact", 2, null);
+		assertThat(first.path("alarms").size()).isEqualTo(2);
+		assertThat(first.path("nextCursor").isNull()).isFalse();
+	}
+
+	@Test
+	void malformedCursorIsABadRequest() throws Exception {
+		String notBase64 = "not a cursor!";
+		String noSeparator = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString("2026-10-01T12:00".getBytes(StandardCharsets.UTF_8));
+		String badId = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString("2026-10-01T12:00|abc".getBytes(StandardCharsets.UTF_8));
+
+		for (String cursor : List.of(notBase64, noSeparator, badId)) {
+			mockMvc.perform(get("/alarms/cursor").header(HttpHeaders.AUTHORIZATION, AUTHORIZATION)
+							.param("cursor", cursor))
+					.andExpect(status().isBadRequest());
+		}
+	}
+
+	private JsonNode slice(String service, int size, String cursor) throws Exception {
+		var request = get("/alarms/cursor").header(HttpHeaders.AUTHORIZATION, AUTHORIZATION)
+				.param("service", service)
+				.param("size", String.valueOf(size));
+		if (cursor != null) {
+			request.param("cursor", cursor);
+		}
+		String body = mockMvc.perform(request)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private long save(String serviceName, LocalDateTime timestamp) {
+		AlarmEntity alarm = new AlarmEntity();
+		alarm.setServiceName(serviceName);
+		alarm.setMetricName("CPU");
+		alarm.setMetricValue(95);
+		alarm.setSeverity("CRITICAL");
+		alarm.setTimestamp(timestamp);
+		alarm.setMessage("CRITICAL level reached");
+		return alarmRepository.save(alarm).getId();
+	}
+}
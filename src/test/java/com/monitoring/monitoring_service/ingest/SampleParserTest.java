@@ -0,0 +1,97 @@
+package com.monitoring.monitoring_service.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SampleParserTest {
+
+	private record Sample(String service, String metric, long timestampMs, double value) {
+	}
+
+	@Test
+	void parsesPrometheusExposition() throws IOException {
+		String body = """
+				# HELP http_requests_total Total requests.
+				# TYPE http_requests_total counter
+				http_requests_total{method="GET",job="orders"} 1027 1700000000000
+				http_requests_total{service="billing", code="500"} 3
+				process_cpu_seconds_total 12.47
+				temperature{room="a\\"b"} -1.5e3
+				up NaN
+				broken{method="GET" 1
+				""";
+
+		List<Sample> samples = new ArrayList<>();
+		ParseStats stats = new PrometheusTextParser().parse(stream(body), "push", 42L,
+				(s, m, t, v) -> samples.add(new Sample(s, m, t, v)));
+
+		assertThat(stats.getAccepted()).isEqualTo(5);
+		assertThat(stats.getRejected()).isEqualTo(1);
+		assertThat(stats.getFirstError()).startsWith("line 8:");
+		assertThat(samples.get(0)).isEqualTo(new Sample("orders", "http_requests_total{method=\"GET\"}", 1700000000000L, 1027));
+		assertThat(samples.get(1)).isEqualTo(new Sample("billing", "http_requests_total{code=\"500\"}", 42L, 3));
+		assertThat(samples.get(2)).isEqualTo(new Sample("push", "process_cpu_seconds_total", 42L, 12.47));
+		assertThat(samples.get(3)).isEqualTo(new Sample("push", "temperature{room=\"a\\\"b\"}", 42L, -1500));
+		assertThat(samples.get(4).value()).isNaN();
+	}
+
+	@Test
+	void parsesLineProtocolAcrossBufferBoundaries() throws IOException {
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < 20_000; i++) {
+			body.append("svc-").append(i % 3).append(" CPU ").append(i % 100).append('.').append(i % 10)
+					.append(' ').append(1_700_000_000_000L + i).append('\n');
+		}
+		body.append("svc-0 MEMORY\n");
+		body.append("svc-0 MEMORY 0.25"); // no trailing newline
+
+		List<Sample> samples = new ArrayList<>();
+		ParseStats stats = new LineProtocolParser().parse(stream(body.toString()), "push", 7L,
+				(s, m, t, v) -> samples.add(new Sample(s, m, t, v)));
+
+		assertThat(stats.getAccepted()).isEqualTo(20_001);
+		assertThat(stats.getRejected()).isEqualTo(1);
+		assertThat(samples.get(12_345)).isEqualTo(new Sample("svc-0", "CPU", 1_700_000_012_345L, 45.5));
+		assertThat(samples.get(20_000)).isEqualTo(new Sample("svc-0", "MEMORY", 7L, 0.25));
+	}
+
+	@Test
+	void decodesJsonScrapesWithAnyNumericType() throws IOException {
+		String body = """
+				{"cpu": 72, "memory": 45.5, "requests": 5000000000,
+				 "status": "UP", "jvm": {"threads": 31, "gc": {"pauses": [1, 2]}}, "ratio": -1.5e-3}
+				""";
+
+		List<Sample> samples = new ArrayList<>();
+		ScrapeDecoder decoder = new ScrapeDecoder(new JsonMetricsParser(), new PrometheusTextParser());
+		ParseStats stats = decoder.decode(body.getBytes(StandardCharsets.UTF_8), "orders", 42L,
+				(s, m, t, v) -> samples.add(new Sample(s, m, t, v)));
+
+		assertThat(stats.getAccepted()).isEqualTo(5);
+		assertThat(stats.getRejected()).isEqualTo(2);
+		assertThat(samples).containsExactly(
+				new Sample("orders", "cpu", 42L, 72),
+				new Sample("orders", "memory", 42L, 45.5),
+				new Sample("orders", "requests", 42L, 5_000_000_000.0),
+				new Sample("orders", "jvm.threads", 42L, 31),
+				new Sample("orders", "ratio", 42L, -0.0015));
+
+		// Anything that is not a JSON object goes to the Prometheus parser
+		samples.clear();
+		decoder.decode("up 1\n".getBytes(StandardCharsets.UTF_8), "orders", 42L,
+				(s, m, t, v) -> samples.add(new Sample(s, m, t, v)));
+		assertThat(samples).containsExactly(new Sample("orders", "up", 42L, 1));
+	}
+
+	private static InputStream stream(String body) {
+		return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+	}
+}
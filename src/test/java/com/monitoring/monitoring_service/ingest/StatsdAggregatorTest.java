@@ -0,0 +1,176 @@
+package com.monitoring.monitoring_service.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class StatsdAggregatorTest {
+
+	@Test
+	void flushEmitsCounterSumsGaugeValuesAndTimerAggregates() {
+		StatsdAggregator aggregator = new StatsdAggregator(16, 0, "statsd", 0.01, 2048);
+
+		assertThat(feed(aggregator, """
+				hits:1|c
+				hits:2|c|#service:orders
+				hits:4|c|#service:orders
+				temp:10|g
+				temp:+5|g
+				lat:10|ms
+				lat:30|ms|#service:orders
+				lat:20|ms
+				lat:30|ms
+				""")).containsOnly(true);
+		assertThat(aggregator.size()).isEqualTo(5);
+
+		Flush first = flush(aggregator);
+		assertThat(first.samples).containsOnly(
+				entry("statsd/hits", 1.0),
+				entry("orders/hits", 6.0),
+				entry("statsd/temp", 15.0),
+				entry("statsd/lat.count", 3.0),
+				entry("statsd/lat.avg", 20.0),
+				entry("statsd/lat.min", 10.0),
+				entry("statsd/lat.max", 30.0),
+				entry("orders/lat.count", 1.0),
+				entry("orders/lat.avg", 30.0),
+				entry("orders/lat.min", 30.0),
+				entry("orders/lat.max", 30.0));
+		assertThat(first.distributionCounts).containsOnly(
+				entry("statsd/lat", 3L),
+				entry("orders/lat", 1L));
+
+		// nothing was recorded in between
+		assertThat(flush(aggregator).samples).isEmpty();
+
+		// counters and timers start over, gauges continue from their value
+		feed(aggregator, """
+				hits:2|c
+				temp:-3|g
+				lat:50|ms
+				""");
+		Flush third = flush(aggregator);
+		assertThat(third.samples).containsOnly(
+				entry("statsd/hits", 2.0),
+				entry("statsd/temp", 12.0),
+				entry("statsd/lat.count", 1.0),
+				entry("statsd/lat.avg", 50.0),
+				entry("statsd/lat.min", 50.0),
+				entry("statsd/lat.max", 50.0));
+		assertThat(third.distributionCounts).containsOnly(
+				entry("statsd/lat", 1L));
+	}
+
+	@Test
+	void fullTableRejectsNewKeysUntilIdleKeysAreEvicted() {
+		StatsdAggregator aggregator = new StatsdAggregator(2, 2, "statsd", 0.01, 2048);
+
+		assertThat(feed(aggregator, """
+				a:1|c
+				b:1|c
+				c:1|c
+				a:1|g
+				a:1|c
+				""")).containsExactly(true, true, false, false, true);
+
+		assertThat(flush(aggregator).evicted).isZero(); // b emitted
+		feed(aggregator, "a:1|c\n");
+		assertThat(flush(aggregator).evicted).isZero(); // b idle once
+		feed(aggregator, "a:1|c\n");
+		assertThat(flush(aggregator).evicted).isEqualTo(1); // b idle twice
+		assertThat(aggregator.size()).isEqualTo(1);
+
+		assertThat(feed(aggregator, """
+				c:5|c
+				a:3|c
+				""")).containsOnly(true);
+		assertThat(flush(aggregator).samples).containsOnly(
+				entry("statsd/a", 3.0),
+				entry("statsd/c", 5.0));
+	}
+
+	@Test
+	void keysLeftAfterEvictionAreStillFoundAndNewKeysFit() {
+		StatsdAggregator aggregator = new StatsdAggregator(100, 2, "statsd", 0.01, 2048);
+		StringBuilder all = new StringBuilder();
+		StringBuilder even = new StringBuilder();
+		StringBuilder fresh = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			all.append("key.").append(i).append(":1|c|#service:svc-").append(i % 7).append('\n');
+			if (i % 2 == 0) {
+				even.append("key.").append(i).append(":1|c|#service:svc-").append(i % 7).append('\n');
+				fresh.append("new.").append(i).append(":1|c\n");
+			}
+		}
+
+		assertThat(feed(aggregator, all.toString())).containsOnly(true);
+		assertThat(feed(aggregator, "late:1|c\n")).containsExactly(false);
+		flush(aggregator);
+		feed(aggregator, even.toString());
+		flush(aggregator);
+		feed(aggregator, even.toString());
+		assertThat(flush(aggregator).evicted).isEqualTo(50);
+
+		assertThat(feed(aggregator, even.toString() + even + fresh)).containsOnly(true);
+		Flush flush = flush(aggregator);
+		assertThat(flush.samples).hasSize(100);
+		for (int i = 0; i < 100; i += 2) {
+			assertThat(flush.samples).containsEntry("svc-" + (i % 7) + "/key." + i, 2.0);
+			assertThat(flush.samples).containsEntry("statsd/new." + i, 1.0);
+		}
+	}
+
+	/**
+	 * Records every line from one shared buffer, passing the offsets of name and service
+	 * like the listener does, and returns what {@code record} answered for each line.
+	 */
+	private static List<Boolean> feed(StatsdAggregator aggregator, String lines) {
+		byte[] bytes = lines.getBytes(StandardCharsets.UTF_8);
+		ByteBuffer buf = ByteBuffer.wrap(bytes);
+		List<Boolean> results = new ArrayList<>();
+		int start = 0;
+		for (String line : lines.split("\n")) {
+			int colon = start + line.indexOf(':');
+			String[] parts = line.substring(line.indexOf(':') + 1).split("\\|");
+			byte type = switch (parts[1]) {
+				case "c" -> StatsdAggregator.COUNTER;
+				case "g" -> StatsdAggregator.GAUGE;
+				default -> StatsdAggregator.TIMER;
+			};
+			int serviceStart = colon;
+			int serviceEnd = colon;
+			int tag = line.indexOf("#service:");
+			if (tag >= 0) {
+				serviceStart = start + tag + "#service:".length();
+				serviceEnd = start + line.length();
+			}
+			boolean relative = type == StatsdAggregator.GAUGE && (parts[0].startsWith("+") || parts[0].startsWith("-"));
+			results.add(aggregator.record(buf, start, colon, type, serviceStart, serviceEnd,
+					Double.parseDouble(parts[0]), relative));
+			start += line.length() + 1;
+		}
+		return results;
+	}
+
+	private static Flush flush(StatsdAggregator aggregator) {
+		Flush flush = new Flush();
+		flush.evicted = aggregator.flush(1_000L,
+				(service, metric, timestampMs, value) -> flush.samples.put(service + "/" + metric, value),
+				(service, metric, timestampMs, sketch) -> flush.distributionCounts.put(service + "/" + metric, sketch.getCount()));
+		return flush;
+	}
+
+	private static final class Flush {
+		private final Map<String, Double> samples = new TreeMap<>();
+		private final Map<String, Long> distributionCounts = new TreeMap<>();
+		private int evicted;
+	}
+}
@@ -0,0 +1,70 @@
+package com.monitoring.monitoring_service.ingest;
+
+import com.monitoring.monitoring_service.config.StatsdConfig;
+import com.monitoring.monitoring_service.config.StorageConfig;
+import com.monitoring.monitoring_service.service.DistributionService;
+import com.monitoring.monitoring_service.service.MetricIngestionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class StatsdListenerTest {
+
+	@Test
+	void theRestOfALineLongerThanTheBufferIsSkipped() throws IOException, InterruptedException {
+		StatsdConfig config = new StatsdConfig();
+		config.setEnabled(true);
+		config.setBindAddress("127.0.0.1");
+		config.setUdpPort(0);
+		config.setTcpPort(freePort());
+		config.setBufferSize(64);
+		config.setFlushIntervalMs(20);
+		MetricIngestionService ingestionService = mock(MetricIngestionService.class);
+		SimpleMeterRegistry meters = new SimpleMeterRegistry();
+		StatsdListener listener = new StatsdListener(config, new StorageConfig(), ingestionService,
+				mock(DistributionService.class), meters);
+		listener.start();
+
+		try (Socket socket = new Socket("127.0.0.1", config.getTcpPort())) {
+			OutputStream out = socket.getOutputStream();
+			out.write("first:1|c|#service:orders\n".getBytes(StandardCharsets.US_ASCII));
+			// 150 bytes split over three reads; its tail would otherwise parse as a metric of its own
+			out.write(("long" + "x".repeat(140) + ":5|c\n").getBytes(StandardCharsets.US_ASCII));
+			out.write("second:2|c|#service:orders\n".getBytes(StandardCharsets.US_ASCII));
+			out.flush();
+		}
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (meters.counter("monitoring.statsd.lines", "outcome", "accepted").count() < 2 && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		listener.stop();
+
+		verify(ingestionService).ingestSample(eq("orders"), eq("first"), anyLong(), eq(1.0));
+		verify(ingestionService).ingestSample(eq("orders"), eq("second"), anyLong(), eq(2.0));
+		verify(ingestionService, times(2)).ingestSample(anyString(), anyString(), anyLong(), anyDouble());
+		assertThat(meters.counter("monitoring.statsd.lines", "outcome", "accepted").count()).isEqualTo(2);
+		assertThat(meters.counter("monitoring.statsd.lines", "outcome", "dropped").count()).isEqualTo(1);
+		assertThat(meters.counter("monitoring.statsd.lines", "outcome", "rejected").count()).isZero();
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
@@ -0,0 +1,198 @@
+package com.monitoring.monitoring_service.notifier;
+
+import com.monitoring.monitoring_service.config.DispatchConfig;
+import com.monitoring.monitoring_service.model.Alarm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationDispatcherTest {
+
+	private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+	private NotificationDispatcher dispatcher;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		if (dispatcher != null) {
+			dispatcher.shutdown();
+		}
+	}
+
+	@Test
+	void failedDeliveriesAreRetriedWithBackoffUntilTheyGiveUp() throws InterruptedException {
+		FlakyNotifier flaky = new FlakyNotifier(2);
+		FailingNotifier failing = new FailingNotifier();
+		DispatchConfig config = config(10, DispatchConfig.OverflowPolicy.DROP_NEWEST);
+		config.setMaxRetries(3);
+		config.setInitialBackoffMs(20);
+		dispatcher = new NotificationDispatcher(List.of(flaky, failing), config, meters);
+
+		long start = System.nanoTime();
+		dispatcher.dispatch(alarm(1));
+
+		assertThat(flaky.delivered.await(5, TimeUnit.SECONDS)).isTrue();
+		// two retries after 20ms and 40ms
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(60);
+		assertThat(flaky.attempts).hasValue(3);
+		assertThat(retries(FlakyNotifier.class)).isEqualTo(2);
+
+		// the first attempt and three retries, then the failing channel gives up
+		assertThat(failing.gaveUp.await(5, TimeUnit.SECONDS)).isTrue();
+		Thread.sleep(100);
+		assertThat(failing.attempts).hasValue(4);
+		assertThat(retries(FailingNotifier.class)).isEqualTo(3);
+		assertThat(meters.get("monitoring.notifier.dispatch").tags("notifier", "FailingNotifier", "outcome", "failed")
+				.timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void dropNewestRejectsAlarmsArrivingAtAFullQueue() throws InterruptedException {
+		BlockingNotifier notifier = new BlockingNotifier();
+		dispatcher = new NotificationDispatcher(List.of(notifier), config(2, DispatchConfig.OverflowPolicy.DROP_NEWEST), meters);
+
+		fillBehindBlockedDelivery(notifier);
+		notifier.release.countDown();
+
+		assertThat(notifier.awaitDelivered(3)).containsExactly(1, 2, 3);
+		Thread.sleep(50);
+		assertThat(notifier.delivered).hasSize(3);
+		assertThat(dropped(BlockingNotifier.class)).isEqualTo(2);
+	}
+
+	@Test
+	void dropOldestEvictsTheLongestQueuedAlarm() throws InterruptedException {
+		BlockingNotifier notifier = new BlockingNotifier();
+		dispatcher = new NotificationDispatcher(List.of(notifier), config(2, DispatchConfig.OverflowPolicy.DROP_OLDEST), meters);
+
+		fillBehindBlockedDelivery(notifier);
+		notifier.release.countDown();
+
+		assertThat(notifier.awaitDelivered(3)).containsExactly(1, 4, 5);
+		Thread.sleep(50);
+		assertThat(notifier.delivered).hasSize(3);
+		assertThat(dropped(BlockingNotifier.class)).isEqualTo(2);
+	}
+
+	@Test
+	void aStuckChannelDoesNotHoldBackTheOthers() throws InterruptedException {
+		BlockingNotifier stuck = new BlockingNotifier();
+		RecordingNotifier healthy = new RecordingNotifier();
+		dispatcher = new NotificationDispatcher(List.of(stuck, healthy), config(2, DispatchConfig.OverflowPolicy.DROP_NEWEST), meters);
+
+		for (int i = 1; i <= 20; i++) {
+			dispatcher.dispatch(alarm(i));
+			assertThat(healthy.awaitDelivered(i)).hasSize(i);
+		}
+
+		// one alarm in delivery and two queued; the rest were dropped on the stuck channel only
+		assertThat(dropped(BlockingNotifier.class)).isEqualTo(17);
+		assertThat(dropped(RecordingNotifier.class)).isZero();
+		stuck.release.countDown();
+	}
+
+	/**
+	 * Alarm 1 blocks the only worker, 2 and 3 fill the queue of two, 4 and 5 overflow it.
+	 */
+	private void fillBehindBlockedDelivery(BlockingNotifier notifier) throws InterruptedException {
+		dispatcher.dispatch(alarm(1));
+		assertThat(notifier.started.await(5, TimeUnit.SECONDS)).isTrue();
+		for (int i = 2; i <= 5; i++) {
+			dispatcher.dispatch(alarm(i));
+		}
+	}
+
+	private double retries(Class<? extends Notifier> notifier) {
+		return meters.counter("monitoring.notifier.retries", "notifier", notifier.getSimpleName()).count();
+	}
+
+	private double dropped(Class<? extends Notifier> notifier) {
+		return meters.counter("monitoring.notifier.dropped", "notifier", notifier.getSimpleName()).count();
+	}
+
+	private static DispatchConfig config(int queueCapacity, DispatchConfig.OverflowPolicy overflowPolicy) {
+		DispatchConfig config = new DispatchConfig();
+		config.setQueueCapacity(queueCapacity);
+		config.setThreadsPerNotifier(1);
+		config.setOverflowPolicy(overflowPolicy);
+		return config;
+	}
+
+	private static Alarm alarm(int sequence) {
+		return new Alarm("orders", "CPU", sequence, "CRITICAL", LocalDateTime.now(), "alarm " + sequence,
+				"cpu", Map.of(), System.currentTimeMillis());
+	}
+
+	static class RecordingNotifier implements Notifier {
+		final List<Integer> delivered = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void notify(Alarm alarm) {
+			delivered.add((int) alarm.getValue());
+		}
+
+		List<Integer> awaitDelivered(int count) throws InterruptedException {
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (delivered.size() < count && System.nanoTime() < deadline) {
+				Thread.sleep(5);
+			}
+			return delivered;
+		}
+	}
+
+	static class BlockingNotifier extends RecordingNotifier {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public void notify(Alarm alarm) {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			super.notify(alarm);
+		}
+	}
+
+	static class FlakyNotifier implements Notifier {
+		final AtomicInteger attempts = new AtomicInteger();
+		final CountDownLatch delivered = new CountDownLatch(1);
+		private final int failures;
+
+		FlakyNotifier(int failures) {
+			this.failures = failures;
+		}
+
+		@Override
+		public void notify(Alarm alarm) {
+			if (attempts.incrementAndGet() <= failures) {
+				throw new IllegalStateException("channel down");
+			}
+			delivered.countDown();
+		}
+	}
+
+	static class FailingNotifier implements Notifier {
+		final AtomicInteger attempts = new AtomicInteger();
+		final CountDownLatch gaveUp = new CountDownLatch(1);
+
+		@Override
+		public void notify(Alarm alarm) {
+			if (attempts.incrementAndGet() == 4) {
+				gaveUp.countDown();
+			}
+			throw new IllegalStateException("channel down");
+		}
+	}
+}
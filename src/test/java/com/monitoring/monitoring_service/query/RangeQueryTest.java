@@ -0,0 +1,55 @@
+package com.monitoring.monitoring_service.query;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RangeQueryTest {
+
+	@Test
+	void parsesAggregationsFunctionsAndTopK() {
+		RangeQuery query = RangeQuery.parse("topk(3, sum by (service) (rate(http_requests_total{method!=\"OPTIONS\"})))");
+		assertThat(query.getTopK()).isEqualTo(3);
+		assertThat(query.getAggregation()).isEqualTo(RangeQuery.Aggregation.SUM);
+		assertThat(query.getGroupBy()).containsExactly("service");
+		assertThat(query.getStepFunction()).isEqualTo(RangeQuery.StepFunction.RATE);
+		assertThat(query.getSelector().getMetricName()).isEqualTo("http_requests_total");
+
+		RangeQuery trailingBy = RangeQuery.parse("max(CPU) by (service)");
+		assertThat(trailingBy.getAggregation()).isEqualTo(RangeQuery.Aggregation.MAX);
+		assertThat(trailingBy.getGroupBy()).containsExactly("service");
+		assertThat(trailingBy.getStepFunction()).isEqualTo(RangeQuery.StepFunction.LAST);
+
+		// A metric that happens to be named like an operator is still a selector
+		assertThat(RangeQuery.parse("count").getSelector().getMetricName()).isEqualTo("count");
+
+		assertThatThrownBy(() -> RangeQuery.parse("sum(CPU"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void reducesSamplesPerAlignedStepAndHandlesCounterResets() {
+		StepReducer max = new StepReducer(RangeQuery.StepFunction.MAX, 0, 1000, 3);
+		for (long ts : new long[]{0, 400, 900, 1500, 2999}) {
+			max.accept(ts, ts / 100.0);
+		}
+		assertThat(max.values()).containsExactly(9, 15, 29.99);
+
+		// Baseline sample before the range, then a reset from 30 to 5 in the second step
+		StepReducer increase = new StepReducer(RangeQuery.StepFunction.INCREASE, 1000, 1000, 2);
+		increase.accept(900, 10);
+		increase.accept(1200, 20);
+		increase.accept(1800, 30);
+		increase.accept(2500, 5);
+		assertThat(increase.values()).containsExactly(20, 5);
+
+		GroupAccumulator left = new GroupAccumulator(RangeQuery.Aggregation.AVG, 2);
+		GroupAccumulator right = new GroupAccumulator(RangeQuery.Aggregation.AVG, 2);
+		left.add(List.of("a"), increase);
+		right.add(List.of("a"), max);
+		assertThat(left.merge(right).results().get(List.of("a"))).containsExactly(14.5, 10);
+	}
+}
@@ -0,0 +1,167 @@
+package com.monitoring.monitoring_service.rules;
+
+import com.monitoring.monitoring_service.storage.DDSketch;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class RuleCompilerTest {
+
+	private static final SlidingWindow[] NO_WINDOWS = new SlidingWindow[0];
+
+	@Test
+	void compilesConditions() {
+		RuleExpression.Compiled band = RuleExpression.compile("value >= 70 and value < 90");
+		assertThat(band.test(69.9, NO_WINDOWS, null)).isFalse();
+		assertThat(band.test(70, NO_WINDOWS, null)).isTrue();
+		assertThat(band.test(90, NO_WINDOWS, null)).isFalse();
+
+		RuleExpression.Compiled shorthand = RuleExpression.compile(">= 90");
+		assertThat(shorthand.test(90, NO_WINDOWS, null)).isTrue();
+		assertThat(shorthand.test(89, NO_WINDOWS, null)).isFalse();
+
+		RuleExpression.Compiled arithmetic = RuleExpression.compile("not (value / 1024 > 2 * 256) || abs(value - 5) <= -(-1)");
+		assertThat(arithmetic.test(1024 * 512, NO_WINDOWS, null)).isTrue();
+		assertThat(arithmetic.test(1024 * 513, NO_WINDOWS, null)).isFalse();
+		assertThat(arithmetic.test(5.5, NO_WINDOWS, null)).isTrue();
+
+		assertThatThrownBy(() -> RuleExpression.compile("value + 1"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> RuleExpression.compile("value > 1 and 2"))
+				.hasMessageContaining("needs a condition");
+		assertThatThrownBy(() -> RuleExpression.compile("value > (1"))
+				.hasMessageContaining("expected ')'");
+	}
+
+	@Test
+	void selectsSeriesByNameAndLabels() {
+		SeriesSelector selector = SeriesSelector.parse("http_requests_total{service=~\"orders-.*\", method!=\"OPTIONS\"}");
+		assertThat(selector.getMetricName()).isEqualTo("http_requests_total");
+
+		assertThat(selector.matches(SeriesLabels.of("orders-eu", "http_requests_total{method=\"GET\"}"))).isTrue();
+		assertThat(selector.matches(SeriesLabels.of("orders-eu", "http_requests_total{method=\"OPTIONS\"}"))).isFalse();
+		assertThat(selector.matches(SeriesLabels.of("billing", "http_requests_total"))).isFalse();
+		assertThat(selector.matches(SeriesLabels.of("orders-eu", "http_errors_total"))).isFalse();
+
+		SeriesSelector anyMetric = SeriesSelector.parse("{service=\"billing\"}");
+		assertThat(anyMetric.getMetricName()).isNull();
+		assertThat(anyMetric.matches(SeriesLabels.of("billing", "CPU"))).isTrue();
+
+		assertThatThrownBy(() -> SeriesSelector.parse("CPU{service=orders}"))
+				.hasMessageContaining("quoted value");
+	}
+
+	@Test
+	void slidingWindowMatchesBruteForce() {
+		SlidingWindow window = new SlidingWindow(10_000);
+		Random random = new Random(7);
+		List<Long> timestamps = new ArrayList<>();
+		List<Double> values = new ArrayList<>();
+		long ts = 0;
+		for (int n = 0; n < 5_000; n++) {
+			ts += 1 + random.nextInt(2_000);
+			double value = random.nextInt(100) == 0 ? 0 : random.nextDouble() * 100; // occasional counter reset
+			window.add(ts, value);
+			timestamps.add(ts);
+			values.add(value);
+
+			double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY, sum = 0, increase = 0;
+			int count = 0;
+			Double previous = null;
+			for (int i = 0; i < values.size(); i++) {
+				if (timestamps.get(i) <= ts - 10_000 && i < values.size() - 1) {
+					continue;
+				}
+				double v = values.get(i);
+				min = Math.min(min, v);
+				max = Math.max(max, v);
+				sum += v;
+				if (previous != null) {
+					increase += v >= previous ? v - previous : v;
+				}
+				previous = v;
+				count++;
+			}
+			assertThat(window.count()).isEqualTo(count);
+			assertThat(window.min()).isEqualTo(min);
+			assertThat(window.max()).isEqualTo(max);
+			assertThat(window.sum()).isCloseTo(sum, within(1e-6));
+			if (count > 1) {
+				assertThat(window.increase()).isCloseTo(increase, within(1e-6));
+			}
+		}
+	}
+
+	@Test
+	void firesWindowedRuleAfterForDuration() {
+		CompiledRule rule = CompiledRule.compile(new RuleDefinition("cpu-avg", "CPU", "avg(3s) > 80", "2s",
+				"critical", new LinkedHashMap<>()));
+		SeriesEvaluator evaluator = new SeriesEvaluator(null, new CompiledRule[]{rule}, null);
+		List<Long> fired = new ArrayList<>();
+
+		double[] samples = {50, 100, 100, 100, 100, 100, 10, 100};
+		for (int i = 0; i < samples.length; i++) {
+			long ts = i * 1000L;
+			evaluator.evaluate(ts, samples[i], null, (r, v) -> fired.add(ts));
+		}
+
+		// avg(3s) first exceeds 80 at t=2s (50,100,100 -> 83.3); held for 2s at t=4s and t=5s,
+		// broken at t=6s (avg 70), back at t=7s but pending again
+		assertThat(fired).containsExactly(4000L, 5000L);
+	}
+
+	@Test
+	void evaluatorsOfOneSeriesShareTheirWindowsSafelyAcrossRuleChanges() throws InterruptedException {
+		CompiledRule rule = CompiledRule.compile(new RuleDefinition("samples", "CPU", "count(1h) >= 0", null,
+				"info", new LinkedHashMap<>()));
+		SeriesEvaluator first = new SeriesEvaluator(null, new CompiledRule[]{rule}, null);
+		int samples = 20_000;
+
+		// A thread still holding the old evaluator keeps evaluating while the rule set is swapped
+		Thread stale = new Thread(() -> {
+			for (int i = 0; i < samples; i++) {
+				first.evaluate(1000, 1, null, (r, v) -> { });
+			}
+		});
+		stale.start();
+		SeriesEvaluator latest = first;
+		for (int i = 0; i < samples; i++) {
+			latest = new SeriesEvaluator(null, new CompiledRule[]{rule}, latest);
+			latest.evaluate(1000, 1, null, (r, v) -> { });
+		}
+		stale.join();
+
+		double[] count = new double[1];
+		latest.evaluate(1000, 1, null, (r, v) -> count[0] = v);
+		assertThat(count[0]).isEqualTo(2 * samples + 1);
+	}
+
+	@Test
+	void readsQuantilesOfDistributionBuckets() {
+		CompiledRule rule = CompiledRule.compile(new RuleDefinition("latency-p99", "latency_ms", "p99 > 0.5s", null,
+				"warning", new LinkedHashMap<>()));
+		DDSketch fast = new DDSketch(0.01, 2048);
+		DDSketch slow = new DDSketch(0.01, 2048);
+		for (int i = 1; i <= 1000; i++) {
+			fast.add(i % 100 + 1);
+			slow.add(i <= 980 ? 20 : 800);
+		}
+
+		assertThat(rule.test(fast.getAverage(), NO_WINDOWS, fast)).isFalse();
+		assertThat(rule.test(slow.getAverage(), NO_WINDOWS, slow)).isTrue();
+		assertThat(rule.subject(slow.getAverage(), NO_WINDOWS, slow)).isCloseTo(800, within(8.0));
+		// Plain samples have no quantiles
+		assertThat(rule.test(10_000, NO_WINDOWS, null)).isFalse();
+
+		assertThat(RuleExpression.compile("quantile(0.999) >= 2m").test(0, NO_WINDOWS, slow)).isFalse();
+		assertThatThrownBy(() -> RuleExpression.compile("quantile(1.5) > 1"))
+				.hasMessageContaining("between 0 and 1");
+	}
+}
@@ -0,0 +1,89 @@
+package com.monitoring.monitoring_service.service;
+
+import com.monitoring.monitoring_service.dto.AlarmKpiDto;
+import com.monitoring.monitoring_service.model.AlarmEntity;
+import com.monitoring.monitoring_service.repository.AlarmRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AlarmKpiServiceTest {
+
+	private final AlarmRepository alarmRepository = mock(AlarmRepository.class);
+	private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+	@Test
+	void rebuildCountsTheTotalOnItsOwnIncludingAlarmsWithoutSeverity() {
+		when(alarmRepository.countBySeverity()).thenReturn(List.of(count("CRITICAL", 2), count("WARNING", 1), count(null, 1)));
+		when(alarmRepository.countByServiceName()).thenReturn(List.of(count("orders", 3), count("billing", 1)));
+		when(alarmRepository.countByMetricName()).thenReturn(List.of(count("CPU", 4)));
+		when(alarmRepository.count()).thenReturn(4L);
+
+		AlarmKpiService kpiService = new AlarmKpiService(alarmRepository, meters);
+		kpiService.rebuild();
+
+		AlarmKpiDto kpi = kpiService.calculateKpi();
+		assertThat(kpi.getTotalAlarms()).isEqualTo(4);
+		assertThat(kpi.getSeverityCounts()).isEqualTo(Map.of("CRITICAL", 2L, "WARNING", 1L));
+		assertThat(kpi.getServiceCounts()).isEqualTo(Map.of("orders", 3L, "billing", 1L));
+		assertThat(kpi.getMetricCounts()).isEqualTo(Map.of("CPU", 4L));
+		assertThat(meters.get("monitoring.alarm.kpi.alarms").gauge().value()).isEqualTo(4);
+	}
+
+	@Test
+	void recordAndForgetKeepEveryCountInStepAndDropZeroedKeys() {
+		AlarmKpiService kpiService = new AlarmKpiService(alarmRepository, meters);
+		kpiService.record(alarm("CRITICAL", "orders", "CPU"));
+		kpiService.record(alarm("WARNING", "orders", "MEMORY"));
+		kpiService.record(alarm(null, "billing", "CPU"));
+
+		AlarmKpiDto kpi = kpiService.calculateKpi();
+		assertThat(kpi.getTotalAlarms()).isEqualTo(3);
+		assertThat(kpi.getSeverityCounts()).isEqualTo(Map.of("CRITICAL", 1L, "WARNING", 1L));
+		assertThat(kpi.getServiceCounts()).isEqualTo(Map.of("orders", 2L, "billing", 1L));
+		assertThat(kpi.getMetricCounts()).isEqualTo(Map.of("CPU", 2L, "MEMORY", 1L));
+
+		kpiService.forget("WARNING", "orders", "MEMORY");
+		kpiService.forget(null, "billing", "CPU");
+
+		kpi = kpiService.calculateKpi();
+		assertThat(kpi.getTotalAlarms()).isEqualTo(1);
+		assertThat(kpi.getSeverityCounts()).isEqualTo(Map.of("CRITICAL", 1L));
+		assertThat(kpi.getServiceCounts()).isEqualTo(Map.of("orders", 1L));
+		assertThat(kpi.getMetricCounts()).isEqualTo(Map.of("CPU", 1L));
+
+		// a key recorded again after it was dropped starts from one
+		kpiService.record(alarm("WARNING", "billing", "MEMORY"));
+		kpi = kpiService.calculateKpi();
+		assertThat(kpi.getSeverityCounts()).isEqualTo(Map.of("CRITICAL", 1L, "WARNING", 1L));
+		assertThat(kpi.getServiceCounts()).isEqualTo(Map.of("orders", 1L, "billing", 1L));
+	}
+
+	private static AlarmEntity alarm(String severity, String serviceName, String metricName) {
+		AlarmEntity alarm = new AlarmEntity();
+		alarm.setSeverity(severity);
+		alarm.setServiceName(serviceName);
+		alarm.setMetricName(metricName);
+		return alarm;
+	}
+
+	private static AlarmRepository.GroupCount count(String name, long total) {
+		return new AlarmRepository.GroupCount() {
+			@Override
+			public String getName() {
+				return name;
+			}
+
+			@Override
+			public long getTotal() {
+				return total;
+			}
+		};
+	}
+}
@@ -0,0 +1,113 @@
+package com.monitoring.monitoring_service.service;
+
+import com.monitoring.monitoring_service.model.Alarm;
+import com.monitoring.monitoring_service.notifier.Notifier;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"monitoring.scrape.includeSelf=false",
+		"monitoring.storage.chunkDir=target/alarm-pipeline-chunks",
+		"alarm.rules[0].name=orders-5xx",
+		"alarm.rules[0].selector=http_requests_total{code=\"500\"}",
+		"alarm.rules[0].expr=value > 10",
+		"alarm.rules[0].severity=CRITICAL",
+		"alarm.rules[1].name=queue-backlog",
+		"alarm.rules[1].selector=queue_depth",
+		"alarm.rules[1].expr=avg(1m) > 50",
+		"alarm.rules[1].forDuration=20s",
+		"alarm.rules[1].severity=WARNING"
+})
+class AlarmPipelineTest {
+
+	@Autowired
+	private PushIngestionService pushIngestionService;
+
+	@Autowired
+	private RecordingNotifier notifier;
+
+	@Test
+	void pushedSeriesFiresMatchingRule() throws Exception {
+		long now = System.currentTimeMillis();
+		push(PushIngestionService.FORMAT_PROMETHEUS, "orders", """
+				http_requests_total{code="200"} 250 %d
+				http_requests_total{code="500"} 4 %d
+				http_requests_total{code="500"} 42 %d
+				""".formatted(now, now, now + 1));
+
+		Alarm alarm = notifier.alarms.poll(5, TimeUnit.SECONDS);
+		assertThat(alarm).isNotNull();
+		assertThat(alarm.getRuleName()).isEqualTo("orders-5xx");
+		assertThat(alarm.getServiceName()).isEqualTo("orders");
+		assertThat(alarm.getMetricName()).isEqualTo("http_requests_total{code=\"500\"}");
+		assertThat(alarm.getValue()).isEqualTo(42.0);
+		assertThat(alarm.getSeverity()).isEqualTo("CRITICAL");
+		assertThat(alarm.getSampleTimestampMs()).isEqualTo(now + 1);
+		assertThat(notifier.alarms.poll(300, TimeUnit.MILLISECONDS)).isNull();
+	}
+
+	@Test
+	void windowedRuleFiresOnceItsConditionHasHeldForItsDuration() throws Exception {
+		long base = System.currentTimeMillis() - 120_000;
+		// the spike exceeds 50 from 30s on, the 1m average only from 40s on
+		push(PushIngestionService.FORMAT_LINE, "orders", lines(base, "orders", "queue_depth", 20, 20, 20, 100, 100, 100));
+		assertThat(notifier.alarms.poll(300, TimeUnit.MILLISECONDS)).isNull();
+
+		// 20s after the average first exceeded 50
+		push(PushIngestionService.FORMAT_LINE, "orders", lines(base + 60_000, "orders", "queue_depth", 100));
+
+		Alarm alarm = notifier.alarms.poll(5, TimeUnit.SECONDS);
+		assertThat(alarm).isNotNull();
+		assertThat(alarm.getRuleName()).isEqualTo("queue-backlog");
+		assertThat(alarm.getSeverity()).isEqualTo("WARNING");
+		assertThat(alarm.getSampleTimestampMs()).isEqualTo(base + 60_000);
+		assertThat(alarm.getValue()).isGreaterThan(50.0).isLessThan(100.0);
+	}
+
+	/**
+	 * Line protocol samples of one series, 10 seconds apart starting at {@code fromMs}.
+	 */
+	private static String lines(long fromMs, String service, String metric, double... values) {
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < values.length; i++) {
+			body.append(service).append(' ').append(metric).append(' ').append(values[i])
+					.append(' ').append(fromMs + i * 10_000L).append('\n');
+		}
+		return body.toString();
+	}
+
+	private void push(String format, String service, String body) throws IOException {
+		pushIngestionService.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format, service);
+	}
+
+	@TestConfiguration
+	static class NotifierConfig {
+
+		@Bean
+		RecordingNotifier recordingNotifier() {
+			return new RecordingNotifier();
+		}
+	}
+
+	static class RecordingNotifier implements Notifier {
+
+		private final BlockingQueue<Alarm> alarms = new LinkedBlockingQueue<>();
+
+		@Override
+		public void notify(Alarm alarm) {
+			alarms.add(alarm);
+		}
+	}
+}
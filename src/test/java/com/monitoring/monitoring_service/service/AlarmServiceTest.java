@@ -0,0 +1,57 @@
+package com.monitoring.monitoring_service.service;
+
+import com.monitoring.monitoring_service.cache.QueryCache;
+import com.monitoring.monitoring_service.config.AlarmConfig;
+import com.monitoring.monitoring_service.model.Alarm;
+import com.monitoring.monitoring_service.model.AlarmEntity;
+import com.monitoring.monitoring_service.notifier.NotificationDispatcher;
+import com.monitoring.monitoring_service.repository.AlarmRepository;
+import com.monitoring.monitoring_service.rules.RuleEngine;
+import com.monitoring.monitoring_service.storage.SeriesRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AlarmServiceTest {
+
+	@Test
+	void stopStoresEveryAlarmStillQueued() throws InterruptedException {
+		AlarmRepository alarmRepository = mock(AlarmRepository.class);
+		when(alarmRepository.save(any(AlarmEntity.class))).thenAnswer(invocation -> {
+			Thread.sleep(20); // a slow database keeps the queue filled
+			return invocation.getArgument(0);
+		});
+		AlarmKpiService alarmKpiService = mock(AlarmKpiService.class);
+		AlarmConfig alarmConfig = new AlarmConfig();
+		alarmConfig.setPublishQueueCapacity(100);
+		AlarmService alarmService = new AlarmService(alarmConfig, mock(NotificationDispatcher.class), alarmRepository,
+				alarmKpiService, mock(SeriesRegistry.class), new AlarmStateTable(), mock(RuleEngine.class),
+				mock(QueryCache.class), new SimpleMeterRegistry());
+		alarmService.start();
+
+		for (int i = 0; i < 50; i++) {
+			assertThat(alarmService.submit(alarm("svc-" + i))).isTrue();
+		}
+		alarmService.stop();
+
+		ArgumentCaptor<AlarmEntity> saved = ArgumentCaptor.forClass(AlarmEntity.class);
+		verify(alarmRepository, times(50)).save(saved.capture());
+		verify(alarmKpiService, times(50)).record(any(AlarmEntity.class));
+		assertThat(saved.getAllValues()).extracting(AlarmEntity::getServiceName).startsWith("svc-0").endsWith("svc-49");
+	}
+
+	private static Alarm alarm(String serviceName) {
+		return new Alarm(serviceName, "CPU", 95, "CRITICAL", LocalDateTime.now(), "CRITICAL level reached",
+				"cpu", Map.of(), System.currentTimeMillis());
+	}
+}
@@ -0,0 +1,64 @@
+package com.monitoring.monitoring_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlarmStateTableTest {
+
+	private static final long HOUR = TimeUnit.HOURS.toNanos(1);
+
+	@Test
+	void firesOnceThenHoldsBackUntilTheCooldownHasPassed() throws InterruptedException {
+		AlarmStateTable table = new AlarmStateTable();
+		long cooldown = TimeUnit.MILLISECONDS.toNanos(50);
+
+		assertThat(table.tryFire(7, "CRITICAL", cooldown)).isTrue();
+		assertThat(table.tryFire(7, "CRITICAL", cooldown)).isFalse();
+
+		Thread.sleep(80);
+		assertThat(table.tryFire(7, "CRITICAL", cooldown)).isTrue();
+		assertThat(table.tryFire(7, "CRITICAL", cooldown)).isFalse();
+
+		table.reset(7, "CRITICAL");
+		assertThat(table.tryFire(7, "CRITICAL", HOUR)).isTrue();
+	}
+
+	@Test
+	void severitiesAndSeriesHaveTheirOwnSlots() {
+		AlarmStateTable table = new AlarmStateTable();
+
+		assertThat(table.tryFire(3, "WARNING", HOUR)).isTrue();
+		assertThat(table.tryFire(3, "CRITICAL", HOUR)).isTrue();
+		assertThat(table.tryFire(3, "INFO", HOUR)).isTrue();
+		assertThat(table.tryFire(3, "ANOMALY", HOUR)).isTrue();
+		assertThat(table.tryFire(4, "WARNING", HOUR)).isTrue();
+		assertThat(table.tryFire(2, "ANOMALY", HOUR)).isTrue();
+
+		assertThat(table.tryFire(3, "WARNING", HOUR)).isFalse();
+		assertThat(table.tryFire(3, "ANOMALY", HOUR)).isFalse();
+		assertThat(table.tryFire(4, "WARNING", HOUR)).isFalse();
+	}
+
+	@Test
+	void seriesOnBothSidesOfAPageBoundaryAreIndependent() {
+		AlarmStateTable table = new AlarmStateTable();
+		// 4 severity slots per series and 4096 slots per page: series 1023 ends page 0, 1024 starts page 1
+		int lastOfPage = 1023;
+		int firstOfNextPage = 1024;
+
+		assertThat(table.tryFire(lastOfPage, "ANOMALY", HOUR)).isTrue();
+		assertThat(table.tryFire(firstOfNextPage, "WARNING", HOUR)).isTrue();
+		assertThat(table.tryFire(lastOfPage, "ANOMALY", HOUR)).isFalse();
+		assertThat(table.tryFire(firstOfNextPage, "WARNING", HOUR)).isFalse();
+
+		assertThat(table.tryFire(lastOfPage, "WARNING", HOUR)).isTrue();
+		assertThat(table.tryFire(firstOfNextPage, "ANOMALY", HOUR)).isTrue();
+
+		// a page far from the others is created on first use
+		assertThat(table.tryFire(1_000_000, "CRITICAL", HOUR)).isTrue();
+		assertThat(table.tryFire(1_000_000, "CRITICAL", HOUR)).isFalse();
+	}
+}
@@ -0,0 +1,97 @@
+package com.monitoring.monitoring_service.service;
+
+import com.monitoring.monitoring_service.config.AlarmConfig;
+import com.monitoring.monitoring_service.config.AnomalyConfig;
+import com.monitoring.monitoring_service.model.Alarm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class AnomalyDetectorTest {
+
+	private final AlarmService alarmService = mock(AlarmService.class);
+	private AnomalyDetector detector;
+	private long timestampMs;
+
+	@BeforeEach
+	void setUp() {
+		AnomalyConfig config = new AnomalyConfig();
+		config.setEnabled(true);
+		config.setAlpha(0.05);
+		config.setWarmupSamples(30);
+		config.setWarningZ(4.0);
+		config.setCriticalZ(6.0);
+		config.setMinRelativeStdDev(0.01);
+		AlarmConfig alarmConfig = new AlarmConfig();
+		alarmConfig.setCooldownSeconds(3600);
+
+		detector = new AnomalyDetector(config, alarmConfig, new AlarmStateTable(), alarmService, new SimpleMeterRegistry());
+		detector.start();
+	}
+
+	@Test
+	void steadySeriesRaisesNothingAndSpikesDuringWarmupAreIgnored() {
+		warmUp(1, 20);
+		observe(1, 500);
+		warmUp(1, 500);
+
+		verifyNoInteractions(alarmService);
+	}
+
+	@Test
+	void severityFollowsTheSizeOfTheSpike() {
+		// 100 +/- 1 settles at a standard deviation of about 1, so z is the distance from 100
+		warmUp(1, 300);
+		warmUp(2, 300);
+
+		observe(1, 105);
+		observe(2, 110);
+
+		List<Alarm> alarms = submitted(2);
+		assertThat(alarms).extracting(Alarm::getMetricName, Alarm::getSeverity, Alarm::getRuleName)
+				.containsExactly(
+						tuple("series-1", "WARNING", "anomaly"),
+						tuple("series-2", "CRITICAL", "anomaly"));
+		assertThat(Double.parseDouble(alarms.get(0).getLabels().get("zscore"))).isBetween(4.5, 5.5);
+		assertThat(Double.parseDouble(alarms.get(1).getLabels().get("zscore"))).isBetween(9.0, 11.0);
+	}
+
+	@Test
+	void cooldownSuppressesTheNextAnomalyOfTheSameSeries() {
+		warmUp(1, 300);
+		warmUp(2, 300);
+
+		observe(1, 110);
+		observe(1, 150);
+		observe(2, 150);
+
+		assertThat(submitted(2)).extracting(Alarm::getMetricName).containsExactly("series-1", "series-2");
+	}
+
+	private void warmUp(int seriesId, int samples) {
+		for (int i = 0; i < samples; i++) {
+			observe(seriesId, i % 2 == 0 ? 101 : 99);
+		}
+	}
+
+	private void observe(int seriesId, double value) {
+		timestampMs += 1000;
+		detector.observe(seriesId, "orders", "series-" + seriesId, timestampMs, value);
+	}
+
+	private List<Alarm> submitted(int count) {
+		ArgumentCaptor<Alarm> captor = ArgumentCaptor.forClass(Alarm.class);
+		verify(alarmService, times(count)).submit(captor.capture());
+		return captor.getAllValues();
+	}
+}
@@ -0,0 +1,43 @@
+package com.monitoring.monitoring_service.service;
+
+import com.monitoring.monitoring_service.model.Metric;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class MetricRowSinkTest {
+
+	@Test
+	void gathersOneRowPerServiceAndTimestampWithTheFieldsSeen() {
+		MetricIngestionService ingestionService = mock(MetricIngestionService.class);
+		MetricRowSink sink = new MetricRowSink(ingestionService);
+
+		sink.accept("orders", "cpu", 1_000, 41.6);
+		sink.accept("orders", "Memory", 1_000, 70);
+		sink.accept("orders", "REQUESTS", 1_000, 1200);
+		sink.accept("orders", "queue_depth", 1_000, 3);
+		sink.accept("orders", "cpu", 2_000, 55);
+		sink.accept("billing", "memory", 1_000, 30);
+		sink.accept("billing", "http_requests_total{code=\"500\"}", 1_000, 4);
+
+		verify(ingestionService).ingestSample("orders", Metric.CPU, 1_000, 41.6);
+		verify(ingestionService).ingestSample("orders", Metric.MEMORY, 1_000, 70);
+		verify(ingestionService).ingestSample("orders", "queue_depth", 1_000, 3);
+		verify(ingestionService).ingestSample("billing", "http_requests_total{code=\"500\"}", 1_000, 4);
+
+		assertThat(sink.persist()).isEqualTo(3);
+		ArgumentCaptor<Metric> rows = ArgumentCaptor.forClass(Metric.class);
+		verify(ingestionService, times(3)).persist(rows.capture());
+		assertThat(rows.getAllValues())
+				.extracting(Metric::getServiceName, Metric::getCpu, Metric::getMemory, Metric::getRequests)
+				.containsExactly(
+						tuple("orders", 42, 70, 1200),
+						tuple("orders", 55, null, null),
+						tuple("billing", null, 30, null));
+	}
+}
@@ -0,0 +1,194 @@
+package com.monitoring.monitoring_service.service;
+
+import com.monitoring.monitoring_service.cache.CacheRegion;
+import com.monitoring.monitoring_service.cache.QueryCache;
+import com.monitoring.monitoring_service.config.RetentionConfig;
+import com.monitoring.monitoring_service.repository.AlarmRepository;
+import com.monitoring.monitoring_service.repository.MetricDistributionRepository;
+import com.monitoring.monitoring_service.repository.MetricRepository;
+import com.monitoring.monitoring_service.repository.MetricRollupRepository;
+import com.monitoring.monitoring_service.storage.ChunkStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RetentionServiceTest {
+
+	private final RetentionConfig config = new RetentionConfig();
+	private final MetricRepository metricRepository = mock(MetricRepository.class);
+	private final AlarmRepository alarmRepository = mock(AlarmRepository.class);
+	private final ChunkStore chunkStore = mock(ChunkStore.class);
+	private final AlarmKpiService alarmKpiService = mock(AlarmKpiService.class);
+	private final QueryCache queryCache = mock(QueryCache.class);
+	private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+	private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+	private RetentionService retentionService;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		retentionService.stop();
+	}
+
+	@Test
+	void deletesBatchAfterBatchUntilOneComesBackShort() {
+		start();
+		when(metricRepository.findIdsOlderThan(any(LocalDateTime.class), any(Limit.class)))
+				.thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+		when(metricRepository.deleteByIdIn(anyList())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+		long before = System.currentTimeMillis();
+		retentionService.run();
+
+		ArgumentCaptor<List<Long>> ids = idsCaptor();
+		verify(metricRepository, times(3)).deleteByIdIn(ids.capture());
+		assertThat(ids.getAllValues()).containsExactly(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+		assertThat(meters.counter("monitoring.retention.rows", "table", "metric").count()).isEqualTo(5);
+
+		ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+		verify(queryCache).invalidate(eq(CacheRegion.METRICS), isNull(), cutoff.capture());
+		assertThat(cutoff.getValue()).isAfterOrEqualTo(localDateTime(before - config.getMetricsMaxAgeMs()));
+		verify(queryCache, never()).invalidate(eq(CacheRegion.ALARMS), any(), any());
+	}
+
+	@Test
+	void alarmsAreForgottenByTheKpiOnlyOnceTheirDeleteIsCommitted() {
+		start();
+		when(alarmRepository.findExpired(any(LocalDateTime.class), any(Limit.class)))
+				.thenReturn(List.of(expired(1, "CRITICAL", "orders", "CPU"), expired(2, "WARNING", "billing", "MEMORY")), List.of());
+		when(alarmRepository.deleteByIdIn(anyList())).thenAnswer(invocation -> {
+			verify(alarmKpiService, never()).forget(anyString(), anyString(), anyString());
+			return 2;
+		});
+
+		retentionService.run();
+
+		verify(alarmRepository).deleteByIdIn(List.of(1L, 2L));
+		verify(alarmKpiService).forget("CRITICAL", "orders", "CPU");
+		verify(alarmKpiService).forget("WARNING", "billing", "MEMORY");
+		verify(queryCache).invalidate(eq(CacheRegion.ALARMS), isNull(), any(LocalDateTime.class));
+	}
+
+	@Test
+	void alarmsOfARolledBackBatchStayCounted() {
+		start();
+		when(alarmRepository.findExpired(any(LocalDateTime.class), any(Limit.class)))
+				.thenReturn(List.of(expired(1, "CRITICAL", "orders", "CPU")));
+		when(alarmRepository.deleteByIdIn(anyList())).thenThrow(new IllegalStateException("lock timeout"));
+
+		assertThatThrownBy(retentionService::run).isInstanceOf(IllegalStateException.class);
+
+		assertThat(transactionManager.rollbacks).isEqualTo(1);
+		verify(alarmKpiService, never()).forget(anyString(), anyString(), anyString());
+		verify(queryCache, never()).invalidate(eq(CacheRegion.ALARMS), any(), any());
+	}
+
+	@Test
+	void chunkSegmentsOlderThanTheMaximumAgeAreDropped() {
+		start();
+		when(chunkStore.dropSegmentsBefore(anyLong())).thenReturn(2);
+
+		long before = System.currentTimeMillis();
+		retentionService.run();
+		long after = System.currentTimeMillis();
+
+		ArgumentCaptor<Long> cutoff = ArgumentCaptor.forClass(Long.class);
+		verify(chunkStore).dropSegmentsBefore(cutoff.capture());
+		assertThat(cutoff.getValue()).isBetween(before - config.getChunksMaxAgeMs(), after - config.getChunksMaxAgeMs());
+		assertThat(meters.counter("monitoring.retention.segments.dropped").count()).isEqualTo(2);
+	}
+
+	private void start() {
+		config.setDeleteBatchSize(2);
+		config.setPauseBetweenBatchesMs(0);
+		config.setInitialDelayMs(3_600_000); // run() is called by the tests
+		retentionService = new RetentionService(config, metricRepository, alarmRepository,
+				mock(MetricRollupRepository.class), mock(MetricDistributionRepository.class), chunkStore,
+				alarmKpiService, queryCache, new TransactionTemplate(transactionManager), meters);
+		retentionService.start();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ArgumentCaptor<List<Long>> idsCaptor() {
+		return ArgumentCaptor.forClass(List.class);
+	}
+
+	private static LocalDateTime localDateTime(long epochMs) {
+		return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault());
+	}
+
+	private static AlarmRepository.ExpiredAlarm expired(long id, String severity, String serviceName, String metricName) {
+		return new AlarmRepository.ExpiredAlarm() {
+			@Override
+			public Long getId() {
+				return id;
+			}
+
+			@Override
+			public String getSeverity() {
+				return severity;
+			}
+
+			@Override
+			public String getServiceName() {
+				return serviceName;
+			}
+
+			@Override
+			public String getMetricName() {
+				return metricName;
+			}
+		};
+	}
+
+	/**
+	 * Runs synchronizations like a real transaction manager, without a database.
+	 */
+	static class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+		int commits;
+		int rollbacks;
+
+		@Override
+		protected Object doGetTransaction() {
+			return new Object();
+		}
+
+		@Override
+		protected void doBegin(Object transaction, TransactionDefinition definition) {
+		}
+
+		@Override
+		protected void doCommit(DefaultTransactionStatus status) {
+			commits++;
+		}
+
+		@Override
+		protected void doRollback(DefaultTransactionStatus status) {
+			rollbacks++;
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package com.monitoring.monitoring_service.service;
+
+import com.monitoring.monitoring_service.config.StorageConfig;
+import com.monitoring.monitoring_service.dto.RollupSeriesDto;
+import com.monitoring.monitoring_service.model.MetricRollup;
+import com.monitoring.monitoring_service.repository.MetricRollupRepository;
+import com.monitoring.monitoring_service.repository.SeriesRepository;
+import com.monitoring.monitoring_service.storage.RollupBucket;
+import com.monitoring.monitoring_service.storage.RollupStore;
+import com.monitoring.monitoring_service.storage.RollupTier;
+import com.monitoring.monitoring_service.storage.SampleConsumer;
+import com.monitoring.monitoring_service.storage.SeriesRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class RollupServiceTest {
+
+	private static final long MINUTE = RollupTier.MINUTE.getResolutionMs();
+	private static final long HOUR = RollupTier.HOUR.getResolutionMs();
+
+	private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+	private final RollupStore rollupStore = new RollupStore(meters);
+	private final MetricRollupRepository rollupRepository = mock(MetricRollupRepository.class);
+	private final SeriesRepository seriesRepository = mock(SeriesRepository.class);
+	private final SeriesRegistry seriesRegistry = new SeriesRegistry();
+	private final RollupService rollupService = new RollupService(rollupStore, rollupRepository, seriesRepository,
+			seriesRegistry, new StorageConfig(), new TransactionTemplate(mock(PlatformTransactionManager.class)), meters);
+
+	@Test
+	void queryMergesStoredPendingAndOpenBucketsOfTheCoarsestFittingTier() {
+		int series = seriesRegistry.seriesId("orders", "CPU");
+		when(rollupRepository.findByServiceNameAndMetricNameAndResolutionMsAndBucketStartMsBetweenOrderByBucketStartMsAsc(
+				"orders", "CPU", HOUR, 0L, 4 * HOUR)).thenReturn(List.of(row(0, 10, 30, 40, 2), row(HOUR, 5, 5, 5, 1)));
+		rollupStore.append(series, 2 * HOUR, 20); // sealed by the next sample, not flushed yet
+		rollupStore.append(series, 3 * HOUR, 50); // still open
+		rollupStore.append(series, 3 * HOUR + MINUTE, 70);
+
+		RollupSeriesDto result = rollupService.query("orders", "CPU", 0, 4 * HOUR, 2 * HOUR + MINUTE);
+
+		assertThat(result.getSource()).isEqualTo("HOUR");
+		assertThat(result.getStepMs()).isEqualTo(2 * HOUR);
+		assertThat(result.getTimestamps()).containsExactly(0, 2 * HOUR);
+		assertThat(result.getCount()).containsExactly(3, 3);
+		assertThat(result.getMin()).containsExactly(5, 20);
+		assertThat(result.getMax()).containsExactly(30, 70);
+		assertThat(result.getAvg()).containsExactly(15, (20 + 50 + 70) / 3.0);
+		assertThat(result.getLast()).containsExactly(5, 70);
+	}
+
+	@Test
+	void stepsFinerThanAMinuteAreReadFromTheRawSamples() {
+		int series = seriesRegistry.seriesId("orders", "CPU");
+		doAnswer(invocation -> {
+			SampleConsumer consumer = invocation.getArgument(3);
+			consumer.accept(1_000, 1);
+			consumer.accept(11_000, 3);
+			consumer.accept(21_000, 5);
+			return null;
+		}).when(seriesRepository).forEach(eq(series), eq(0L), eq(30_000L), any());
+
+		RollupSeriesDto result = rollupService.query("orders", "CPU", 0, 30_000, 20_000L);
+
+		assertThat(result.getSource()).isEqualTo("RAW");
+		assertThat(result.getTimestamps()).containsExactly(0, 20_000);
+		assertThat(result.getAvg()).containsExactly(2, 5);
+		verifyNoInteractions(rollupRepository);
+	}
+
+	@Test
+	void flushedBucketsStayPendingUntilTheirRowsAreCommitted() {
+		int series = seriesRegistry.seriesId("orders", "CPU");
+		rollupStore.append(series, 0, 1);
+		rollupStore.append(series, MINUTE, 2); // seals the first minute; flush seals the other buckets as idle
+		List<Integer> pendingWhileSaving = new ArrayList<>();
+		when(rollupRepository.saveAll(any())).thenAnswer(invocation -> {
+			pendingWhileSaving.add(pending(series, RollupTier.MINUTE).size());
+			return invocation.getArgument(0);
+		});
+
+		rollupService.flush();
+
+		assertThat(pendingWhileSaving).containsExactly(2);
+		assertThat(pending(series, RollupTier.MINUTE)).isEmpty();
+		assertThat(rollupStore.peekSealed(10)).isEmpty();
+		assertThat(meters.counter("monitoring.rollup.rows", "outcome", "written").count()).isEqualTo(4);
+		verify(rollupRepository).saveAll(any());
+	}
+
+	@Test
+	void aBatchThatFailsToPersistIsDropped() {
+		int series = seriesRegistry.seriesId("orders", "CPU");
+		rollupStore.append(series, 0, 1);
+		rollupStore.sealAll();
+		when(rollupRepository.saveAll(any())).thenThrow(new IllegalStateException("database down"));
+
+		rollupService.flush();
+
+		assertThat(rollupStore.peekSealed(10)).isEmpty();
+		assertThat(meters.counter("monitoring.rollup.rows", "outcome", "failed").count()).isEqualTo(3);
+	}
+
+	private List<RollupBucket> pending(int seriesId, RollupTier tier) {
+		List<RollupBucket> pending = new ArrayList<>();
+		rollupStore.forEachPending(seriesId, tier, pending::add);
+		return pending;
+	}
+
+	private static MetricRollup row(long bucketStartMs, double min, double max, double sum, long count) {
+		MetricRollup row = new MetricRollup();
+		row.setServiceName("orders");
+		row.setMetricName("CPU");
+		row.setResolutionMs(HOUR);
+		row.setBucketStartMs(bucketStartMs);
+		row.setMinValue(min);
+		row.setMaxValue(max);
+		row.setSumValue(sum);
+		row.setSampleCount(count);
+		row.setLastValue(min);
+		row.setLastTimestampMs(bucketStartMs + count);
+		return row;
+	}
+}
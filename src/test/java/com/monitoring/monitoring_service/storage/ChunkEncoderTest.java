@@ -0,0 +1,61 @@
+package com.monitoring.monitoring_service.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChunkEncoderTest {
+
+	@Test
+	void roundTripsIrregularTimestampsAndValues() {
+		Random random = new Random(42);
+		long[] timestamps = new long[500];
+		double[] values = new double[500];
+		long ts = 1_700_000_000_000L;
+		for (int i = 0; i < timestamps.length; i++) {
+			ts += (i % 50 == 0) ? 3_600_000L : 5_000L + random.nextInt(40) - 20;
+			timestamps[i] = ts;
+			values[i] = (i % 7 == 0) ? values[Math.max(0, i - 1)] : random.nextGaussian() * 100;
+		}
+
+		ChunkEncoder encoder = new ChunkEncoder();
+		for (int i = 0; i < timestamps.length; i++) {
+			encoder.append(timestamps[i], values[i]);
+		}
+
+		SampleBuffer decoded = new SampleBuffer();
+		ChunkDecoder.decode(ByteBuffer.wrap(encoder.toByteArray()), 0, encoder.count(),
+				Long.MIN_VALUE, Long.MAX_VALUE, decoded);
+
+		assertThat(decoded.timestamps()).containsExactly(timestamps);
+		assertThat(decoded.values()).containsExactly(values);
+	}
+
+	@Test
+	void compressesRegularIntegerSamplesBelowTwoBytesEach() {
+		ChunkEncoder encoder = new ChunkEncoder();
+		long ts = 1_700_000_000_000L;
+		for (int i = 0; i < 120; i++) {
+			encoder.append(ts + i * 5_000L, 40 + (i % 3));
+		}
+
+		// A Metric row spends 16 bytes on timestamp and value alone
+		assertThat(encoder.sizeInBytes()).isLessThan(2 * 120);
+	}
+
+	@Test
+	void decodesOnlyTheRequestedRange() {
+		ChunkEncoder encoder = new ChunkEncoder();
+		for (int i = 0; i < 10; i++) {
+			encoder.append(1_000L * i, i);
+		}
+
+		SampleBuffer decoded = new SampleBuffer();
+		ChunkDecoder.decode(ByteBuffer.wrap(encoder.toByteArray()), 0, encoder.count(), 3_000L, 5_000L, decoded);
+
+		assertThat(decoded.values()).containsExactly(3, 4, 5);
+	}
+}
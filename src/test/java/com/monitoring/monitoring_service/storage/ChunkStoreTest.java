@@ -0,0 +1,95 @@
+package com.monitoring.monitoring_service.storage;
+
+import com.monitoring.monitoring_service.config.StorageConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChunkStoreTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void samplesBeforeTheLastSealedChunkAreRejectedAlsoAfterARestart() throws IOException {
+		SeriesRegistry registry = new SeriesRegistry();
+		int series = registry.seriesId("orders", "CPU");
+		SimpleMeterRegistry meters = new SimpleMeterRegistry();
+		ChunkStore store = open(registry, meters);
+
+		append(store, series, 10, 20, 30); // sealed
+		append(store, series, 5, 6, 30);   // older than, or equal to, the sealed chunk
+		append(store, series, 40, 50, 60); // sealed
+		assertThat(timestamps(store, series, 0, 100)).containsExactly(10L, 20L, 30L, 40L, 50L, 60L);
+		assertThat(meters.counter("monitoring.storage.samples.out_of_order").count()).isEqualTo(3);
+		store.close();
+
+		ChunkStore reopened = open(registry, new SimpleMeterRegistry());
+		append(reopened, series, 7, 55, 70, 80, 90);
+		assertThat(timestamps(reopened, series, 0, 100)).containsExactly(10L, 20L, 30L, 40L, 50L, 60L, 70L, 80L, 90L);
+		assertThat(timestamps(reopened, series, 0, 8)).isEmpty();
+		reopened.close();
+	}
+
+	@Test
+	void tornTailIsTruncatedAndNotCountedInStoredBytes() throws IOException {
+		SeriesRegistry registry = new SeriesRegistry();
+		int series = registry.seriesId("orders", "CPU");
+		ChunkStore store = open(registry, new SimpleMeterRegistry());
+		append(store, series, 10, 20, 30, 40, 50, 60);
+		store.close();
+
+		Path segment = onlySegment();
+		long intact = Files.size(segment);
+		Files.write(segment, new byte[]{0x43, 0x48, 0x4B, 0x31, 0, 7, 'o'}, StandardOpenOption.APPEND);
+
+		SimpleMeterRegistry meters = new SimpleMeterRegistry();
+		ChunkStore reopened = open(registry, meters);
+		assertThat(Files.size(segment)).isEqualTo(intact);
+		assertThat(meters.get("monitoring.storage.chunk.bytes").gauge().value()).isEqualTo(intact);
+		assertThat(timestamps(reopened, series, 0, 100)).containsExactly(10L, 20L, 30L, 40L, 50L, 60L);
+
+		assertThat(reopened.dropSegmentsBefore(Long.MAX_VALUE)).isEqualTo(1);
+		assertThat(meters.get("monitoring.storage.chunk.bytes").gauge().value()).isZero();
+		assertThat(meters.get("monitoring.storage.chunk.samples").gauge().value()).isZero();
+	}
+
+	private ChunkStore open(SeriesRegistry registry, SimpleMeterRegistry meters) throws IOException {
+		StorageConfig config = new StorageConfig();
+		config.setChunkDir(dir.toString());
+		config.setSamplesPerChunk(3);
+		ChunkStore store = new ChunkStore(registry, config, meters);
+		store.open();
+		return store;
+	}
+
+	private Path onlySegment() throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			List<Path> segments = files.toList();
+			assertThat(segments).hasSize(1);
+			return segments.get(0);
+		}
+	}
+
+	private static void append(ChunkStore store, int series, long... timestamps) {
+		for (long timestamp : timestamps) {
+			store.append(series, timestamp, timestamp / 10.0);
+		}
+	}
+
+	private static List<Long> timestamps(ChunkStore store, int series, long fromMs, long toMs) {
+		List<Long> result = new ArrayList<>();
+		store.forEach(series, fromMs, toMs, (timestampMs, value) -> result.add(timestampMs));
+		return result;
+	}
+}
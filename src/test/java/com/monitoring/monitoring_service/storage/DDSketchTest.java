@@ -0,0 +1,65 @@
+package com.monitoring.monitoring_service.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DDSketchTest {
+
+	@Test
+	void quantilesStayWithinRelativeAccuracy() {
+		Random random = new Random(11);
+		double[] values = new double[20_000];
+		DDSketch sketch = new DDSketch(0.01, 2048);
+		for (int i = 0; i < values.length; i++) {
+			values[i] = Math.exp(random.nextGaussian() * 2 + 4); // long-tailed, like latencies
+			sketch.add(values[i]);
+		}
+		Arrays.sort(values);
+
+		for (double q : new double[]{0.01, 0.25, 0.5, 0.9, 0.99, 0.999}) {
+			double exact = values[(int) Math.floor(q * (values.length - 1))];
+			assertThat(sketch.quantile(q)).isCloseTo(exact, within(exact * 0.01 + 1e-9));
+		}
+		assertThat(sketch.quantile(0)).isEqualTo(values[0]);
+		assertThat(sketch.quantile(1)).isEqualTo(values[values.length - 1]);
+		assertThat(sketch.getCount()).isEqualTo(values.length);
+	}
+
+	@Test
+	void mergedSketchEqualsSketchOfAllValues() {
+		Random random = new Random(3);
+		DDSketch all = new DDSketch(0.01, 2048);
+		DDSketch merged = new DDSketch(0.01, 2048);
+		for (int part = 0; part < 10; part++) {
+			DDSketch minute = new DDSketch(0.01, 2048);
+			for (int i = 0; i < 1_000; i++) {
+				double value = random.nextDouble() * 1_000 * (part + 1) - 50;
+				minute.add(value);
+				all.add(value);
+			}
+			merged.merge(DDSketch.fromBytes(minute.toBytes()));
+		}
+
+		for (double q : new double[]{0.01, 0.5, 0.95, 0.99}) {
+			assertThat(merged.quantile(q)).isEqualTo(all.quantile(q));
+		}
+		assertThat(merged.getMin()).isEqualTo(all.getMin());
+		assertThat(merged.getSum()).isCloseTo(all.getSum(), within(1e-6));
+	}
+
+	@Test
+	void collapsesLowestBinsBeyondMaxBins() {
+		DDSketch sketch = new DDSketch(0.01, 64);
+		for (int i = 0; i < 10_000; i++) {
+			sketch.add(1 + i);
+		}
+
+		assertThat(sketch.quantile(0.99)).isCloseTo(9_901, within(100.0));
+		assertThat(sketch.toBytes().length).isLessThan(64 * 3 + 64);
+	}
+}
@@ -0,0 +1,95 @@
+package com.monitoring.monitoring_service.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class RollupStoreTest {
+
+	private static final long MINUTE = RollupTier.MINUTE.getResolutionMs();
+	private static final long HOUR = RollupTier.HOUR.getResolutionMs();
+
+	private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+	private final RollupStore store = new RollupStore(meters);
+
+	@Test
+	void aSampleInTheNextBucketSealsTheOpenOneOfEachTierItCrosses() {
+		store.append(1, 0, 4);
+		store.append(1, 30_000, 8);
+		store.append(1, MINUTE - 1, 6);
+		assertThat(store.peekSealed(10)).isEmpty();
+
+		store.append(1, MINUTE, 1);
+		assertThat(store.peekSealed(10))
+				.extracting(RollupBucket::getTier, RollupBucket::getBucketStartMs, RollupBucket::getCount,
+						RollupBucket::getMin, RollupBucket::getMax, RollupBucket::getSum, RollupBucket::getLast)
+				.containsExactly(tuple(RollupTier.MINUTE, 0L, 3L, 4.0, 8.0, 18.0, 6.0));
+
+		store.append(1, HOUR, 2);
+		assertThat(store.peekSealed(10))
+				.extracting(RollupBucket::getTier, RollupBucket::getBucketStartMs, RollupBucket::getCount)
+				.containsExactly(
+						tuple(RollupTier.MINUTE, 0L, 3L),
+						tuple(RollupTier.MINUTE, MINUTE, 1L),
+						tuple(RollupTier.HOUR, 0L, 4L));
+		assertThat(store.openBucket(1, RollupTier.DAY).getCount()).isEqualTo(5);
+	}
+
+	@Test
+	void sealIdleSealsOnlyBucketsThatHaveEnded() {
+		store.append(1, MINUTE + 5_000, 1);
+
+		store.sealIdle(2 * MINUTE - 1);
+		assertThat(store.peekSealed(10)).isEmpty();
+
+		store.sealIdle(2 * MINUTE);
+		assertThat(store.peekSealed(10))
+				.extracting(RollupBucket::getTier, RollupBucket::getBucketStartMs)
+				.containsExactly(tuple(RollupTier.MINUTE, MINUTE));
+		assertThat(store.openBucket(1, RollupTier.MINUTE)).isNull();
+		assertThat(store.openBucket(1, RollupTier.HOUR).getCount()).isEqualTo(1);
+
+		// the next sample of the quiet series opens a new minute bucket
+		store.append(1, 3 * MINUTE, 2);
+		assertThat(store.openBucket(1, RollupTier.MINUTE).getBucketStartMs()).isEqualTo(3 * MINUTE);
+		assertThat(store.openBucket(1, RollupTier.HOUR).getCount()).isEqualTo(2);
+	}
+
+	@Test
+	void lateSamplesAreLeftOutOfTheTiersWhoseBucketMovedOn() {
+		store.append(1, MINUTE, 5);
+		store.append(1, 30_000, 7); // before the open minute, within the open hour and day
+
+		assertThat(meters.counter("monitoring.rollup.late.samples").count()).isEqualTo(1);
+		assertThat(store.openBucket(1, RollupTier.MINUTE).getCount()).isEqualTo(1);
+		assertThat(store.openBucket(1, RollupTier.HOUR).getCount()).isEqualTo(2);
+		assertThat(store.openBucket(1, RollupTier.HOUR).getLast()).isEqualTo(5);
+		assertThat(store.peekSealed(10)).isEmpty();
+	}
+
+	@Test
+	void sealedBucketsStayPendingUntilRemoved() {
+		store.append(1, 0, 1);
+		store.append(2, 0, 2);
+		store.sealAll();
+
+		List<RollupBucket> batch = store.peekSealed(2);
+		assertThat(batch).hasSize(2);
+		assertThat(pending(1, RollupTier.MINUTE)).hasSize(1);
+
+		store.removeSealed(batch);
+		assertThat(pending(1, RollupTier.MINUTE)).isEmpty();
+		assertThat(store.peekSealed(10)).hasSize(4);
+	}
+
+	private List<RollupBucket> pending(int seriesId, RollupTier tier) {
+		List<RollupBucket> pending = new ArrayList<>();
+		store.forEachPending(seriesId, tier, pending::add);
+		return pending;
+	}
+}